@@ -1,61 +1,155 @@
 package io.github.alien.roseau.cli;
 
-import com.google.common.io.MoreFiles;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
 import io.github.alien.roseau.RoseauException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
 import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.graph.Dependency;
 import org.eclipse.aether.repository.LocalRepository;
 import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.repository.RepositoryPolicy;
 import org.eclipse.aether.resolution.ArtifactRequest;
 import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.resolution.DependencyRequest;
+import org.eclipse.aether.resolution.DependencyResolutionException;
 import org.eclipse.aether.supplier.RepositorySystemSupplier;
+import org.eclipse.aether.util.artifact.JavaScopes;
+import org.eclipse.aether.util.filter.DependencyFilterUtils;
 
-import java.io.IOException;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.util.List;
 
-final class ArtifactDownloader {
-	private ArtifactDownloader() {}
+/**
+ * Resolves Maven artifacts and their dependency classpaths from a remote repository. Artifacts are stored in a
+ * persistent local repository, so that later runs do not download them again, and their checksums are verified: a
+ * mismatch fails the download. A single instance may resolve several artifacts concurrently.
+ */
+final class ArtifactDownloader implements AutoCloseable {
+	private final RepositorySystem system;
+	private final RepositorySystemSession session;
+	private final RemoteRepository remoteRepository;
 
-	static Path downloadArtifact(ArtifactCoordinates coordinates) {
-		RepositorySystem repoSystem = new RepositorySystemSupplier().get();
-		Path localRepoDir = null;
+	private static final Logger LOGGER = LogManager.getLogger(ArtifactDownloader.class);
+
+	static final URI CENTRAL = URI.create("https://repo.maven.apache.org/maven2/");
+
+	/**
+	 * Creates a downloader storing artifacts in the supplied local repository.
+	 *
+	 * @param localRepository  the local repository artifacts are stored in
+	 * @param remoteRepository the URL of the remote repository artifacts are downloaded from
+	 */
+	ArtifactDownloader(Path localRepository, URI remoteRepository) {
+		Preconditions.checkNotNull(localRepository);
+		Preconditions.checkNotNull(remoteRepository);
+		this.system = new RepositorySystemSupplier().get();
+		this.remoteRepository = new RemoteRepository.Builder(
+			CENTRAL.equals(remoteRepository) ? "central" : "remote", "default", remoteRepository.toString()).build();
+
+		DefaultRepositorySystemSession newSession = MavenRepositorySystemUtils.newSession();
+		newSession.setLocalRepositoryManager(system.newLocalRepositoryManager(newSession,
+			new LocalRepository(localRepository.toAbsolutePath())));
+		newSession.setChecksumPolicy(RepositoryPolicy.CHECKSUM_POLICY_FAIL);
+		newSession.setSystemProperties(System.getProperties());
+		newSession.setReadOnly();
+		this.session = newSession;
+	}
+
+	/**
+	 * The user's local Maven repository ({@code maven.repo.local}, or {@code ~/.m2/repository}) when it exists,
+	 * {@code ~/.roseau/repository} otherwise.
+	 *
+	 * @return the default local repository
+	 */
+	static Path defaultLocalRepository() {
+		String local = System.getProperty("maven.repo.local");
+		if (!Strings.isNullOrEmpty(local)) {
+			return Path.of(local);
+		}
+		Path m2 = Path.of(System.getProperty("user.home"), ".m2", "repository");
+		return Files.isDirectory(m2)
+			? m2
+			: Path.of(System.getProperty("user.home"), ".roseau", "repository");
+	}
+
+	/**
+	 * Resolves an artifact, downloading it only if it is not in the local repository yet.
+	 *
+	 * @param coordinates the artifact's coordinates
+	 * @return the artifact's path in the local repository
+	 * @throws RoseauException if the artifact cannot be resolved or its checksum does not match
+	 */
+	Path downloadArtifact(ArtifactCoordinates coordinates) {
+		Preconditions.checkNotNull(coordinates);
 		try {
-			localRepoDir = Files.createTempDirectory("roseau-m2-");
-			DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
-			session.setLocalRepositoryManager(
-				repoSystem.newLocalRepositoryManager(session, new LocalRepository(localRepoDir)));
-
-			RemoteRepository central = new RemoteRepository.Builder("central", "default",
-				"https://repo.maven.apache.org/maven2/").build();
-
-			ArtifactResult result = repoSystem.resolveArtifact(session,
-				new ArtifactRequest(
-					new DefaultArtifact(coordinates.groupId(), coordinates.artifactId(),
-						coordinates.classifier(), coordinates.extension(), coordinates.version()),
-					List.of(central), null));
-
-			Path tempJar = Files.createTempFile("roseau-artifact-", ".jar");
-			tempJar.toFile().deleteOnExit();
-			Files.copy(result.getArtifact().getPath(), tempJar, StandardCopyOption.REPLACE_EXISTING);
-			return tempJar;
+			ArtifactResult result = system.resolveArtifact(session,
+				new ArtifactRequest(toArtifact(coordinates), List.of(remoteRepository), null));
+			return result.getArtifact().getPath();
 		} catch (Exception e) {
-			throw new RoseauException(
-				"Failed to download %s:%s:%s".formatted(
-					coordinates.groupId(), coordinates.artifactId(), coordinates.version()), e);
-		} finally {
-			repoSystem.shutdown();
-			try {
-				if (localRepoDir != null) {
-					MoreFiles.deleteRecursively(localRepoDir);
-				}
-			} catch (IOException _) {
-				// shh
-			}
+			throw new RoseauException("Failed to download %s".formatted(format(coordinates)), e);
+		}
+	}
+
+	/**
+	 * Resolves the transitive compile-scope dependencies of an artifact, i.e., the classpath its API is resolved
+	 * against. The artifact itself is not part of the returned classpath. Dependencies that cannot be resolved (e.g.,
+	 * missing or relocated ones) are left out with a warning, so that the API is still resolved against the rest of
+	 * the classpath.
+	 *
+	 * @param coordinates the artifact's coordinates
+	 * @return the paths of the resolved dependencies in the local repository
+	 */
+	List<Path> resolveClasspath(ArtifactCoordinates coordinates) {
+		Preconditions.checkNotNull(coordinates);
+		Artifact artifact = toArtifact(coordinates);
+		CollectRequest collect = new CollectRequest(new Dependency(artifact, JavaScopes.COMPILE),
+			List.of(remoteRepository));
+		DependencyRequest request = new DependencyRequest(collect,
+			DependencyFilterUtils.classpathFilter(JavaScopes.COMPILE));
+
+		List<ArtifactResult> results;
+		try {
+			results = system.resolveDependencies(session, request).getArtifactResults();
+		} catch (DependencyResolutionException e) {
+			LOGGER.warn("Failed to resolve some dependencies of {}: {}", format(coordinates), e.getMessage());
+			results = e.getResult() != null ? e.getResult().getArtifactResults() : List.of();
 		}
+
+		return results.stream()
+			.filter(ArtifactResult::isResolved)
+			.map(ArtifactResult::getArtifact)
+			.filter(dependency -> !isSameArtifact(artifact, dependency))
+			.map(Artifact::getPath)
+			.filter(Files::isRegularFile)
+			.toList();
+	}
+
+	private static Artifact toArtifact(ArtifactCoordinates coordinates) {
+		return new DefaultArtifact(coordinates.groupId(), coordinates.artifactId(), coordinates.classifier(),
+			coordinates.extension(), coordinates.version());
+	}
+
+	private static boolean isSameArtifact(Artifact a, Artifact b) {
+		return a.getGroupId().equals(b.getGroupId()) && a.getArtifactId().equals(b.getArtifactId()) &&
+			a.getClassifier().equals(b.getClassifier()) && a.getExtension().equals(b.getExtension());
+	}
+
+	private static String format(ArtifactCoordinates coordinates) {
+		return "%s:%s:%s".formatted(coordinates.groupId(), coordinates.artifactId(), coordinates.version());
+	}
+
+	@Override
+	public void close() {
+		system.shutdown();
 	}
 }
@@ -0,0 +1,76 @@
+package io.github.alien.roseau.cli;
+
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.github.alien.roseau.RoseauException;
+import io.github.alien.roseau.options.RoseauOptions;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A YAML manifest listing the pairs of versions diffed by {@code --batch}.
+ *
+ * @param concurrency     the maximum number of pairs diffed at once, or null to default to {@code --jobs}
+ * @param maxHeapFraction the fraction of the maximum heap above which no new pair is admitted, or null to default to
+ *                        {@code --max-heap-fraction}
+ * @param pairs           the pairs to diff
+ */
+record BatchManifest(Integer concurrency, Double maxHeapFraction, List<Pair> pairs) {
+	/**
+	 * A pair of versions to diff. Versions accept the same values as {@code --v1} and {@code --v2}.
+	 *
+	 * @param name    the name identifying the pair in the output; defaults to {@code v1 → v2}
+	 * @param v1      the first version
+	 * @param v2      the second version
+	 * @param reports the reports to write for this pair
+	 */
+	record Pair(String name, String v1, String v2, List<RoseauOptions.Report> reports) {
+		String displayName() {
+			return name != null ? name : "%s → %s".formatted(v1, v2);
+		}
+	}
+
+	private static final ObjectMapper MAPPER = new ObjectMapper(new YAMLFactory()).findAndRegisterModules();
+
+	static {
+		MAPPER.configOverride(List.class).setSetterInfo(JsonSetter.Value.forValueNulls(Nulls.AS_EMPTY));
+	}
+
+	/**
+	 * Reads and validates a manifest.
+	 *
+	 * @param yaml the path to the YAML manifest
+	 * @return the manifest
+	 * @throws RoseauException if the manifest cannot be read or is invalid
+	 */
+	static BatchManifest load(Path yaml) {
+		BatchManifest manifest;
+		try {
+			manifest = MAPPER.readValue(yaml.toFile(), BatchManifest.class);
+		} catch (IOException e) {
+			throw new RoseauException("Couldn't read batch manifest %s".formatted(yaml), e);
+		}
+
+		if (manifest == null || manifest.pairs() == null || manifest.pairs().isEmpty()) {
+			throw new RoseauException("Batch manifest %s lists no pairs".formatted(yaml));
+		}
+		for (Pair pair : manifest.pairs()) {
+			if (pair.v1() == null || pair.v2() == null) {
+				throw new RoseauException("Pair %s of %s lacks v1 or v2".formatted(pair.displayName(), yaml));
+			}
+		}
+		if (manifest.concurrency() != null && manifest.concurrency() < 1) {
+			throw new RoseauException("Batch concurrency must be positive: %d".formatted(manifest.concurrency()));
+		}
+		if (manifest.maxHeapFraction() != null &&
+			(manifest.maxHeapFraction() <= 0 || manifest.maxHeapFraction() > 1)) {
+			throw new RoseauException("maxHeapFraction must be in ]0, 1]: %s".formatted(manifest.maxHeapFraction()));
+		}
+
+		return new BatchManifest(manifest.concurrency(), manifest.maxHeapFraction(), List.copyOf(manifest.pairs()));
+	}
+}
@@ -0,0 +1,213 @@
+package io.github.alien.roseau.cli;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import io.github.alien.roseau.ApiIndex;
+import io.github.alien.roseau.Library;
+import io.github.alien.roseau.Parallelism;
+import io.github.alien.roseau.Roseau;
+import io.github.alien.roseau.api.model.API;
+import io.github.alien.roseau.api.model.LibraryTypes;
+import io.github.alien.roseau.api.resolution.ClasspathTypeCache;
+import io.github.alien.roseau.diff.RoseauReport;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Diffs many pairs of libraries in one JVM. At most {@code concurrency} pairs are diffed at once, and no new pair is
+ * admitted while the used heap exceeds {@code maxHeapFraction} of the maximum heap, unless no other pair is running.
+ * <p>
+ * All pairs share a {@link ClasspathTypeCache}, so that JDK types and the types of classpath JARs are only read once.
+ * The API of a library that appears in several pairs (e.g., the second version of a pair being the first version of
+ * the next one) is only built once and kept until its last pair completes.
+ * <p>
+ * Pairs are admitted on dedicated threads, but diffed on the provided pool, so that the parallel work of extraction
+ * and diffing stays on that pool.
+ */
+final class BatchRunner {
+	private final int concurrency;
+	private final double maxHeapFraction;
+	private final ApiIndex index;
+	private final ForkJoinPool pool;
+	private final ClasspathTypeCache classpathTypes = new ClasspathTypeCache(CLASSPATH_CACHE_SIZE);
+	private final Map<Library, CompletableFuture<API>> apis = new ConcurrentHashMap<>();
+	private final Map<Library, Integer> remainingUses = new ConcurrentHashMap<>();
+	private final Object admission = new Object();
+	private int running;
+
+	private static final long CLASSPATH_CACHE_SIZE = 200_000L;
+	private static final long ADMISSION_POLL_MS = 100L;
+
+	/**
+	 * A named pair of libraries to diff.
+	 *
+	 * @param name the name identifying the pair
+	 * @param v1   the first version
+	 * @param v2   the second version
+	 */
+	record Pair(String name, Library v1, Library v2) {
+		Pair {
+			Preconditions.checkNotNull(name);
+			Preconditions.checkNotNull(v1);
+			Preconditions.checkNotNull(v2);
+		}
+	}
+
+	/**
+	 * The outcome of diffing a pair: either a report or the failure that prevented it.
+	 *
+	 * @param pair    the diffed pair
+	 * @param report  the report, or null if the diff failed
+	 * @param failure the failure, or null if the diff succeeded
+	 * @param elapsed the time spent diffing the pair
+	 */
+	record Result(Pair pair, RoseauReport report, RuntimeException failure, Duration elapsed) {
+		boolean isFailure() {
+			return failure != null;
+		}
+	}
+
+	/**
+	 * Creates a runner.
+	 *
+	 * @param concurrency     the maximum number of pairs diffed at once
+	 * @param maxHeapFraction the fraction of the maximum heap above which no new pair is admitted
+	 */
+	BatchRunner(int concurrency, double maxHeapFraction) {
+		this(concurrency, maxHeapFraction, null);
+	}
+
+	/**
+	 * Creates a runner that reuses the snapshots of indexed JAR files instead of extracting them.
+	 *
+	 * @param concurrency     the maximum number of pairs diffed at once
+	 * @param maxHeapFraction the fraction of the maximum heap above which no new pair is admitted
+	 * @param index           the index to look libraries up in, or null
+	 */
+	BatchRunner(int concurrency, double maxHeapFraction, ApiIndex index) {
+		this(concurrency, maxHeapFraction, index, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a runner that diffs pairs on the provided pool.
+	 *
+	 * @param concurrency     the maximum number of pairs diffed at once
+	 * @param maxHeapFraction the fraction of the maximum heap above which no new pair is admitted
+	 * @param index           the index to look libraries up in, or null
+	 * @param pool            the pool pairs are diffed on
+	 */
+	BatchRunner(int concurrency, double maxHeapFraction, ApiIndex index, ForkJoinPool pool) {
+		Preconditions.checkNotNull(pool);
+		Preconditions.checkArgument(concurrency > 0, "concurrency must be positive");
+		Preconditions.checkArgument(maxHeapFraction > 0 && maxHeapFraction <= 1, "maxHeapFraction must be in ]0, 1]");
+		this.concurrency = concurrency;
+		this.maxHeapFraction = maxHeapFraction;
+		this.index = index;
+		this.pool = pool;
+	}
+
+	/**
+	 * Diffs all pairs and blocks until they complete. The listener is notified with the result of each pair as soon
+	 * as it completes, one result at a time; a failing pair does not prevent the others from being diffed.
+	 *
+	 * @param pairs    the pairs to diff
+	 * @param listener the listener notified with each result
+	 * @throws InterruptedException if interrupted while waiting to admit a pair
+	 */
+	void run(List<Pair> pairs, Consumer<Result> listener) throws InterruptedException {
+		Preconditions.checkNotNull(pairs);
+		Preconditions.checkNotNull(listener);
+		pairs.forEach(pair -> {
+			remainingUses.merge(pair.v1(), 1, Integer::sum);
+			remainingUses.merge(pair.v2(), 1, Integer::sum);
+		});
+
+		try (ExecutorService executor = Executors.newFixedThreadPool(concurrency)) {
+			for (Pair pair : pairs) {
+				admit();
+				executor.execute(() -> {
+					try {
+						Result result = pool.submit(() -> diff(pair)).join();
+						synchronized (listener) {
+							listener.accept(result);
+						}
+					} finally {
+						release(pair);
+					}
+				});
+			}
+		}
+	}
+
+	private Result diff(Pair pair) {
+		Stopwatch sw = Stopwatch.createStarted();
+		try {
+			API v1 = api(pair.v1());
+			API v2 = api(pair.v2());
+			return new Result(pair, Roseau.diff(v1, v2), null, sw.elapsed());
+		} catch (RuntimeException e) {
+			return new Result(pair, null, e, sw.elapsed());
+		}
+	}
+
+	private API api(Library library) {
+		CompletableFuture<API> created = new CompletableFuture<>();
+		CompletableFuture<API> existing = apis.putIfAbsent(library, created);
+		if (existing != null) {
+			try {
+				return existing.join();
+			} catch (CompletionException e) {
+				throw e.getCause() instanceof RuntimeException cause ? cause : e;
+			}
+		}
+
+		try {
+			LibraryTypes types = Optional.ofNullable(index)
+				.flatMap(i -> i.find(library))
+				.orElseGet(() -> Roseau.buildLibraryTypes(library));
+			API api = Roseau.buildAPI(types, classpathTypes);
+			created.complete(api);
+			return api;
+		} catch (RuntimeException e) {
+			created.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	private void admit() throws InterruptedException {
+		synchronized (admission) {
+			// The heap may shrink after a collection without any pair completing, hence the polling
+			while (running >= concurrency || (running > 0 && isHeapExhausted())) {
+				admission.wait(ADMISSION_POLL_MS);
+			}
+			running++;
+		}
+	}
+
+	private void release(Pair pair) {
+		for (Library library : List.of(pair.v1(), pair.v2())) {
+			if (remainingUses.computeIfPresent(library, (_, uses) -> uses > 1 ? uses - 1 : null) == null) {
+				apis.remove(library);
+			}
+		}
+
+		synchronized (admission) {
+			running--;
+			admission.notifyAll();
+		}
+	}
+
+	private boolean isHeapExhausted() {
+		return Parallelism.isHeapExhausted(maxHeapFraction);
+	}
+}
@@ -0,0 +1,194 @@
+package io.github.alien.roseau.cli;
+
+import com.google.common.base.Preconditions;
+import io.github.alien.roseau.Library;
+import io.github.alien.roseau.Parallelism;
+import io.github.alien.roseau.Roseau;
+import io.github.alien.roseau.RoseauException;
+import io.github.alien.roseau.api.model.API;
+import io.github.alien.roseau.api.model.LibraryTypes;
+import io.github.alien.roseau.diff.RoseauReport;
+import io.github.alien.roseau.extractors.incremental.ChangedFiles;
+import io.github.alien.roseau.extractors.incremental.TimestampChangedFilesProvider;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+/**
+ * Continuously diffs a source directory against a baseline. The baseline {@link API} and the current
+ * {@link LibraryTypes} are kept in memory; once file system events on the source directory settle, the changed files
+ * are identified by a {@link TimestampChangedFilesProvider} and only those are parsed again through
+ * {@link Roseau#incrementalBuild(LibraryTypes, Library, ChangedFiles)}.
+ * <p>
+ * The watching thread only waits for file system events: building and diffing run on the compute pool of the
+ * provided {@link Parallelism}.
+ */
+final class DiffWatcher implements AutoCloseable {
+	private final Library current;
+	private final Duration debounce;
+	private final Parallelism parallelism;
+	private final WatchService watchService;
+	private final API baseline;
+	private LibraryTypes currentTypes;
+	private Set<Path> currentFiles;
+	private long lastBuild;
+
+	/**
+	 * File systems with coarse timestamps may record a modification made right after a build with an earlier time.
+	 */
+	private static final long TIMESTAMP_MARGIN_MS = 1_000L;
+
+	/**
+	 * Builds the baseline and current APIs and starts watching the current version's source directory.
+	 *
+	 * @param baseline    the baseline library
+	 * @param current     the watched source library
+	 * @param debounce    how long file system events must settle before the APIs are updated
+	 * @param parallelism the executors building and diffing run on
+	 * @throws RoseauException if the source directory cannot be watched
+	 */
+	DiffWatcher(Library baseline, Library current, Duration debounce, Parallelism parallelism) {
+		Preconditions.checkNotNull(baseline);
+		Preconditions.checkNotNull(current);
+		Preconditions.checkArgument(current.isSources(), "--watch requires a source directory: %s", current);
+		this.current = current;
+		this.debounce = Preconditions.checkNotNull(debounce);
+		this.parallelism = Preconditions.checkNotNull(parallelism);
+
+		// Changes made while building are caught up on the first update
+		this.lastBuild = Instant.now().toEpochMilli();
+		this.currentFiles = javaFiles(current.getLocation());
+		this.baseline = parallelism.run(() -> Roseau.buildAPI(baseline));
+		this.currentTypes = parallelism.run(() -> Roseau.buildLibraryTypes(current));
+
+		try {
+			this.watchService = current.getLocation().getFileSystem().newWatchService();
+			register(current.getLocation());
+		} catch (IOException e) {
+			throw new RoseauException("Failed to watch " + current.getLocation(), e);
+		}
+	}
+
+	/**
+	 * Diffs the baseline against the current state of the source directory.
+	 *
+	 * @return the report
+	 */
+	RoseauReport diff() {
+		return parallelism.run(() -> Roseau.diff(baseline, Roseau.buildAPI(currentTypes)));
+	}
+
+	/**
+	 * Blocks until interrupted, notifying the listener with the changed files and the updated report each time the
+	 * source directory changes. An update that fails is reported to the error handler and watching goes on: the
+	 * previous state is kept, and the files of the failed update are parsed again on the next change.
+	 *
+	 * @param listener the listener notified with the changed files and the updated report
+	 * @param onError  the handler notified when the source directory cannot be watched, built, or diffed
+	 * @throws InterruptedException if interrupted while waiting for changes
+	 */
+	void watch(BiConsumer<ChangedFiles, RoseauReport> listener, Consumer<RoseauException> onError)
+		throws InterruptedException {
+		while (true) {
+			WatchKey key = watchService.take();
+			try {
+				do {
+					handleEvents(key);
+					key = watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS);
+				} while (key != null);
+
+				ChangedFiles changes = update();
+				if (!changes.hasNoChanges()) {
+					listener.accept(changes, diff());
+				}
+			} catch (RoseauException e) {
+				onError.accept(e);
+			}
+		}
+	}
+
+	// Nothing is committed until the build succeeds, so that a failed update is retried on the next change
+	private ChangedFiles update() {
+		long start = Instant.now().toEpochMilli();
+		ChangedFiles changes = new TimestampChangedFilesProvider(current.getLocation(), currentFiles,
+			lastBuild - TIMESTAMP_MARGIN_MS).getChangedFiles();
+		if (!changes.hasNoChanges()) {
+			LibraryTypes previousTypes = currentTypes;
+			currentTypes = parallelism.run(() -> Roseau.incrementalBuild(previousTypes, current, changes));
+			currentFiles = Stream.concat(currentFiles.stream(), changes.createdFiles().stream())
+				.filter(file -> !changes.deletedFiles().contains(file))
+				.collect(Collectors.toUnmodifiableSet());
+		}
+		lastBuild = start;
+		return changes;
+	}
+
+	private void handleEvents(WatchKey key) {
+		Path directory = (Path) key.watchable();
+		try {
+			for (WatchEvent<?> event : key.pollEvents()) {
+				if (event.kind() == ENTRY_CREATE && event.context() instanceof Path name &&
+					Files.isDirectory(directory.resolve(name))) {
+					try {
+						register(directory.resolve(name));
+					} catch (IOException e) {
+						throw new RoseauException("Failed to watch " + directory.resolve(name), e);
+					}
+				}
+			}
+		} finally {
+			key.reset();
+		}
+	}
+
+	private void register(Path root) throws IOException {
+		Files.walkFileTree(root, new SimpleFileVisitor<>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private static Set<Path> javaFiles(Path root) {
+		try (Stream<Path> files = Files.walk(root)) {
+			return files
+				.filter(file -> Files.isRegularFile(file) && file.toString().endsWith(".java") &&
+					!file.endsWith("package-info.java"))
+				.map(root::relativize)
+				.collect(Collectors.toCollection(HashSet::new));
+		} catch (IOException e) {
+			throw new RoseauException("Failed to list files of " + root, e);
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			watchService.close();
+		} catch (IOException e) {
+			throw new RoseauException("Failed to close the watch service", e);
+		}
+	}
+}
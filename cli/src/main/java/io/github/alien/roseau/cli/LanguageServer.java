@@ -0,0 +1,477 @@
+package io.github.alien.roseau.cli;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import io.github.alien.roseau.Library;
+import io.github.alien.roseau.Parallelism;
+import io.github.alien.roseau.Roseau;
+import io.github.alien.roseau.api.model.API;
+import io.github.alien.roseau.api.model.ClassDecl;
+import io.github.alien.roseau.api.model.LibraryTypes;
+import io.github.alien.roseau.api.model.SourceLocation;
+import io.github.alien.roseau.api.model.Symbol;
+import io.github.alien.roseau.api.model.TypeDecl;
+import io.github.alien.roseau.api.resolution.ClasspathTypeCache;
+import io.github.alien.roseau.diff.changes.BreakingChange;
+import io.github.alien.roseau.extractors.incremental.ChangedFiles;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A minimal Language Server Protocol endpoint publishing the breaking changes of a source directory against a
+ * baseline as diagnostics. Messages are exchanged as JSON-RPC over the provided streams, typically stdin and stdout,
+ * and documents are synchronized in full.
+ * <p>
+ * The baseline {@link API} is built once and the current {@link LibraryTypes} are kept in memory. Each time a document
+ * is opened or changed, only its unsaved contents and the files that depend on it are parsed (see
+ * {@link Roseau#incrementalBuild(LibraryTypes, Map, Map)}), and only the types declared in these files are compared
+ * again (see {@link Roseau#diffTypes(API, API, Set)}). The types of the classpath are read once and shared by the
+ * successive APIs. Closing a document reverts it to its contents on disk. Messages are read and written on the calling
+ * thread, while building and diffing run on the compute pool of the provided {@link Parallelism}.
+ * <p>
+ * Binary-breaking changes are reported as errors, and source-only breaking changes as warnings.
+ */
+final class LanguageServer {
+	private final Library current;
+	private final Path sourceRoot;
+	private final Predicate<BreakingChange> reported;
+	private final Parallelism parallelism;
+	private final API baseline;
+	private final ObjectMapper mapper = new ObjectMapper();
+	/**
+	 * The reported breaking changes, by qualified name of the type they impact
+	 */
+	private final Map<String, List<BreakingChange>> breakingChanges = new HashMap<>();
+	/**
+	 * The URIs clients used to open documents, by file relative to the source root
+	 */
+	private final Map<Path, String> documentUris = new HashMap<>();
+	/**
+	 * The unsaved contents of the open documents, by file relative to the source root
+	 */
+	private final Map<Path, String> documents = new HashMap<>();
+	private final ClasspathTypeCache classpathTypes = new ClasspathTypeCache(CLASSPATH_CACHE_SIZE);
+	private Map<Path, ArrayNode> publishedDiagnostics = Map.of();
+	private LibraryTypes currentTypes;
+	private API currentApi;
+	private OutputStream out;
+	private boolean initialized;
+	private boolean shutdown;
+
+	private static final long CLASSPATH_CACHE_SIZE = 200_000L;
+	private static final String SOURCE = "roseau";
+	private static final int SEVERITY_ERROR = 1;
+	private static final int SEVERITY_WARNING = 2;
+	private static final int TEXT_DOCUMENT_SYNC_FULL = 1;
+	private static final String CONTENT_LENGTH = "Content-Length";
+	private static final int PARSE_ERROR = -32700;
+	private static final int INVALID_REQUEST = -32600;
+	private static final int METHOD_NOT_FOUND = -32601;
+	private static final int INTERNAL_ERROR = -32603;
+	private static final int SERVER_NOT_INITIALIZED = -32002;
+	private static final Logger LOGGER = LogManager.getLogger(LanguageServer.class);
+
+	/**
+	 * Builds the baseline and current APIs and computes their initial diff.
+	 *
+	 * @param baseline    the baseline library
+	 * @param current     the source library whose documents are edited
+	 * @param reported    the breaking changes to publish, e.g.,
+	 *                    {@link io.github.alien.roseau.diff.RoseauReport#reportedBy}
+	 * @param parallelism the executors building and diffing run on
+	 */
+	LanguageServer(Library baseline, Library current, Predicate<BreakingChange> reported, Parallelism parallelism) {
+		Preconditions.checkNotNull(baseline);
+		Preconditions.checkNotNull(current);
+		Preconditions.checkArgument(current.isSources(), "--lsp requires a source directory: %s", current);
+		this.current = current;
+		this.sourceRoot = current.getLocation().toAbsolutePath().normalize();
+		this.reported = Preconditions.checkNotNull(reported);
+		this.parallelism = Preconditions.checkNotNull(parallelism);
+
+		this.baseline = parallelism.run(() -> Roseau.buildAPI(Roseau.buildLibraryTypes(baseline), classpathTypes));
+		this.currentTypes = parallelism.run(() -> Roseau.buildLibraryTypes(current));
+		this.currentApi = parallelism.run(() -> Roseau.buildAPI(currentTypes, classpathTypes));
+		record(parallelism.run(() -> Roseau.diff(this.baseline, currentApi)).getBreakingChanges());
+	}
+
+	/**
+	 * Serves requests until the client sends an {@code exit} notification or closes the input stream.
+	 *
+	 * @param in  the stream client messages are read from
+	 * @param out the stream server messages are written to
+	 * @return the exit code: 0 if the client shut the server down before exiting, 1 otherwise
+	 * @throws IOException if the streams cannot be read or written
+	 */
+	int serve(InputStream in, OutputStream out) throws IOException {
+		this.out = out;
+		InputStream input = new BufferedInputStream(in);
+
+		while (true) {
+			JsonNode message;
+			try {
+				message = readMessage(input);
+			} catch (JsonProcessingException e) {
+				sendError(NullNode.getInstance(), PARSE_ERROR, e.getOriginalMessage());
+				continue;
+			} catch (InvalidHeaderException e) {
+				// The length of the body is unknown: skip it up to the header of the next message
+				sendError(NullNode.getInstance(), PARSE_ERROR, e.getMessage());
+				skipToNextMessage(input);
+				continue;
+			}
+
+			if (message == null || "exit".equals(message.path("method").asText())) {
+				return shutdown ? 0 : 1;
+			}
+
+			// Responses to server requests carry no method
+			if (message.hasNonNull("method")) {
+				handle(message.path("method").asText(), message.get("id"), message.path("params"));
+			}
+		}
+	}
+
+	private void handle(String method, JsonNode id, JsonNode params) throws IOException {
+		if (!initialized && !"initialize".equals(method)) {
+			if (id != null) {
+				sendError(id, SERVER_NOT_INITIALIZED, "The server is not initialized");
+			}
+			return;
+		}
+		if (shutdown) {
+			if (id != null) {
+				sendError(id, INVALID_REQUEST, "The server is shut down");
+			}
+			return;
+		}
+
+		try {
+			switch (method) {
+				case "initialize" -> {
+					initialized = true;
+					sendResult(id, capabilities());
+				}
+				case "initialized" -> publish();
+				case "shutdown" -> {
+					shutdown = true;
+					sendResult(id, NullNode.getInstance());
+				}
+				case "textDocument/didOpen" -> {
+					JsonNode document = params.path("textDocument");
+					update(document.path("uri").asText(), document.path("text").asText());
+				}
+				case "textDocument/didChange" -> {
+					JsonNode changes = params.path("contentChanges");
+					if (!changes.isEmpty()) {
+						// With full synchronization, the last change holds the whole document
+						update(params.path("textDocument").path("uri").asText(),
+							changes.get(changes.size() - 1).path("text").asText());
+					}
+				}
+				case "textDocument/didClose" -> revert(params.path("textDocument").path("uri").asText());
+				default -> {
+					if (id != null) {
+						sendError(id, METHOD_NOT_FOUND, "Unsupported method: " + method);
+					}
+				}
+			}
+		} catch (RuntimeException e) {
+			// Keep serving: the document may be fixed by the next change
+			LOGGER.warn("Failed to handle {}: {}", method, e.getMessage());
+			if (id != null) {
+				sendError(id, INTERNAL_ERROR, String.valueOf(e.getMessage()));
+			}
+		}
+	}
+
+	private ObjectNode capabilities() {
+		ObjectNode result = mapper.createObjectNode();
+		ObjectNode sync = result.putObject("capabilities").putObject("textDocumentSync");
+		sync.put("openClose", true);
+		sync.put("change", TEXT_DOCUMENT_SYNC_FULL);
+		ObjectNode serverInfo = result.putObject("serverInfo");
+		serverInfo.put("name", SOURCE);
+		serverInfo.put("version", RoseauCLI.VersionProvider.resolveVersion());
+		return result;
+	}
+
+	private void update(String uri, String text) throws IOException {
+		Optional<Path> file = sourceFile(uri);
+		if (file.isEmpty()) {
+			return;
+		}
+
+		documentUris.put(file.get(), uri);
+		documents.put(file.get(), text);
+		update(file.get(), parallelism.run(() ->
+			Roseau.incrementalBuild(currentTypes, Map.of(file.get(), text), documents)));
+	}
+
+	private void revert(String uri) throws IOException {
+		Optional<Path> file = sourceFile(uri);
+		if (file.isEmpty()) {
+			return;
+		}
+
+		documents.remove(file.get());
+		Path path = sourceRoot.resolve(file.get());
+		LibraryTypes types;
+		if (Files.isRegularFile(path)) {
+			String text = Files.readString(path);
+			types = parallelism.run(() -> Roseau.incrementalBuild(currentTypes, Map.of(file.get(), text), documents));
+		} else {
+			// A new document closed without being saved
+			types = parallelism.run(() -> Roseau.incrementalBuild(currentTypes, current,
+				new ChangedFiles(Set.of(), Set.of(file.get()), Set.of())));
+		}
+		update(file.get(), types);
+	}
+
+	private void update(Path file, LibraryTypes newTypes) throws IOException {
+		if (newTypes == currentTypes) {
+			return;
+		}
+
+		Stopwatch sw = Stopwatch.createStarted();
+		LibraryTypes previousTypes = currentTypes;
+		currentTypes = newTypes;
+		Set<String> affected = parallelism.run(() -> {
+			currentApi = Roseau.buildAPI(currentTypes, classpathTypes);
+			Set<String> types = affectedTypes(previousTypes, file);
+			types.forEach(breakingChanges::remove);
+			record(Roseau.diffTypes(baseline, currentApi, types).getBreakingChanges());
+			return types;
+		});
+		publish();
+		LOGGER.debug("Updating {} took {}ms ({} types compared)", file, sw.elapsed().toMillis(), affected.size());
+	}
+
+	/**
+	 * The types declared, in any version, in the updated file and in the files that depend on it: their exported
+	 * members may be inherited from the updated types. Types are looked up in the index of each version's files.
+	 */
+	private Set<String> affectedTypes(LibraryTypes previousTypes, Path file) {
+		Set<String> declared = Stream.of(previousTypes, currentTypes)
+			.flatMap(types -> types.getFileTypes(file).stream())
+			.map(LibraryTypes::topLevelName)
+			.collect(Collectors.toSet());
+
+		Set<Path> files = new HashSet<>(currentTypes.getDependentFiles(declared));
+		files.add(file);
+		return Stream.of(baseline.getLibraryTypes(), previousTypes, currentTypes)
+			.flatMap(types -> files.stream().flatMap(f -> types.getFileTypes(f).stream()))
+			.collect(Collectors.toSet());
+	}
+
+	private void record(List<BreakingChange> bcs) {
+		bcs.stream()
+			.filter(reported)
+			.forEach(bc -> breakingChanges
+				.computeIfAbsent(bc.impactedType().getQualifiedName(), _ -> new ArrayList<>())
+				.add(bc));
+	}
+
+	private void publish() throws IOException {
+		Map<Path, ArrayNode> diagnostics = new HashMap<>();
+		breakingChanges.values().stream()
+			.flatMap(List::stream)
+			.forEach(bc -> locate(bc).ifPresent(location -> diagnostics
+				.computeIfAbsent(location.file(), _ -> mapper.createArrayNode())
+				.add(diagnostic(bc, location))));
+
+		// Files whose diagnostics all vanished must be cleared explicitly
+		Set<Path> files = new HashSet<>(publishedDiagnostics.keySet());
+		files.addAll(diagnostics.keySet());
+		for (Path file : files) {
+			ArrayNode fileDiagnostics = diagnostics.getOrDefault(file, mapper.createArrayNode());
+			if (!fileDiagnostics.equals(publishedDiagnostics.get(file))) {
+				ObjectNode params = mapper.createObjectNode();
+				params.put("uri", documentUris.getOrDefault(file, sourceRoot.resolve(file).toUri().toString()));
+				params.set("diagnostics", fileDiagnostics);
+				sendNotification("textDocument/publishDiagnostics", params);
+			}
+		}
+		publishedDiagnostics = diagnostics;
+	}
+
+	/**
+	 * Locates a breaking change in the current sources: at the current declaration of the impacted symbol if it still
+	 * exists, at the current declaration of the impacted type otherwise, and at {@link BreakingChange#getLocation()} if
+	 * the type is gone and the baseline shares the layout of the current sources.
+	 */
+	private Optional<SourceLocation> locate(BreakingChange bc) {
+		Optional<TypeDecl> currentType = currentTypes.findType(bc.impactedType().getQualifiedName());
+		return Optional.ofNullable(bc.newSymbol())
+			.or(() -> currentType.flatMap(type -> currentSymbol(type, bc.impactedSymbol())))
+			.or(() -> currentType)
+			.map(Symbol::getLocation)
+			.filter(location -> location.file() != null)
+			.or(() -> Optional.of(bc.getLocation())
+				.filter(location -> location.file() != null)
+				.filter(location -> currentTypes.getFileReferences().containsKey(location.file())));
+	}
+
+	private static Optional<Symbol> currentSymbol(TypeDecl type, Symbol symbol) {
+		if (symbol instanceof TypeDecl) {
+			return Optional.of(type);
+		}
+
+		Stream<Symbol> members = Stream.concat(type.getDeclaredFields().stream(), type.getDeclaredMethods().stream());
+		if (type instanceof ClassDecl cls) {
+			members = Stream.concat(members, cls.getDeclaredConstructors().stream());
+		}
+		return members
+			.filter(member -> member.getQualifiedName().equals(symbol.getQualifiedName()))
+			.findFirst();
+	}
+
+	private ObjectNode diagnostic(BreakingChange bc, SourceLocation location) {
+		ObjectNode diagnostic = mapper.createObjectNode();
+		// Lines are 0-based; characters past the end of a line default back to its length
+		int line = Math.max(0, location.line() - 1);
+		ObjectNode range = diagnostic.putObject("range");
+		range.putObject("start").put("line", line).put("character", 0);
+		range.putObject("end").put("line", line).put("character", Integer.MAX_VALUE);
+		diagnostic.put("severity", bc.kind().isBinaryBreaking() ? SEVERITY_ERROR : SEVERITY_WARNING);
+		diagnostic.put("source", SOURCE);
+		diagnostic.put("code", bc.kind().name());
+		diagnostic.put("message", "%s: %s (%s)".formatted(bc.kind(), BreakingChange.printSymbol(bc.impactedSymbol()),
+			bc.kind().isBinaryBreaking() && bc.kind().isSourceBreaking() ? "binary- and source-breaking"
+				: bc.kind().isBinaryBreaking() ? "binary-breaking" : "source-breaking"));
+		return diagnostic;
+	}
+
+	private Optional<Path> sourceFile(String uri) {
+		try {
+			Path path = Path.of(URI.create(uri)).toAbsolutePath().normalize();
+			return path.startsWith(sourceRoot) && path.toString().endsWith(".java")
+				? Optional.of(sourceRoot.relativize(path))
+				: Optional.empty();
+		} catch (IllegalArgumentException | FileSystemNotFoundException e) {
+			LOGGER.warn("Ignoring document {}: {}", uri, e.getMessage());
+			return Optional.empty();
+		}
+	}
+
+	private JsonNode readMessage(InputStream in) throws IOException {
+		int length = -1;
+		String invalidHeader = null;
+		String header;
+		while (!(header = readLine(in)).isEmpty()) {
+			int colon = header.indexOf(':');
+			if (colon > 0 && header.substring(0, colon).trim().equalsIgnoreCase(CONTENT_LENGTH)) {
+				try {
+					length = Integer.parseInt(header.substring(colon + 1).trim());
+				} catch (NumberFormatException _) {
+					length = -1;
+				}
+				invalidHeader = length < 0 ? header : null;
+			}
+		}
+		// The whole header section is consumed first, so that skipping resumes after the invalid header
+		if (invalidHeader != null) {
+			throw new InvalidHeaderException("Invalid message header: " + invalidHeader);
+		}
+		if (length < 0) {
+			return null;
+		}
+
+		byte[] body = in.readNBytes(length);
+		return body.length < length ? null : mapper.readTree(body);
+	}
+
+	private static void skipToNextMessage(InputStream in) throws IOException {
+		byte[] marker = CONTENT_LENGTH.getBytes(StandardCharsets.US_ASCII);
+		while (true) {
+			in.mark(marker.length);
+			byte[] next = in.readNBytes(marker.length);
+			if (next.length < marker.length || Arrays.equals(next, marker)) {
+				in.reset();
+				return;
+			}
+			in.reset();
+			in.skipNBytes(1L);
+		}
+	}
+
+	private static String readLine(InputStream in) throws IOException {
+		StringBuilder line = new StringBuilder();
+		int c;
+		while ((c = in.read()) != -1 && c != '\n') {
+			if (c != '\r') {
+				line.append((char) c);
+			}
+		}
+		// At the end of the stream, an empty header section ends the message loop
+		return line.toString();
+	}
+
+	private void sendResult(JsonNode id, JsonNode result) throws IOException {
+		ObjectNode message = mapper.createObjectNode();
+		message.set("id", id);
+		message.set("result", result);
+		send(message);
+	}
+
+	private void sendError(JsonNode id, int code, String errorMessage) throws IOException {
+		ObjectNode message = mapper.createObjectNode();
+		message.set("id", id);
+		ObjectNode error = message.putObject("error");
+		error.put("code", code);
+		error.put("message", errorMessage);
+		send(message);
+	}
+
+	private void sendNotification(String method, JsonNode params) throws IOException {
+		ObjectNode message = mapper.createObjectNode();
+		message.put("method", method);
+		message.set("params", params);
+		send(message);
+	}
+
+	private void send(ObjectNode message) throws IOException {
+		ObjectNode envelope = mapper.createObjectNode().put("jsonrpc", "2.0");
+		envelope.setAll(message);
+		byte[] body = mapper.writeValueAsBytes(envelope);
+		out.write((CONTENT_LENGTH + ": " + body.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+		out.write(body);
+		out.flush();
+	}
+
+	/**
+	 * A message header that cannot be parsed, so that the length of the message body is unknown.
+	 */
+	private static final class InvalidHeaderException extends IOException {
+		InvalidHeaderException(String message) {
+			super(message);
+		}
+	}
+}
@@ -5,4 +5,5 @@ import java.nio.file.Path;
 sealed interface LibraryVersion {
 	record LocalPath(Path path) implements LibraryVersion {}
 	record MavenCoordinates(ArtifactCoordinates coordinates) implements LibraryVersion {}
+	record GitRevision(String revision) implements LibraryVersion {}
 }
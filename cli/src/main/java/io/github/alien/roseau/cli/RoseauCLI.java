@@ -1,14 +1,22 @@
 package io.github.alien.roseau.cli;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import io.github.alien.roseau.ApiIndex;
 import io.github.alien.roseau.Library;
+import io.github.alien.roseau.Parallelism;
+import io.github.alien.roseau.ReportCache;
 import io.github.alien.roseau.Roseau;
 import io.github.alien.roseau.RoseauException;
 import io.github.alien.roseau.api.model.API;
 import io.github.alien.roseau.api.model.LibraryTypes;
 import io.github.alien.roseau.diff.RoseauReport;
+import io.github.alien.roseau.diff.changes.BreakingChange;
 import io.github.alien.roseau.diff.formatter.BreakingChangesFormatterFactory;
 import io.github.alien.roseau.diff.formatter.CliFormatter;
+import io.github.alien.roseau.extractors.incremental.FingerprintIndex;
+import io.github.alien.roseau.git.GitRevisions;
 import io.github.alien.roseau.options.RoseauOptions;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.config.Configurator;
@@ -18,16 +26,29 @@ import picocli.CommandLine.Model.CommandSpec;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import static picocli.CommandLine.ArgGroup;
 import static picocli.CommandLine.Command;
@@ -40,13 +61,15 @@ import static picocli.CommandLine.Spec;
 @Command(name = "roseau", sortOptions = false, mixinStandardHelpOptions = true,
 	versionProvider = RoseauCLI.VersionProvider.class,
 	description = "Roseau detects breaking changes between two versions (--v1/--v2) of a Java module or library. " +
-		"--v1 and --v2 accept JAR files, source code directories, or Maven coordinates (groupId:artifactId:version). " +
+		"--v1 and --v2 accept JAR files, source code directories, class directories, Maven coordinates " +
+		"(groupId:artifactId:version), or git revisions (git:<revision>). " +
 		"Example: roseau --diff --v1 /path/to/library-1.0.0.jar --v2 com.example:library:2.0.0",
 	footer = {
 		"",
 		"Output symbols: ✗ removal  ⚠ modification  ★ addition"
 	})
 public final class RoseauCLI implements Callable<Integer> {
+	private static final Duration WATCH_DEBOUNCE = Duration.ofMillis(200);
 	private static final List<String> VERBOSE_LOGGERS = List.of("io.github.alien.roseau", "org.objectweb.asm", "spoon");
 
 	private Console console;
@@ -62,18 +85,42 @@ public final class RoseauCLI implements Callable<Integer> {
 		@Option(names = "--diff",
 			description = "Compute breaking changes between versions --v1 and --v2")
 		boolean diff;
+		@Option(names = "--batch", paramLabel = "<manifest>",
+			description = "Compute breaking changes between all the pairs of versions listed in a YAML manifest, " +
+				"in one JVM")
+		Path batch;
+		@Option(names = "--index", paramLabel = "<repository>",
+			description = "Extract and store the API of every JAR of a local Maven repository (e.g., ~/.m2/repository) " +
+				"in --index-store")
+		Path index;
 	}
 
 	@Option(names = "--v1", paramLabel = "<path|coordinates>",
 		converter = LibraryVersionConverter.class,
 		description = "First version of the library: a JAR file, source directory (e.g., src/main/java), " +
-			"or Maven coordinates (e.g., com.example:lib:1.0.0)")
+			"class directory (e.g., target/classes), Maven coordinates (e.g., com.example:lib:1.0.0), " +
+			"or git revision (e.g., git:main)")
 	private LibraryVersion v1;
 	@Option(names = "--v2", paramLabel = "<path|coordinates>",
 		converter = LibraryVersionConverter.class,
 		description = "Second version of the library: a JAR file, source directory (e.g., src/main/java), " +
-			"or Maven coordinates (e.g., com.example:lib:2.0.0)")
+			"class directory (e.g., target/classes), Maven coordinates (e.g., com.example:lib:2.0.0), " +
+			"or git revision (e.g., git:HEAD)")
 	private LibraryVersion v2;
+	@Option(names = "--git-repository", paramLabel = "<path>", defaultValue = ".",
+		description = "The git repository git:<revision> versions are read from (default: ${DEFAULT-VALUE})")
+	private Path gitRepository;
+	@Option(names = "--git-source-root", paramLabel = "<path>", defaultValue = "src/main/java",
+		description = "The source root of git:<revision> versions, relative to the repository (default: ${DEFAULT-VALUE})")
+	private String gitSourceRoot;
+	@Option(names = "--repository", paramLabel = "<url>", defaultValue = "https://repo.maven.apache.org/maven2/",
+		description = "The remote Maven repository coordinates and their dependencies are downloaded from " +
+			"(default: ${DEFAULT-VALUE})")
+	private URI repository;
+	@Option(names = "--local-repository", paramLabel = "<path>",
+		description = "The local Maven repository downloaded artifacts are cached in " +
+			"(default: ~/.m2/repository if it exists, ~/.roseau/repository otherwise)")
+	private Path localRepository;
 	@Option(names = "--api-json", paramLabel = "<path>",
 		description = "Where to serialize the Json API model of --v1 in --api mode")
 	private Path apiJson;
@@ -101,6 +148,22 @@ public final class RoseauCLI implements Callable<Integer> {
 	@Option(names = "--v2-pom", paramLabel = "<path>",
 		description = "A --pom for --v2")
 	private Path v2Pom;
+	@Option(names = "--index-store", paramLabel = "<path>",
+		description = "The store of API snapshots written by --index (default: ~/.roseau/index); with --diff or " +
+			"--batch, JAR versions found in the store are not extracted again")
+	private Path indexStore;
+	@Option(names = "--report-cache", paramLabel = "<path>",
+		description = "With --diff, store breaking changes in this directory (e.g., ~/.roseau/reports) and reuse them " +
+			"when the same libraries, classpath, and options are diffed again")
+	private Path reportCache;
+	@Option(names = "--fingerprint-index", paramLabel = "<path>",
+		description = "With --diff of two source directories, record the hashes of source files in this file " +
+			"(e.g., ~/.roseau/fingerprints.idx) and only parse the files of --v2 that changed since --v1")
+	private Path fingerprintIndex;
+	@Option(names = "--packages", paramLabel = "<package>[,<package>...]", split = ",",
+		description = "Only analyze the types of the given packages and their sub-packages, shared by --v1 and --v2; " +
+			"other types are only parsed when needed for type resolution")
+	private List<String> packages;
 	@Option(names = "--binary-only",
 		description = "Only report binary-breaking changes")
 	private Boolean binaryOnly;
@@ -117,6 +180,32 @@ public final class RoseauCLI implements Callable<Integer> {
 	@Option(names = "--fail-on-bc",
 		description = "Return with exit code 1 if breaking changes are detected")
 	private boolean failMode;
+	@Option(names = "--fail-fast",
+		description = "With --fail-on-bc, stop the analysis at the first reported breaking change; " +
+			"the full analysis only runs when reports are requested")
+	private boolean failFast;
+	@Option(names = "--watch",
+		description = "With --diff, keep watching the --v2 source directory and report breaking changes again " +
+			"each time its files change, until interrupted; reports are rewritten in place")
+	private boolean watch;
+	@Option(names = "--lsp",
+		description = "With --diff, serve the breaking changes of the --v2 source directory as diagnostics over the " +
+			"Language Server Protocol on stdin/stdout, updated as documents are edited")
+	private boolean lsp;
+	@Option(names = "--prescreen",
+		description = "Skip the analysis of two JARs whose type descriptors are unchanged; " +
+			"ignored when reports are requested")
+	private boolean prescreen;
+	@Option(names = "--jobs", paramLabel = "<n>",
+		description = "The number of threads extracting, resolving, and diffing APIs (default: the number of processors)")
+	private Integer jobs;
+	@Option(names = "--io-threads", paramLabel = "<n>",
+		description = "The number of threads downloading artifacts (default: twice --jobs)")
+	private Integer ioThreads;
+	@Option(names = "--max-heap-fraction", paramLabel = "<fraction>",
+		description = "With --batch, do not start new pairs while the used heap exceeds this fraction of the maximum " +
+			"heap (default: 0.8)")
+	private Double maxHeapFraction;
 	@Option(names = "--plain",
 		description = "Disable ANSI colors, output plain text")
 	private boolean plain;
@@ -124,22 +213,116 @@ public final class RoseauCLI implements Callable<Integer> {
 		description = "Increase verbosity (-v, -vv).")
 	private boolean[] verbosityLevel;
 
-	private RoseauReport diff(Library libraryV1, Library libraryV2) {
+	private Parallelism parallelism;
+	// The types of downloaded JARs, extracted as soon as each JAR lands, while its dependencies are still resolved
+	private final Map<Path, CompletableFuture<LibraryTypes>> extractions = new ConcurrentHashMap<>();
+	private GitRevisions gitRevisions;
+	private Path gitWorkDirectory;
+
+	private RoseauReport diff(Library libraryV1, Library libraryV2, Predicate<BreakingChange> stopCondition,
+	                          RoseauOptions.Diff diffOptions) {
 		Stopwatch sw = Stopwatch.createStarted();
+		// The key only depends on the libraries, so it is computed before their APIs are built
+		ReportCache cache = reportCache();
+		String key = cache != null ? cache.key(libraryV1, libraryV2, diffOptions) : null;
+
+		if (v1 instanceof LibraryVersion.GitRevision(var revision1) &&
+			v2 instanceof LibraryVersion.GitRevision(var revision2)) {
+			// Only the files changed between the two revisions are parsed for v2
+			console.printVerbose("Building APIs incrementally...  ");
+			LibraryTypes typesV1 = Roseau.buildLibraryTypes(libraryV1);
+			LibraryTypes typesV2 = Roseau.incrementalBuild(typesV1, libraryV2,
+				gitRevisions.changedFiles(revision1, revision2));
+			API apiV1 = Roseau.buildAPI(typesV1);
+			API apiV2 = Roseau.buildAPI(typesV2);
+			console.printlnVerbose("%d types → %d types (%d ms)".formatted(typesV1.getAllTypes().size(),
+				typesV2.getAllTypes().size(), sw.elapsed().toMillis()));
+
+			return diff(apiV1, apiV2, stopCondition, diffOptions, cache, key);
+		}
+
+		if (fingerprintIndex != null && libraryV1.isSources() && libraryV2.isSources()) {
+			// Unchanged files are recognized from the persisted hashes and not parsed again for v2. The diff is always
+			// complete: the stop condition only saves time once both APIs are built
+			console.printVerbose("Building APIs incrementally...  ");
+			RoseauReport report = Roseau.incrementalDiff(libraryV1, libraryV2, FingerprintIndex.load(fingerprintIndex))
+				.filterReport(diffOptions);
+			console.printlnVerbose("%d types → %d types, %d breaking changes (%d ms)".formatted(
+				report.v1().getLibraryTypes().getAllTypes().size(), report.v2().getLibraryTypes().getAllTypes().size(),
+				report.getBreakingChanges().size(), sw.elapsed().toMillis()));
+			if (cache != null && cache.store(key, report)) {
+				console.printlnDebug("Cached report %s".formatted(key));
+			}
+
+			return report;
+		}
 
 		console.printVerbose("Building APIs...  ");
-		CompletableFuture<API> futureV1 = CompletableFuture.supplyAsync(() -> Roseau.buildAPI(libraryV1));
-		CompletableFuture<API> futureV2 = CompletableFuture.supplyAsync(() -> Roseau.buildAPI(libraryV2));
-		API apiV1 = futureV1.join();
-		API apiV2 = futureV2.join();
+		// A failure on one side cancels the other rather than waiting for it
+		List<API> apis = Parallelism.both(() -> buildAPI(libraryV1), () -> buildAPI(libraryV2), List::of,
+			parallelism.compute());
+		API apiV1 = apis.getFirst();
+		API apiV2 = apis.getLast();
 		console.printlnVerbose("%d types → %d types (%d ms)".formatted(apiV1.getLibraryTypes().getAllTypes().size(),
 			apiV2.getLibraryTypes().getAllTypes().size(), sw.elapsed().toMillis()));
 
-		sw.reset().start();
+		return diff(apiV1, apiV2, stopCondition, diffOptions, cache, key);
+	}
+
+	private API buildAPI(Library library) {
+		return extracted(library)
+			.or(() -> indexed(library))
+			.map(Roseau::buildAPI)
+			.orElseGet(() -> Roseau.buildAPI(library));
+	}
+
+	private Optional<LibraryTypes> indexed(Library library) {
+		return Optional.ofNullable(indexStore)
+			.flatMap(store -> new ApiIndex(store, VersionProvider.resolveVersion()).find(library));
+	}
+
+	/**
+	 * Returns the types of a downloaded JAR extracted while its dependencies were resolved, bound to the library so that
+	 * its classpath applies. Extraction covers every package of the JAR, so scoped libraries are never looked up.
+	 */
+	private Optional<LibraryTypes> extracted(Library library) {
+		CompletableFuture<LibraryTypes> extraction = extractions.get(library.getLocation());
+		if (extraction == null || library.isScoped()) {
+			return Optional.empty();
+		}
+		return Optional.of(join(extraction).withLibrary(library));
+	}
+
+	private ReportCache reportCache() {
+		return reportCache != null ? new ReportCache(reportCache, VersionProvider.resolveVersion()) : null;
+	}
+
+	private RoseauReport diff(API apiV1, API apiV2, Predicate<BreakingChange> stopCondition,
+	                          RoseauOptions.Diff diffOptions) {
+		ReportCache cache = reportCache();
+		String key = cache != null ? cache.key(apiV1, apiV2, diffOptions) : null;
+		return diff(apiV1, apiV2, stopCondition, diffOptions, cache, key);
+	}
+
+	private RoseauReport diff(API apiV1, API apiV2, Predicate<BreakingChange> stopCondition,
+	                          RoseauOptions.Diff diffOptions, ReportCache cache, String key) {
+		Stopwatch sw = Stopwatch.createStarted();
 		console.printVerbose("Comparing APIs... ");
-		RoseauReport report = Roseau.diff(apiV1, apiV2);
-		console.printlnVerbose("%d breaking changes (%d ms)".formatted(report.getBreakingChanges().size(),
-			sw.elapsed().toMillis()));
+		Optional<RoseauReport> cached = cache != null ? cache.find(key, apiV1, apiV2) : Optional.empty();
+		if (cached.isPresent()) {
+			console.printlnVerbose("%d breaking changes, reused from cache %s (%d ms)".formatted(
+				cached.get().getBreakingChanges().size(), key, sw.elapsed().toMillis()));
+			return cached.get();
+		}
+
+		RoseauReport report = (stopCondition != null
+			? Roseau.diff(apiV1, apiV2, stopCondition)
+			: Roseau.diff(apiV1, apiV2)).filterReport(diffOptions);
+		console.printlnVerbose("%d breaking changes%s (%d ms)".formatted(report.getBreakingChanges().size(),
+			report.isComplete() ? "" : " before stopping", sw.elapsed().toMillis()));
+		if (cache != null && cache.store(key, report)) {
+			console.printlnDebug("Cached report %s".formatted(key));
+		}
 
 		return report;
 	}
@@ -158,9 +341,17 @@ public final class RoseauCLI implements Callable<Integer> {
 	private static final class LibraryVersionConverter implements CommandLine.ITypeConverter<LibraryVersion> {
 		private static final Pattern MAVEN_COORDINATES =
 			Pattern.compile("[A-Za-z0-9._-]+:[A-Za-z0-9._-]+(:[A-Za-z0-9._-]+)+");
+		private static final String GIT_PREFIX = "git:";
 
 		@Override
 		public LibraryVersion convert(String value) {
+			if (value.startsWith(GIT_PREFIX)) {
+				String revision = value.substring(GIT_PREFIX.length());
+				if (revision.isBlank()) {
+					throw new CommandLine.TypeConversionException("Expected git:<revision>");
+				}
+				return new LibraryVersion.GitRevision(revision);
+			}
 			if (MAVEN_COORDINATES.matcher(value).matches()) {
 				try {
 					return new LibraryVersion.MavenCoordinates(ArtifactCoordinates.parse(value));
@@ -219,7 +410,27 @@ public final class RoseauCLI implements Callable<Integer> {
 			throw new RoseauException("Specify either --source-only or --binary-only");
 		}
 
-		if (v1Path == null || !Files.exists(v1Path)) {
+		if (watch && !mode.diff) {
+			throw new RoseauException("--watch requires --diff");
+		}
+
+		if (lsp && !mode.diff) {
+			throw new RoseauException("--lsp requires --diff");
+		}
+
+		if (lsp && watch) {
+			throw new RoseauException("Specify either --lsp or --watch");
+		}
+
+		if (mode.batch != null) {
+			if (!Files.isRegularFile(mode.batch)) {
+				throw new RoseauException("Cannot find batch manifest: %s".formatted(mode.batch));
+			}
+		} else if (mode.index != null) {
+			if (!Files.isDirectory(mode.index)) {
+				throw new RoseauException("Cannot find repository: %s".formatted(mode.index));
+			}
+		} else if (v1Path == null || !Files.exists(v1Path)) {
 			throw new RoseauException("Cannot find v1: %s".formatted(v1Path));
 		}
 
@@ -249,36 +460,140 @@ public final class RoseauCLI implements Callable<Integer> {
 		}
 	}
 
-	private Path resolveToPath(LibraryVersion version) {
-		if (version == null) {
-			return null;
+	/**
+	 * Resolves versions to local paths, along with the dependency classpath of Maven coordinates. The artifacts of all
+	 * coordinates and their dependencies are downloaded concurrently. Unless the analysis is scoped to some packages or
+	 * may be skipped by --prescreen, the types of each artifact are extracted as soon as it is downloaded.
+	 */
+	private List<ResolvedVersion> resolveVersions(List<LibraryVersion> versions) {
+		Stopwatch sw = Stopwatch.createStarted();
+		boolean download = versions.stream().anyMatch(LibraryVersion.MavenCoordinates.class::isInstance);
+		Path local = localRepository != null ? localRepository : ArtifactDownloader.defaultLocalRepository();
+		boolean extract = !prescreen && (packages == null || packages.isEmpty());
+		try (ArtifactDownloader downloader = download ? new ArtifactDownloader(local, repository) : null) {
+			List<CompletableFuture<ResolvedVersion>> futures = versions.stream()
+				.map(version -> resolveAsync(downloader, version, extract))
+				.toList();
+			List<ResolvedVersion> resolved = futures.stream()
+				.map(RoseauCLI::join)
+				.toList();
+			if (download) {
+				console.printlnVerbose("Resolved artifacts in %s (%d ms)".formatted(local, sw.elapsed().toMillis()));
+			}
+			return resolved;
 		}
+	}
+
+	private Path readRevision(String revision) {
+		console.printVerbose("Reading sources of %s... ".formatted(revision));
+		Path path = gitRevisions().sourcesJar(revision);
+		console.printlnVerbose("done");
+		return path;
+	}
+
+	private CompletableFuture<ResolvedVersion> resolveAsync(ArtifactDownloader downloader, LibraryVersion version,
+	                                                        boolean extract) {
 		return switch (version) {
-			case LibraryVersion.LocalPath(var path) -> path;
-			case LibraryVersion.MavenCoordinates(var coords) -> {
-				console.printVerbose("Downloading %s:%s:%s... ".formatted(
-					coords.groupId(), coords.artifactId(), coords.version()));
-				Path path = ArtifactDownloader.downloadArtifact(coords);
-				console.printlnVerbose("done");
-				yield path;
-			}
+			case null -> CompletableFuture.completedFuture(new ResolvedVersion(null, List.of()));
+			case LibraryVersion.LocalPath(var path) ->
+				CompletableFuture.completedFuture(new ResolvedVersion(path, List.of()));
+			case LibraryVersion.MavenCoordinates(var coords) -> resolveAsync(downloader, coords, extract);
+			case LibraryVersion.GitRevision(var revision) ->
+				CompletableFuture.completedFuture(new ResolvedVersion(readRevision(revision), List.of()));
 		};
 	}
 
+	private CompletableFuture<ResolvedVersion> resolveAsync(ArtifactDownloader downloader,
+	                                                        ArtifactCoordinates coords, boolean extract) {
+		console.printlnVerbose("Downloading %s:%s:%s...".formatted(coords.groupId(), coords.artifactId(),
+			coords.version()));
+		CompletableFuture<Path> artifact = CompletableFuture.supplyAsync(() -> downloader.downloadArtifact(coords),
+			parallelism.io());
+		if (extract) {
+			// Extraction does not need the dependencies: it starts on the compute pool as soon as the JAR lands, and is
+			// registered before the version is resolved so that building the API always finds it
+			artifact = artifact.thenApply(jar -> {
+				extractions.computeIfAbsent(jar.toAbsolutePath(), _ -> CompletableFuture.supplyAsync(() -> {
+					Library library = Library.of(jar);
+					return indexed(library).orElseGet(() -> Roseau.buildLibraryTypes(library));
+				}, parallelism.compute()));
+				return jar;
+			});
+		}
+		CompletableFuture<List<Path>> dependencies = CompletableFuture.supplyAsync(
+			() -> downloader.resolveClasspath(coords), parallelism.io());
+		return artifact.thenCombine(dependencies, ResolvedVersion::new);
+	}
+
+	private static <T> T join(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * A version resolved to a local path, along with the classpath of its dependencies, if known.
+	 */
+	private record ResolvedVersion(Path location, List<Path> dependencies) {}
+
+	private GitRevisions gitRevisions() {
+		if (gitRevisions == null) {
+			try {
+				gitWorkDirectory = Files.createTempDirectory("roseau-git");
+			} catch (IOException e) {
+				throw new RoseauException("Failed to create a temporary directory", e);
+			}
+			gitRevisions = new GitRevisions(gitRepository, gitSourceRoot, gitWorkDirectory);
+		}
+		return gitRevisions;
+	}
+
+	private void closeGitRevisions() {
+		if (gitRevisions != null) {
+			gitRevisions.close();
+			try {
+				MoreFiles.deleteRecursively(gitWorkDirectory, RecursiveDeleteOption.ALLOW_INSECURE);
+			} catch (IOException e) {
+				console.printlnErr("Warning: failed to delete %s".formatted(gitWorkDirectory));
+			}
+		}
+	}
+
 	private RoseauOptions makeCliOptions() {
 		// No CLI option (yet?) for API exclusions
 		RoseauOptions.Exclude noExclusions = new RoseauOptions.Exclude(List.of(), List.of());
 		RoseauOptions.Common commonCli = new RoseauOptions.Common(
-			new RoseauOptions.Classpath(pom, buildClasspathFromString(classpath)), noExclusions);
-		RoseauOptions.Library v1Cli = new RoseauOptions.Library(
-			resolveToPath(v1), new RoseauOptions.Classpath(v1Pom, buildClasspathFromString(v1Classpath)), noExclusions, apiJson);
-		RoseauOptions.Library v2Cli = new RoseauOptions.Library(
-			resolveToPath(v2), new RoseauOptions.Classpath(v2Pom, buildClasspathFromString(v2Classpath)), noExclusions, null);
+			new RoseauOptions.Classpath(pom, buildClasspathFromString(classpath)), noExclusions,
+			packages == null ? List.of() : List.copyOf(packages));
+		List<ResolvedVersion> resolved = resolveVersions(Arrays.asList(v1, v2));
+		ResolvedVersion resolvedV1 = resolved.getFirst();
+		ResolvedVersion resolvedV2 = resolved.getLast();
+		RoseauOptions.Library v1Cli = new RoseauOptions.Library(resolvedV1.location(),
+			new RoseauOptions.Classpath(v1Pom, versionClasspath(v1Classpath, resolvedV1.dependencies())), noExclusions,
+			apiJson);
+		RoseauOptions.Library v2Cli = new RoseauOptions.Library(resolvedV2.location(),
+			new RoseauOptions.Classpath(v2Pom, versionClasspath(v2Classpath, resolvedV2.dependencies())), noExclusions,
+			null);
 		boolean cliSourceOnly = Boolean.TRUE.equals(sourceOnly);
 		boolean cliBinaryOnly = Boolean.TRUE.equals(binaryOnly);
 		RoseauOptions.Diff diffCli = new RoseauOptions.Diff(ignoredCsv, cliSourceOnly, cliBinaryOnly);
 		List<RoseauOptions.Report> reportsCli = reports == null ? List.of() : List.copyOf(reports);
-		return new RoseauOptions(commonCli, v1Cli, v2Cli, diffCli, reportsCli);
+		RoseauOptions.Performance performanceCli = new RoseauOptions.Performance(jobs, ioThreads, maxHeapFraction);
+		return new RoseauOptions(commonCli, v1Cli, v2Cli, diffCli, reportsCli, performanceCli);
+	}
+
+	private List<Path> versionClasspath(String versionClasspath, List<Path> dependencies) {
+		if (dependencies.isEmpty()) {
+			return buildClasspathFromString(versionClasspath);
+		}
+		// The dependencies of Maven coordinates complement, rather than replace, the shared --classpath
+		List<Path> jars = buildClasspathFromString(versionClasspath != null ? versionClasspath : classpath);
+		return Stream.concat(jars.stream(), dependencies.stream()).distinct().toList();
 	}
 
 	private void buildClasspath(Library library) {
@@ -295,7 +610,7 @@ public final class RoseauCLI implements Callable<Integer> {
 		buildClasspath(library);
 		Stopwatch sw = Stopwatch.createStarted();
 		console.printVerbose("Extracting API... ");
-		LibraryTypes types = Roseau.buildLibraryTypes(library);
+		LibraryTypes types = extracted(library).orElseGet(() -> Roseau.buildLibraryTypes(library));
 		console.printlnVerbose(" %d types (%d ms)".formatted(types.getAllTypes().size(),
 			sw.elapsed().toMillis()));
 		if (libraryOptions.apiReport() != null) {
@@ -312,8 +627,38 @@ public final class RoseauCLI implements Callable<Integer> {
 	private boolean doDiff(Library v1, Library v2, RoseauOptions options) {
 		buildClasspath(v1);
 		buildClasspath(v2);
-		RoseauReport report = diff(v1, v2).filterReport(options.diff());
-		console.println(new CliFormatter(plain ? CliFormatter.Mode.PLAIN : CliFormatter.Mode.ANSI).format(report));
+
+		boolean wantsReports = !options.reports().isEmpty() ||
+			options.v1().apiReport() != null || options.v2().apiReport() != null;
+		if (prescreen && !wantsReports && v1.isJar() && v2.isJar()) {
+			Stopwatch sw = Stopwatch.createStarted();
+			console.printVerbose("Pre-screening descriptors... ");
+			boolean mayBreak = Roseau.mayBreak(v1, v2);
+			console.printlnVerbose("%s (%d ms)".formatted(mayBreak ? "changed" : "unchanged", sw.elapsed().toMillis()));
+			if (!mayBreak) {
+				console.println("No breaking changes found (descriptors unchanged).");
+				return false;
+			}
+		}
+
+		Predicate<BreakingChange> stopCondition = failMode && failFast
+			? RoseauReport.reportedBy(options.diff())
+			: null;
+		RoseauReport report = diff(v1, v2, stopCondition, options.diff());
+		CliFormatter cliFormatter = new CliFormatter(plain ? CliFormatter.Mode.PLAIN : CliFormatter.Mode.ANSI);
+
+		if (!report.isComplete()) {
+			if (!wantsReports) {
+				console.println("Breaking changes found; stopped at the first one (--fail-fast).");
+				console.println(cliFormatter.format(report));
+				return true;
+			}
+
+			// The gate failed: run the full analysis on the same APIs for reporting
+			report = diff(report.v1(), report.v2(), null, options.diff());
+		}
+
+		console.println(cliFormatter.format(report));
 
 		if (options.v1().apiReport() != null) {
 			writeApiReport(report.v1().getLibraryTypes(), options.v1().apiReport());
@@ -321,13 +666,205 @@ public final class RoseauCLI implements Callable<Integer> {
 		if (options.v2().apiReport() != null) {
 			writeApiReport(report.v2().getLibraryTypes(), options.v2().apiReport());
 		}
-		options.reports().forEach(reportOption ->
-			report.writeReport(reportOption.format(), reportOption.file())
-		);
+		report.writeReports(options.reports());
 
 		return !report.getBreakingChanges().isEmpty();
 	}
 
+	private void doWatch(Library v1, Library v2, RoseauOptions options) {
+		if (!v2.isSources()) {
+			throw new RoseauException("--watch requires a source directory as --v2: %s".formatted(v2.getLocation()));
+		}
+		buildClasspath(v1);
+		buildClasspath(v2);
+
+		CliFormatter cliFormatter = new CliFormatter(plain ? CliFormatter.Mode.PLAIN : CliFormatter.Mode.ANSI);
+		Stopwatch sw = Stopwatch.createStarted();
+		console.printVerbose("Building APIs...  ");
+		try (DiffWatcher watcher = new DiffWatcher(v1, v2, WATCH_DEBOUNCE, parallelism)) {
+			console.printlnVerbose("done (%d ms)".formatted(sw.elapsed().toMillis()));
+			RoseauReport initial = watcher.diff().filterReport(options.diff());
+			console.println(cliFormatter.format(initial));
+			initial.writeReports(options.reports());
+			console.println("Watching %s for changes...".formatted(v2.getLocation()));
+
+			watcher.watch((changes, report) -> {
+				RoseauReport filtered = report.filterReport(options.diff());
+				int changed = changes.updatedFiles().size() + changes.deletedFiles().size() + changes.createdFiles().size();
+				console.println("[%s] %d changed file(s)".formatted(LocalTime.now().truncatedTo(ChronoUnit.SECONDS), changed));
+				console.println(cliFormatter.format(filtered));
+				filtered.writeReports(options.reports());
+			}, e -> console.printlnErr("[%s] %s".formatted(LocalTime.now().truncatedTo(ChronoUnit.SECONDS),
+				e.getMessage())));
+		} catch (InterruptedException _) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private int doBatch(BatchManifest manifest, RoseauOptions options) {
+		LibraryVersionConverter converter = new LibraryVersionConverter();
+		List<BatchRunner.Pair> pairs = new ArrayList<>();
+		Map<BatchRunner.Pair, BatchManifest.Pair> entries = new IdentityHashMap<>();
+		int[] counts = new int[2]; // breaking, failed
+
+		// All versions are resolved upfront, concurrently; a pair that cannot be resolved fails on its own
+		Stopwatch resolution = Stopwatch.createStarted();
+		boolean download = manifest.pairs().stream()
+			.flatMap(pair -> Stream.of(pair.v1(), pair.v2()))
+			.anyMatch(version -> LibraryVersionConverter.MAVEN_COORDINATES.matcher(version).matches());
+		Path local = localRepository != null ? localRepository : ArtifactDownloader.defaultLocalRepository();
+		try (ArtifactDownloader downloader = download ? new ArtifactDownloader(local, repository) : null) {
+			Map<BatchManifest.Pair, CompletableFuture<BatchRunner.Pair>> futures = new IdentityHashMap<>();
+			for (BatchManifest.Pair entry : manifest.pairs()) {
+				try {
+					// Types are extracted by the runner, which admits pairs within the heap budget, not upon download
+					CompletableFuture<ResolvedVersion> v1 =
+						resolveAsync(downloader, converter.convert(entry.v1()), false);
+					CompletableFuture<ResolvedVersion> v2 =
+						resolveAsync(downloader, converter.convert(entry.v2()), false);
+					futures.put(entry, v1.thenCombine(v2, (resolvedV1, resolvedV2) -> new BatchRunner.Pair(
+						entry.displayName(),
+						toLibrary(options.v1(), options.common(), resolvedV1),
+						toLibrary(options.v2(), options.common(), resolvedV2))));
+				} catch (CommandLine.TypeConversionException e) {
+					counts[1]++;
+					console.printlnErr("%s: failed: invalid version: %s".formatted(entry.displayName(), e.getMessage()));
+				} catch (RoseauException e) {
+					counts[1]++;
+					console.printlnErr("%s: failed: %s".formatted(entry.displayName(), e.getMessage()));
+				}
+			}
+
+			for (BatchManifest.Pair entry : manifest.pairs()) {
+				if (!futures.containsKey(entry)) {
+					continue;
+				}
+				try {
+					BatchRunner.Pair pair = join(futures.get(entry));
+					pairs.add(pair);
+					entries.put(pair, entry);
+				} catch (RuntimeException e) {
+					counts[1]++;
+					console.printlnErr("%s: failed: %s".formatted(entry.displayName(), e.getMessage()));
+				}
+			}
+		}
+		if (download) {
+			console.printlnVerbose("Resolved artifacts in %s (%d ms)".formatted(local, resolution.elapsed().toMillis()));
+		}
+
+		Stopwatch sw = Stopwatch.createStarted();
+		BatchRunner runner = new BatchRunner(
+			manifest.concurrency() != null ? manifest.concurrency() : parallelism.jobs(),
+			manifest.maxHeapFraction() != null ? manifest.maxHeapFraction() : parallelism.maxHeapFraction(),
+			indexStore != null ? new ApiIndex(indexStore, VersionProvider.resolveVersion()) : null,
+			parallelism.compute());
+		try {
+			runner.run(pairs, result -> {
+				String name = result.pair().name();
+				if (result.isFailure()) {
+					counts[1]++;
+					RuntimeException failure = result.failure();
+					console.printlnErr("%s: failed: %s".formatted(name, Optional.ofNullable(failure.getMessage())
+						.orElseGet(() -> failure.getClass().getCanonicalName())));
+					return;
+				}
+
+				RoseauReport report = result.report().filterReport(options.diff());
+				if (!report.getBreakingChanges().isEmpty()) {
+					counts[0]++;
+				}
+				console.println("%s: %d breaking changes (%d ms)".formatted(name, report.getBreakingChanges().size(),
+					result.elapsed().toMillis()));
+				try {
+					report.writeReports(entries.get(result.pair()).reports());
+				} catch (RuntimeException e) {
+					counts[1]++;
+					console.printlnErr("%s: failed to write reports: %s".formatted(name, e.getMessage()));
+				}
+			});
+		} catch (InterruptedException _) {
+			Thread.currentThread().interrupt();
+			return ExitCode.ERROR.code();
+		}
+
+		console.println("%d pairs diffed, %d with breaking changes, %d failed (%d ms)".formatted(
+			manifest.pairs().size(), counts[0], counts[1], sw.elapsed().toMillis()));
+		if (counts[1] > 0) {
+			return ExitCode.ERROR.code();
+		}
+		return counts[0] > 0 && failMode ? ExitCode.BREAKING.code() : ExitCode.SUCCESS.code();
+	}
+
+	private void doIndex(Path repository) {
+		Path store = indexStore != null ? indexStore : ApiIndex.defaultDirectory();
+		Stopwatch sw = Stopwatch.createStarted();
+		console.println("Indexing %s into %s...".formatted(repository, store));
+		ApiIndex.Summary summary = new ApiIndex(store, VersionProvider.resolveVersion())
+			.indexRepository(repository, parallelism.jobs());
+		console.println("%d JARs indexed, %d already indexed, %d duplicates, %d without code, %d failed (%d ms)"
+			.formatted(summary.indexed(), summary.reused(), summary.duplicates(), summary.skipped(), summary.failed(),
+				sw.elapsed().toMillis()));
+	}
+
+	private static Library toLibrary(RoseauOptions.Library options, RoseauOptions.Common common,
+	                                 ResolvedVersion version) {
+		RoseauOptions.Library merged = options.mergeWith(common);
+		List<Path> jars = Stream.concat(merged.classpath().jars().stream(), version.dependencies().stream())
+			.distinct()
+			.toList();
+		return new RoseauOptions.Library(version.location(), new RoseauOptions.Classpath(merged.classpath().pom(), jars),
+			merged.excludes(), null, merged.packages()).toLibrary();
+	}
+
+	private int doLsp(Library v1, Library v2, RoseauOptions options, InputStream in, OutputStream out) {
+		if (!v2.isSources()) {
+			throw new RoseauException("--lsp requires a source directory as --v2: %s".formatted(v2.getLocation()));
+		}
+		buildClasspath(v1);
+		buildClasspath(v2);
+
+		Stopwatch sw = Stopwatch.createStarted();
+		console.printVerbose("Building APIs...  ");
+		LanguageServer server = new LanguageServer(v1, v2, RoseauReport.reportedBy(options.diff()), parallelism);
+		console.printlnVerbose("done (%d ms)".formatted(sw.elapsed().toMillis()));
+
+		try {
+			return server.serve(in, out) == 0 ? ExitCode.SUCCESS.code() : ExitCode.ERROR.code();
+		} catch (IOException e) {
+			throw new RoseauException("Language server connection failed", e);
+		}
+	}
+
+	private int analyze(RoseauOptions options, PrintStream stdout) {
+		if (mode.api) {
+			Library libraryV1 = options.v1().mergeWith(options.common()).toLibrary();
+			console.printlnDebug("v1 = " + libraryV1);
+			doApi(libraryV1, options.v1());
+		}
+
+		if (mode.diff) {
+			Library libraryV1 = options.v1().mergeWith(options.common()).toLibrary();
+			Library libraryV2 = options.v2().mergeWith(options.common()).toLibrary();
+			console.printlnDebug("v1 = " + libraryV1);
+			console.printlnDebug("v2 = " + libraryV2);
+			if (watch) {
+				doWatch(libraryV1, libraryV2, options);
+				return ExitCode.SUCCESS.code();
+			}
+			if (lsp) {
+				return doLsp(libraryV1, libraryV2, options, System.in, stdout);
+			}
+			boolean breaking = doDiff(libraryV1, libraryV2, options);
+
+			if (breaking && failMode) {
+				return ExitCode.BREAKING.code();
+			}
+		}
+
+		return ExitCode.SUCCESS.code();
+	}
+
 	@Override
 	public Integer call() {
 		Console.Verbosity verbosity = verbosityLevel == null
@@ -338,8 +875,16 @@ public final class RoseauCLI implements Callable<Integer> {
 			default -> Console.Verbosity.DEBUG;
 		};
 
+		// stdout is reserved to the Language Server Protocol: everything else, including logs, goes to stderr
+		PrintStream stdout = System.out;
+		if (lsp) {
+			System.setOut(System.err);
+		}
+
 		try {
-			console = new Console(spec.commandLine().getOut(), spec.commandLine().getErr(), verbosity);
+			console = lsp
+				? new Console(spec.commandLine().getErr(), spec.commandLine().getErr(), verbosity)
+				: new Console(spec.commandLine().getOut(), spec.commandLine().getErr(), verbosity);
 
 			if (verbosity == Console.Verbosity.DEBUG) {
 				VERBOSE_LOGGERS.forEach(logger -> Configurator.setAllLevels(logger, Level.DEBUG));
@@ -347,33 +892,36 @@ public final class RoseauCLI implements Callable<Integer> {
 				VERBOSE_LOGGERS.forEach(logger -> Configurator.setAllLevels(logger, Level.INFO));
 			}
 
-			RoseauOptions cliOptions = makeCliOptions();
 			RoseauOptions fileOptions = config != null && Files.isRegularFile(config)
 				? RoseauOptions.load(config)
 				: RoseauOptions.newDefault();
-			RoseauOptions options = fileOptions.mergeWith(cliOptions);
-			checkOptions(options);
-			console.printlnDebug("Options are " + options);
-
-			if (mode.api) {
-				Library libraryV1 = options.v1().mergeWith(options.common()).toLibrary();
-				console.printlnDebug("v1 = " + libraryV1);
-				doApi(libraryV1, options.v1());
-			}
+			// Executors are needed upfront: resolving --v1 and --v2 may download artifacts
+			RoseauOptions.Performance performance = fileOptions.performance()
+				.mergeWith(new RoseauOptions.Performance(jobs, ioThreads, maxHeapFraction));
+			try (Parallelism pools = Parallelism.of(performance)) {
+				parallelism = pools;
+				RoseauOptions cliOptions = makeCliOptions();
+				RoseauOptions options = fileOptions.mergeWith(cliOptions);
+				checkOptions(options);
+				console.printlnDebug("Options are " + options);
+
+				if (mode.batch != null) {
+					return doBatch(BatchManifest.load(mode.batch), options);
+				}
 
-			if (mode.diff) {
-				Library libraryV1 = options.v1().mergeWith(options.common()).toLibrary();
-				Library libraryV2 = options.v2().mergeWith(options.common()).toLibrary();
-				console.printlnDebug("v1 = " + libraryV1);
-				console.printlnDebug("v2 = " + libraryV2);
-				boolean breaking = doDiff(libraryV1, libraryV2, options);
+				if (mode.index != null) {
+					doIndex(mode.index);
+					return ExitCode.SUCCESS.code();
+				}
 
-				if (breaking && failMode) {
-					return ExitCode.BREAKING.code();
+				// --watch and --lsp wait for changes on this thread and only submit each update to the compute pool
+				if (mode.diff && (watch || lsp)) {
+					return analyze(options, stdout);
 				}
-			}
 
-			return ExitCode.SUCCESS.code();
+				// Analyses run on the compute pool, and so does the parallel work they start
+				return pools.run(() -> analyze(options, stdout));
+			}
 		} catch (RuntimeException e) {
 			if (verbosity.level >= Console.Verbosity.VERBOSE.level) {
 				console.printStackTrace(e);
@@ -386,6 +934,8 @@ public final class RoseauCLI implements Callable<Integer> {
 			}
 			return ExitCode.ERROR.code();
 		} finally {
+			System.setOut(stdout);
+			closeGitRevisions();
 			if (verbosity != Console.Verbosity.NORMAL) {
 				VERBOSE_LOGGERS.forEach(logger -> Configurator.setAllLevels(logger, Level.WARN));
 			}
@@ -0,0 +1,138 @@
+package io.github.alien.roseau.cli;
+
+import io.github.alien.roseau.RoseauException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArtifactDownloaderTest {
+	@TempDir
+	Path remote;
+	@TempDir
+	Path local;
+
+	static final ArtifactCoordinates LIB = new ArtifactCoordinates("com.example", "lib", "1.0", "jar", null);
+
+	@BeforeEach
+	void setUp() throws Exception {
+		deploy(remote, "lib", "1.0", Path.of("src/test/resources/test-project-v1/test-project-v1.jar"), """
+			<dependencies>
+				<dependency>
+					<groupId>com.example</groupId>
+					<artifactId>dep</artifactId>
+					<version>1.0</version>
+				</dependency>
+				<dependency>
+					<groupId>com.example</groupId>
+					<artifactId>test-dep</artifactId>
+					<version>1.0</version>
+					<scope>test</scope>
+				</dependency>
+			</dependencies>""");
+		deploy(remote, "dep", "1.0", Path.of("src/test/resources/test-project-v2/test-project-v2.jar"), "");
+	}
+
+	@Test
+	void artifacts_are_cached_in_local_repository() throws IOException {
+		try (var downloader = new ArtifactDownloader(local, remote.toUri())) {
+			Path jar = downloader.downloadArtifact(LIB);
+
+			assertThat(jar).startsWith(local).isRegularFile();
+		}
+
+		// Later downloads do not need the remote repository anymore
+		Files.delete(remote.resolve("com/example/lib/1.0/lib-1.0.jar"));
+		try (var downloader = new ArtifactDownloader(local, remote.toUri())) {
+			assertThat(downloader.downloadArtifact(LIB)).isRegularFile();
+		}
+	}
+
+	@Test
+	void compile_dependencies_are_resolved() {
+		try (var downloader = new ArtifactDownloader(local, remote.toUri())) {
+			assertThat(downloader.resolveClasspath(LIB))
+				.singleElement()
+				.satisfies(dep -> assertThat(dep.getFileName()).hasToString("dep-1.0.jar"));
+		}
+	}
+
+	@Test
+	void unresolvable_dependencies_are_left_out() throws Exception {
+		deploy(remote, "app", "1.0", Path.of("src/test/resources/test-project-v1/test-project-v1.jar"), """
+			<dependencies>
+				<dependency>
+					<groupId>com.example</groupId>
+					<artifactId>dep</artifactId>
+					<version>1.0</version>
+				</dependency>
+				<dependency>
+					<groupId>com.example</groupId>
+					<artifactId>missing</artifactId>
+					<version>1.0</version>
+				</dependency>
+			</dependencies>""");
+		var app = new ArtifactCoordinates("com.example", "app", "1.0", "jar", null);
+
+		try (var downloader = new ArtifactDownloader(local, remote.toUri())) {
+			assertThat(downloader.resolveClasspath(app))
+				.singleElement()
+				.satisfies(dep -> assertThat(dep.getFileName()).hasToString("dep-1.0.jar"));
+		}
+	}
+
+	@Test
+	void checksum_mismatch_fails_download() throws IOException {
+		Files.writeString(remote.resolve("com/example/lib/1.0/lib-1.0.jar.sha1"), "0".repeat(40));
+
+		try (var downloader = new ArtifactDownloader(local, remote.toUri())) {
+			assertThatThrownBy(() -> downloader.downloadArtifact(LIB))
+				.isInstanceOf(RoseauException.class)
+				.hasMessageContaining("Failed to download com.example:lib:1.0");
+		}
+	}
+
+	@Test
+	void missing_artifact_fails_download() {
+		var missing = new ArtifactCoordinates("com.example", "missing", "1.0", "jar", null);
+
+		try (var downloader = new ArtifactDownloader(local, remote.toUri())) {
+			assertThatThrownBy(() -> downloader.downloadArtifact(missing))
+				.isInstanceOf(RoseauException.class)
+				.hasMessageContaining("Failed to download com.example:missing:1.0");
+		}
+	}
+
+	static void deploy(Path remote, String artifactId, String version, Path jar, String dependencies)
+		throws Exception {
+		Path dir = remote.resolve("com/example").resolve(artifactId).resolve(version);
+		Files.createDirectories(dir);
+		Path deployedJar = dir.resolve(artifactId + "-" + version + ".jar");
+		Files.copy(jar, deployedJar);
+		Path pom = dir.resolve(artifactId + "-" + version + ".pom");
+		Files.writeString(pom, """
+			<project xmlns="http://maven.apache.org/POM/4.0.0">
+				<modelVersion>4.0.0</modelVersion>
+				<groupId>com.example</groupId>
+				<artifactId>%s</artifactId>
+				<version>%s</version>
+				%s
+			</project>""".formatted(artifactId, version, dependencies));
+		for (Path file : new Path[]{deployedJar, pom}) {
+			Files.writeString(file.resolveSibling(file.getFileName() + ".sha1"), sha1(file));
+		}
+	}
+
+	static String sha1(Path file) throws IOException, NoSuchAlgorithmException {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(Files.readAllBytes(file)));
+	}
+}
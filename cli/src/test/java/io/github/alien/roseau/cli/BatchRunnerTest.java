@@ -0,0 +1,63 @@
+package io.github.alien.roseau.cli;
+
+import io.github.alien.roseau.Library;
+import io.github.alien.roseau.diff.changes.BreakingChange;
+import io.github.alien.roseau.diff.changes.BreakingChangeKind;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchRunnerTest {
+	static final Library V1 = Library.of(Path.of("src/test/resources/test-project-v1/test-project-v1.jar"));
+	static final Library V2 = Library.of(Path.of("src/test/resources/test-project-v2/test-project-v2.jar"));
+
+	@Test
+	void every_pair_is_reported() throws Exception {
+		List<BatchRunner.Result> results = new ArrayList<>();
+		var pairs = List.of(
+			new BatchRunner.Pair("forward", V1, V2),
+			new BatchRunner.Pair("backward", V2, V1),
+			new BatchRunner.Pair("same", V2, V2));
+
+		new BatchRunner(2, 1.0).run(pairs, results::add);
+
+		assertThat(results).hasSize(3).noneMatch(BatchRunner.Result::isFailure);
+		assertThat(results).filteredOn(r -> r.pair().name().equals("forward")).singleElement()
+			.satisfies(r -> assertThat(r.report().getBreakingChanges())
+				.extracting(BreakingChange::kind)
+				.contains(BreakingChangeKind.EXECUTABLE_REMOVED));
+		assertThat(results).filteredOn(r -> r.pair().name().equals("same")).singleElement()
+			.satisfies(r -> assertThat(r.report().getBreakingChanges()).isEmpty());
+	}
+
+	@Test
+	void failing_pairs_do_not_stop_the_batch(@TempDir Path dir) throws Exception {
+		Path jar = Files.copy(V1.getLocation(), dir.resolve("deleted.jar"));
+		Library deleted = Library.of(jar);
+		Files.delete(jar);
+
+		List<BatchRunner.Result> results = new ArrayList<>();
+		var pairs = List.of(
+			new BatchRunner.Pair("missing", deleted, V2),
+			new BatchRunner.Pair("jars", V1, V2));
+
+		new BatchRunner(1, 1.0).run(pairs, results::add);
+
+		assertThat(results).hasSize(2);
+		assertThat(results).filteredOn(BatchRunner.Result::isFailure).singleElement()
+			.satisfies(r -> assertThat(r.pair().name()).isEqualTo("missing"));
+	}
+
+	@Test
+	void invalid_concurrency() {
+		assertThatThrownBy(() -> new BatchRunner(0, 0.8))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+}
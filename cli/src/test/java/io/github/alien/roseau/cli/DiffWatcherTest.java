@@ -0,0 +1,130 @@
+package io.github.alien.roseau.cli;
+
+import io.github.alien.roseau.Library;
+import io.github.alien.roseau.Parallelism;
+import io.github.alien.roseau.RoseauException;
+import io.github.alien.roseau.diff.RoseauReport;
+import io.github.alien.roseau.diff.changes.BreakingChange;
+import io.github.alien.roseau.diff.changes.BreakingChangeKind;
+import io.github.alien.roseau.extractors.incremental.ChangedFiles;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DiffWatcherTest {
+	final Parallelism parallelism = new Parallelism(2, 1, 0.8);
+
+	@AfterEach
+	void tearDown() {
+		parallelism.close();
+	}
+
+	@Test
+	@Timeout(value = 60, unit = TimeUnit.SECONDS)
+	void changes_are_diffed_incrementally(@TempDir Path v1, @TempDir Path v2) throws Exception {
+		for (Path root : new Path[]{v1, v2}) {
+			Files.createDirectories(root.resolve("pkg"));
+			Files.writeString(root.resolve("pkg/A.java"), """
+				package pkg;
+				public class A {
+					public void m() {}
+				}""");
+			Files.writeString(root.resolve("pkg/B.java"), """
+				package pkg;
+				public class B {}""");
+		}
+
+		BlockingQueue<Map.Entry<ChangedFiles, RoseauReport>> updates = new LinkedBlockingQueue<>();
+		try (var watcher = new DiffWatcher(Library.of(v1), Library.of(v2), Duration.ofMillis(100), parallelism)) {
+			assertThat(watcher.diff().getBreakingChanges()).isEmpty();
+
+			var thread = Thread.ofVirtual().start(() -> {
+				try {
+					watcher.watch((changes, report) -> updates.add(Map.entry(changes, report)), e -> {
+						throw e;
+					});
+				} catch (InterruptedException _) {
+					Thread.currentThread().interrupt();
+				}
+			});
+
+			Files.writeString(v2.resolve("pkg/A.java"), """
+				package pkg;
+				public class A {}""");
+
+			var update = updates.poll(30, TimeUnit.SECONDS);
+			thread.interrupt();
+
+			assertThat(update).isNotNull();
+			assertThat(update.getKey().updatedFiles()).contains(Path.of("pkg/A.java"));
+			assertThat(update.getValue().getBreakingChanges())
+				.singleElement()
+				.extracting(BreakingChange::kind)
+				.isEqualTo(BreakingChangeKind.EXECUTABLE_REMOVED);
+		}
+	}
+
+	@Test
+	@Timeout(value = 60, unit = TimeUnit.SECONDS)
+	void watching_goes_on_after_a_failed_update(@TempDir Path v1, @TempDir Path v2) throws Exception {
+		for (Path root : new Path[]{v1, v2}) {
+			Files.createDirectories(root.resolve("pkg"));
+			Files.writeString(root.resolve("pkg/A.java"), """
+				package pkg;
+				public class A {
+					public void m() {}
+				}""");
+		}
+
+		BlockingQueue<RoseauReport> updates = new LinkedBlockingQueue<>();
+		BlockingQueue<RoseauException> errors = new LinkedBlockingQueue<>();
+		try (var watcher = new DiffWatcher(Library.of(v1), Library.of(v2), Duration.ofMillis(100), parallelism)) {
+			var thread = Thread.ofVirtual().start(() -> {
+				try {
+					watcher.watch((_, report) -> updates.add(report), errors::add);
+				} catch (InterruptedException _) {
+					Thread.currentThread().interrupt();
+				}
+			});
+
+			// Two module declarations cannot be built
+			Files.writeString(v2.resolve("module-info.java"), "module m { exports pkg; }");
+			Files.writeString(v2.resolve("pkg/module-info.java"), "module n { exports pkg; }");
+			var error = errors.poll(30, TimeUnit.SECONDS);
+
+			Files.delete(v2.resolve("pkg/module-info.java"));
+			Files.writeString(v2.resolve("pkg/A.java"), """
+				package pkg;
+				public class A {}""");
+			var update = updates.poll(30, TimeUnit.SECONDS);
+			thread.interrupt();
+
+			assertThat(error).isNotNull();
+			assertThat(error.getMessage()).contains("multiple module declarations");
+			assertThat(update).isNotNull();
+			assertThat(update.getBreakingChanges())
+				.extracting(BreakingChange::kind)
+				.contains(BreakingChangeKind.EXECUTABLE_REMOVED);
+		}
+	}
+
+	@Test
+	void jars_cannot_be_watched() {
+		var jar = Library.of(Path.of("src/test/resources/test-project-v1/test-project-v1.jar"));
+
+		assertThatThrownBy(() -> new DiffWatcher(jar, jar, Duration.ZERO, parallelism))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,200 @@
+package io.github.alien.roseau.cli;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.alien.roseau.Library;
+import io.github.alien.roseau.Parallelism;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LanguageServerTest {
+	static final ObjectMapper MAPPER = new ObjectMapper();
+
+	@TempDir
+	Path v1;
+	@TempDir
+	Path v2;
+	String uri;
+	final Parallelism parallelism = new Parallelism(2, 1, 0.8);
+
+	@BeforeEach
+	void setUp() throws IOException {
+		for (Path root : new Path[]{v1, v2}) {
+			Files.createDirectories(root.resolve("pkg"));
+			Files.writeString(root.resolve("pkg/A.java"), """
+				package pkg;
+				public class A {
+					public void m() {}
+				}""");
+			Files.writeString(root.resolve("pkg/B.java"), """
+				package pkg;
+				public class B extends A {}""");
+		}
+		uri = v2.resolve("pkg/A.java").toUri().toString();
+	}
+
+	@AfterEach
+	void tearDown() {
+		parallelism.close();
+	}
+
+	@Test
+	void unsaved_changes_are_published_as_diagnostics() throws Exception {
+		var server = new LanguageServer(Library.of(v1), Library.of(v2), _ -> true, parallelism);
+		var messages = serve(server,
+			request(1, "initialize", Map.of()),
+			notification("initialized", Map.of()),
+			notification("textDocument/didOpen", Map.of("textDocument",
+				Map.of("uri", uri, "languageId", "java", "version", 1, "text", Files.readString(v2.resolve("pkg/A.java"))))),
+			notification("textDocument/didChange", Map.of(
+				"textDocument", Map.of("uri", uri, "version", 2),
+				"contentChanges", List.of(Map.of("text", """
+					package pkg;
+					public class A {
+					}"""))))),
+			request(2, "shutdown", null),
+			notification("exit", null));
+
+		assertThat(messages.getFirst().path("result").path("capabilities").path("textDocumentSync").path("change").asInt())
+			.isEqualTo(1);
+
+		var diagnostics = messages.stream()
+			.filter(m -> "textDocument/publishDiagnostics".equals(m.path("method").asText()))
+			.map(m -> m.path("params"))
+			.toList();
+		// The removed method impacts A, and B which inherits it; the buffer is never written to disk
+		assertThat(diagnostics).isNotEmpty();
+		assertThat(diagnostics.stream().filter(d -> d.path("uri").asText().equals(uri)).toList().getLast()
+			.path("diagnostics"))
+			.anySatisfy(d -> {
+				assertThat(d.path("code").asText()).isEqualTo("EXECUTABLE_REMOVED");
+				assertThat(d.path("range").path("start").path("line").asInt()).isEqualTo(2);
+			});
+		assertThat(Files.readString(v2.resolve("pkg/A.java"))).contains("m()");
+
+		assertThat(messages.getLast().path("id").asInt()).isEqualTo(2);
+	}
+
+	@Test
+	void closing_a_document_reverts_to_disk() throws Exception {
+		var server = new LanguageServer(Library.of(v1), Library.of(v2), _ -> true, parallelism);
+		var messages = serve(server,
+			request(1, "initialize", Map.of()),
+			notification("textDocument/didOpen", Map.of("textDocument", Map.of("uri", uri, "languageId", "java",
+				"version", 1, "text", "package pkg; public class A {}"))),
+			notification("textDocument/didClose", Map.of("textDocument", Map.of("uri", uri))),
+			request(2, "shutdown", null),
+			notification("exit", null));
+
+		var published = messages.stream()
+			.filter(m -> "textDocument/publishDiagnostics".equals(m.path("method").asText()))
+			.filter(m -> m.path("params").path("uri").asText().equals(uri))
+			.toList();
+		assertThat(published).hasSizeGreaterThanOrEqualTo(2);
+		assertThat(published.getFirst().path("params").path("diagnostics")).isNotEmpty();
+		assertThat(published.getLast().path("params").path("diagnostics")).isEmpty();
+	}
+
+	@Test
+	void requests_before_initialize_are_rejected() throws Exception {
+		var server = new LanguageServer(Library.of(v1), Library.of(v2), _ -> true, parallelism);
+		var messages = serve(server,
+			request(1, "shutdown", null),
+			notification("exit", null));
+
+		assertThat(messages).singleElement()
+			.satisfies(m -> assertThat(m.path("error").path("code").asInt()).isEqualTo(-32002));
+	}
+
+	@Test
+	void malformed_headers_are_parse_errors() throws Exception {
+		var server = new LanguageServer(Library.of(v1), Library.of(v2), _ -> true, parallelism);
+		var in = new ByteArrayOutputStream();
+		in.write(("Content-Length: nope\r\n\r\n" + request(1, "initialize", Map.of())).getBytes(StandardCharsets.UTF_8));
+		in.write(frame(request(2, "initialize", Map.of())));
+		in.write(frame(request(3, "shutdown", null)));
+		in.write(frame(notification("exit", null)));
+		var out = new ByteArrayOutputStream();
+
+		assertThat(server.serve(new ByteArrayInputStream(in.toByteArray()), out)).isZero();
+		var messages = parse(out.toByteArray());
+		assertThat(messages.getFirst().path("error").path("code").asInt()).isEqualTo(-32700);
+		assertThat(messages.get(1).path("id").asInt()).isEqualTo(2);
+		assertThat(messages.get(1).has("result")).isTrue();
+		assertThat(messages.getLast().path("id").asInt()).isEqualTo(3);
+	}
+
+	@Test
+	void exit_without_shutdown_is_an_error() throws Exception {
+		var server = new LanguageServer(Library.of(v1), Library.of(v2), _ -> true, parallelism);
+		var out = new ByteArrayOutputStream();
+
+		assertThat(server.serve(new ByteArrayInputStream(frame(notification("exit", null))), out)).isEqualTo(1);
+	}
+
+	static List<JsonNode> serve(LanguageServer server, String... messages) throws IOException {
+		var in = new ByteArrayOutputStream();
+		for (String message : messages) {
+			in.write(frame(message));
+		}
+		var out = new ByteArrayOutputStream();
+		assertThat(server.serve(new ByteArrayInputStream(in.toByteArray()), out)).isZero();
+		return parse(out.toByteArray());
+	}
+
+	static String request(int id, String method, Object params) throws IOException {
+		var message = new LinkedHashMap<String, Object>();
+		message.put("jsonrpc", "2.0");
+		message.put("id", id);
+		message.put("method", method);
+		if (params != null) {
+			message.put("params", params);
+		}
+		return MAPPER.writeValueAsString(message);
+	}
+
+	static String notification(String method, Object params) throws IOException {
+		var message = new LinkedHashMap<String, Object>();
+		message.put("jsonrpc", "2.0");
+		message.put("method", method);
+		if (params != null) {
+			message.put("params", params);
+		}
+		return MAPPER.writeValueAsString(message);
+	}
+
+	static byte[] frame(String message) {
+		byte[] body = message.getBytes(StandardCharsets.UTF_8);
+		return ("Content-Length: " + body.length + "\r\n\r\n" + message).getBytes(StandardCharsets.UTF_8);
+	}
+
+	static List<JsonNode> parse(byte[] output) throws IOException {
+		List<JsonNode> messages = new ArrayList<>();
+		String text = new String(output, StandardCharsets.UTF_8);
+		int offset = 0;
+		while (offset < text.length()) {
+			int headerEnd = text.indexOf("\r\n\r\n", offset);
+			int length = Integer.parseInt(text.substring(offset, headerEnd).replace("Content-Length: ", "").trim());
+			byte[] body = text.substring(headerEnd + 4).getBytes(StandardCharsets.UTF_8);
+			String json = new String(body, 0, length, StandardCharsets.UTF_8);
+			messages.add(MAPPER.readTree(json));
+			offset = headerEnd + 4 + json.length();
+		}
+		return messages;
+	}
+}
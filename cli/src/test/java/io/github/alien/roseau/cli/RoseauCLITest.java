@@ -1,5 +1,6 @@
 package io.github.alien.roseau.cli;
 
+import org.eclipse.jgit.api.Git;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
@@ -12,6 +13,8 @@ import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -36,7 +39,7 @@ class RoseauCLITest {
 	void no_mode() {
 		var exitCode = cmd.execute("--v1=src/test/resources/test-project-v1/src");
 
-		assertThat(err.toString()).contains("Missing required argument (specify one of these): (--api | --diff)");
+		assertThat(err.toString()).contains("Missing required argument (specify one of these): (--api | --diff | --batch=<manifest> | --index=<repository>)");
 		assertThat(exitCode).isEqualTo(ExitCode.ERROR.code());
 	}
 
@@ -73,6 +76,42 @@ class RoseauCLITest {
 		assertThat(exitCode).isEqualTo(ExitCode.SUCCESS.code());
 	}
 
+	@Test
+	void report_cache_reuses_reports(@TempDir Path tempDir) {
+		String[] args = {"--v1=src/test/resources/test-project-v1/test-project-v1.jar",
+			"--v2=src/test/resources/test-project-v2/test-project-v2.jar",
+			"--diff",
+			"--plain",
+			"--verbose",
+			"--report-cache=" + tempDir};
+
+		cmd.execute(args);
+		assertThat(out.toString()).doesNotContain("reused from cache");
+
+		var exitCode = cmd.execute(args);
+
+		assertThat(out.toString()).contains("reused from cache");
+		assertThat(out.toString().substring(out.toString().indexOf("reused from cache")))
+			.contains("pkg.T.m() EXECUTABLE_REMOVED");
+		assertThat(exitCode).isEqualTo(ExitCode.SUCCESS.code());
+	}
+
+	@Test
+	void fingerprint_index_diffs_sources_incrementally(@TempDir Path tempDir) {
+		Path index = tempDir.resolve("fingerprints.idx");
+		var exitCode = cmd.execute("--v1=src/test/resources/test-project-v1/src",
+			"--v2=src/test/resources/test-project-v2/src",
+			"--diff",
+			"--plain",
+			"--verbose",
+			"--fingerprint-index=" + index);
+
+		assertThat(out.toString()).contains("Building APIs incrementally");
+		assertThat(out.toString()).contains("pkg.T.m() EXECUTABLE_REMOVED");
+		assertThat(out.toString()).contains("pkg.T FORMAL_TYPE_PARAMETER_REMOVED");
+		assertThat(exitCode).isEqualTo(ExitCode.SUCCESS.code());
+	}
+
 	@Test
 	void heterogeneous_diff_1() {
 		var exitCode = cmd.execute("--v1=src/test/resources/test-project-v1/src",
@@ -198,6 +237,47 @@ class RoseauCLITest {
 		assertThat(exitCode).isEqualTo(ExitCode.BREAKING.code());
 	}
 
+	@Test
+	void fail_fast_with_breaking_changes() {
+		var exitCode = cmd.execute("--v1=src/test/resources/test-project-v1/src",
+			"--v2=src/test/resources/test-project-v2/src",
+			"--diff",
+			"--fail-on-bc",
+			"--fail-fast",
+			"--plain");
+
+		assertThat(out.toString()).contains("stopped at the first one");
+		assertThat(exitCode).isEqualTo(ExitCode.BREAKING.code());
+	}
+
+	@Test
+	void fail_fast_runs_full_analysis_for_reports(@TempDir Path tempDir) throws IOException {
+		var reportFile = tempDir.resolve("report.csv");
+		var exitCode = cmd.execute("--v1=src/test/resources/test-project-v1/src",
+			"--v2=src/test/resources/test-project-v2/src",
+			"--diff",
+			"--fail-on-bc",
+			"--fail-fast",
+			"--report=CSV=" + reportFile);
+
+		assertThat(Files.readString(reportFile))
+			.contains("EXECUTABLE_REMOVED")
+			.contains("FORMAL_TYPE_PARAMETER_REMOVED");
+		assertThat(exitCode).isEqualTo(ExitCode.BREAKING.code());
+	}
+
+	@Test
+	void fail_fast_without_breaking_changes() {
+		var exitCode = cmd.execute("--v1=src/test/resources/test-project-v1/src",
+			"--v2=src/test/resources/test-project-v1/src",
+			"--diff",
+			"--fail-on-bc",
+			"--fail-fast");
+
+		assertThat(out.toString()).contains("No breaking changes found.");
+		assertThat(exitCode).isEqualTo(ExitCode.SUCCESS.code());
+	}
+
 	@Test
 	void no_fail_mode_with_breaking_changes() {
 		var exitCode = cmd.execute("--v1=src/test/resources/test-project-v1/src",
@@ -254,6 +334,123 @@ class RoseauCLITest {
 		assertThat(exitCode).isEqualTo(ExitCode.SUCCESS.code());
 	}
 
+	@Test
+	void watch_requires_diff() {
+		var exitCode = cmd.execute("--v1=src/test/resources/test-project-v1/src", "--api", "--watch");
+
+		assertThat(err.toString()).contains("--watch requires --diff");
+		assertThat(exitCode).isEqualTo(ExitCode.ERROR.code());
+	}
+
+	@Test
+	void lsp_requires_diff() {
+		var exitCode = cmd.execute("--v1=src/test/resources/test-project-v1/src", "--api", "--lsp");
+
+		assertThat(err.toString()).contains("--lsp requires --diff");
+		assertThat(exitCode).isEqualTo(ExitCode.ERROR.code());
+	}
+
+	@Test
+	void watch_requires_source_directory() {
+		var exitCode = cmd.execute("--v1=src/test/resources/test-project-v1/test-project-v1.jar",
+			"--v2=src/test/resources/test-project-v2/test-project-v2.jar",
+			"--diff",
+			"--watch");
+
+		assertThat(err.toString()).contains("--watch requires a source directory as --v2");
+		assertThat(exitCode).isEqualTo(ExitCode.ERROR.code());
+	}
+
+	@Test
+	void batch_diffs_every_pair(@TempDir Path tempDir) throws IOException {
+		var report = tempDir.resolve("reports/jars.json");
+		var manifest = tempDir.resolve("manifest.yaml");
+		Files.writeString(manifest, """
+			concurrency: 2
+			pairs:
+			  - name: sources
+			    v1: src/test/resources/test-project-v1/src
+			    v2: src/test/resources/test-project-v2/src
+			  - name: jars
+			    v1: src/test/resources/test-project-v1/test-project-v1.jar
+			    v2: src/test/resources/test-project-v2/test-project-v2.jar
+			    reports:
+			      - file: %s
+			        format: JSON
+			  - name: unchanged
+			    v1: src/test/resources/test-project-v2/test-project-v2.jar
+			    v2: src/test/resources/test-project-v2/test-project-v2.jar
+			""".formatted(report));
+
+		var exitCode = cmd.execute("--batch=" + manifest, "--fail-on-bc");
+
+		assertThat(out.toString()).containsPattern("sources: \\d+ breaking changes");
+		assertThat(out.toString()).containsPattern("jars: \\d+ breaking changes");
+		assertThat(out.toString()).contains("unchanged: 0 breaking changes");
+		assertThat(out.toString()).contains("3 pairs diffed, 2 with breaking changes, 0 failed");
+		assertThat(Files.readString(report)).contains("\"kind\": \"EXECUTABLE_REMOVED\"");
+		assertThat(exitCode).isEqualTo(ExitCode.BREAKING.code());
+	}
+
+	@Test
+	void batch_reports_failing_pairs(@TempDir Path tempDir) throws IOException {
+		var manifest = tempDir.resolve("manifest.yaml");
+		Files.writeString(manifest, """
+			pairs:
+			  - name: corrupt
+			    v1: src/test/resources/corrupt.jar
+			    v2: src/test/resources/test-project-v2/test-project-v2.jar
+			  - name: jars
+			    v1: src/test/resources/test-project-v1/test-project-v1.jar
+			    v2: src/test/resources/test-project-v2/test-project-v2.jar
+			""");
+
+		var exitCode = cmd.execute("--batch=" + manifest);
+
+		assertThat(err.toString()).contains("corrupt: failed");
+		assertThat(out.toString()).containsPattern("jars: \\d+ breaking changes");
+		assertThat(exitCode).isEqualTo(ExitCode.ERROR.code());
+	}
+
+	@Test
+	void batch_unresolvable_pairs_do_not_stop_the_batch(@TempDir Path tempDir) throws IOException {
+		var remote = Files.createDirectory(tempDir.resolve("remote"));
+		var manifest = tempDir.resolve("manifest.yaml");
+		Files.writeString(manifest, """
+			pairs:
+			  - name: unresolvable
+			    v1: com.example:missing:1.0
+			    v2: src/test/resources/test-project-v2/test-project-v2.jar
+			  - name: invalid
+			    v1: "git:"
+			    v2: src/test/resources/test-project-v2/test-project-v2.jar
+			  - name: jars
+			    v1: src/test/resources/test-project-v1/test-project-v1.jar
+			    v2: src/test/resources/test-project-v2/test-project-v2.jar
+			""");
+
+		var exitCode = cmd.execute("--batch=" + manifest,
+			"--repository=" + remote.toUri(),
+			"--local-repository=" + tempDir.resolve("local"));
+
+		assertThat(err.toString()).contains("unresolvable: failed: Failed to download com.example:missing:1.0");
+		assertThat(err.toString()).contains("invalid: failed: invalid version");
+		assertThat(out.toString()).containsPattern("jars: \\d+ breaking changes");
+		assertThat(out.toString()).contains("3 pairs diffed, 1 with breaking changes, 2 failed");
+		assertThat(exitCode).isEqualTo(ExitCode.ERROR.code());
+	}
+
+	@Test
+	void batch_manifest_without_pairs(@TempDir Path tempDir) throws IOException {
+		var manifest = tempDir.resolve("manifest.yaml");
+		Files.writeString(manifest, "concurrency: 2\n");
+
+		var exitCode = cmd.execute("--batch=" + manifest);
+
+		assertThat(err.toString()).contains("lists no pairs");
+		assertThat(exitCode).isEqualTo(ExitCode.ERROR.code());
+	}
+
 	@Test
 	void valid_pom(@TempDir Path tempDir) {
 		var api = tempDir.resolve("api.json");
@@ -653,6 +850,33 @@ class RoseauCLITest {
 		assertThat(exitCode).isEqualTo(ExitCode.SUCCESS.code());
 	}
 
+	@Test
+	void diff_with_unresolvable_dependency(@TempDir Path remote, @TempDir Path local) throws Exception {
+		String missing = """
+			<dependencies>
+				<dependency>
+					<groupId>com.example</groupId>
+					<artifactId>missing</artifactId>
+					<version>1.0</version>
+				</dependency>
+			</dependencies>""";
+		ArtifactDownloaderTest.deploy(remote, "lib", "1.0",
+			Path.of("src/test/resources/test-project-v1/test-project-v1.jar"), missing);
+		ArtifactDownloaderTest.deploy(remote, "lib", "2.0",
+			Path.of("src/test/resources/test-project-v2/test-project-v2.jar"), missing);
+
+		var exitCode = cmd.execute(
+			"--v1=com.example:lib:1.0",
+			"--v2=com.example:lib:2.0",
+			"--repository=" + remote.toUri(),
+			"--local-repository=" + local,
+			"--diff",
+			"--plain");
+
+		assertThat(out.toString()).contains("pkg.T.m() EXECUTABLE_REMOVED");
+		assertThat(exitCode).isEqualTo(ExitCode.SUCCESS.code());
+	}
+
 	@Test
 	@Timeout(value = 30, unit = TimeUnit.SECONDS)
 	void nonexistent_artifact_gives_clear_error() {
@@ -661,4 +885,40 @@ class RoseauCLITest {
 		assertThat(err.toString()).contains("Failed to download no-group:no-artifact:0.0.1");
 		assertThat(exitCode).isEqualTo(ExitCode.ERROR.code());
 	}
+
+	// --- Git revisions --- //
+	@Test
+	void diff_mode_with_git_revisions(@TempDir Path tempDir) throws Exception {
+		var source = tempDir.resolve("src/main/java/pkg/T.java");
+		Files.createDirectories(source.getParent());
+		try (var git = Git.init().setDirectory(tempDir.toFile()).call()) {
+			for (var version : List.of("v1", "v2")) {
+				Files.copy(Path.of("src/test/resources/test-project-%s/src/pkg/T.java".formatted(version)), source,
+					StandardCopyOption.REPLACE_EXISTING);
+				git.add().addFilepattern(".").call();
+				git.commit().setSign(false).setAuthor("roseau", "roseau@example.com")
+					.setCommitter("roseau", "roseau@example.com").setMessage(version).call();
+			}
+		}
+
+		var exitCode = cmd.execute("--v1=git:HEAD~1",
+			"--v2=git:HEAD",
+			"--git-repository=" + tempDir,
+			"--diff",
+			"--plain");
+
+		assertThat(out.toString()).contains("pkg.T.m() EXECUTABLE_REMOVED");
+		assertThat(out.toString()).contains("pkg.T FORMAL_TYPE_PARAMETER_REMOVED");
+		assertThat(exitCode).isEqualTo(ExitCode.SUCCESS.code());
+	}
+
+	@Test
+	void unknown_git_revision_gives_clear_error(@TempDir Path tempDir) throws Exception {
+		Git.init().setDirectory(tempDir.toFile()).call().close();
+
+		var exitCode = cmd.execute("--v1=git:unknown", "--git-repository=" + tempDir, "--api");
+
+		assertThat(err.toString()).contains("Unknown git revision: unknown");
+		assertThat(exitCode).isEqualTo(ExitCode.ERROR.code());
+	}
 }
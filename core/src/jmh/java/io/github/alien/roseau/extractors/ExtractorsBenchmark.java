@@ -0,0 +1,67 @@
+package io.github.alien.roseau.extractors;
+
+import io.github.alien.roseau.Library;
+import io.github.alien.roseau.api.model.LibraryTypes;
+import io.github.alien.roseau.api.model.factory.DefaultApiFactory;
+import io.github.alien.roseau.api.model.reference.CachingTypeReferenceFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the bytecode extractors on a JAR. Members of non-exported types are forced so that both extractors parse
+ * every class file entirely. Run with {@code mvn -pl core -Pjmh test-compile exec:java
+ * -Dexec.mainClass=io.github.alien.roseau.extractors.ExtractorsBenchmark -Dexec.classpathScope=test}, optionally
+ * passing the path to another JAR as first argument.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractorsBenchmark {
+	@Param({"src/test/resources/api-showcase.jar"})
+	String jar;
+
+	@Param({"ASM", "CLASSFILE"})
+	ExtractorType extractorType;
+
+	Library library;
+	TypesExtractor extractor;
+
+	@Setup
+	public void setUp() {
+		library = Library.builder().location(Path.of(jar)).extractorType(extractorType).build();
+		extractor = extractorType.newExtractor(new DefaultApiFactory(new CachingTypeReferenceFactory()));
+	}
+
+	@Benchmark
+	public int extractTypes() {
+		LibraryTypes types = extractor.extractTypes(library);
+		return types.getAllTypes().stream().mapToInt(type -> type.getDeclaredMethods().size()).sum();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		OptionsBuilder options = new OptionsBuilder();
+		options.include(ExtractorsBenchmark.class.getSimpleName());
+		if (args.length > 0) {
+			options.param("jar", args[0]);
+		}
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,202 @@
+package io.github.alien.roseau;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import io.github.alien.roseau.api.model.LibraryTypes;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+/**
+ * A content-addressed store of the {@link LibraryTypes} snapshots of JAR files, keyed by the SHA-256 checksum of their
+ * content. Identical JAR files (e.g., an artifact copied under several coordinates) share a single snapshot, and a
+ * library whose JAR is indexed is built without extracting its types again. Snapshots are stored per Roseau version,
+ * so that snapshots written by another version, whose extraction may differ, are never reused.
+ * <p>
+ * Snapshots are written atomically: an interrupted {@link #indexRepository(Path, int)} leaves no partial snapshot, and
+ * running it again resumes where it stopped. This class is thread-safe.
+ */
+public final class ApiIndex {
+	private final Path directory;
+	private final String version;
+
+	private static final String SNAPSHOT_EXTENSION = ".json";
+	private static final Set<String> NON_CODE_CLASSIFIERS = Set.of("-sources.jar", "-javadoc.jar", "-test-sources.jar");
+	private static final Logger LOGGER = LogManager.getLogger(ApiIndex.class);
+
+	/**
+	 * The outcome of indexing a repository.
+	 *
+	 * @param indexed    the number of JAR files whose types were extracted and stored
+	 * @param reused     the number of JAR files already indexed by an earlier run
+	 * @param duplicates the number of JAR files identical to another JAR file of the same run
+	 * @param skipped    the number of JAR files without class files (e.g., sources or Javadoc JARs)
+	 * @param failed     the number of JAR files that could not be indexed
+	 */
+	public record Summary(int indexed, int reused, int duplicates, int skipped, int failed) {
+	}
+
+	/**
+	 * Creates an index backed by the provided directory, created on first write.
+	 *
+	 * @param directory the directory snapshots are stored in
+	 * @param version   the version of Roseau extracting the snapshots; snapshots of other versions are never reused
+	 */
+	public ApiIndex(Path directory, String version) {
+		Preconditions.checkNotNull(directory);
+		Preconditions.checkNotNull(version);
+		Preconditions.checkArgument(!version.isBlank() && !version.contains("/") && !version.contains("\\") &&
+			!version.contains(".."), "Invalid version %s", version);
+		this.directory = directory.toAbsolutePath();
+		this.version = version;
+	}
+
+	/**
+	 * The default index directory, {@code ~/.roseau/index}.
+	 *
+	 * @return the default index directory
+	 */
+	public static Path defaultDirectory() {
+		return Path.of(System.getProperty("user.home"), ".roseau", "index");
+	}
+
+	/**
+	 * Looks up the snapshot of a JAR library. Snapshots cover every package of a JAR, so scoped libraries (see
+	 * {@link Library#isScoped()}) are never looked up. The returned types are bound to the supplied library, so that
+	 * its classpath is used to resolve them.
+	 *
+	 * @param library the library to look up
+	 * @return the indexed types of the library, or empty if it is not a JAR, is scoped, or is not indexed by this
+	 * version of Roseau
+	 */
+	public Optional<LibraryTypes> find(Library library) {
+		Preconditions.checkNotNull(library);
+		if (!library.isJar() || library.isScoped()) {
+			return Optional.empty();
+		}
+
+		try {
+			Path snapshot = snapshot(checksum(library.getLocation()));
+			if (!Files.isRegularFile(snapshot)) {
+				return Optional.empty();
+			}
+
+			LibraryTypes indexed = LibraryTypes.fromJson(snapshot);
+			LOGGER.debug("Using indexed snapshot {} of {}", snapshot, library.getLocation());
+			return Optional.of(indexed.withLibrary(library));
+		} catch (IOException e) {
+			LOGGER.warn("Ignoring unreadable snapshot of {}: {}", library.getLocation(), e.getMessage());
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Extracts and stores the types of every JAR file found under a directory, typically a local Maven repository
+	 * such as {@code ~/.m2/repository}. JAR files are processed in parallel; those without class files are skipped, and
+	 * those already indexed are not extracted again. A JAR file that cannot be indexed is logged and does not stop the
+	 * others.
+	 *
+	 * @param repository  the directory to walk
+	 * @param parallelism the number of JAR files processed at once
+	 * @return a summary of the indexing
+	 * @throws RoseauException if the repository cannot be walked
+	 */
+	public Summary indexRepository(Path repository, int parallelism) {
+		Preconditions.checkNotNull(repository);
+		Preconditions.checkArgument(parallelism > 0, "parallelism must be positive");
+
+		List<Path> jars;
+		try (Stream<Path> files = Files.walk(repository)) {
+			jars = files
+				.filter(file -> file.getFileName().toString().endsWith(".jar") && Files.isRegularFile(file))
+				.sorted()
+				.toList();
+		} catch (IOException e) {
+			throw new RoseauException("Failed to walk " + repository, e);
+		}
+
+		Stopwatch sw = Stopwatch.createStarted();
+		Set<String> claimed = ConcurrentHashMap.newKeySet();
+		AtomicInteger indexed = new AtomicInteger();
+		AtomicInteger reused = new AtomicInteger();
+		AtomicInteger duplicates = new AtomicInteger();
+		AtomicInteger skipped = new AtomicInteger();
+		AtomicInteger failed = new AtomicInteger();
+		try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+			CompletableFuture.allOf(jars.stream()
+				.map(jar -> CompletableFuture.runAsync(() -> {
+					try {
+						if (!containsCode(jar)) {
+							skipped.incrementAndGet();
+							return;
+						}
+
+						String checksum = checksum(jar);
+						if (!claimed.add(checksum)) {
+							duplicates.incrementAndGet();
+						} else if (Files.isRegularFile(snapshot(checksum))) {
+							reused.incrementAndGet();
+						} else {
+							write(checksum, Roseau.buildLibraryTypes(Library.of(jar)));
+							indexed.incrementAndGet();
+						}
+					} catch (IOException | RuntimeException e) {
+						LOGGER.warn("Failed to index {}: {}", jar, e.getMessage());
+						failed.incrementAndGet();
+					}
+				}, executor))
+				.toArray(CompletableFuture[]::new)).join();
+		}
+
+		Summary summary = new Summary(indexed.get(), reused.get(), duplicates.get(), skipped.get(), failed.get());
+		LOGGER.debug("Indexing {} took {}ms ({})", repository, sw.elapsed().toMillis(), summary);
+		return summary;
+	}
+
+	private static boolean containsCode(Path jar) throws IOException {
+		String name = jar.getFileName().toString();
+		if (NON_CODE_CLASSIFIERS.stream().anyMatch(name::endsWith)) {
+			return false;
+		}
+
+		try (ZipFile zip = new ZipFile(jar.toFile())) {
+			return zip.stream().anyMatch(entry -> entry.getName().endsWith(".class"));
+		}
+	}
+
+	private static String checksum(Path jar) throws IOException {
+		return MoreFiles.asByteSource(jar).hash(Hashing.sha256()).toString();
+	}
+
+	private Path snapshot(String checksum) {
+		return directory.resolve(version).resolve(checksum.substring(0, 2)).resolve(checksum + SNAPSHOT_EXTENSION);
+	}
+
+	private void write(String checksum, LibraryTypes types) throws IOException {
+		Path snapshot = snapshot(checksum);
+		Files.createDirectories(snapshot.getParent());
+		Path tmp = Files.createTempFile(snapshot.getParent(), checksum, ".tmp");
+		try {
+			types.writeJson(tmp);
+			Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+}
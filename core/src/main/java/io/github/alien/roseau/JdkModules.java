@@ -0,0 +1,115 @@
+package io.github.alien.roseau;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Locates the modules of a JDK as individual {@link Library} instances, either from the {@code jrt:/} file system of a
+ * JDK image or from a directory of {@code .jmod} files. The resulting libraries are meant to be analyzed together with
+ * {@link Roseau#buildModuleAPIs(List)}, e.g., to compare two JDK feature releases module by module.
+ */
+public final class JdkModules {
+	private static final URI JRT_URI = URI.create("jrt:/");
+	private static final Path CURRENT_JAVA_HOME = Path.of(System.getProperty("java.home")).toAbsolutePath();
+	// jrt:/ file systems of other JDKs stay open for the lifetime of the libraries pointing to them
+	private static final Map<Path, FileSystem> IMAGES = new ConcurrentHashMap<>();
+
+	private JdkModules() {
+
+	}
+
+	/**
+	 * Returns the modules of the provided JDK, either a JDK home containing a runtime image ({@code lib/modules}) or a
+	 * directory of {@code .jmod} files.
+	 *
+	 * @param location the JDK home or the directory of {@code .jmod} files
+	 * @return one library per module, sorted by location
+	 * @throws RoseauException if the location is neither a JDK image nor a directory of {@code .jmod} files
+	 */
+	public static List<Library> of(Path location) {
+		Preconditions.checkNotNull(location);
+		if (isImage(location)) {
+			return fromImage(location);
+		} else if (Files.isDirectory(location)) {
+			return fromJmods(location);
+		} else {
+			throw new RoseauException("Not a JDK image or JMOD directory: " + location);
+		}
+	}
+
+	/**
+	 * Checks whether the provided location is the home of a JDK runtime image.
+	 *
+	 * @param location the location to check
+	 * @return true if the location contains a {@code lib/modules} image
+	 */
+	public static boolean isImage(Path location) {
+		return location != null && Files.isRegularFile(location.resolve("lib").resolve("modules"));
+	}
+
+	/**
+	 * Returns the modules stored in the runtime image of the provided JDK home, read through its {@code jrt:/} file
+	 * system. Each library points to a module directory of the image (e.g., {@code /modules/java.base}).
+	 *
+	 * @param javaHome the JDK home
+	 * @return one library per module, sorted by location
+	 * @throws RoseauException if the image cannot be read
+	 */
+	public static List<Library> fromImage(Path javaHome) {
+		Preconditions.checkArgument(isImage(javaHome), "Not a JDK image: %s", javaHome);
+		Path modules = imageFileSystem(javaHome).getPath("/modules");
+		try (Stream<Path> entries = Files.list(modules)) {
+			return entries
+				.filter(Files::isDirectory)
+				.sorted()
+				.map(Library::of)
+				.toList();
+		} catch (IOException e) {
+			throw new RoseauException("Failed to list the modules of " + javaHome, e);
+		}
+	}
+
+	/**
+	 * Returns the modules stored in the {@code .jmod} files of the provided directory (e.g., {@code $JAVA_HOME/jmods}).
+	 *
+	 * @param directory the directory containing {@code .jmod} files
+	 * @return one library per module, sorted by location
+	 * @throws RoseauException if the directory cannot be read
+	 */
+	public static List<Library> fromJmods(Path directory) {
+		try (Stream<Path> entries = Files.list(directory)) {
+			return entries
+				.filter(file -> file.getFileName().toString().endsWith(".jmod"))
+				.sorted()
+				.map(Library::of)
+				.toList();
+		} catch (IOException e) {
+			throw new RoseauException("Failed to list the JMOD files of " + directory, e);
+		}
+	}
+
+	private static FileSystem imageFileSystem(Path javaHome) {
+		Path home = javaHome.toAbsolutePath().normalize();
+		if (home.equals(CURRENT_JAVA_HOME)) {
+			return FileSystems.getFileSystem(JRT_URI);
+		}
+
+		return IMAGES.computeIfAbsent(home, h -> {
+			try {
+				return FileSystems.newFileSystem(JRT_URI, Map.of("java.home", h.toString()));
+			} catch (IOException e) {
+				throw new RoseauException("Failed to open the runtime image of " + h, e);
+			}
+		});
+	}
+}
@@ -8,14 +8,17 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 /**
@@ -29,6 +32,11 @@ import java.util.zip.ZipFile;
  *   <li>A source directory containing nested names and source files and one module declaration at most</li>
  *   <li>A {@code module-info.java}. In this case, the directory containing the module is used as root directory</li>
  *   <li>A JAR file containing at most one {@code module-info.java} file</li>
+ *   <li>A source archive (e.g., {@code lib-1.0-sources.jar}) containing source files and no class file, parsed in
+ *   memory</li>
+ *   <li>A JMOD file, whose class files are stored under {@code classes/}</li>
+ *   <li>A class directory (e.g., {@code target/classes}) containing compiled class files rather than source files, possibly
+ *   a module directory of a JDK image's {@code jrt:/} file system (see {@link JdkModules})</li>
  * </ul>
  * A library can be complemented with a custom classpath or a {@code pom.xml} file for dependency resolution. The
  * extractor used to parse and infer types can be customized. Use {@link #of(Path)} or {@link #builder()} to create new
@@ -40,29 +48,35 @@ public final class Library {
 	private final Path pom;
 	private final ExtractorType extractorType;
 	private final RoseauOptions.Exclude exclusions;
+	private final List<String> packages;
 	@JsonIgnore
 	private final Supplier<List<Path>> classpath;
 
+	/**
+	 * Shared by all libraries so that identical poms are only resolved once
+	 */
+	private static final MavenClasspathBuilder CLASSPATH_BUILDER = new MavenClasspathBuilder();
 	private static final Logger LOGGER = LogManager.getLogger(Library.class);
 
 	/**
 	 * Use the provided {@link #of(Path)} or {@link #builder()} instead.
 	 */
 	private Library(Path location, List<Path> customClasspath, Path pom, ExtractorType extractorType,
-	                RoseauOptions.Exclude exclusions) {
+	                RoseauOptions.Exclude exclusions, List<String> packages) {
 		this.location = location.toAbsolutePath();
 		this.customClasspath = List.copyOf(customClasspath);
 		this.pom = pom;
 		this.extractorType = extractorType;
 		this.exclusions = exclusions;
+		// Absent from API files serialized by earlier versions
+		this.packages = packages != null ? List.copyOf(packages) : List.of();
 		this.classpath = Suppliers.memoize(this::resolveClasspath);
 	}
 
 	private List<Path> resolveClasspath() {
 		List<Path> resolved = new ArrayList<>(customClasspath);
 		if (pom != null && Files.isRegularFile(pom)) {
-			MavenClasspathBuilder builder = new MavenClasspathBuilder();
-			resolved.addAll(builder.buildClasspath(pom));
+			resolved.addAll(CLASSPATH_BUILDER.buildClasspath(pom));
 		}
 		return resolved.stream()
 			.<Path>mapMulti((p, downstream) -> {
@@ -85,8 +99,8 @@ public final class Library {
 	/**
 	 * Constructs a new library instance from the given physical location.
 	 *
-	 * @param location the physical location of the library, either a source directory, a JAR file, or a
-	 *                 {@code module-info.java} file
+	 * @param location the physical location of the library, either a source directory, a JAR file, a source
+	 *                 archive, a class directory, or a {@code module-info.java} file
 	 * @return a new library instance
 	 */
 	public static Library of(Path location) {
@@ -123,12 +137,71 @@ public final class Library {
 		return exclusions;
 	}
 
+	/**
+	 * @return the package prefixes the analysis is restricted to; empty if the whole library is analyzed
+	 */
+	public List<String> getPackages() {
+		return packages;
+	}
+
+	/**
+	 * Whether the analysis is restricted to a subset of the library's packages.
+	 *
+	 * @return true if package prefixes are set
+	 */
+	public boolean isScoped() {
+		return !packages.isEmpty();
+	}
+
+	/**
+	 * Checks whether the given package is within the analysis scope of this library, i.e., whether it is one of the
+	 * configured package prefixes or one of their sub-packages. Every package is in scope when no prefix is set.
+	 *
+	 * @param packageName the package name to check (e.g., {@code com.example.api})
+	 * @return true if the package is in scope
+	 */
+	public boolean isInScope(String packageName) {
+		return packages.isEmpty() || packages.stream().anyMatch(prefix ->
+			packageName.equals(prefix) ||
+				(packageName.startsWith(prefix) && packageName.charAt(prefix.length()) == '.'));
+	}
+
+	/**
+	 * Whether the library is a JAR (or JMOD) file of compiled classes, analyzed with a bytecode extractor.
+	 *
+	 * @return true if the library is a JAR file
+	 */
 	public boolean isJar() {
-		return isJar(location);
+		return isJar(location) && extractorType != ExtractorType.JDT;
 	}
 
+	/**
+	 * Whether the library is an archive of source files, such as a {@code -sources.jar}, analyzed with
+	 * {@link ExtractorType#JDT} without being extracted to disk.
+	 *
+	 * @return true if the library is a source archive
+	 */
+	public boolean isSourcesJar() {
+		return isJar(location) && extractorType == ExtractorType.JDT;
+	}
+
+	/**
+	 * Whether the library is a directory of source files, analyzed with {@link ExtractorType#JDT}.
+	 *
+	 * @return true if the library is a source directory
+	 */
 	public boolean isSources() {
-		return isSources(location);
+		return isDirectory(location) && extractorType == ExtractorType.JDT;
+	}
+
+	/**
+	 * Whether the library is a directory of compiled class files, such as Maven's {@code target/classes}, analyzed with
+	 * a bytecode extractor.
+	 *
+	 * @return true if the library is a class directory
+	 */
+	public boolean isClasses() {
+		return isDirectory(location) && extractorType != ExtractorType.JDT;
 	}
 
 	private static boolean isJar(Path file) {
@@ -144,10 +217,50 @@ public final class Library {
 		}
 	}
 
-	private static boolean isSources(Path file) {
+	// An archive containing source files but no class file
+	private static boolean isSourceArchive(Path file) {
+		if (!isJar(file)) {
+			return false;
+		}
+
+		try (ZipFile zf = new ZipFile(file.toFile())) {
+			boolean hasSources = false;
+			Enumeration<? extends ZipEntry> entries = zf.entries();
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+				if (entry.getName().endsWith(".class")) {
+					return false;
+				}
+				hasSources |= entry.getName().endsWith(".java");
+			}
+			return hasSources;
+		} catch (IOException _) {
+			return false;
+		}
+	}
+
+	private static boolean isDirectory(Path file) {
 		return file != null && Files.isDirectory(file);
 	}
 
+	// A directory containing class files rather than source files, judging from the first one found
+	private static boolean isClassDirectory(Path directory) {
+		try (Stream<Path> files = Files.find(directory, Integer.MAX_VALUE,
+			(file, a) -> a.isRegularFile() && (isClassFile(file) || isSourceFile(file)))) {
+			return files.findFirst().map(Library::isClassFile).orElse(false);
+		} catch (IOException | UncheckedIOException _) {
+			return false;
+		}
+	}
+
+	private static boolean isClassFile(Path file) {
+		return file.getFileName().toString().endsWith(".class");
+	}
+
+	private static boolean isSourceFile(Path file) {
+		return file.getFileName().toString().endsWith(".java");
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if (this == obj) {
@@ -161,23 +274,24 @@ public final class Library {
 			Objects.equals(customClasspath, other.customClasspath) &&
 			Objects.equals(pom, other.pom) &&
 			Objects.equals(exclusions, other.exclusions) &&
+			Objects.equals(packages, other.packages) &&
 			extractorType == other.extractorType;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(location, customClasspath, pom, exclusions, extractorType);
+		return Objects.hash(location, customClasspath, pom, exclusions, packages, extractorType);
 	}
 
 	@Override
 	public String toString() {
-		return "Library[location=%s, extractor=%s, classpath=%s, pom=%s, excludes=%s]".formatted(
-			location, extractorType, customClasspath, pom, exclusions);
+		return "Library[location=%s, extractor=%s, classpath=%s, pom=%s, excludes=%s, packages=%s]".formatted(
+			location, extractorType, customClasspath, pom, exclusions, packages);
 	}
 
 	/**
 	 * Builder class for constructing {@link Library} instances. Use the provided methods to set the physical location,
-	 * classpath, {@code pom.xml} file, and API exclusions of the library, and invoke {@link #build()} to create
+	 * classpath, {@code pom.xml} file, API exclusions, and analyzed packages of the library, and invoke {@link #build()} to create
 	 * the corresponding {@link Library}. Only the library's location is required.
 	 */
 	public static final class Builder {
@@ -185,13 +299,16 @@ public final class Library {
 		private List<Path> classpath = List.of();
 		private Path pom;
 		private RoseauOptions.Exclude exclusions = new RoseauOptions.Exclude(List.of(), List.of());
+		private List<String> packages = List.of();
+		private ExtractorType extractorType;
 
 		private Builder() {
 
 		}
 
 		/**
-		 * Sets the library's physical location, either a source directory, a JAR file, or a {@code module-info.java} file
+		 * Sets the library's physical location, either a source directory, a JAR file, a source archive, a class
+		 * directory, or a {@code module-info.java} file
 		 *
 		 * @param location the physical location
 		 * @return this builder
@@ -234,8 +351,33 @@ public final class Library {
 			return this;
 		}
 
+		/**
+		 * Restricts the analysis to the given package prefixes. Types outside these packages are not extracted upfront;
+		 * they are only parsed when needed to resolve the in-scope types.
+		 *
+		 * @param packages the package prefixes (e.g., {@code com.example.api}); empty to analyze the whole library
+		 * @return this builder
+		 */
+		public Builder packages(List<String> packages) {
+			this.packages = packages;
+			return this;
+		}
+
+		/**
+		 * Sets the extractor used to extract the library's types, overriding the default one (JDT for source directories
+		 * and source archives, ASM for JARs and class directories). {@link ExtractorType#CLASSFILE} is an experimental
+		 * alternative to ASM.
+		 *
+		 * @param extractorType the extractor type
+		 * @return this builder
+		 */
+		public Builder extractorType(ExtractorType extractorType) {
+			this.extractorType = extractorType;
+			return this;
+		}
+
 		private static boolean isValidLocation(Path location) {
-			return isModuleInfo(location) || isSources(location) || isJar(location);
+			return isModuleInfo(location) || isDirectory(location) || isJar(location);
 		}
 
 		private static boolean isModuleInfo(Path file) {
@@ -263,7 +405,8 @@ public final class Library {
 		 * Constructs and returns a new {@link Library} instance based on the parameters set in the builder.
 		 *
 		 * @return the new instance
-		 * @throws IllegalArgumentException if the library's location or POM file is invalid
+		 * @throws RoseauException if the library's location or POM file is invalid, or if the extractor cannot process
+		 *                         the library's location
 		 */
 		public Library build() {
 			if (!isValidLocation(location)) {
@@ -278,13 +421,23 @@ public final class Library {
 				throw new RoseauException("Invalid path to POM file: " + pom);
 			}
 
-			if (isSources(location) && hasMultipleModuleInfo(location)) {
+			// Default extractors: JDT for sources, ASM for compiled classes. JDT processes any directory, even one that
+			// does not contain any source file yet, so there is nothing to look for
+			ExtractorType type = extractorType;
+			if (type != ExtractorType.JDT || !isDirectory(location)) {
+				boolean sources = isDirectory(location) ? !isClassDirectory(location) : isSourceArchive(location);
+				if (type == null) {
+					type = sources ? ExtractorType.JDT : ExtractorType.ASM;
+				} else if ((type == ExtractorType.JDT) != sources) {
+					throw new RoseauException("Extractor %s cannot process %s".formatted(type, location));
+				}
+			}
+
+			if (type == ExtractorType.JDT && isDirectory(location) && hasMultipleModuleInfo(location)) {
 				throw new RoseauException("A library cannot contain multiple module-info.java");
 			}
 
-			// Default extractors
-			ExtractorType extractorType = isSources(location) ? ExtractorType.JDT : ExtractorType.ASM;
-			return new Library(location, classpath, pom, extractorType, exclusions);
+			return new Library(location, classpath, pom, type, exclusions, packages);
 		}
 	}
 }
@@ -2,33 +2,178 @@ package io.github.alien.roseau;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.base.Suppliers;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.apache.maven.shared.invoker.DefaultInvocationRequest;
-import org.apache.maven.shared.invoker.DefaultInvoker;
-import org.apache.maven.shared.invoker.InvocationRequest;
-import org.apache.maven.shared.invoker.InvocationResult;
-import org.apache.maven.shared.invoker.Invoker;
+import org.apache.maven.model.Activation;
+import org.apache.maven.model.ActivationFile;
+import org.apache.maven.model.ActivationOS;
+import org.apache.maven.model.ActivationProperty;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.Repository;
+import org.apache.maven.model.building.DefaultModelBuilderFactory;
+import org.apache.maven.model.building.DefaultModelBuildingRequest;
+import org.apache.maven.model.building.FileModelSource;
+import org.apache.maven.model.building.ModelBuildingException;
+import org.apache.maven.model.building.ModelBuildingRequest;
+import org.apache.maven.model.building.ModelSource;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.apache.maven.model.resolution.ModelResolver;
+import org.apache.maven.model.resolution.UnresolvableModelException;
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.apache.maven.settings.Mirror;
+import org.apache.maven.settings.Server;
+import org.apache.maven.settings.Settings;
+import org.apache.maven.settings.building.DefaultSettingsBuilderFactory;
+import org.apache.maven.settings.building.DefaultSettingsBuildingRequest;
+import org.apache.maven.settings.building.SettingsBuildingException;
+import org.apache.maven.settings.io.xpp3.SettingsXpp3Writer;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.ArtifactType;
+import org.eclipse.aether.artifact.ArtifactTypeRegistry;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.graph.Exclusion;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.Proxy;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.resolution.DependencyRequest;
+import org.eclipse.aether.resolution.DependencyResolutionException;
+import org.eclipse.aether.resolution.DependencyResult;
+import org.eclipse.aether.supplier.RepositorySystemSupplier;
+import org.eclipse.aether.util.graph.visitor.PreorderNodeListGenerator;
+import org.eclipse.aether.util.repository.AuthenticationBuilder;
+import org.eclipse.aether.util.repository.DefaultAuthenticationSelector;
+import org.eclipse.aether.util.repository.DefaultMirrorSelector;
+import org.eclipse.aether.util.repository.DefaultProxySelector;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Arrays;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
- * Utility class to automatically infer the classpath of a Maven library. This implementation attempts to retrieve the
- * classpath from a supplied {@code pom.xml} file using {@code mvn dependency:build-classpath}.
+ * Utility class to automatically infer the classpath of a Maven library. This implementation builds the effective
+ * model of a supplied {@code pom.xml} file and resolves its dependencies in-process with Maven Resolver, like
+ * {@code mvn dependency:build-classpath} would: direct dependencies of any scope and their transitive compile and
+ * runtime dependencies.
+ * <p>
+ * Resolved classpaths are cached on disk and in memory, keyed by a checksum of the dependencies, dependency
+ * management, and repositories of the effective model, so that libraries with identical poms (e.g., two versions of a
+ * library that share their dependencies) are only resolved once. They are also keyed by the content of the pom itself,
+ * so that resolving the same pom again does not build its effective model: that key covers the poms of its parent
+ * chain, the Maven settings, and the properties, JDK, and OS its profiles are activated by. Classpaths that depend on
+ * SNAPSHOT versions or version ranges may change between runs and are never cached on disk.
+ * <p>
+ * Like Maven, the default builder reads the user's {@code ~/.m2/settings.xml} (and the global settings of
+ * {@code maven.home}, if set): their local repository, offline mode, mirrors, proxies, server credentials, and active
+ * profiles apply to resolution. Encrypted passwords are not supported. This class is thread-safe.
  */
 public class MavenClasspathBuilder {
+	private final Path localRepository;
+	private final List<RemoteRepository> remoteRepositories;
+	private final Path cacheDirectory;
+	private final Settings settings;
+	private final Properties systemProperties = systemProperties();
+	private final Supplier<String> settingsDigest = Suppliers.memoize(this::digestSettings);
+	private final Map<String, List<Path>> resolved = new ConcurrentHashMap<>();
+	// The repository system is only created on the first cache miss, and shared by later resolutions
+	private final Supplier<RepositorySystem> system = Suppliers.memoize(() -> new RepositorySystemSupplier().get());
+
+	private static final RemoteRepository CENTRAL = new RemoteRepository.Builder("central", "default",
+		"https://repo.maven.apache.org/maven2/").build();
 	private static final Logger LOGGER = LogManager.getLogger(MavenClasspathBuilder.class);
 
 	/**
-	 * Returns the classpath of the supplied {@code pom.xml} file using {@code mvn dependency:build-classpath}.
+	 * Creates a builder resolving dependencies from Maven Central into the user's local repository (
+	 * {@code maven.repo.local}, the {@code localRepository} of the user's settings, or {@code ~/.m2/repository}),
+	 * applying the user's Maven settings and caching classpaths in {@code ~/.roseau/classpath}.
+	 */
+	public MavenClasspathBuilder() {
+		this(readSettings(Path.of(System.getProperty("user.home"), ".m2", "settings.xml")),
+			Path.of(System.getProperty("user.home"), ".roseau", "classpath"));
+	}
+
+	private MavenClasspathBuilder(Settings settings, Path cacheDirectory) {
+		this(defaultLocalRepository(settings), List.of(URI.create(CENTRAL.getUrl())), cacheDirectory, settings);
+	}
+
+	/**
+	 * Creates a builder resolving dependencies from the provided remote repositories into the provided local
+	 * repository. Without remote repositories, resolution is offline and only relies on the local repository. No Maven
+	 * settings are read.
+	 *
+	 * @param localRepository    the local repository
+	 * @param remoteRepositories the URLs of the remote repositories, in addition to those declared in poms
+	 * @param cacheDirectory     the directory resolved classpaths are cached in
+	 */
+	public MavenClasspathBuilder(Path localRepository, List<URI> remoteRepositories, Path cacheDirectory) {
+		this(localRepository, remoteRepositories, cacheDirectory, new Settings());
+	}
+
+	/**
+	 * Creates a builder resolving dependencies from the provided remote repositories into the provided local
+	 * repository, applying the mirrors, proxies, server credentials, offline mode, and active profiles of the provided
+	 * Maven settings file. The local repository of the settings is ignored.
+	 *
+	 * @param localRepository    the local repository
+	 * @param remoteRepositories the URLs of the remote repositories, in addition to those declared in poms
+	 * @param cacheDirectory     the directory resolved classpaths are cached in
+	 * @param settingsFile       the user's Maven settings file, e.g., {@code ~/.m2/settings.xml}; ignored if missing
+	 */
+	public MavenClasspathBuilder(Path localRepository, List<URI> remoteRepositories, Path cacheDirectory,
+	                             Path settingsFile) {
+		this(localRepository, remoteRepositories, cacheDirectory, readSettings(settingsFile));
+	}
+
+	private MavenClasspathBuilder(Path localRepository, List<URI> remoteRepositories, Path cacheDirectory,
+	                              Settings settings) {
+		Preconditions.checkNotNull(localRepository);
+		Preconditions.checkNotNull(remoteRepositories);
+		Preconditions.checkNotNull(cacheDirectory);
+		this.localRepository = localRepository.toAbsolutePath();
+		this.remoteRepositories = remoteRepositories.stream()
+			.map(uri -> uri.toString().equals(CENTRAL.getUrl())
+				? CENTRAL
+				: new RemoteRepository.Builder("remote-" + remoteRepositories.indexOf(uri), "default", uri.toString())
+				.build())
+			.toList();
+		this.cacheDirectory = cacheDirectory;
+		this.settings = settings;
+	}
+
+	/**
+	 * Returns the classpath of the supplied {@code pom.xml} file.
 	 *
 	 * @param pom the {@code pom.xml} file
 	 * @return the retrieved classpath or an empty list if something went wrong
@@ -38,108 +183,528 @@ public class MavenClasspathBuilder {
 
 		if (!Files.isRegularFile(pom)) {
 			LOGGER.warn("Invalid pom.xml file {}", pom);
+			return List.of();
 		}
 
-		String random = Long.toHexString(Double.doubleToLongBits(Math.random()));
-		Path classpathFile = pom.resolveSibling(".roseau-classpath-" + random + ".tmp");
 		try {
-			Optional<File> mvnExecutable = findMavenExecutable(pom);
-
-			if (mvnExecutable.isPresent()) {
-				InvocationRequest request = makeClasspathRequest(pom, classpathFile);
-				Invoker invoker = new DefaultInvoker();
-				invoker.setMavenExecutable(mvnExecutable.get());
-				InvocationResult result = invoker.execute(request);
-
-				if (result.getExitCode() == 0 && Files.isRegularFile(classpathFile)) {
-					String cpString = Files.readString(classpathFile);
-					List<Path> cp = Arrays.stream(cpString.split(File.pathSeparator))
-						.filter(s -> !s.isBlank())
-						.map(Path::of)
-						.filter(Files::isRegularFile)
-						.toList();
-					LOGGER.debug("Extracted classpath from {}: {} entries", pom, cp.size());
-					return cp;
-				} else {
-					LOGGER.warn("Failed to build Maven classpath from {}", () -> pom, result::getExecutionException);
-				}
-			} else {
-				LOGGER.warn("Cannot find Maven executable; skipping classpath resolution for {}", pom);
+			// Poms whose parent chain cannot be read are not cached by content, as their effective model may change
+			Optional<String> pomKey = pomChecksum(pom);
+			Optional<List<Path>> cached = pomKey.flatMap(key -> Optional.ofNullable(resolved.get(key))
+				.or(() -> readCache(key)));
+			if (cached.isPresent()) {
+				LOGGER.debug("Extracted classpath from {}: {} entries", pom, cached.get().size());
+				return cached.get();
 			}
+
+			RepositorySystem repositorySystem = system.get();
+			RepositorySystemSession session = newSession(repositorySystem);
+			Model model = buildEffectiveModel(repositorySystem, session, pom);
+			String key = checksum(model);
+
+			List<Path> cp = resolved.computeIfAbsent(key, _ -> readCache(key)
+				.orElseGet(() -> resolveDependencies(repositorySystem, session, pom, model, key)));
+			if (isCached(key)) {
+				pomKey.ifPresent(k -> {
+					resolved.put(k, cp);
+					writeCache(k, cp);
+				});
+			}
+			LOGGER.debug("Extracted classpath from {}: {} entries", pom, cp.size());
+			return cp;
+		} catch (ModelBuildingException e) {
+			LOGGER.warn("Failed to build the Maven model of {}: {}", pom, e.getMessage());
 		} catch (Exception e) {
 			// We may encounter RuntimeExceptions
 			LOGGER.warn("Failed to build Maven classpath from {}", pom, e);
-		} finally {
-			try {
-				Files.deleteIfExists(classpathFile);
-			} catch (IOException e) {
-				LOGGER.warn("Couldn't delete temporary classpath file {}", classpathFile, e);
-			}
 		}
 
 		return List.of();
 	}
 
-	private static InvocationRequest makeClasspathRequest(Path pom, Path classpathFile) {
-		InvocationRequest request = new DefaultInvocationRequest();
+	private RepositorySystemSession newSession(RepositorySystem system) {
+		DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
+		session.setLocalRepositoryManager(system.newLocalRepositoryManager(session,
+			new LocalRepository(localRepository)));
+		// Profile activation in dependency poms depends on the JDK and OS
+		session.setSystemProperties(systemProperties);
+		session.setOffline(remoteRepositories.isEmpty() || settings.isOffline());
+
+		DefaultMirrorSelector mirrors = new DefaultMirrorSelector();
+		for (Mirror mirror : settings.getMirrors()) {
+			mirrors.add(mirror.getId(), mirror.getUrl(), mirror.getLayout(), false, mirror.isBlocked(),
+				mirror.getMirrorOf(), mirror.getMirrorOfLayouts());
+		}
+		session.setMirrorSelector(mirrors);
+
+		DefaultAuthenticationSelector authentications = new DefaultAuthenticationSelector();
+		for (Server server : settings.getServers()) {
+			authentications.add(server.getId(), new AuthenticationBuilder()
+				.addUsername(server.getUsername())
+				.addPassword(server.getPassword())
+				.addPrivateKey(server.getPrivateKey(), server.getPassphrase())
+				.build());
+		}
+		session.setAuthenticationSelector(authentications);
+
+		DefaultProxySelector proxies = new DefaultProxySelector();
+		settings.getProxies().stream()
+			.filter(org.apache.maven.settings.Proxy::isActive)
+			.forEach(proxy -> proxies.add(new Proxy(proxy.getProtocol(), proxy.getHost(), proxy.getPort(),
+				new AuthenticationBuilder()
+					.addUsername(proxy.getUsername())
+					.addPassword(proxy.getPassword())
+					.build()), proxy.getNonProxyHosts()));
+		session.setProxySelector(proxies);
+		return session;
+	}
+
+	private Model buildEffectiveModel(RepositorySystem system, RepositorySystemSession session, Path pom)
+		throws ModelBuildingException {
+		DefaultModelBuildingRequest request = new DefaultModelBuildingRequest();
 		request.setPomFile(pom.toAbsolutePath().toFile());
-		request.setBatchMode(true);
-		request.addArg("dependency:build-classpath");
-		request.setReactorFailureBehavior(InvocationRequest.ReactorFailureBehavior.FailNever);
-		Properties properties = new Properties();
-		properties.setProperty("mdep.outputFile", classpathFile.toAbsolutePath().toString());
-		// "An empty string indicates include all dependencies"
-		properties.setProperty("mdep.includeScope", "");
-		request.setProperties(properties);
-		request.setOutputHandler(LOGGER::trace);
-		request.setErrorHandler(LOGGER::warn);
-		return request;
+		request.setValidationLevel(ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL);
+		request.setProcessPlugins(false);
+		request.setSystemProperties(systemProperties);
+		request.setProfiles(settingsProfiles());
+		request.setActiveProfileIds(settings.getActiveProfiles());
+		request.setModelResolver(new RepositoryModelResolver(system, session,
+			new ArrayList<>(system.newResolutionRepositories(session, remoteRepositories))));
+		return new DefaultModelBuilderFactory().newInstance().build(request).getEffectiveModel();
+	}
+
+	private List<Path> resolveDependencies(RepositorySystem system, RepositorySystemSession session, Path pom,
+	                                       Model model, String key) {
+		ArtifactTypeRegistry types = session.getArtifactTypeRegistry();
+		CollectRequest collect = new CollectRequest();
+		collect.setRootArtifact(new DefaultArtifact(model.getGroupId(), model.getArtifactId(), "pom",
+			model.getVersion()));
+		collect.setDependencies(model.getDependencies().stream()
+			.map(d -> toDependency(d, types))
+			.toList());
+		collect.setManagedDependencies(Optional.ofNullable(model.getDependencyManagement())
+			.map(DependencyManagement::getDependencies)
+			.orElse(List.of())
+			.stream()
+			.map(d -> toDependency(d, types))
+			.toList());
+		// Mirrors, proxies, and credentials of the settings apply to the repositories
+		collect.setRepositories(system.newResolutionRepositories(session,
+			repositories(model.getRepositories(), remoteRepositories)));
+
+		List<ArtifactResult> results;
+		boolean complete = true;
+		boolean stable;
+		try {
+			DependencyResult result = system.resolveDependencies(session, new DependencyRequest(collect, null));
+			results = result.getArtifactResults();
+			stable = isStable(result.getRoot(), results);
+		} catch (DependencyResolutionException e) {
+			LOGGER.warn("Failed to resolve some dependencies of {}: {}", pom, e.getMessage());
+			results = e.getResult() != null ? e.getResult().getArtifactResults() : List.of();
+			complete = false;
+			stable = false;
+		}
+
+		List<Path> cp = results.stream()
+			.filter(ArtifactResult::isResolved)
+			.map(result -> result.getArtifact().getFile())
+			.filter(Objects::nonNull)
+			.map(File::toPath)
+			.filter(Files::isRegularFile)
+			.distinct()
+			.toList();
+		// Partial classpaths are not persisted, so that later runs attempt to resolve them again, and neither are
+		// classpaths whose SNAPSHOT or version-range dependencies may resolve to other artifacts later
+		if (complete && stable) {
+			writeCache(key, cp);
+		}
+		return cp;
+	}
+
+	private static boolean isStable(DependencyNode root, List<ArtifactResult> results) {
+		if (results.stream().anyMatch(result -> result.getArtifact() != null && result.getArtifact().isSnapshot())) {
+			return false;
+		}
+
+		PreorderNodeListGenerator nodes = new PreorderNodeListGenerator();
+		if (root != null) {
+			root.accept(nodes);
+		}
+		return nodes.getNodes().stream()
+			.map(DependencyNode::getVersionConstraint)
+			.noneMatch(constraint -> constraint != null && constraint.getRange() != null);
+	}
+
+	private static Dependency toDependency(org.apache.maven.model.Dependency dependency, ArtifactTypeRegistry types) {
+		ArtifactType type = types.get(dependency.getType());
+		String extension = type != null ? type.getExtension() : dependency.getType();
+		String classifier = Strings.isNullOrEmpty(dependency.getClassifier()) && type != null
+			? type.getClassifier()
+			: dependency.getClassifier();
+
+		Artifact artifact = new DefaultArtifact(dependency.getGroupId(), dependency.getArtifactId(), classifier,
+			extension, dependency.getVersion(), type);
+		if (dependency.getSystemPath() != null) {
+			artifact = artifact.setFile(new File(dependency.getSystemPath()));
+		}
+
+		List<Exclusion> exclusions = dependency.getExclusions().stream()
+			.map(e -> new Exclusion(e.getGroupId(), e.getArtifactId(), "*", "*"))
+			.toList();
+		return new Dependency(artifact, dependency.getScope(), dependency.isOptional(), exclusions);
+	}
+
+	private static List<RemoteRepository> repositories(List<Repository> declared, List<RemoteRepository> configured) {
+		List<RemoteRepository> repositories = new ArrayList<>(configured);
+		declared.stream()
+			.filter(r -> repositories.stream().noneMatch(existing -> existing.getId().equals(r.getId())))
+			.forEach(r -> repositories.add(new RemoteRepository.Builder(r.getId(), "default", r.getUrl()).build()));
+		return repositories;
 	}
 
 	/**
-	 * Attempts to retrieve some mvn executable (local wrapper > MAVEN/M2_HOME > PATH)
+	 * Only the parts of the effective model that drive resolution are hashed: the same dependencies declared in poms
+	 * located in different directories (thus with different build paths) share their classpath.
 	 */
-	private static Optional<File> findMavenExecutable(Path pom) {
-		// Look for a potential wrapper
-		boolean isWindows = System.getProperty("os.name").toLowerCase(Locale.ROOT).contains("win");
-		Path mvnw = pom.resolveSibling(isWindows ? "mvnw.cmd" : "mvnw");
-		if (Files.isExecutable(mvnw)) {
-			return Optional.of(mvnw.toFile());
-		}
-
-		// MAVEN_HOME / M2_HOME
-		for (String env : new String[]{"MAVEN_HOME", "M2_HOME"}) {
-			String home = System.getenv(env);
-			if (!Strings.isNullOrEmpty(home)) {
-				Path bin = Path.of(home).resolve("bin").normalize();
-				Path exe = bin.resolve(isWindows ? "mvn.cmd" : "mvn");
-				if (Files.isExecutable(exe)) {
-					return Optional.of(exe.toFile());
-				}
-				if (isWindows) {
-					Path bat = bin.resolve("mvn.bat");
-					if (Files.isExecutable(bat)) {
-						return Optional.of(bat.toFile());
-					}
-				}
+	private String checksum(Model model) throws IOException {
+		Model resolution = new Model();
+		resolution.setDependencies(model.getDependencies());
+		resolution.setDependencyManagement(model.getDependencyManagement());
+		resolution.setRepositories(model.getRepositories());
+
+		StringWriter writer = new StringWriter();
+		new MavenXpp3Writer().write(writer, resolution);
+		// Cached entries point to the local repository, and the settings may change the resolved artifacts
+		writer.append(localRepository.toString());
+		writer.append(settingsDigest.get());
+		return Hashing.sha256().hashString(writer.toString(), StandardCharsets.UTF_8).toString();
+	}
+
+	/**
+	 * Hashes everything the effective model of the pom is built from: the pom and its local parents (found through
+	 * their relative path) as written, the settings, and the inputs of the activation of the profiles of the whole
+	 * parent chain. Parents from the repository are released, hence immutable: only the activation of their profiles is
+	 * hashed, if they are already in the local repository. Poms inheriting from a SNAPSHOT or property-defined parent
+	 * version, or with profiles activated by files, are not hashed.
+	 */
+	private Optional<String> pomChecksum(Path pom) throws IOException {
+		Hasher hasher = Hashing.sha256().newHasher().putString("pom", StandardCharsets.UTF_8);
+		Set<Path> visited = new HashSet<>();
+		Path current = pom.toAbsolutePath().normalize();
+		boolean local = true;
+		while (visited.add(current) && Files.isRegularFile(current)) {
+			byte[] content = Files.readAllBytes(current);
+			Model model;
+			try {
+				model = new MavenXpp3Reader().read(new ByteArrayInputStream(content), false);
+			} catch (XmlPullParserException e) {
+				return Optional.empty();
+			}
+			if (local) {
+				hasher.putBytes(content);
+			}
+			if (!putActivations(hasher, model.getProfiles())) {
+				return Optional.empty();
 			}
+
+			Parent parent = model.getParent();
+			if (parent == null) {
+				break;
+			}
+			if (parent.getVersion() == null || parent.getVersion().endsWith("-SNAPSHOT") ||
+				parent.getVersion().contains("${")) {
+				return Optional.empty();
+			}
+			// Like Maven, look the parent up in its relative path first: a local parent may change between runs
+			Optional<Path> localParent = local ? localParent(current, parent) : Optional.empty();
+			local = localParent.isPresent();
+			current = localParent.orElseGet(() -> localRepository
+				.resolve(parent.getGroupId().replace('.', '/'))
+				.resolve(parent.getArtifactId())
+				.resolve(parent.getVersion())
+				.resolve("%s-%s.pom".formatted(parent.getArtifactId(), parent.getVersion())));
+		}
+
+		if (!putActivations(hasher, settingsProfiles())) {
+			return Optional.empty();
+		}
+		return Optional.of(hasher
+			.putString(settingsDigest.get(), StandardCharsets.UTF_8)
+			.putString(localRepository.toString(), StandardCharsets.UTF_8)
+			.hash().toString());
+	}
+
+	/**
+	 * Returns the parent pom at the relative path of {@code parent} (by default, {@code ../pom.xml}), if it exists and
+	 * has the parent's coordinates.
+	 */
+	private static Optional<Path> localParent(Path pom, Parent parent) throws IOException {
+		if (Strings.isNullOrEmpty(parent.getRelativePath())) {
+			return Optional.empty();
+		}
+
+		Path candidate = pom.getParent().resolve(parent.getRelativePath()).normalize();
+		if (Files.isDirectory(candidate)) {
+			candidate = candidate.resolve("pom.xml");
+		}
+		if (!Files.isRegularFile(candidate)) {
+			return Optional.empty();
 		}
 
-		// PATH
-		String pathEnv = System.getenv("PATH");
-		if (!Strings.isNullOrEmpty(pathEnv)) {
-			String[] parts = pathEnv.split(File.pathSeparator);
-			List<String> names = isWindows ? List.of("mvn.cmd", "mvn.bat") : List.of("mvn");
-			for (String p : parts) {
-				for (String name : names) {
-					Path candidate = Path.of(p).resolve(name);
-					if (Files.isExecutable(candidate)) {
-						return Optional.of(candidate.toFile());
-					}
+		try {
+			Model model = new MavenXpp3Reader().read(new ByteArrayInputStream(Files.readAllBytes(candidate)), false);
+			String groupId = model.getGroupId() != null || model.getParent() == null
+				? model.getGroupId()
+				: model.getParent().getGroupId();
+			String version = model.getVersion() != null || model.getParent() == null
+				? model.getVersion()
+				: model.getParent().getVersion();
+			return parent.getGroupId().equals(groupId) && parent.getArtifactId().equals(model.getArtifactId()) &&
+				parent.getVersion().equals(version)
+				? Optional.of(candidate)
+				: Optional.empty();
+		} catch (XmlPullParserException e) {
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Hashes the values the profiles are activated by: the properties they check, and the JDK and OS. Profiles
+	 * activated by the presence of files cannot be hashed.
+	 *
+	 * @return false if a profile is activated by files
+	 */
+	private boolean putActivations(Hasher hasher, List<Profile> profiles) {
+		for (Profile profile : profiles) {
+			Activation activation = profile.getActivation();
+			if (activation == null) {
+				continue;
+			}
+
+			ActivationFile file = activation.getFile();
+			if (file != null && (file.getExists() != null || file.getMissing() != null)) {
+				return false;
+			}
+			ActivationProperty property = activation.getProperty();
+			if (property != null && property.getName() != null) {
+				String name = property.getName().startsWith("!") ? property.getName().substring(1) : property.getName();
+				hasher.putString(name, StandardCharsets.UTF_8)
+					.putString(Objects.toString(systemProperties.getProperty(name)), StandardCharsets.UTF_8);
+			}
+			if (activation.getJdk() != null) {
+				hasher.putString(Objects.toString(systemProperties.getProperty("java.version")), StandardCharsets.UTF_8);
+			}
+			ActivationOS os = activation.getOs();
+			if (os != null) {
+				for (String key : List.of("os.name", "os.arch", "os.version")) {
+					hasher.putString(Objects.toString(systemProperties.getProperty(key)), StandardCharsets.UTF_8);
 				}
 			}
 		}
+		return true;
+	}
+
+	/**
+	 * Converts the profiles of the settings to model profiles, so that the active ones contribute their properties and
+	 * repositories to the effective model, like in Maven.
+	 */
+	private List<Profile> settingsProfiles() {
+		return settings.getProfiles().stream()
+			.map(settingsProfile -> {
+				Profile profile = new Profile();
+				profile.setId(settingsProfile.getId());
+				profile.setSource(Profile.SOURCE_SETTINGS);
+				profile.setProperties(settingsProfile.getProperties());
+				org.apache.maven.settings.Activation settingsActivation = settingsProfile.getActivation();
+				if (settingsActivation != null) {
+					profile.setActivation(toActivation(settingsActivation));
+				}
+				settingsProfile.getRepositories().forEach(settingsRepository -> {
+					Repository repository = new Repository();
+					repository.setId(settingsRepository.getId());
+					repository.setUrl(settingsRepository.getUrl());
+					repository.setLayout(settingsRepository.getLayout());
+					profile.addRepository(repository);
+				});
+				return profile;
+			})
+			.toList();
+	}
+
+	private static Activation toActivation(org.apache.maven.settings.Activation settingsActivation) {
+		Activation activation = new Activation();
+		activation.setActiveByDefault(settingsActivation.isActiveByDefault());
+		activation.setJdk(settingsActivation.getJdk());
+		if (settingsActivation.getOs() != null) {
+			ActivationOS os = new ActivationOS();
+			os.setName(settingsActivation.getOs().getName());
+			os.setFamily(settingsActivation.getOs().getFamily());
+			os.setArch(settingsActivation.getOs().getArch());
+			os.setVersion(settingsActivation.getOs().getVersion());
+			activation.setOs(os);
+		}
+		if (settingsActivation.getProperty() != null) {
+			ActivationProperty property = new ActivationProperty();
+			property.setName(settingsActivation.getProperty().getName());
+			property.setValue(settingsActivation.getProperty().getValue());
+			activation.setProperty(property);
+		}
+		if (settingsActivation.getFile() != null) {
+			ActivationFile file = new ActivationFile();
+			file.setExists(settingsActivation.getFile().getExists());
+			file.setMissing(settingsActivation.getFile().getMissing());
+			activation.setFile(file);
+		}
+		return activation;
+	}
+
+	private String digestSettings() {
+		try {
+			StringWriter writer = new StringWriter();
+			new SettingsXpp3Writer().write(writer, settings);
+			return Hashing.sha256().hashString(writer.toString(), StandardCharsets.UTF_8).toString();
+		} catch (IOException e) {
+			throw new RoseauException("Failed to digest Maven settings", e);
+		}
+	}
+
+	private boolean isCached(String key) {
+		return Files.isRegularFile(cacheDirectory.resolve(key + ".classpath"));
+	}
 
+	private Optional<List<Path>> readCache(String key) {
+		Path cacheFile = cacheDirectory.resolve(key + ".classpath");
+		if (!Files.isRegularFile(cacheFile)) {
+			return Optional.empty();
+		}
+
+		try {
+			List<Path> cp = Files.readAllLines(cacheFile).stream()
+				.filter(line -> !line.isBlank())
+				.map(Path::of)
+				.toList();
+			// Local repositories may have been cleaned up since
+			if (cp.stream().allMatch(Files::isRegularFile)) {
+				LOGGER.debug("Using cached classpath {}", cacheFile);
+				return Optional.of(cp);
+			}
+		} catch (IOException e) {
+			LOGGER.warn("Ignoring unreadable cached classpath {}: {}", cacheFile, e.getMessage());
+		}
 		return Optional.empty();
 	}
+
+	private void writeCache(String key, List<Path> cp) {
+		try {
+			Files.createDirectories(cacheDirectory);
+			Path tmp = Files.createTempFile(cacheDirectory, key, ".tmp");
+			Files.write(tmp, cp.stream().map(Path::toString).toList());
+			Files.move(tmp, cacheDirectory.resolve(key + ".classpath"), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			LOGGER.warn("Failed to cache classpath in {}: {}", cacheDirectory, e.getMessage());
+		}
+	}
+
+	private static Path defaultLocalRepository(Settings settings) {
+		String local = System.getProperty("maven.repo.local");
+		if (!Strings.isNullOrEmpty(local)) {
+			return Path.of(local);
+		}
+		return Strings.isNullOrEmpty(settings.getLocalRepository())
+			? Path.of(System.getProperty("user.home"), ".m2", "repository")
+			: Path.of(settings.getLocalRepository());
+	}
+
+	/**
+	 * Reads the effective Maven settings: the provided user settings merged with the global settings of
+	 * {@code maven.home}, if set. Invalid settings are logged and ignored.
+	 */
+	private static Settings readSettings(Path userSettings) {
+		Preconditions.checkNotNull(userSettings);
+		DefaultSettingsBuildingRequest request = new DefaultSettingsBuildingRequest();
+		request.setUserSettingsFile(userSettings.toFile());
+		String mavenHome = System.getProperty("maven.home");
+		if (!Strings.isNullOrEmpty(mavenHome)) {
+			request.setGlobalSettingsFile(Path.of(mavenHome, "conf", "settings.xml").toFile());
+		}
+		request.setSystemProperties(systemProperties());
+
+		try {
+			return new DefaultSettingsBuilderFactory().newInstance().build(request).getEffectiveSettings();
+		} catch (SettingsBuildingException e) {
+			LOGGER.warn("Ignoring invalid Maven settings {}: {}", userSettings, e.getMessage());
+			return new Settings();
+		}
+	}
+
+	/**
+	 * The system properties, along with the environment variables as {@code env.*} properties, like in Maven.
+	 */
+	private static Properties systemProperties() {
+		Properties properties = new Properties();
+		System.getenv().forEach((name, value) -> properties.setProperty("env." + name, value));
+		properties.putAll(System.getProperties());
+		return properties;
+	}
+
+	/**
+	 * Resolves parent and imported poms from the local and remote repositories.
+	 */
+	private static final class RepositoryModelResolver implements ModelResolver {
+		private final RepositorySystem system;
+		private final RepositorySystemSession session;
+		private final List<RemoteRepository> repositories;
+
+		RepositoryModelResolver(RepositorySystem system, RepositorySystemSession session,
+		                        List<RemoteRepository> repositories) {
+			this.system = system;
+			this.session = session;
+			this.repositories = repositories;
+		}
+
+		@Override
+		public ModelSource resolveModel(String groupId, String artifactId, String version)
+			throws UnresolvableModelException {
+			try {
+				ArtifactResult result = system.resolveArtifact(session, new ArtifactRequest(
+					new DefaultArtifact(groupId, artifactId, "", "pom", version), repositories, null));
+				return new FileModelSource(result.getArtifact().getFile());
+			} catch (ArtifactResolutionException e) {
+				throw new UnresolvableModelException(e.getMessage(), groupId, artifactId, version, e);
+			}
+		}
+
+		@Override
+		public ModelSource resolveModel(Parent parent) throws UnresolvableModelException {
+			return resolveModel(parent.getGroupId(), parent.getArtifactId(), parent.getVersion());
+		}
+
+		@Override
+		public ModelSource resolveModel(org.apache.maven.model.Dependency dependency)
+			throws UnresolvableModelException {
+			return resolveModel(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion());
+		}
+
+		@Override
+		public void addRepository(Repository repository) {
+			addRepository(repository, false);
+		}
+
+		@Override
+		public void addRepository(Repository repository, boolean replace) {
+			boolean exists = repositories.stream().anyMatch(r -> r.getId().equals(repository.getId()));
+			if (exists && !replace) {
+				return;
+			}
+			repositories.removeIf(r -> r.getId().equals(repository.getId()));
+			repositories.addAll(system.newResolutionRepositories(session, List.of(
+				new RemoteRepository.Builder(repository.getId(), "default", repository.getUrl()).build())));
+		}
+
+		@Override
+		public ModelResolver newCopy() {
+			return new RepositoryModelResolver(system, session, new ArrayList<>(repositories));
+		}
+	}
 }
@@ -0,0 +1,307 @@
+package io.github.alien.roseau;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.github.alien.roseau.options.RoseauOptions;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * The executors an analysis runs on, and the share of the heap it may use: a fork/join pool of {@code jobs} threads for
+ * CPU-bound work (extraction, type resolution, diffing) and a pool of {@code ioThreads} threads for blocking I/O
+ * (e.g., downloading artifacts).
+ * <p>
+ * Parallel streams and fork/join tasks run in the pool of the task that starts them. Tasks started with
+ * {@link #run(Callable)} thus keep the whole pipeline, including the parallel streams of extractors and of the diff,
+ * on the compute pool rather than on {@link ForkJoinPool#commonPool()}, which it would otherwise share with the host
+ * application (e.g., a build tool or a server). Closing an instance cancels the tasks that are still running, so that a
+ * failure does not leave work behind. This class is thread-safe.
+ * <p>
+ * Cancellation interrupts the thread running a task. Extractors check it (see {@link #checkCancelled(Thread)}) for
+ * every type they extract, including from the threads of their parallel streams, which are not interrupted themselves.
+ */
+public final class Parallelism implements AutoCloseable {
+	private final ForkJoinPool compute;
+	private final ExecutorService io;
+	private final double maxHeapFraction;
+
+	/**
+	 * The default fraction of the maximum heap above which no new work is admitted.
+	 */
+	public static final double DEFAULT_MAX_HEAP_FRACTION = 0.8;
+
+	/**
+	 * Creates the executors.
+	 *
+	 * @param jobs            the number of threads of the compute pool
+	 * @param ioThreads       the number of threads of the I/O pool
+	 * @param maxHeapFraction the fraction of the maximum heap above which no new work is admitted, in ]0, 1]
+	 * @throws IllegalArgumentException if a value is out of range
+	 */
+	public Parallelism(int jobs, int ioThreads, double maxHeapFraction) {
+		Preconditions.checkArgument(jobs > 0, "jobs must be positive: %s", jobs);
+		Preconditions.checkArgument(ioThreads > 0, "ioThreads must be positive: %s", ioThreads);
+		Preconditions.checkArgument(maxHeapFraction > 0 && maxHeapFraction <= 1,
+			"maxHeapFraction must be in ]0, 1]: %s", maxHeapFraction);
+		AtomicInteger workers = new AtomicInteger();
+		this.compute = new ForkJoinPool(jobs, pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName("roseau-worker-" + workers.incrementAndGet());
+			return thread;
+		}, null, false);
+		this.io = Executors.newFixedThreadPool(ioThreads, new ThreadFactoryBuilder()
+			.setNameFormat("roseau-io-%d")
+			.setDaemon(true)
+			.build());
+		this.maxHeapFraction = maxHeapFraction;
+	}
+
+	/**
+	 * Creates the executors described by the provided options. Missing values default to one job per available
+	 * processor, two I/O threads per job, and {@link #DEFAULT_MAX_HEAP_FRACTION}.
+	 *
+	 * @param options the performance options
+	 * @return the new executors
+	 * @throws IllegalArgumentException if a value is out of range
+	 */
+	public static Parallelism of(RoseauOptions.Performance options) {
+		Preconditions.checkNotNull(options);
+		int jobs = options.jobs() != null ? options.jobs() : Runtime.getRuntime().availableProcessors();
+		return new Parallelism(
+			jobs,
+			options.ioThreads() != null ? options.ioThreads() : 2 * jobs,
+			options.maxHeapFraction() != null ? options.maxHeapFraction() : DEFAULT_MAX_HEAP_FRACTION);
+	}
+
+	/**
+	 * Returns the pool parallel work started from the current thread runs in: the pool of the current fork/join task,
+	 * or the common pool outside of any.
+	 *
+	 * @return the current pool
+	 */
+	public static ForkJoinPool currentPool() {
+		ForkJoinPool pool = ForkJoinTask.getPool();
+		return pool != null ? pool : ForkJoinPool.commonPool();
+	}
+
+	/**
+	 * Runs a task on the compute pool and waits for its result. The parallel work the task starts runs on the compute
+	 * pool too.
+	 *
+	 * @param task the task to run
+	 * @param <T>  the type of the result
+	 * @return the result of the task
+	 * @throws RuntimeException the exception thrown by the task, unchanged if unchecked or wrapped in a
+	 *                          {@link RoseauException} otherwise
+	 */
+	public <T> T run(Callable<T> task) {
+		Preconditions.checkNotNull(task);
+		ForkJoinTask<T> submitted = compute.submit(task);
+		try {
+			return submitted.get();
+		} catch (InterruptedException e) {
+			submitted.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Interrupted while running " + task);
+		} catch (ExecutionException e) {
+			throw switch (e.getCause()) {
+				case RuntimeException cause -> cause;
+				case Error cause -> cause;
+				case Throwable cause -> new RoseauException(cause.getMessage(), cause);
+			};
+		}
+	}
+
+	/**
+	 * Runs two tasks in parallel on the provided executor and combines their results on the calling thread. As soon as
+	 * one task fails, the other is cancelled and its thread interrupted, so that a failure on one side does not wait for
+	 * the other; interrupting the calling thread cancels both.
+	 *
+	 * @param first    the first task
+	 * @param second   the second task
+	 * @param combiner the function combining both results
+	 * @param executor the executor to run the tasks on
+	 * @param <T>      the type of the result of the first task
+	 * @param <U>      the type of the result of the second task
+	 * @param <R>      the type of the combined result
+	 * @return the combined result
+	 * @throws RuntimeException the exception of the task that failed first, unchanged if unchecked or wrapped in a
+	 *                          {@link RoseauException} otherwise
+	 */
+	public static <T, U, R> R both(Callable<T> first, Callable<U> second, BiFunction<T, U, R> combiner,
+	                               Executor executor) {
+		Preconditions.checkNotNull(first);
+		Preconditions.checkNotNull(second);
+		Preconditions.checkNotNull(combiner);
+		Preconditions.checkNotNull(executor);
+		SiblingTask<T> firstTask = new SiblingTask<>(first);
+		SiblingTask<U> secondTask = new SiblingTask<>(second);
+		firstTask.sibling = secondTask;
+		secondTask.sibling = firstTask;
+
+		try {
+			executor.execute(firstTask);
+			executor.execute(secondTask);
+			await(firstTask);
+			await(secondTask);
+			return combiner.apply(firstTask.get(), secondTask.get());
+		} catch (InterruptedException e) {
+			firstTask.cancel(true);
+			secondTask.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Interrupted while running " + first + " and " + second);
+		} catch (RejectedExecutionException e) {
+			firstTask.cancel(true);
+			throw e;
+		} catch (ExecutionException | CancellationException e) {
+			Throwable failure = firstTask.state() == Future.State.FAILED ? firstTask.exceptionNow()
+				: secondTask.state() == Future.State.FAILED ? secondTask.exceptionNow()
+				: e;
+			throw switch (failure) {
+				case RuntimeException cause -> cause;
+				case Error cause -> cause;
+				case Throwable cause -> new RoseauException(cause.getMessage(), cause);
+			};
+		}
+	}
+
+	/**
+	 * Throws a {@link CancellationException} if the provided thread was interrupted, e.g., because the task it runs was
+	 * cancelled. Parallel work checks the thread that started it, the only one interrupted on cancellation.
+	 *
+	 * @param owner the thread that started the work
+	 * @throws CancellationException if the thread was interrupted
+	 */
+	public static void checkCancelled(Thread owner) {
+		if (owner.isInterrupted()) {
+			throw new CancellationException("Cancelled work of " + owner.getName());
+		}
+	}
+
+	/**
+	 * Returns the pool CPU-bound work runs on.
+	 *
+	 * @return the compute pool
+	 */
+	public ForkJoinPool compute() {
+		return compute;
+	}
+
+	/**
+	 * Returns the pool blocking I/O runs on.
+	 *
+	 * @return the I/O pool
+	 */
+	public ExecutorService io() {
+		return io;
+	}
+
+	/**
+	 * Returns the number of threads of the compute pool.
+	 *
+	 * @return the number of jobs
+	 */
+	public int jobs() {
+		return compute.getParallelism();
+	}
+
+	/**
+	 * Returns the fraction of the maximum heap above which no new work is admitted.
+	 *
+	 * @return the maximum heap fraction
+	 */
+	public double maxHeapFraction() {
+		return maxHeapFraction;
+	}
+
+	/**
+	 * Checks whether the used heap exceeds the share work may use, in which case callers should wait for running work
+	 * to complete before starting more.
+	 *
+	 * @return true if the used heap exceeds {@link #maxHeapFraction()} of the maximum heap
+	 */
+	public boolean isHeapExhausted() {
+		return isHeapExhausted(maxHeapFraction);
+	}
+
+	/**
+	 * Checks whether the used heap exceeds the provided fraction of the maximum heap.
+	 *
+	 * @param maxHeapFraction the fraction of the maximum heap
+	 * @return true if the used heap exceeds the fraction
+	 */
+	public static boolean isHeapExhausted(double maxHeapFraction) {
+		Runtime runtime = Runtime.getRuntime();
+		long used = runtime.totalMemory() - runtime.freeMemory();
+		return used > maxHeapFraction * runtime.maxMemory();
+	}
+
+	/**
+	 * Cancels the tasks still running on both pools.
+	 */
+	@Override
+	public void close() {
+		compute.shutdownNow();
+		io.shutdownNow();
+	}
+
+	// Waits for a task without blocking a fork/join pool: the pool compensates with another thread while the calling
+	// worker waits, so that a pool of a single thread runs the task rather than deadlocking
+	private static void await(Future<?> task) throws InterruptedException {
+		ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+			@Override
+			public boolean block() throws InterruptedException {
+				try {
+					task.get();
+				} catch (ExecutionException | CancellationException _) {
+					// Reported by the caller
+				}
+				return true;
+			}
+
+			@Override
+			public boolean isReleasable() {
+				return task.isDone();
+			}
+		});
+	}
+
+	// A task cancelling its sibling when it fails. Unlike CompletableFuture#cancel(boolean), cancelling a FutureTask
+	// interrupts the thread running it
+	private static final class SiblingTask<T> extends FutureTask<T> {
+		private volatile Future<?> sibling;
+
+		SiblingTask(Callable<T> callable) {
+			super(callable);
+		}
+
+		@Override
+		public void run() {
+			super.run();
+			if (isCancelled()) {
+				// The executor reuses this thread: clear the interrupt that cancelled the task
+				Thread.interrupted();
+			}
+		}
+
+		@Override
+		protected void done() {
+			if (state() == State.FAILED) {
+				sibling.cancel(true);
+			}
+		}
+	}
+}
@@ -0,0 +1,397 @@
+package io.github.alien.roseau;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.module.paranamer.ParanamerModule;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.github.alien.roseau.api.model.API;
+import io.github.alien.roseau.api.model.AnnotationDecl;
+import io.github.alien.roseau.api.model.ClassDecl;
+import io.github.alien.roseau.api.model.EnumDecl;
+import io.github.alien.roseau.api.model.ExecutableDecl;
+import io.github.alien.roseau.api.model.InterfaceDecl;
+import io.github.alien.roseau.api.model.RecordDecl;
+import io.github.alien.roseau.api.model.SourceLocation;
+import io.github.alien.roseau.api.model.Symbol;
+import io.github.alien.roseau.api.model.TypeDecl;
+import io.github.alien.roseau.api.model.TypeMemberDecl;
+import io.github.alien.roseau.api.model.reference.TypeReference;
+import io.github.alien.roseau.diff.RoseauReport;
+import io.github.alien.roseau.diff.changes.BreakingChange;
+import io.github.alien.roseau.diff.changes.BreakingChangeDetails;
+import io.github.alien.roseau.diff.changes.BreakingChangeKind;
+import io.github.alien.roseau.extractors.incremental.FingerprintIndex;
+import io.github.alien.roseau.extractors.incremental.HashFunction;
+import io.github.alien.roseau.options.RoseauOptions;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * A store of the breaking changes found between two libraries, so that diffing the same libraries again (e.g., CI
+ * re-runs on the same commit, or matrix jobs comparing the same artifacts) does not run the analysis again.
+ * <p>
+ * Reports are keyed by a digest of everything that determines them: the content of both libraries and of their
+ * classpath entries, their extraction options, the diff options, the Roseau version, and the Java runtime version. Keys are computed from the libraries alone, before their API is built. Breaking
+ * changes are stored in a compact form that references symbols by name, and are bound again to the symbols of the
+ * loaded APIs on lookup, so that cached reports can be formatted like fresh ones.
+ * <p>
+ * The hashes of library and classpath files are kept in a {@link FingerprintIndex} persisted in the cache directory,
+ * so that files whose size and last-modified time did not change since the last lookup are not read again. This class is
+ * thread-safe.
+ */
+public final class ReportCache {
+	private final Path directory;
+	private final String version;
+	private final FingerprintIndex fingerprints;
+
+	private static final String ENTRY_EXTENSION = ".json";
+	private static final String FINGERPRINTS = "fingerprints.idx";
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final Logger LOGGER = LogManager.getLogger(ReportCache.class);
+
+	static {
+		// Same configuration as LibraryTypes, so that the symbols held by details are (de)serialized the same way
+		MAPPER.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+		MAPPER.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+		MAPPER.setVisibility(PropertyAccessor.CREATOR, JsonAutoDetect.Visibility.ANY);
+		MAPPER.registerModule(new Jdk8Module());
+		MAPPER.registerModule(new ParanamerModule());
+	}
+
+	/**
+	 * The API version a symbol is looked up in.
+	 */
+	enum Side {V1, V2}
+
+	/**
+	 * A reference to a symbol: a type, or a member of a type.
+	 *
+	 * @param side   the API the symbol belongs to
+	 * @param type   the qualified name of the type, or of the type containing the member
+	 * @param member the identifier of the member within its type, or null for a type
+	 */
+	record SymbolRef(Side side, String type, String member) {
+	}
+
+	/**
+	 * A breaking change whose symbols are referenced by name.
+	 *
+	 * @param kind           the kind of breaking change
+	 * @param impactedType   the impacted type
+	 * @param impactedSymbol the impacted symbol
+	 * @param newSymbol      the corresponding symbol in the new version, or null
+	 * @param details        the details, or null if there are none
+	 * @param location       the reported location, or null if it is the default one
+	 */
+	record CompactBreakingChange(BreakingChangeKind kind, SymbolRef impactedType, SymbolRef impactedSymbol,
+	                             SymbolRef newSymbol, BreakingChangeDetails details, SourceLocation location) {
+	}
+
+	record Entry(String version, List<CompactBreakingChange> breakingChanges) {
+	}
+
+	/**
+	 * Creates a cache backed by the provided directory, created on first write.
+	 *
+	 * @param directory the directory reports are stored in
+	 * @param version   the version of Roseau computing the reports; reports of other versions are never reused
+	 */
+	public ReportCache(Path directory, String version) {
+		Preconditions.checkNotNull(directory);
+		Preconditions.checkNotNull(version);
+		this.directory = directory.toAbsolutePath();
+		this.version = version;
+		this.fingerprints = FingerprintIndex.load(this.directory.resolve(FINGERPRINTS));
+	}
+
+	/**
+	 * Computes the key of the report between two APIs filtered with the given diff options. Libraries and their
+	 * classpath entries are digested from their content, not their location, so that identical libraries found at
+	 * different paths share their reports.
+	 *
+	 * @param v1      the baseline API
+	 * @param v2      the target API
+	 * @param options the diff options the report is filtered with
+	 * @return the key of the report
+	 * @throws RoseauException if a library or its classpath cannot be read
+	 */
+	public String key(API v1, API v2, RoseauOptions.Diff options) {
+		Preconditions.checkNotNull(v1);
+		Preconditions.checkNotNull(v2);
+		return key(v1.getLibrary(), v2.getLibrary(), options);
+	}
+
+	/**
+	 * Computes the key of the report between two libraries filtered with the given diff options, without building
+	 * their API. The key is the one {@link #key(API, API, RoseauOptions.Diff)} computes for the APIs of these
+	 * libraries.
+	 *
+	 * @param v1      the baseline library
+	 * @param v2      the target library
+	 * @param options the diff options the report is filtered with
+	 * @return the key of the report
+	 * @throws RoseauException if a library or its classpath cannot be read
+	 */
+	public String key(Library v1, Library v2, RoseauOptions.Diff options) {
+		Preconditions.checkNotNull(v1);
+		Preconditions.checkNotNull(v2);
+		Preconditions.checkNotNull(options);
+		try {
+			Hasher hasher = Hashing.sha256().newHasher();
+			putString(hasher, version);
+			putString(hasher, Runtime.version().toString());
+			putLibrary(hasher, v1);
+			putLibrary(hasher, v2);
+			putString(hasher, String.valueOf(options.sourceOnly()));
+			putString(hasher, String.valueOf(options.binaryOnly()));
+			putPath(hasher, options.ignore());
+			return hasher.hash().toString();
+		} catch (IOException e) {
+			throw new RoseauException("Failed to digest %s and %s".formatted(v1, v2), e);
+		} finally {
+			saveFingerprints();
+		}
+	}
+
+	private void saveFingerprints() {
+		try {
+			fingerprints.save();
+		} catch (RoseauException e) {
+			LOGGER.warn(e.getMessage());
+		}
+	}
+
+	/**
+	 * Looks up a report and binds its breaking changes to the symbols of the supplied APIs.
+	 *
+	 * @param key the key of the report, as computed by {@link #key(API, API, RoseauOptions.Diff)} for these APIs
+	 * @param v1  the baseline API
+	 * @param v2  the target API
+	 * @return the cached report, or empty if there is none or it cannot be bound to these APIs
+	 */
+	public Optional<RoseauReport> find(String key, API v1, API v2) {
+		Preconditions.checkNotNull(key);
+		Preconditions.checkNotNull(v1);
+		Preconditions.checkNotNull(v2);
+		Path file = entry(key);
+		if (!Files.isRegularFile(file)) {
+			return Optional.empty();
+		}
+
+		try {
+			Entry entry = MAPPER.readValue(file.toFile(), Entry.class);
+			if (!version.equals(entry.version())) {
+				return Optional.empty();
+			}
+
+			List<BreakingChange> bcs = new ArrayList<>(entry.breakingChanges().size());
+			for (CompactBreakingChange compact : entry.breakingChanges()) {
+				Optional<BreakingChange> bc = rehydrate(compact, v1, v2);
+				if (bc.isEmpty()) {
+					LOGGER.debug("Ignoring cached report {}: cannot bind {}", file, compact);
+					return Optional.empty();
+				}
+				bcs.add(bc.get());
+			}
+
+			LOGGER.debug("Using cached report {}", file);
+			return Optional.of(new RoseauReport(v1, v2, bcs));
+		} catch (IOException | RuntimeException e) {
+			LOGGER.warn("Ignoring unreadable cached report {}: {}", file, e.getMessage());
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Stores a report. Incomplete reports, and reports holding symbols that cannot be referenced by name, are not
+	 * stored. Failing to store a report is logged and does not fail the analysis.
+	 *
+	 * @param key    the key of the report, as computed by {@link #key(API, API, RoseauOptions.Diff)}
+	 * @param report the report to store, filtered with the diff options of the key
+	 * @return whether the report was stored
+	 */
+	public boolean store(String key, RoseauReport report) {
+		Preconditions.checkNotNull(key);
+		Preconditions.checkNotNull(report);
+		if (!report.isComplete()) {
+			return false;
+		}
+
+		List<CompactBreakingChange> compacts = new ArrayList<>(report.getBreakingChanges().size());
+		for (BreakingChange bc : report.getBreakingChanges()) {
+			Optional<CompactBreakingChange> compact = compact(bc, report.v1(), report.v2());
+			if (compact.isEmpty()) {
+				LOGGER.debug("Not caching report {}: cannot reference {}", key, bc);
+				return false;
+			}
+			compacts.add(compact.get());
+		}
+
+		Path file = entry(key);
+		try {
+			Files.createDirectories(file.getParent());
+			Path tmp = Files.createTempFile(file.getParent(), key, ".tmp");
+			try {
+				MAPPER.writeValue(tmp.toFile(), new Entry(version, compacts));
+				Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(tmp);
+			}
+			return true;
+		} catch (IOException | RuntimeException e) {
+			LOGGER.warn("Failed to cache report {}: {}", file, e.getMessage());
+			return false;
+		}
+	}
+
+	private Path entry(String key) {
+		return directory.resolve(key.substring(0, 2)).resolve(key + ENTRY_EXTENSION);
+	}
+
+	private static Optional<CompactBreakingChange> compact(BreakingChange bc, API v1, API v2) {
+		Optional<SymbolRef> impactedType = reference(bc.impactedType(), v1, v2);
+		Optional<SymbolRef> impactedSymbol = reference(bc.impactedSymbol(), v1, v2);
+		Optional<SymbolRef> newSymbol = bc.newSymbol() != null
+			? reference(bc.newSymbol(), v1, v2)
+			: Optional.empty();
+		if (impactedType.isEmpty() || impactedSymbol.isEmpty() || (bc.newSymbol() != null && newSymbol.isEmpty())) {
+			return Optional.empty();
+		}
+
+		BreakingChangeDetails details = bc.details() instanceof BreakingChangeDetails.None ? null : bc.details();
+		// Only keep locations that cannot be derived from the symbols
+		SourceLocation derived = bc.impactedSymbol().getLocation() == SourceLocation.NO_LOCATION
+			? bc.impactedType().getLocation()
+			: bc.impactedSymbol().getLocation();
+		SourceLocation location = bc.location().equals(derived) ? null : bc.location();
+		return Optional.of(new CompactBreakingChange(bc.kind(), impactedType.get(), impactedSymbol.get(),
+			newSymbol.orElse(null), details, location));
+	}
+
+	private static Optional<BreakingChange> rehydrate(CompactBreakingChange compact, API v1, API v2) {
+		Optional<Symbol> impactedType = resolve(compact.impactedType(), v1, v2);
+		Optional<Symbol> impactedSymbol = resolve(compact.impactedSymbol(), v1, v2);
+		Optional<Symbol> newSymbol = compact.newSymbol() != null
+			? resolve(compact.newSymbol(), v1, v2)
+			: Optional.empty();
+		if (!(impactedType.orElse(null) instanceof TypeDecl type) || impactedSymbol.isEmpty() ||
+			(compact.newSymbol() != null && newSymbol.isEmpty())) {
+			return Optional.empty();
+		}
+
+		return Optional.of(new BreakingChange(compact.kind(), type, impactedSymbol.get(), newSymbol.orElse(null),
+			compact.details(), compact.location()));
+	}
+
+	// A symbol can be referenced if looking its name up yields the very same symbol, in either API
+	private static Optional<SymbolRef> reference(Symbol symbol, API v1, API v2) {
+		String type = symbol instanceof TypeMemberDecl m
+			? m.getContainingType().getQualifiedName()
+			: symbol.getQualifiedName();
+		String member = symbol instanceof TypeMemberDecl m ? memberId(m) : null;
+		return Stream.of(Side.values())
+			.map(side -> new SymbolRef(side, type, member))
+			.filter(ref -> resolve(ref, v1, v2)
+				.filter(resolved -> resolved.equals(symbol) && resolved.getLocation().equals(symbol.getLocation()))
+				.isPresent())
+			.findFirst();
+	}
+
+	private static Optional<Symbol> resolve(SymbolRef ref, API v1, API v2) {
+		API api = ref.side() == Side.V1 ? v1 : v2;
+		Optional<TypeDecl> type = api.analyzer().resolver().resolve(new TypeReference<>(ref.type()));
+		if (ref.member() == null) {
+			return type.map(Symbol.class::cast);
+		}
+
+		return type.flatMap(t -> members(t).stream()
+			.filter(member -> memberId(member).equals(ref.member()))
+			.map(Symbol.class::cast)
+			.findFirst());
+	}
+
+	private static List<TypeMemberDecl> members(TypeDecl type) {
+		List<TypeMemberDecl> members = new ArrayList<>(type.getDeclaredFields());
+		members.addAll(type.getDeclaredMethods());
+		switch (type) {
+			case EnumDecl enm -> {
+				members.addAll(enm.getDeclaredConstructors());
+				members.addAll(enm.getValues());
+			}
+			case RecordDecl rcd -> {
+				members.addAll(rcd.getDeclaredConstructors());
+				members.addAll(rcd.getRecordComponents());
+			}
+			case ClassDecl cls -> members.addAll(cls.getDeclaredConstructors());
+			case AnnotationDecl annotation -> members.addAll(annotation.getAnnotationMethods());
+			case InterfaceDecl _ -> {
+			}
+		}
+		return members;
+	}
+
+	private static String memberId(TypeMemberDecl member) {
+		String name = member instanceof ExecutableDecl executable ? executable.getSignature() : member.getSimpleName();
+		return member.getClass().getSimpleName() + ":" + name;
+	}
+
+	private void putLibrary(Hasher hasher, Library library) throws IOException {
+		putPath(hasher, library.getLocation());
+		putString(hasher, String.valueOf(library.getExtractorType()));
+		putString(hasher, String.valueOf(library.getExclusions()));
+		putString(hasher, String.valueOf(library.getPackages()));
+		List<Path> classpath = library.getClasspath();
+		hasher.putInt(classpath.size());
+		// In order, since the first entry providing a type wins
+		for (Path entry : classpath) {
+			putPath(hasher, entry);
+		}
+	}
+
+	// Digests the content of a file, or the relative paths and contents of the files of a directory
+	private void putPath(Hasher hasher, Path path) throws IOException {
+		if (path == null || !Files.exists(path)) {
+			putString(hasher, "<none>");
+		} else if (Files.isDirectory(path)) {
+			List<Path> files;
+			try (Stream<Path> walk = Files.walk(path)) {
+				files = walk.filter(Files::isRegularFile).sorted().toList();
+			}
+			putString(hasher, "<directory>");
+			hasher.putInt(files.size());
+			for (Path file : files) {
+				putString(hasher, path.relativize(file).toString().replace('\\', '/'));
+				putFile(hasher, file);
+			}
+		} else {
+			putString(hasher, "<file>");
+			putFile(hasher, path);
+		}
+	}
+
+	private void putFile(Hasher hasher, Path file) throws IOException {
+		long hash = fingerprints.hash(file, HashFunction.XXHASH);
+		if (hash == -1L) {
+			throw new IOException("Cannot read " + file);
+		}
+		hasher.putLong(Files.size(file)).putLong(hash);
+	}
+
+	private static void putString(Hasher hasher, String value) {
+		hasher.putInt(value.length()).putString(value, StandardCharsets.UTF_8);
+	}
+}
@@ -2,13 +2,16 @@ package io.github.alien.roseau;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.Sets;
 import io.github.alien.roseau.api.analysis.DefaultApiAnalyzer;
 import io.github.alien.roseau.api.model.API;
 import io.github.alien.roseau.api.model.LibraryTypes;
+import io.github.alien.roseau.api.model.ModuleDecl;
 import io.github.alien.roseau.api.model.factory.ApiFactory;
 import io.github.alien.roseau.api.model.factory.DefaultApiFactory;
 import io.github.alien.roseau.api.model.reference.CachingTypeReferenceFactory;
 import io.github.alien.roseau.api.resolution.CachingTypeResolver;
+import io.github.alien.roseau.api.resolution.ClasspathTypeCache;
 import io.github.alien.roseau.api.resolution.ClasspathTypeProvider;
 import io.github.alien.roseau.api.resolution.TypeProvider;
 import io.github.alien.roseau.api.resolution.TypeResolver;
@@ -17,23 +20,35 @@ import io.github.alien.roseau.diff.ApiWalker;
 import io.github.alien.roseau.diff.BreakingChangeAnalyzer;
 import io.github.alien.roseau.diff.DefaultSymbolMatcher;
 import io.github.alien.roseau.diff.RoseauReport;
+import io.github.alien.roseau.diff.changes.BreakingChange;
+import io.github.alien.roseau.diff.rules.DefaultRuleSet;
 import io.github.alien.roseau.extractors.ExtractorType;
 import io.github.alien.roseau.extractors.TypesExtractor;
+import io.github.alien.roseau.extractors.asm.AsmDescriptorScreen;
 import io.github.alien.roseau.extractors.asm.AsmTypesExtractor;
+import io.github.alien.roseau.extractors.asm.IncrementalAsmTypesExtractor;
 import io.github.alien.roseau.extractors.incremental.ChangedFiles;
+import io.github.alien.roseau.extractors.incremental.FingerprintIndex;
 import io.github.alien.roseau.extractors.incremental.HashFunction;
 import io.github.alien.roseau.extractors.incremental.HashingChangedFilesProvider;
 import io.github.alien.roseau.extractors.incremental.IncrementalTypesExtractor;
 import io.github.alien.roseau.extractors.jdt.IncrementalJdtTypesExtractor;
+import io.github.alien.roseau.extractors.jdt.JdtSourceTypeProvider;
 import io.github.alien.roseau.extractors.jdt.JdtTypesExtractor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * Entry point for extracting library snapshots, building resolved APIs, and computing diffs.
@@ -75,7 +90,21 @@ public final class Roseau {
 	 */
 	public static API buildAPI(LibraryTypes types) {
 		Preconditions.checkNotNull(types);
-		return buildAPI(types, defaultApiFactory());
+		return buildAPI(types, defaultApiFactory(), null);
+	}
+
+	/**
+	 * Builds a resolved {@link API} from the given extracted library types using the default resolver, reading
+	 * platform and classpath JAR types through a {@link ClasspathTypeCache} shared with other APIs.
+	 *
+	 * @param types the extracted library types
+	 * @param cache the shared cache of platform and classpath JAR types
+	 * @return the built API model
+	 */
+	public static API buildAPI(LibraryTypes types, ClasspathTypeCache cache) {
+		Preconditions.checkNotNull(types);
+		Preconditions.checkNotNull(cache);
+		return buildAPI(types, defaultApiFactory(), cache);
 	}
 
 	/**
@@ -91,6 +120,29 @@ public final class Roseau {
 		return new API(types, new DefaultApiAnalyzer(types, resolver));
 	}
 
+	/**
+	 * Cheaply checks whether the diff between two libraries may contain breaking changes, without building their APIs.
+	 * JAR libraries are compared at the descriptor level (see {@link AsmDescriptorScreen}); other libraries always
+	 * may break. When this method returns {@code false}, {@link #diff(Library, Library)} is guaranteed to be empty.
+	 *
+	 * @param v1 the baseline library
+	 * @param v2 the target library
+	 * @return false if no breaking change can exist between the two libraries, true otherwise
+	 */
+	public static boolean mayBreak(Library v1, Library v2) {
+		Preconditions.checkNotNull(v1);
+		Preconditions.checkNotNull(v2);
+
+		if (!v1.isJar() || !v2.isJar()) {
+			return true;
+		}
+
+		Stopwatch sw = Stopwatch.createStarted();
+		boolean mayBreak = new AsmDescriptorScreen().mayBreak(v1, v2);
+		LOGGER.debug("Pre-screening took {}ms (may break: {})", sw.elapsed().toMillis(), mayBreak);
+		return mayBreak;
+	}
+
 	/**
 	 * Computes a diff between two API versions.
 	 *
@@ -112,6 +164,56 @@ public final class Roseau {
 		return report;
 	}
 
+	/**
+	 * Computes a fail-fast diff between two API versions: the analysis stops as soon as a breaking change that is not
+	 * excluded from the API and matches {@code stopCondition} is found. In this case, the returned report is
+	 * {@linkplain RoseauReport#isComplete() incomplete} and only contains the breaking changes found so far. Otherwise,
+	 * the returned report is complete.
+	 *
+	 * @param v1            the baseline API
+	 * @param v2            the target API
+	 * @param stopCondition the breaking changes that stop the analysis, e.g., {@link RoseauReport#reportedBy}
+	 * @return a {@link RoseauReport} containing the list of breaking changes found so far
+	 */
+	public static RoseauReport diff(API v1, API v2, Predicate<BreakingChange> stopCondition) {
+		Preconditions.checkNotNull(v1);
+		Preconditions.checkNotNull(v2);
+		Preconditions.checkNotNull(stopCondition);
+
+		Stopwatch sw = Stopwatch.createStarted();
+		ApiWalker walker = new ApiWalker(v1, v2, new DefaultSymbolMatcher());
+		ApiDiffer<RoseauReport> differ = new BreakingChangeAnalyzer(v1, v2, new DefaultRuleSet(), stopCondition);
+		RoseauReport report = walker.walk(differ);
+		LOGGER.debug("Fail-fast diffing APIs took {}ms (stopped early: {})",
+			() -> sw.elapsed().toMillis(), () -> !report.isComplete());
+
+		return report;
+	}
+
+	/**
+	 * Computes the diff of some types of two API versions, e.g., the types of the files edited since the last diff. Only
+	 * the provided types and their members are compared; removed types are only reported if they are part of them.
+	 *
+	 * @param v1             the baseline API
+	 * @param v2             the target API
+	 * @param qualifiedNames the qualified names of the types to compare
+	 * @return a {@link RoseauReport} containing the breaking changes impacting the provided types
+	 */
+	public static RoseauReport diffTypes(API v1, API v2, Set<String> qualifiedNames) {
+		Preconditions.checkNotNull(v1);
+		Preconditions.checkNotNull(v2);
+		Preconditions.checkNotNull(qualifiedNames);
+
+		Stopwatch sw = Stopwatch.createStarted();
+		ApiWalker walker = new ApiWalker(v1, v2, new DefaultSymbolMatcher());
+		ApiDiffer<RoseauReport> differ = new BreakingChangeAnalyzer(v1, v2);
+		RoseauReport report = walker.walk(differ, type -> qualifiedNames.contains(type.getQualifiedName()));
+		LOGGER.debug("Diffing {} types took {}ms ({} breaking changes)",
+			qualifiedNames::size, () -> sw.elapsed().toMillis(), () -> report.getBreakingChanges().size());
+
+		return report;
+	}
+
 	/**
 	 * Builds both APIs in parallel using the provided {@link Executor} and computes their diff.
 	 *
@@ -124,39 +226,129 @@ public final class Roseau {
 		Preconditions.checkNotNull(v1);
 		Preconditions.checkNotNull(v2);
 		Preconditions.checkNotNull(executor);
+		return diff(v1, v2, executor, null);
+	}
 
-		Stopwatch sw = Stopwatch.createStarted();
-		CompletableFuture<API> futureV1 = CompletableFuture.supplyAsync(() -> buildAPI(v1), executor);
-		CompletableFuture<API> futureV2 = CompletableFuture.supplyAsync(() -> buildAPI(v2), executor);
+	/**
+	 * Builds both APIs in parallel using the provided {@link Executor} and computes their fail-fast diff (see
+	 * {@link #diff(API, API, Predicate)}).
+	 *
+	 * @param v1            the baseline library
+	 * @param v2            the target library
+	 * @param executor      the executor to use
+	 * @param stopCondition the breaking changes that stop the analysis, or {@code null} to run the full analysis
+	 * @return a {@link RoseauReport} containing the list of breaking changes
+	 */
+	public static RoseauReport diff(Library v1, Library v2, Executor executor, Predicate<BreakingChange> stopCondition) {
+		Preconditions.checkNotNull(v1);
+		Preconditions.checkNotNull(v2);
+		Preconditions.checkNotNull(executor);
 
+		Stopwatch sw = Stopwatch.createStarted();
+		List<API> apis;
 		try {
-			API api1 = futureV1.join();
-			API api2 = futureV2.join();
-			LOGGER.debug("Building APIs in parallel took {}ms ({} vs {} types)",
-				() -> sw.elapsed().toMillis(), () -> api1.getExportedTypes().size(), () -> api2.getExportedTypes().size());
-			return diff(api1, api2);
-		} catch (CompletionException e) {
-			throw new RoseauException("Failed to build diff", e.getCause() != null ? e.getCause() : e);
+			apis = Parallelism.both(() -> buildAPI(v1), () -> buildAPI(v2), List::of, executor);
+		} catch (RuntimeException e) {
+			throw new RoseauException("Failed to build diff", e);
 		}
+
+		API api1 = apis.getFirst();
+		API api2 = apis.getLast();
+		LOGGER.debug("Building APIs in parallel took {}ms ({} vs {} types)",
+			() -> sw.elapsed().toMillis(), () -> api1.getExportedTypes().size(), () -> api2.getExportedTypes().size());
+		return stopCondition != null
+			? diff(api1, api2, stopCondition)
+			: diff(api1, api2);
 	}
 
 	/**
-	 * Builds both APIs in parallel using the default {@link ForkJoinPool#commonPool()} and computes their diff.
+	 * Builds both APIs in parallel in the current pool (see {@link Parallelism#currentPool()}), e.g., the compute pool
+	 * of a {@link Parallelism} or the default {@link ForkJoinPool#commonPool()}, and computes their diff.
 	 *
 	 * @param v1 the baseline library
 	 * @param v2 the target library
 	 * @return a {@link RoseauReport} containing the list of breaking changes
 	 */
 	public static RoseauReport diff(Library v1, Library v2) {
-		return diff(v1, v2, ForkJoinPool.commonPool());
+		return diff(v1, v2, Parallelism.currentPool());
 	}
 
 	/**
-	 * Incrementally updates a previously extracted source snapshot.
+	 * Builds the {@link API}s of the provided modules, e.g., the modules of a JDK located with {@link JdkModules}. The
+	 * types of every module are extracted in parallel, and all APIs share a single resolver so that a type referenced
+	 * from several modules is only resolved once. Each module's {@code module-info} exports determine its exported types.
 	 *
-	 * @param previousTypes the previously extracted source snapshot
-	 * @param newVersion    the new source library version
-	 * @param changedFiles  the changed source files, relative to the library root
+	 * @param modules the libraries of the modules to analyze, each containing a named module declaration
+	 * @return the APIs, by module name
+	 * @throws RoseauException if a library does not declare a named module or two libraries declare the same module
+	 */
+	public static Map<String, API> buildModuleAPIs(List<Library> modules) {
+		Preconditions.checkNotNull(modules);
+
+		Stopwatch sw = Stopwatch.createStarted();
+		ApiFactory factory = defaultApiFactory();
+		List<LibraryTypes> moduleTypes = modules.parallelStream()
+			.map(module -> extractTypes(module, factory))
+			.toList();
+
+		// Module types take precedence over the platform types of the running JVM
+		AsmTypesExtractor extractor = new AsmTypesExtractor(factory);
+		List<TypeProvider> providers = new ArrayList<>(moduleTypes);
+		moduleTypes.stream()
+			.map(LibraryTypes::getLibrary)
+			.filter(Library::isScoped)
+			.forEach(library -> providers.add(outOfScopeTypeProvider(library, factory)));
+		providers.add(new ClasspathTypeProvider(extractor, modules.stream()
+			.flatMap(module -> module.getClasspath().stream())
+			.distinct()
+			.toList()));
+		long typeCount = moduleTypes.stream().mapToLong(types -> types.getTypeHeaders().size()).sum();
+		TypeResolver resolver = new CachingTypeResolver(providers, Math.max(typeCount, 5_000L));
+
+		Map<String, API> apis = new TreeMap<>();
+		for (LibraryTypes types : moduleTypes) {
+			ModuleDecl module = types.getModule();
+			if (module.isUnnamed()) {
+				throw new RoseauException("%s does not declare a named module".formatted(types.getLibrary()));
+			}
+			if (apis.putIfAbsent(module.getQualifiedName(), buildAPI(types, resolver)) != null) {
+				throw new RoseauException("Module %s is declared twice".formatted(module.getQualifiedName()));
+			}
+		}
+
+		LOGGER.debug("Building module APIs took {}ms ({} modules, {} types)",
+			() -> sw.elapsed().toMillis(), apis::size, () -> typeCount);
+		return apis;
+	}
+
+	/**
+	 * Computes the diff of every module present in both versions, in parallel. Modules that only exist in one version
+	 * are logged and skipped.
+	 *
+	 * @param v1 the baseline APIs, by module name
+	 * @param v2 the target APIs, by module name
+	 * @return a {@link RoseauReport} per module present in both versions, by module name
+	 */
+	public static Map<String, RoseauReport> diffModules(Map<String, API> v1, Map<String, API> v2) {
+		Preconditions.checkNotNull(v1);
+		Preconditions.checkNotNull(v2);
+
+		Sets.difference(v1.keySet(), v2.keySet()).forEach(module -> LOGGER.warn("Module {} was removed", module));
+		Sets.difference(v2.keySet(), v1.keySet()).forEach(module -> LOGGER.info("Module {} was added", module));
+
+		return v1.keySet().parallelStream()
+			.filter(v2::containsKey)
+			.collect(Collectors.toMap(Function.identity(), module -> diff(v1.get(module), v2.get(module)),
+				(r1, _) -> r1, TreeMap::new));
+	}
+
+	/**
+	 * Incrementally updates a previously extracted source snapshot or class directory snapshot.
+	 *
+	 * @param previousTypes the previously extracted snapshot
+	 * @param newVersion    the new library version, either a source directory, a source archive (e.g., a git revision,
+	 *                      see {@link io.github.alien.roseau.git.GitRevisions}), or a class directory
+	 * @param changedFiles  the changed source or class files, relative to the library root
 	 * @return the updated library types
 	 */
 	public static LibraryTypes incrementalBuild(LibraryTypes previousTypes, Library newVersion,
@@ -164,14 +356,54 @@ public final class Roseau {
 		Preconditions.checkNotNull(previousTypes);
 		Preconditions.checkNotNull(newVersion);
 		Preconditions.checkNotNull(changedFiles);
-		Preconditions.checkArgument(previousTypes.getLibrary().getExtractorType() == ExtractorType.JDT);
-		Preconditions.checkArgument(newVersion.getExtractorType() == ExtractorType.JDT);
+		Preconditions.checkArgument(newVersion.isSources() || newVersion.isSourcesJar() ||
+				(newVersion.getExtractorType() == ExtractorType.ASM && newVersion.isClasses()),
+			"Incremental extraction requires a source directory, source archive, or class directory: %s", newVersion);
+		Preconditions.checkArgument(previousTypes.getLibrary().getExtractorType() == newVersion.getExtractorType());
 
 		ApiFactory factory = defaultApiFactory();
-		IncrementalTypesExtractor incremental = new IncrementalJdtTypesExtractor(new JdtTypesExtractor(factory));
+		IncrementalTypesExtractor incremental = newVersion.getExtractorType() == ExtractorType.JDT
+			? new IncrementalJdtTypesExtractor(new JdtTypesExtractor(factory))
+			: new IncrementalAsmTypesExtractor(new AsmTypesExtractor(factory));
 		return incremental.incrementalUpdate(previousTypes, newVersion, changedFiles);
 	}
 
+	/**
+	 * Updates a previously extracted source snapshot with the in-memory contents of some of its compilation units, e.g.,
+	 * unsaved editor buffers. Only the provided units and the units depending on them are parsed; see
+	 * {@link IncrementalJdtTypesExtractor#updateSources(LibraryTypes, Map, Map)}.
+	 *
+	 * @param previousTypes the previously extracted snapshot of a source directory or source archive
+	 * @param sources       the contents of the updated compilation units, by path relative to the library root
+	 * @return the updated library types
+	 */
+	public static LibraryTypes incrementalBuild(LibraryTypes previousTypes, Map<Path, String> sources) {
+		return incrementalBuild(previousTypes, sources, Map.of());
+	}
+
+	/**
+	 * Updates a previously extracted source snapshot with the in-memory contents of some of its compilation units, e.g.,
+	 * unsaved editor buffers. Only the provided units and the units depending on them are parsed, the latter from their
+	 * in-memory contents if they have any; see
+	 * {@link IncrementalJdtTypesExtractor#updateSources(LibraryTypes, Map, Map)}.
+	 *
+	 * @param previousTypes the previously extracted snapshot of a source directory or source archive
+	 * @param sources       the contents of the updated compilation units, by path relative to the library root
+	 * @param buffers       the in-memory contents of other compilation units, by path relative to the library root
+	 * @return the updated library types
+	 */
+	public static LibraryTypes incrementalBuild(LibraryTypes previousTypes, Map<Path, String> sources,
+	                                            Map<Path, String> buffers) {
+		Preconditions.checkNotNull(previousTypes);
+		Preconditions.checkNotNull(sources);
+		Preconditions.checkNotNull(buffers);
+		Preconditions.checkArgument(previousTypes.getLibrary().getExtractorType() == ExtractorType.JDT,
+			"In-memory sources require the JDT extractor: %s", previousTypes.getLibrary());
+
+		return new IncrementalJdtTypesExtractor(new JdtTypesExtractor(defaultApiFactory()))
+			.updateSources(previousTypes, sources, buffers);
+	}
+
 	/**
 	 * Incrementally computes the diff between two source libraries using the provided {@link Executor}.
 	 *
@@ -181,33 +413,51 @@ public final class Roseau {
 	 * @return a {@link RoseauReport} containing the list of breaking changes
 	 */
 	public static RoseauReport incrementalDiff(Library v1, Library v2, Executor executor) {
+		return incrementalDiff(v1, v2, executor, FingerprintIndex.inMemory());
+	}
+
+	/**
+	 * Incrementally computes the diff between two source libraries using the provided {@link Executor}. The hashes of
+	 * the source files are looked up in the provided index, e.g., a
+	 * {@link FingerprintIndex#load(java.nio.file.Path) persistent} one, so that unchanged files of previously scanned
+	 * trees are not read again.
+	 *
+	 * @param v1       the baseline source library
+	 * @param v2       the target source library
+	 * @param executor the executor to use
+	 * @param index    the index of file hashes, saved once the changed files are known
+	 * @return a {@link RoseauReport} containing the list of breaking changes
+	 */
+	public static RoseauReport incrementalDiff(Library v1, Library v2, Executor executor, FingerprintIndex index) {
 		Preconditions.checkNotNull(v1);
 		Preconditions.checkNotNull(v2);
 		Preconditions.checkNotNull(executor);
+		Preconditions.checkNotNull(index);
 		Preconditions.checkArgument(v1.getExtractorType() == ExtractorType.JDT);
 		Preconditions.checkArgument(v2.getExtractorType() == ExtractorType.JDT);
-		HashingChangedFilesProvider provider = new HashingChangedFilesProvider(HashFunction.XXHASH);
+		HashingChangedFilesProvider provider = new HashingChangedFilesProvider(HashFunction.XXHASH, index);
 
 		Stopwatch sw = Stopwatch.createStarted();
-		CompletableFuture<LibraryTypes> futureV1 = CompletableFuture.supplyAsync(() -> buildLibraryTypes(v1), executor);
-		CompletableFuture<ChangedFiles> futureChanges = CompletableFuture.supplyAsync(
-			() -> provider.getChangedFiles(v1.getLocation(), v2.getLocation()), executor);
-		CompletableFuture<LibraryTypes> futureV2 = futureV1.thenCombineAsync(
-			futureChanges,
-			(types, changes) -> incrementalBuild(types, v2, changes),
-			executor);
-
+		LibraryTypes types1;
+		LibraryTypes types2;
 		try {
-			LibraryTypes types1 = futureV1.join();
-			LibraryTypes types2 = futureV2.join();
-			API api1 = buildAPI(types1);
-			API api2 = buildAPI(types2);
-			LOGGER.debug("Building APIs incrementally took {}ms ({} vs {} types)",
-				() -> sw.elapsed().toMillis(), () -> api1.getExportedTypes().size(), () -> api2.getExportedTypes().size());
-			return diff(api1, api2);
-		} catch (CompletionException e) {
-			throw new RoseauException("Failed to incrementally update APIs", e.getCause() != null ? e.getCause() : e);
+			// v2 is updated on the calling thread once both v1 and the changed files are known
+			Map.Entry<LibraryTypes, ChangedFiles> previous = Parallelism.both(
+				() -> buildLibraryTypes(v1),
+				() -> provider.getChangedFiles(v1.getLocation(), v2.getLocation()),
+				Map::entry,
+				executor);
+			types1 = previous.getKey();
+			types2 = incrementalBuild(types1, v2, previous.getValue());
+		} catch (RuntimeException e) {
+			throw new RoseauException("Failed to incrementally update APIs", e);
 		}
+
+		API api1 = buildAPI(types1);
+		API api2 = buildAPI(types2);
+		LOGGER.debug("Building APIs incrementally took {}ms ({} vs {} types)",
+			() -> sw.elapsed().toMillis(), () -> api1.getExportedTypes().size(), () -> api2.getExportedTypes().size());
+		return diff(api1, api2);
 	}
 
 	/**
@@ -218,7 +468,20 @@ public final class Roseau {
 	 * @return a {@link RoseauReport} containing the list of breaking changes
 	 */
 	public static RoseauReport incrementalDiff(Library v1, Library v2) {
-		return incrementalDiff(v1, v2, ForkJoinPool.commonPool());
+		return incrementalDiff(v1, v2, Parallelism.currentPool());
+	}
+
+	/**
+	 * Incrementally computes the diff between two source libraries, looking the hashes of their source files up in the
+	 * provided index (see {@link #incrementalDiff(Library, Library, Executor, FingerprintIndex)}).
+	 *
+	 * @param v1    the baseline source library
+	 * @param v2    the target source library
+	 * @param index the index of file hashes, saved once the changed files are known
+	 * @return a {@link RoseauReport} containing the list of breaking changes
+	 */
+	public static RoseauReport incrementalDiff(Library v1, Library v2, FingerprintIndex index) {
+		return incrementalDiff(v1, v2, Parallelism.currentPool(), index);
 	}
 
 	private static LibraryTypes extractTypes(Library library, ApiFactory factory) {
@@ -233,13 +496,28 @@ public final class Roseau {
 		return types;
 	}
 
-	private static API buildAPI(LibraryTypes types, ApiFactory factory) {
+	private static API buildAPI(LibraryTypes types, ApiFactory factory, ClasspathTypeCache cache) {
+		Library library = types.getLibrary();
 		AsmTypesExtractor extractor = new AsmTypesExtractor(factory);
-		TypeProvider classpathProvider = new ClasspathTypeProvider(extractor, types.getLibrary().getClasspath());
-		TypeResolver cachingTypeResolver = new CachingTypeResolver(List.of(types, classpathProvider));
+		List<TypeProvider> providers = new ArrayList<>();
+		providers.add(types);
+		if (library.isScoped()) {
+			// Out-of-scope types of the library are only read when resolution needs them
+			providers.add(outOfScopeTypeProvider(library, factory));
+		}
+		providers.add(cache != null
+			? new ClasspathTypeProvider(extractor, library.getClasspath(), cache)
+			: new ClasspathTypeProvider(extractor, library.getClasspath()));
+		TypeResolver cachingTypeResolver = new CachingTypeResolver(providers);
 		return buildAPI(types, cachingTypeResolver);
 	}
 
+	private static TypeProvider outOfScopeTypeProvider(Library library, ApiFactory factory) {
+		return library.isSources() || library.isSourcesJar()
+			? new JdtSourceTypeProvider(new JdtTypesExtractor(factory), library)
+			: new ClasspathTypeProvider(new AsmTypesExtractor(factory), List.of(library.getLocation()));
+	}
+
 	private static ApiFactory defaultApiFactory() {
 		return new DefaultApiFactory(new CachingTypeReferenceFactory());
 	}
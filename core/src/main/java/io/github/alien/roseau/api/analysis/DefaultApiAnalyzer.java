@@ -13,8 +13,10 @@ import io.github.alien.roseau.api.model.TypeDecl;
 import io.github.alien.roseau.api.resolution.TypeResolver;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
 
 public final class DefaultApiAnalyzer implements ApiAnalyzer {
 	private final Cache<String, Map<String, MethodDecl>> methodsCache =
@@ -28,7 +30,7 @@ public final class DefaultApiAnalyzer implements ApiAnalyzer {
 
 	private final LibraryTypes libraryTypes;
 	private final TypeResolver resolver;
-	private final SetMultimap<String, TypeDecl> directKnownSubtypes;
+	private final SetMultimap<String, String> directKnownSubtypes;
 
 	public DefaultApiAnalyzer(LibraryTypes libraryTypes, TypeResolver resolver) {
 		this.libraryTypes = Preconditions.checkNotNull(libraryTypes);
@@ -48,7 +50,11 @@ public final class DefaultApiAnalyzer implements ApiAnalyzer {
 
 	@Override
 	public Set<TypeDecl> getDirectKnownSubtypes(TypeDecl type) {
-		return directKnownSubtypes.get(type.getQualifiedName());
+		// Subtypes are indexed by name so that header-only types are only completed when requested
+		return directKnownSubtypes.get(type.getQualifiedName()).stream()
+			.map(libraryTypes::findType)
+			.flatMap(Optional::stream)
+			.collect(Collectors.toUnmodifiableSet());
 	}
 
 	@Override
@@ -69,10 +75,11 @@ public final class DefaultApiAnalyzer implements ApiAnalyzer {
 		}
 	}
 
-	private static SetMultimap<String, TypeDecl> buildDirectKnownSubtypesBySuperType(LibraryTypes libraryTypes) {
-		HashMultimap<String, TypeDecl> subtypes = HashMultimap.create();
-		libraryTypes.getAllTypes().forEach(type ->
-			PropertiesProvider.directSuperTypeNames(type).forEach(superTypeName -> subtypes.put(superTypeName, type)));
+	private static SetMultimap<String, String> buildDirectKnownSubtypesBySuperType(LibraryTypes libraryTypes) {
+		HashMultimap<String, String> subtypes = HashMultimap.create();
+		libraryTypes.getTypeHeaders().forEach(type ->
+			PropertiesProvider.directSuperTypeNames(type)
+				.forEach(superTypeName -> subtypes.put(superTypeName, type.getQualifiedName())));
 		return ImmutableSetMultimap.copyOf(subtypes);
 	}
 }
@@ -0,0 +1,143 @@
+package io.github.alien.roseau.api.analysis;
+
+import com.google.common.base.Preconditions;
+import io.github.alien.roseau.api.model.Symbol;
+import io.github.alien.roseau.api.model.TypeDecl;
+import io.github.alien.roseau.api.model.TypeMemberDecl;
+import io.github.alien.roseau.api.model.reference.TypeReference;
+import io.github.alien.roseau.api.resolution.TypeResolver;
+import io.github.alien.roseau.options.RoseauOptions;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Matches symbols against {@link RoseauOptions.Exclude} options. Name patterns that are plain qualified names or
+ * qualified name prefixes (e.g., {@code com\.google\.common\.base\.internal\..*}) are stored in a prefix trie; all the
+ * other name patterns are compiled into a single regular expression. Exclusions propagate from types to their members
+ * and nested types.
+ */
+public final class ExclusionMatcher {
+	private final RoseauOptions.Exclude exclusions;
+	private final TrieNode names = new TrieNode();
+	private final Pattern otherNames;
+
+	// A pattern whose only regex constructs are escaped dots or dollars and an optional trailing wildcard; an unescaped
+	// '$' is an anchor and goes to the regular expression
+	private static final Pattern LITERAL_NAME = Pattern.compile("((?:\\w|\\\\[.$])+)(\\.\\*)?");
+	private static final Logger LOGGER = LogManager.getLogger(ExclusionMatcher.class);
+
+	public ExclusionMatcher(RoseauOptions.Exclude exclusions) {
+		this.exclusions = Preconditions.checkNotNull(exclusions);
+
+		List<String> regexes = new ArrayList<>();
+		for (String name : exclusions.names()) {
+			Matcher literal = LITERAL_NAME.matcher(name);
+			if (literal.matches()) {
+				names.insert(literal.group(1).replace("\\.", ".").replace("\\$", "$"), literal.group(2) != null);
+				continue;
+			}
+
+			try {
+				Pattern.compile(name);
+				regexes.add("(?:" + name + ")");
+			} catch (PatternSyntaxException e) {
+				LOGGER.warn("Invalid exclusion pattern {}", name, e);
+			}
+		}
+		this.otherNames = regexes.isEmpty() ? null : Pattern.compile(String.join("|", regexes));
+	}
+
+	/**
+	 * Whether no exclusion is configured.
+	 *
+	 * @return true if nothing can be excluded
+	 */
+	public boolean isEmpty() {
+		return exclusions.names().isEmpty() && exclusions.annotations().isEmpty();
+	}
+
+	/**
+	 * Checks whether the qualified name matches one of the exclusion name patterns.
+	 *
+	 * @param qualifiedName the qualified name to check
+	 * @return true if the name is excluded
+	 */
+	public boolean matchesName(String qualifiedName) {
+		Preconditions.checkNotNull(qualifiedName);
+		return names.matches(qualifiedName) || (otherNames != null && otherNames.matcher(qualifiedName).matches());
+	}
+
+	/**
+	 * Checks whether the symbol itself is excluded, by name or by annotation, regardless of its enclosing types.
+	 *
+	 * @param symbol the symbol to check
+	 * @return true if the symbol is excluded
+	 */
+	public boolean matches(Symbol symbol) {
+		Preconditions.checkNotNull(symbol);
+		return matchesName(symbol.getQualifiedName()) ||
+			exclusions.annotations().stream()
+				.anyMatch(ann -> symbol.hasAnnotation(new TypeReference<>(ann.name()), ann.args()));
+	}
+
+	/**
+	 * Checks whether the symbol is excluded, either directly or because its enclosing or containing type is.
+	 *
+	 * @param symbol   the symbol to check
+	 * @param resolver the resolver used to navigate to enclosing and containing types
+	 * @return true if the symbol is excluded
+	 */
+	public boolean isExcluded(Symbol symbol, TypeResolver resolver) {
+		Preconditions.checkNotNull(resolver);
+		if (isEmpty()) {
+			return false;
+		}
+
+		Optional<? extends TypeDecl> parent = switch (symbol) {
+			case TypeDecl type -> type.getEnclosingType().flatMap(resolver::resolve);
+			case TypeMemberDecl member -> resolver.resolve(member.getContainingType());
+		};
+		return matches(symbol) || parent.map(p -> isExcluded(p, resolver)).orElse(false);
+	}
+
+	private static final class TrieNode {
+		private final Map<Character, TrieNode> children = new HashMap<>();
+		private boolean exact;
+		private boolean prefix;
+
+		void insert(String name, boolean isPrefix) {
+			TrieNode node = this;
+			for (int i = 0; i < name.length(); i++) {
+				node = node.children.computeIfAbsent(name.charAt(i), _ -> new TrieNode());
+			}
+			if (isPrefix) {
+				node.prefix = true;
+			} else {
+				node.exact = true;
+			}
+		}
+
+		boolean matches(String name) {
+			TrieNode node = this;
+			for (int i = 0; i < name.length(); i++) {
+				if (node.prefix) {
+					return true;
+				}
+				node = node.children.get(name.charAt(i));
+				if (node == null) {
+					return false;
+				}
+			}
+			return node.exact || node.prefix;
+		}
+	}
+}
@@ -1,9 +1,12 @@
 package io.github.alien.roseau.api.model;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableSortedMap;
 import io.github.alien.roseau.Library;
 import io.github.alien.roseau.api.analysis.ApiAnalyzer;
+import io.github.alien.roseau.api.analysis.ExclusionMatcher;
+import io.github.alien.roseau.options.RoseauOptions;
 
 import java.util.Comparator;
 import java.util.List;
@@ -11,6 +14,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -23,18 +27,31 @@ public final class API {
 	private final LibraryTypes libraryTypes;
 	private final ApiAnalyzer analyzer;
 	private final Map<String, TypeDecl> exportedTypes;
+	private final ExclusionMatcher exclusions;
+	private final Supplier<List<TypeDecl>> inScopeTypes;
+	private final Supplier<List<TypeDecl>> includedTypes;
 
 	public API(LibraryTypes libraryTypes, ApiAnalyzer analyzer) {
 		Preconditions.checkNotNull(libraryTypes);
 		this.libraryTypes = libraryTypes;
 		this.analyzer = Preconditions.checkNotNull(analyzer);
-		this.exportedTypes = libraryTypes.getAllTypes().stream()
+		// Header-only types are never exported, so there is no need to complete them
+		this.exportedTypes = libraryTypes.getTypeHeaders().stream()
 			.filter(analyzer::isExported)
+			.map(libraryTypes::complete)
 			.collect(ImmutableSortedMap.toImmutableSortedMap(
 				Comparator.naturalOrder(),
 				Symbol::getQualifiedName,
 				Function.identity()
 			));
+		this.exclusions = new ExclusionMatcher(libraryTypes.getLibrary().getExclusions());
+		Library library = libraryTypes.getLibrary();
+		this.inScopeTypes = Suppliers.memoize(() -> exportedTypes.values().stream()
+			.filter(type -> library.isInScope(type.getPackageName()))
+			.toList());
+		this.includedTypes = Suppliers.memoize(() -> inScopeTypes.get().stream()
+			.filter(type -> !isPruned(type))
+			.toList());
 	}
 
 	public LibraryTypes getLibraryTypes() {
@@ -64,6 +81,54 @@ public final class API {
 		return Optional.ofNullable(exportedTypes.get(qualifiedName));
 	}
 
+	/**
+	 * Exported type declarations that belong to the in-scope packages of the library (see {@link Library#isInScope}),
+	 * whether they are pruned by exclusions or not.
+	 *
+	 * @return The list of exported and in-scope {@link TypeDecl}
+	 */
+	public List<TypeDecl> getInScopeTypes() {
+		return inScopeTypes.get();
+	}
+
+	/**
+	 * Exported type declarations that belong to the in-scope packages of the library (see {@link Library#isInScope})
+	 * and are not pruned by exclusions (see {@link #isPruned(Symbol)}). These are the types
+	 * that are walked when diffing APIs; pruned types remain available through {@link #findExportedType(String)} and
+	 * the resolver.
+	 *
+	 * @return The list of exported and included {@link TypeDecl}
+	 */
+	public List<TypeDecl> getIncludedTypes() {
+		return includedTypes.get();
+	}
+
+	/**
+	 * Checks whether the symbol is excluded from the API by the {@link RoseauOptions.Exclude} options of the library,
+	 * either directly or through its enclosing or containing type.
+	 *
+	 * @param symbol The symbol to check
+	 * @return true if the symbol is excluded
+	 */
+	public boolean isExcluded(Symbol symbol) {
+		return exclusions.isExcluded(symbol, analyzer.resolver());
+	}
+
+	/**
+	 * Checks whether the symbol is excluded and exclusions are applied while building the API
+	 * ({@link RoseauOptions.Exclude#prune()}), in which case it should not be analyzed at all.
+	 *
+	 * @param symbol The symbol to check
+	 * @return true if the symbol is pruned
+	 */
+	public boolean isPruned(Symbol symbol) {
+		return Boolean.TRUE.equals(getLibrary().getExclusions().prune()) && isExcluded(symbol);
+	}
+
+	public ExclusionMatcher getExclusionMatcher() {
+		return exclusions;
+	}
+
 	public Library getLibrary() {
 		return libraryTypes.getLibrary();
 	}
@@ -0,0 +1,67 @@
+package io.github.alien.roseau.api.model;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Suppliers;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The memoized complete declaration of a header-only type (see {@link LibraryTypes#getDeferredTypes()}), along with the
+ * payload it is built from, e.g., the retained class file. Deferred types are equal when their payloads are, so that
+ * {@link LibraryTypes} can be compared without completing them.
+ */
+public final class DeferredType implements Supplier<TypeDecl> {
+	private final Object payload;
+	private final Supplier<TypeDecl> complete;
+
+	private DeferredType(Object payload, Supplier<TypeDecl> complete) {
+		this.payload = payload;
+		this.complete = Suppliers.memoize(complete::get);
+	}
+
+	/**
+	 * Creates a deferred type built from the provided class file.
+	 *
+	 * @param classFile the class file of the type
+	 * @param extractor the function extracting the complete type declaration from the class file
+	 * @return the deferred type
+	 */
+	public static DeferredType ofClassFile(byte[] classFile, Function<byte[], TypeDecl> extractor) {
+		Preconditions.checkNotNull(classFile);
+		Preconditions.checkNotNull(extractor);
+		return new DeferredType(ByteBuffer.wrap(classFile).asReadOnlyBuffer(), () -> extractor.apply(classFile));
+	}
+
+	/**
+	 * Wraps the provided supplier of a complete type declaration. Unless it already is a {@link DeferredType}, the
+	 * supplier is its own payload: the resulting deferred type is only equal to the ones wrapping the same supplier.
+	 *
+	 * @param complete the supplier of the complete type declaration
+	 * @return the deferred type
+	 */
+	public static DeferredType of(Supplier<TypeDecl> complete) {
+		Preconditions.checkNotNull(complete);
+		return complete instanceof DeferredType deferred ? deferred : new DeferredType(complete, complete);
+	}
+
+	@Override
+	public TypeDecl get() {
+		return complete.get();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		return obj instanceof DeferredType other && Objects.equals(payload, other.payload);
+	}
+
+	@Override
+	public int hashCode() {
+		return payload.hashCode();
+	}
+}
@@ -2,13 +2,21 @@ package io.github.alien.roseau.api.model;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.module.paranamer.ParanamerModule;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.Collections2;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.SetMultimap;
 import io.github.alien.roseau.Library;
 import io.github.alien.roseau.RoseauException;
 import io.github.alien.roseau.api.resolution.TypeProvider;
@@ -17,13 +25,19 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Holds a set of {@link Symbol} extracted from a library and provides convenience methods to access type declarations.
@@ -49,6 +63,27 @@ public final class LibraryTypes implements TypeProvider {
 	 */
 	private final Map<String, TypeDecl> allTypes;
 
+	/**
+	 * Non-exported types whose members are extracted lazily: {@link #allTypes} only holds their header, and these
+	 * memoized {@link DeferredType} build their complete declaration the first time it is requested.
+	 */
+	@JsonIgnore
+	private final Map<String, Supplier<TypeDecl>> deferredTypes;
+
+	/**
+	 * The top-level types each source file depends on, recorded by source extractors so that incremental extractors can
+	 * reparse the files depending on changed ones. Empty if unknown, e.g., for bytecode or deserialized library types.
+	 */
+	@JsonIgnore
+	private final Map<Path, Set<String>> fileReferences;
+
+	/**
+	 * The types declared by each source file and the source files referring to each top-level type, built on first use
+	 * and carried over by {@link #withFiles(ModuleDecl, Set, Set, Map)}.
+	 */
+	@JsonIgnore
+	private final Supplier<FileIndex> fileIndex;
+
 	private static final ObjectMapper MAPPER = new ObjectMapper();
 	private static final Logger LOGGER = LogManager.getLogger(LibraryTypes.class);
 
@@ -71,9 +106,47 @@ public final class LibraryTypes implements TypeProvider {
 	 */
 	@JsonCreator
 	public LibraryTypes(Library library, ModuleDecl module, @JsonProperty("allTypes") Set<TypeDecl> types) {
+		this(library, module, types, Map.of());
+	}
+
+	/**
+	 * Initializes from the given list of {@link TypeDecl} and {@link ModuleDecl}, where some types are header-only and
+	 * completed lazily.
+	 *
+	 * @param library       The analyzed library
+	 * @param module        The module corresponding to the library
+	 * @param types         Initial set of {@link TypeDecl} instances inferred from the library, exported or not; deferred
+	 *                      types are only represented by their header
+	 * @param deferredTypes The suppliers of the complete declarations of header-only types, by qualified name
+	 */
+	public LibraryTypes(Library library, ModuleDecl module, Set<TypeDecl> types,
+	                    Map<String, Supplier<TypeDecl>> deferredTypes) {
+		this(library, module, types, deferredTypes, Map.of());
+	}
+
+	/**
+	 * Initializes from the given list of {@link TypeDecl} and {@link ModuleDecl} extracted from source files, along
+	 * with the types each source file depends on.
+	 *
+	 * @param library        The analyzed library
+	 * @param module         The module corresponding to the library
+	 * @param types          Initial set of {@link TypeDecl} instances inferred from the library, exported or not
+	 * @param deferredTypes  The suppliers of the complete declarations of header-only types, by qualified name
+	 * @param fileReferences The binary names of the top-level types each source file depends on, by source file
+	 */
+	public LibraryTypes(Library library, ModuleDecl module, Set<TypeDecl> types,
+	                    Map<String, Supplier<TypeDecl>> deferredTypes, Map<Path, Set<String>> fileReferences) {
+		this(library, module, types, deferredTypes, fileReferences, null);
+	}
+
+	private LibraryTypes(Library library, ModuleDecl module, Set<TypeDecl> types,
+	                     Map<String, Supplier<TypeDecl>> deferredTypes, Map<Path, Set<String>> fileReferences,
+	                     FileIndex fileIndex) {
 		Preconditions.checkNotNull(library);
 		Preconditions.checkNotNull(module);
 		Preconditions.checkNotNull(types);
+		Preconditions.checkNotNull(deferredTypes);
+		Preconditions.checkNotNull(fileReferences);
 		this.library = library;
 		this.module = module;
 		allTypes = types.stream()
@@ -85,6 +158,10 @@ public final class LibraryTypes implements TypeProvider {
 					throw new RoseauException("Duplicated type in %s: %s".formatted(library, fqn));
 				}
 			));
+		this.deferredTypes = deferredTypes.entrySet().stream()
+			.collect(ImmutableMap.toImmutableMap(Map.Entry::getKey, e -> DeferredType.of(e.getValue())));
+		this.fileReferences = ImmutableMap.copyOf(fileReferences);
+		this.fileIndex = fileIndex != null ? Suppliers.ofInstance(fileIndex) : Suppliers.memoize(this::indexFiles);
 	}
 
 	/**
@@ -97,6 +174,28 @@ public final class LibraryTypes implements TypeProvider {
 		this(library, ModuleDecl.UNNAMED_MODULE, types);
 	}
 
+	private LibraryTypes(Library library, LibraryTypes types) {
+		Preconditions.checkNotNull(library);
+		this.library = library;
+		this.module = types.module;
+		this.allTypes = types.allTypes;
+		this.deferredTypes = types.deferredTypes;
+		this.fileReferences = types.fileReferences;
+		this.fileIndex = types.fileIndex;
+	}
+
+	/**
+	 * Returns the same types bound to another library, e.g., the types of a snapshot bound to the library it stands
+	 * for, so that the library's classpath and scope apply. Header-only types remain header-only and share their
+	 * completion with this instance.
+	 *
+	 * @param library the library to bind the types to
+	 * @return the types bound to the library
+	 */
+	public LibraryTypes withLibrary(Library library) {
+		return new LibraryTypes(library, this);
+	}
+
 	/**
 	 * The analyzed library.
 	 *
@@ -118,15 +217,146 @@ public final class LibraryTypes implements TypeProvider {
 	}
 
 	/**
-	 * Returns <strong>all</strong> types contained in the API, including those that are *not* exported.
+	 * Returns <strong>all</strong> types contained in the API, including those that are *not* exported. Header-only
+	 * types are completed while iterating over the returned view.
 	 *
 	 * @return The list of <strong>all</strong> {@link TypeDecl}
 	 */
 	@JsonProperty("allTypes")
 	public Collection<TypeDecl> getAllTypes() {
+		return deferredTypes.isEmpty()
+			? allTypes.values()
+			: Collections2.transform(allTypes.values(), this::complete);
+	}
+
+	/**
+	 * Returns <strong>all</strong> types contained in the API without completing header-only types. Non-exported types
+	 * whose members are extracted lazily only declare their name, modifiers, annotations, supertypes, and enclosing and
+	 * permitted types; their fields, methods, and constructors must be accessed through {@link #findType(String)}.
+	 *
+	 * @return The list of <strong>all</strong> {@link TypeDecl}, possibly header-only
+	 */
+	public Collection<TypeDecl> getTypeHeaders() {
 		return allTypes.values();
 	}
 
+	/**
+	 * Returns the memoized suppliers of the complete declarations of header-only types, by qualified name, as
+	 * {@link DeferredType} instances. Incremental extractors use them to carry unchanged header-only types over without
+	 * completing them.
+	 *
+	 * @return the suppliers of header-only types
+	 */
+	public Map<String, Supplier<TypeDecl>> getDeferredTypes() {
+		return deferredTypes;
+	}
+
+	/**
+	 * Returns the binary names of the top-level types each source file depends on, by source file relative to the
+	 * library's location. Incremental extractors use them to reparse the dependents of changed files.
+	 *
+	 * @return the references of each source file, or an empty map if unknown
+	 */
+	public Map<Path, Set<String>> getFileReferences() {
+		return fileReferences;
+	}
+
+	/**
+	 * Returns the source files that transitively depend on the provided top-level types according to
+	 * {@link #getFileReferences()}: the files referring to one of these types, the files referring to one of the types
+	 * declared by these files, and so on. Files referring to their own types are included.
+	 *
+	 * @param topLevelTypes the binary names of top-level types
+	 * @return the dependent files, relative to the library's location
+	 */
+	public Set<Path> getDependentFiles(Set<String> topLevelTypes) {
+		Preconditions.checkNotNull(topLevelTypes);
+		FileIndex index = fileIndex.get();
+		Set<Path> dependents = new HashSet<>();
+		Set<String> visited = new HashSet<>(topLevelTypes);
+		Deque<String> pending = new ArrayDeque<>(topLevelTypes);
+		while (!pending.isEmpty()) {
+			for (Path file : index.referringFiles().get(pending.pop())) {
+				if (dependents.add(file)) {
+					index.declaredTypes().get(file).stream()
+						.map(LibraryTypes::topLevelName)
+						.filter(visited::add)
+						.forEach(pending::add);
+				}
+			}
+		}
+
+		return dependents;
+	}
+
+	/**
+	 * Returns the binary name of the top-level type enclosing a type, e.g., {@code pkg.A} for {@code pkg.A$B}: the name
+	 * {@link #getFileReferences()} and {@link #getDependentFiles(Set)} refer to types by.
+	 *
+	 * @param qualifiedName the binary name of a type
+	 * @return the binary name of its top-level type
+	 */
+	public static String topLevelName(String qualifiedName) {
+		int nested = qualifiedName.indexOf('$');
+		return nested < 0 ? qualifiedName : qualifiedName.substring(0, nested);
+	}
+
+	/**
+	 * Returns the qualified names of the types declared in a source file, nested types included.
+	 *
+	 * @param file the source file, relative to the library's location
+	 * @return the types declared in the file, or an empty set if none
+	 */
+	public Set<String> getFileTypes(Path file) {
+		Preconditions.checkNotNull(file);
+		return fileIndex.get().declaredTypes().get(file);
+	}
+
+	/**
+	 * Returns these types where the types declared in some source files and their references are replaced, e.g., once
+	 * these files are parsed again. The index of the types declared by each file is updated rather than rebuilt.
+	 *
+	 * @param module         the module of the library
+	 * @param files          the replaced source files, relative to the library's location, including deleted ones
+	 * @param types          the types now declared in the replaced files
+	 * @param fileReferences the top-level types each replaced file now depends on
+	 * @return the updated library types
+	 * @throws RoseauException if a new type is already declared in another file
+	 */
+	public LibraryTypes withFiles(ModuleDecl module, Set<Path> files, Set<TypeDecl> types,
+	                              Map<Path, Set<String>> fileReferences) {
+		Preconditions.checkNotNull(module);
+		Preconditions.checkNotNull(files);
+		Preconditions.checkNotNull(types);
+		Preconditions.checkNotNull(fileReferences);
+		FileIndex index = fileIndex.get();
+		Set<String> replaced = files.stream()
+			.flatMap(file -> index.declaredTypes().get(file).stream())
+			.collect(Collectors.toSet());
+
+		Set<TypeDecl> newTypes = new HashSet<>(types);
+		allTypes.values().stream()
+			.filter(t -> !replaced.contains(t.getQualifiedName()))
+			.forEach(newTypes::add);
+		Map<Path, Set<String>> newReferences = new HashMap<>(this.fileReferences);
+		newReferences.keySet().removeAll(files);
+		newReferences.putAll(fileReferences);
+
+		SetMultimap<Path, String> declaredTypes = HashMultimap.create(index.declaredTypes());
+		files.forEach(declaredTypes::removeAll);
+		types.stream()
+			.filter(t -> t.getLocation().file() != null)
+			.forEach(t -> declaredTypes.put(t.getLocation().file(), t.getQualifiedName()));
+		SetMultimap<String, Path> referringFiles = HashMultimap.create(index.referringFiles());
+		files.forEach(file -> this.fileReferences.getOrDefault(file, Set.of())
+			.forEach(type -> referringFiles.remove(type, file)));
+		fileReferences.forEach((file, referenced) -> referenced.forEach(type -> referringFiles.put(type, file)));
+
+		return new LibraryTypes(library, module, newTypes, Maps.filterKeys(deferredTypes, t -> !replaced.contains(t)),
+			newReferences, new FileIndex(ImmutableSetMultimap.copyOf(declaredTypes),
+			ImmutableSetMultimap.copyOf(referringFiles)));
+	}
+
 	/**
 	 * Returns the type, <strong>exported or not</strong>, with the given qualified name.
 	 *
@@ -137,7 +367,7 @@ public final class LibraryTypes implements TypeProvider {
 	 */
 	@Override
 	public <T extends TypeDecl> Optional<T> findType(String qualifiedName, Class<T> type) {
-		Optional<TypeDecl> resolved = Optional.ofNullable(allTypes.get(qualifiedName));
+		Optional<TypeDecl> resolved = Optional.ofNullable(allTypes.get(qualifiedName)).map(this::complete);
 
 		if (resolved.isPresent() && !type.isInstance(resolved.get())) {
 			LOGGER.warn("Type {} is not of expected type {}", qualifiedName, type);
@@ -147,6 +377,17 @@ public final class LibraryTypes implements TypeProvider {
 		return resolved.map(type::cast);
 	}
 
+	/**
+	 * Returns the complete declaration of the given type, building it if the type is header-only.
+	 *
+	 * @param type the type, possibly header-only
+	 * @return the complete type declaration
+	 */
+	TypeDecl complete(TypeDecl type) {
+		Supplier<TypeDecl> deferred = deferredTypes.get(type.getQualifiedName());
+		return deferred != null ? deferred.get() : type;
+	}
+
 	/**
 	 * Serializes the API as Json to the specified file.
 	 *
@@ -183,14 +424,33 @@ public final class LibraryTypes implements TypeProvider {
 		if (this == obj) {
 			return true;
 		}
+		// Header-only types are compared through their headers and deferred payloads, without completing them
 		return obj instanceof LibraryTypes other
 			&& Objects.equals(library, other.library)
 			&& Objects.equals(module, other.module)
-			&& Objects.equals(allTypes, other.allTypes);
+			&& Objects.equals(allTypes, other.allTypes)
+			&& Objects.equals(deferredTypes, other.deferredTypes);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(library, module, allTypes);
+		return Objects.hash(library, module, allTypes, deferredTypes);
+	}
+
+	private FileIndex indexFiles() {
+		ImmutableSetMultimap.Builder<Path, String> declaredTypes = ImmutableSetMultimap.builder();
+		allTypes.values().stream()
+			.filter(t -> t.getLocation().file() != null)
+			.forEach(t -> declaredTypes.put(t.getLocation().file(), t.getQualifiedName()));
+		ImmutableSetMultimap.Builder<String, Path> referringFiles = ImmutableSetMultimap.builder();
+		fileReferences.forEach((file, referenced) -> referenced.forEach(type -> referringFiles.put(type, file)));
+		return new FileIndex(declaredTypes.build(), referringFiles.build());
+	}
+
+	/**
+	 * @param declaredTypes  the qualified names of the types each source file declares
+	 * @param referringFiles the source files referring to each top-level type
+	 */
+	private record FileIndex(SetMultimap<Path, String> declaredTypes, SetMultimap<String, Path> referringFiles) {
 	}
 }
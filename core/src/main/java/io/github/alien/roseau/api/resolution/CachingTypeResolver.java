@@ -26,10 +26,9 @@ public class CachingTypeResolver implements TypeResolver {
 	/**
 	 * Stores the resolution results.
 	 */
-	private final Cache<String, ResolvedType> typeCache =
-		CacheBuilder.newBuilder()
-			.maximumSize(5_000L)
-			.build();
+	private final Cache<String, ResolvedType> typeCache;
+
+	private static final long DEFAULT_CACHE_SIZE = 5_000L;
 
 	private static final Logger LOGGER = LogManager.getLogger(CachingTypeResolver.class);
 
@@ -45,7 +44,22 @@ public class CachingTypeResolver implements TypeResolver {
 	 * @param typeProviders ordered sequence of type providers
 	 */
 	public CachingTypeResolver(List<TypeProvider> typeProviders) {
+		this(typeProviders, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Constructs a new type resolver using the provided ordered sequence of type providers to resolve references and
+	 * caching at most {@code cacheSize} resolution results. Resolvers shared by many APIs (e.g., the modules of a JDK)
+	 * should be sized after the total number of types they resolve.
+	 *
+	 * @param typeProviders ordered sequence of type providers
+	 * @param cacheSize     the maximum number of cached resolution results
+	 */
+	public CachingTypeResolver(List<TypeProvider> typeProviders, long cacheSize) {
 		this.typeProviders = List.copyOf(typeProviders);
+		this.typeCache = CacheBuilder.newBuilder()
+			.maximumSize(cacheSize)
+			.build();
 	}
 
 	@Override
@@ -0,0 +1,63 @@
+package io.github.alien.roseau.api.resolution;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.github.alien.roseau.api.model.TypeDecl;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * A thread-safe cache of the type declarations read by {@link ClasspathTypeProvider}s from the platform class loader
+ * and from JAR files. A single cache may be shared by the providers of many APIs (e.g., the libraries analyzed in one
+ * batch), so that JDK types and the types of common dependencies are only read once. Cached JAR files are assumed not
+ * to change while the cache is in use.
+ * <p>
+ * Cached declarations are softly referenced and may be reclaimed when memory runs low.
+ */
+public final class ClasspathTypeCache {
+	private final Cache<String, Optional<TypeDecl>> types;
+
+	private static final String PLATFORM = "platform";
+
+	/**
+	 * Creates a new cache holding at most {@code maximumSize} type lookups.
+	 *
+	 * @param maximumSize the maximum number of cached lookups
+	 */
+	public ClasspathTypeCache(long maximumSize) {
+		Preconditions.checkArgument(maximumSize > 0, "maximumSize must be positive");
+		this.types = CacheBuilder.newBuilder()
+			.maximumSize(maximumSize)
+			.softValues()
+			.build();
+	}
+
+	Optional<TypeDecl> getPlatformType(String entryName, Supplier<Optional<TypeDecl>> reader) {
+		return get(PLATFORM + "!" + entryName, reader);
+	}
+
+	Optional<TypeDecl> getJarType(Path jar, String entryName, Supplier<Optional<TypeDecl>> reader) {
+		return get(jar.toAbsolutePath().normalize() + "!" + entryName, reader);
+	}
+
+	/**
+	 * Returns the number of cached lookups.
+	 *
+	 * @return the approximate number of cached lookups
+	 */
+	public long size() {
+		return types.size();
+	}
+
+	private Optional<TypeDecl> get(String key, Supplier<Optional<TypeDecl>> reader) {
+		try {
+			return types.get(key, reader::get);
+		} catch (ExecutionException _) {
+			return Optional.empty();
+		}
+	}
+}
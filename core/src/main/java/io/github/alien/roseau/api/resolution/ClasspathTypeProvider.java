@@ -3,12 +3,14 @@ package io.github.alien.roseau.api.resolution;
 import com.google.common.base.Preconditions;
 import io.github.alien.roseau.api.model.TypeDecl;
 import io.github.alien.roseau.extractors.ExtractorSink;
+import io.github.alien.roseau.extractors.JarClassFiles;
 import io.github.alien.roseau.extractors.asm.AsmTypesExtractor;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.jar.JarFile;
@@ -23,6 +25,7 @@ import java.util.zip.ZipFile;
 public class ClasspathTypeProvider implements TypeProvider {
 	private final AsmTypesExtractor extractor;
 	private final List<Path> classpath;
+	private final ClasspathTypeCache cache;
 
 	private static final ClassLoader PLATFORM_CLASS_LOADER = ClassLoader.getPlatformClassLoader();
 	private static final Runtime.Version RUNTIME_VERSION = JarFile.runtimeVersion();
@@ -32,27 +35,67 @@ public class ClasspathTypeProvider implements TypeProvider {
 	 * based on the specified classpath entries.
 	 *
 	 * @param extractor the {@link AsmTypesExtractor} responsible for extracting type declarations from class files
-	 * @param classpath a list of paths representing the classpath entries (directories or JAR files) to be searched
+	 * @param classpath a list of paths representing the classpath entries (directories, JAR, or JMOD files) to be searched
 	 */
 	public ClasspathTypeProvider(AsmTypesExtractor extractor, List<Path> classpath) {
 		this.extractor = Preconditions.checkNotNull(extractor);
 		this.classpath = List.copyOf(Preconditions.checkNotNull(classpath));
+		this.cache = null;
+	}
+
+	/**
+	 * Constructs a {@code ClasspathTypeProvider} that looks up platform and JAR types in the supplied shared
+	 * {@link ClasspathTypeCache} before reading them.
+	 *
+	 * @param extractor the {@link AsmTypesExtractor} responsible for extracting type declarations from class files
+	 * @param classpath a list of paths representing the classpath entries (directories, JAR, or JMOD files) to be searched
+	 * @param cache     the cache shared with other providers
+	 */
+	public ClasspathTypeProvider(AsmTypesExtractor extractor, List<Path> classpath, ClasspathTypeCache cache) {
+		this.extractor = Preconditions.checkNotNull(extractor);
+		this.classpath = List.copyOf(Preconditions.checkNotNull(classpath));
+		this.cache = Preconditions.checkNotNull(cache);
 	}
 
 	@Override
 	public <T extends TypeDecl> Optional<T> findType(String qualifiedName, Class<T> type) {
-		String entryName = nameToEntry(qualifiedName);
-		return readPlatformType(entryName, type)
-			.or(() -> readClasspathType(entryName, type));
+		for (String entryName : nameToEntries(qualifiedName)) {
+			Optional<T> found = readPlatformType(entryName, type)
+				.or(() -> readClasspathType(entryName, type));
+			if (found.isPresent()) {
+				return found;
+			}
+		}
+
+		return Optional.empty();
 	}
 
-	private static String nameToEntry(String name) {
-		return name.replace('.', '/') + ".class";
+	/**
+	 * Returns the candidate class file entries of a type, most likely first. Nested types are stored as
+	 * {@code pkg/Outer$Inner.class} but may be referred to as {@code pkg.Outer.Inner}; the trailing segments of such a
+	 * name are thus successively tried as nested type names.
+	 */
+	static List<String> nameToEntries(String name) {
+		List<String> entries = new ArrayList<>();
+		String path = name.replace('.', '/');
+		entries.add(path + ".class");
+		for (int slash = path.lastIndexOf('/'); slash > 0; slash = path.lastIndexOf('/', slash - 1)) {
+			path = path.substring(0, slash) + '$' + path.substring(slash + 1);
+			entries.add(path + ".class");
+		}
+		return entries;
 	}
 
 	private <T extends TypeDecl> Optional<T> readPlatformType(String entryName, Class<T> type) {
+		Optional<TypeDecl> found = cache != null
+			? cache.getPlatformType(entryName, () -> readPlatformType(entryName))
+			: readPlatformType(entryName);
+		return found.filter(type::isInstance).map(type::cast);
+	}
+
+	private Optional<TypeDecl> readPlatformType(String entryName) {
 		try (InputStream in = PLATFORM_CLASS_LOADER.getResourceAsStream(entryName)) {
-			return extractType(in, type);
+			return extractType(in, TypeDecl.class);
 		} catch (IOException _) {
 			return Optional.empty();
 		}
@@ -89,14 +132,21 @@ public class ClasspathTypeProvider implements TypeProvider {
 			return Optional.empty();
 		}
 
+		Optional<TypeDecl> found = cache != null
+			? cache.getJarType(jar, entryName, () -> readJarType(jar, entryName))
+			: readJarType(jar, entryName);
+		return found.filter(type::isInstance).map(type::cast);
+	}
+
+	private Optional<TypeDecl> readJarType(Path jar, String entryName) {
 		try (JarFile jarFile = new JarFile(jar.toFile(), false, ZipFile.OPEN_READ, RUNTIME_VERSION)) {
-			var entry = jarFile.getJarEntry(entryName);
+			var entry = jarFile.getJarEntry(JarClassFiles.entryName(jar, entryName));
 			if (entry == null) {
 				return Optional.empty();
 			}
 
 			try (InputStream in = jarFile.getInputStream(entry)) {
-				return extractType(in, type);
+				return extractType(in, TypeDecl.class);
 			}
 		} catch (IOException _) {
 			return Optional.empty();
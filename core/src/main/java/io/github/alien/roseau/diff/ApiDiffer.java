@@ -14,6 +14,13 @@ import io.github.alien.roseau.api.model.TypeDecl;
 public interface ApiDiffer<T> {
 	T get();
 
+	/**
+	 * Whether the differ has reached its final result, in which case walkers may skip the remaining symbols.
+	 */
+	default boolean isDone() {
+		return false;
+	}
+
 	void onMatchedType(TypeDecl oldType, TypeDecl newType);
 
 	void onTypeKindChanged(TypeDecl oldType, TypeDecl newType);
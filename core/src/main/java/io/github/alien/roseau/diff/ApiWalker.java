@@ -9,6 +9,8 @@ import io.github.alien.roseau.api.model.InterfaceDecl;
 import io.github.alien.roseau.api.model.RecordDecl;
 import io.github.alien.roseau.api.model.TypeDecl;
 
+import java.util.function.Predicate;
+
 public final class ApiWalker {
 	private final API v1;
 	private final API v2;
@@ -24,8 +26,28 @@ public final class ApiWalker {
 	}
 
 	public <T> T walk(ApiDiffer<T> sink) {
+		return walk(sink, _ -> true);
+	}
+
+	/**
+	 * Walks the types of both APIs that match the provided scope, and their members. Types outside the scope are
+	 * neither matched nor reported as removed or added. Pruned symbols are skipped on both sides according to the
+	 * exclusions of v1, as {@link ExclusionFilter} does when exclusions are applied to the report instead.
+	 *
+	 * @param sink  the differ notified of matched, removed, and added symbols
+	 * @param scope the types to walk, in both APIs
+	 * @param <T>   the type of the differ's result
+	 * @return the differ's result
+	 */
+	public <T> T walk(ApiDiffer<T> sink, Predicate<TypeDecl> scope) {
 		Preconditions.checkNotNull(sink);
-		v1.getExportedTypes().parallelStream().forEach(t1 -> {
+		Preconditions.checkNotNull(scope);
+		v1.getIncludedTypes().parallelStream().filter(scope).forEach(t1 -> {
+			// Parallel streams cannot be cancelled; skipping the remaining types is the next best thing
+			if (sink.isDone()) {
+				return;
+			}
+
 			matcher.matchType(v2, t1).ifPresentOrElse(
 				t2 -> {
 					if (t1.getClass().equals(t2.getClass())) {
@@ -39,7 +61,10 @@ public final class ApiWalker {
 			);
 		});
 
-		v2.getExportedTypes().parallelStream()
+		v2.getInScopeTypes().parallelStream()
+			.filter(t2 -> !v1.isPruned(t2))
+			.filter(scope)
+			.filter(_ -> !sink.isDone())
 			.filter(t2 -> matcher.matchType(v1, t2).isEmpty())
 			.forEach(t2 -> onAddedType(sink, t2));
 
@@ -47,37 +72,58 @@ public final class ApiWalker {
 	}
 
 	private <T> void walkMembers(TypeDecl t1, TypeDecl t2, ApiDiffer<T> sink) {
-		v1.analyzer().getExportedFields(t1).forEach(f1 ->
-			matcher.matchField(v2, t2, f1).ifPresentOrElse(
-				f2 -> sink.onMatchedField(t1, t2, f1, f2),
-				() -> sink.onRemovedField(t1, f1)
-			)
-		);
+		if (sink.isDone()) {
+			return;
+		}
+
+		v1.analyzer().getExportedFields(t1).stream()
+			.filter(f1 -> !v1.isPruned(f1))
+			.forEach(f1 ->
+				matcher.matchField(v2, t2, f1).ifPresentOrElse(
+					f2 -> sink.onMatchedField(t1, t2, f1, f2),
+					() -> sink.onRemovedField(t1, f1)
+				)
+			);
 
 		v2.analyzer().getExportedFields(t2).stream()
+			.filter(f2 -> !v1.isPruned(f2))
 			.filter(f2 -> matcher.matchField(v1, t1, f2).isEmpty())
 			.forEach(f2 -> sink.onAddedField(t2, f2));
 
-		v1.analyzer().getExportedMethods(t1).forEach(m1 ->
-			matcher.matchMethod(v2, t2, m1).ifPresentOrElse(
-				m2 -> sink.onMatchedMethod(t1, t2, m1, m2),
-				() -> sink.onRemovedMethod(t1, m1)
-			)
-		);
+		if (sink.isDone()) {
+			return;
+		}
+
+		v1.analyzer().getExportedMethods(t1).stream()
+			.filter(m1 -> !v1.isPruned(m1))
+			.forEach(m1 ->
+				matcher.matchMethod(v2, t2, m1).ifPresentOrElse(
+					m2 -> sink.onMatchedMethod(t1, t2, m1, m2),
+					() -> sink.onRemovedMethod(t1, m1)
+				)
+			);
 
 		v2.analyzer().getExportedMethods(t2).stream()
+			.filter(m2 -> !v1.isPruned(m2))
 			.filter(m2 -> matcher.matchMethod(v1, t1, m2).isEmpty())
 			.forEach(m2 -> sink.onAddedMethod(t2, m2));
 
+		if (sink.isDone()) {
+			return;
+		}
+
 		if (t1 instanceof ClassDecl c1 && t2 instanceof ClassDecl c2) {
-			v1.analyzer().getExportedConstructors(c1).forEach(cons1 ->
-				matcher.matchConstructor(v2, c2, cons1).ifPresentOrElse(
-					cons2 -> sink.onMatchedConstructor(c1, c2, cons1, cons2),
-					() -> sink.onRemovedConstructor(c1, cons1)
-				)
-			);
+			v1.analyzer().getExportedConstructors(c1).stream()
+				.filter(cons1 -> !v1.isPruned(cons1))
+				.forEach(cons1 ->
+					matcher.matchConstructor(v2, c2, cons1).ifPresentOrElse(
+						cons2 -> sink.onMatchedConstructor(c1, c2, cons1, cons2),
+						() -> sink.onRemovedConstructor(c1, cons1)
+					)
+				);
 
 			v2.analyzer().getExportedConstructors(c2).stream()
+				.filter(cons2 -> !v1.isPruned(cons2))
 				.filter(cons2 -> matcher.matchConstructor(v1, c1, cons2).isEmpty())
 				.forEach(cons2 -> sink.onAddedConstructor(c2, cons2));
 		}
@@ -13,6 +13,7 @@ import io.github.alien.roseau.api.model.MethodDecl;
 import io.github.alien.roseau.api.model.RecordDecl;
 import io.github.alien.roseau.api.model.TypeDecl;
 import io.github.alien.roseau.api.model.TypeMemberDecl;
+import io.github.alien.roseau.diff.changes.BreakingChange;
 import io.github.alien.roseau.diff.rules.DefaultRuleSet;
 import io.github.alien.roseau.diff.rules.MemberRule;
 import io.github.alien.roseau.diff.rules.MemberRuleContext;
@@ -22,12 +23,16 @@ import io.github.alien.roseau.diff.rules.TypeRuleContext;
 
 import java.util.List;
 import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
 /**
  * Computes the list of breaking changes between two {@link API} instances.
  * <br>
  * The compared APIs are visited deeply to match their symbols pairwise based on their unique name and compare their
  * properties when their names match. This implementation visits all {@link TypeDecl} instances in parallel.
+ * <br>
+ * In fail-fast mode, the analysis is cancelled as soon as a non-excluded breaking change matching the supplied stop
+ * condition is found; the resulting report is then incomplete.
  */
 public class BreakingChangeAnalyzer implements ApiDiffer<RoseauReport> {
 	private final API v1;
@@ -46,11 +51,29 @@ public class BreakingChangeAnalyzer implements ApiDiffer<RoseauReport> {
 		this(v1, v2, new DefaultRuleSet());
 	}
 
+	/**
+	 * Creates a fail-fast analyzer that stops at the first non-excluded breaking change matching {@code stopCondition}.
+	 *
+	 * @param v1            the baseline API
+	 * @param v2            the target API
+	 * @param ruleSet       the rules to apply
+	 * @param stopCondition the breaking changes that cancel the analysis
+	 */
+	public BreakingChangeAnalyzer(API v1, API v2, RuleSet ruleSet, Predicate<BreakingChange> stopCondition) {
+		this(v1, v2, ruleSet);
+		builder.stopOn(stopCondition);
+	}
+
 	@Override
 	public RoseauReport get() {
 		return builder.build();
 	}
 
+	@Override
+	public boolean isDone() {
+		return builder.isStopped();
+	}
+
 	@Override
 	public void onMatchedType(TypeDecl oldType, TypeDecl newType) {
 		applyTypeRules(ruleSet.getTypeRules(), (rule, ctx) -> rule.onMatched(oldType, newType, ctx));
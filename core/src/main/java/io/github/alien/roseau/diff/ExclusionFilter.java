@@ -0,0 +1,31 @@
+package io.github.alien.roseau.diff;
+
+import com.google.common.base.Preconditions;
+import io.github.alien.roseau.api.analysis.ExclusionMatcher;
+import io.github.alien.roseau.api.model.API;
+import io.github.alien.roseau.api.model.Symbol;
+import io.github.alien.roseau.diff.changes.BreakingChange;
+import io.github.alien.roseau.options.RoseauOptions;
+
+/**
+ * Decides whether a {@link BreakingChange} impacts a symbol excluded from the API through the
+ * {@link RoseauOptions.Exclude} options of the baseline library. Exclusions propagate from types to their members and
+ * nested types.
+ */
+final class ExclusionFilter {
+	private final API v1;
+	private final ExclusionMatcher matcher;
+
+	ExclusionFilter(API v1) {
+		this.v1 = Preconditions.checkNotNull(v1);
+		this.matcher = v1.getExclusionMatcher();
+	}
+
+	boolean isExcluded(BreakingChange bc) {
+		return isExcluded(bc.impactedSymbol()) || isExcluded(bc.impactedType());
+	}
+
+	boolean isExcluded(Symbol symbol) {
+		return matcher.isExcluded(symbol, v1.analyzer().resolver());
+	}
+}
@@ -1,6 +1,7 @@
 package io.github.alien.roseau.diff;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.Sets;
 import io.github.alien.roseau.RoseauException;
 import io.github.alien.roseau.api.model.API;
@@ -17,33 +18,57 @@ import io.github.alien.roseau.diff.formatter.BreakingChangesFormatterFactory;
 import io.github.alien.roseau.diff.formatter.CliFormatter;
 import io.github.alien.roseau.options.IgnoredCsvFile;
 import io.github.alien.roseau.options.RoseauOptions;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public final class RoseauReport {
-	private static final Logger LOGGER = LogManager.getLogger(RoseauReport.class);
-
 	private final API v1;
 	private final API v2;
 	private final List<BreakingChange> breakingChanges;
-	private final Set<Pattern> excludedNamePatterns;
+	private final ExclusionFilter exclusions;
+	private final boolean complete;
+	// Reports are immutable: index the reported breaking changes once so that formatters can query them cheaply
+	private final Supplier<List<BreakingChange>> reportedBreakingChanges = Suppliers.memoize(() ->
+		getAllBreakingChanges().stream()
+			.filter(bc -> !exclusions.isExcluded(bc))
+			.toList());
+	private final Supplier<Map<TypeDecl, List<BreakingChange>>> breakingChangesPerType = Suppliers.memoize(() ->
+		getBreakingChanges().stream()
+			.collect(Collectors.groupingBy(BreakingChange::impactedType, LinkedHashMap::new,
+				Collectors.toUnmodifiableList())));
 
 	public RoseauReport(API v1, API v2, Collection<BreakingChange> breakingChanges) {
+		this(v1, v2, breakingChanges, true);
+	}
+
+	/**
+	 * Creates a new report.
+	 *
+	 * @param v1              the baseline API
+	 * @param v2              the target API
+	 * @param breakingChanges the breaking changes between v1 and v2
+	 * @param complete        whether all breaking changes have been collected, or the analysis stopped early
+	 */
+	public RoseauReport(API v1, API v2, Collection<BreakingChange> breakingChanges, boolean complete) {
+		this(v1, v2, breakingChanges, complete, new ExclusionFilter(Preconditions.checkNotNull(v1)));
+	}
+
+	private RoseauReport(API v1, API v2, Collection<BreakingChange> breakingChanges, boolean complete,
+	                     ExclusionFilter exclusions) {
 		Preconditions.checkNotNull(v1);
 		Preconditions.checkNotNull(v2);
 		Preconditions.checkNotNull(breakingChanges);
@@ -56,17 +81,8 @@ public final class RoseauReport {
 						.thenComparing(bc -> bc.impactedSymbol().getQualifiedName())
 						.thenComparing(BreakingChange::kind))
 				.toList());
-		this.excludedNamePatterns = v1.getLibrary().getExclusions().names().stream()
-			.map(name -> {
-				try {
-					return Pattern.compile(name);
-				} catch (PatternSyntaxException e) {
-					LOGGER.warn("Invalid exclusion pattern {}", name, e);
-					return null;
-				}
-			})
-			.filter(Objects::nonNull)
-			.collect(Collectors.toUnmodifiableSet());
+		this.exclusions = exclusions;
+		this.complete = complete;
 	}
 
 	public API v1() {
@@ -78,10 +94,7 @@ public final class RoseauReport {
 	}
 
 	public List<BreakingChange> getBreakingChanges() {
-		return breakingChanges.stream()
-			.filter(bc -> !isExcluded(bc.impactedSymbol()))
-			.filter(bc -> !isExcluded(bc.impactedType()))
-			.toList();
+		return reportedBreakingChanges.get();
 	}
 
 	public List<BreakingChange> getBinaryBreakingChanges() {
@@ -108,21 +121,26 @@ public final class RoseauReport {
 		return !getSourceBreakingChanges().isEmpty();
 	}
 
+	/**
+	 * Whether this report holds all the breaking changes between v1 and v2. Reports built in fail-fast mode (see
+	 * {@link Builder#stopOn(Predicate)}) are incomplete when the analysis stopped at the first matching breaking change.
+	 *
+	 * @return true if the analysis ran to completion
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
 	public List<TypeDecl> getImpactedTypes() {
-		return getBreakingChanges().stream()
-			.map(BreakingChange::impactedType)
-			.distinct()
-			.toList();
+		return List.copyOf(breakingChangesPerType.get().keySet());
 	}
 
 	public List<BreakingChange> getBreakingChanges(TypeDecl type) {
-		return getBreakingChanges().stream()
-			.filter(bc -> bc.impactedType().equals(type))
-			.toList();
+		return breakingChangesPerType.get().getOrDefault(type, List.of());
 	}
 
 	public List<BreakingChange> getTypeBreakingChanges(TypeDecl type) {
-		return getBreakingChanges().stream()
+		return getBreakingChanges(type).stream()
 			.filter(bc -> bc.impactedSymbol().equals(type))
 			.toList();
 	}
@@ -136,8 +154,7 @@ public final class RoseauReport {
 	}
 
 	public Map<TypeMemberDecl, List<BreakingChange>> getBreakingChangesPerMember(TypeDecl type) {
-		return getBreakingChanges().stream()
-			.filter(bc -> type.equals(bc.impactedType()))
+		return getBreakingChanges(type).stream()
 			.filter(bc -> bc.impactedSymbol() instanceof TypeMemberDecl)
 			.collect(Collectors.groupingBy(
 				bc -> (TypeMemberDecl) bc.impactedSymbol(),
@@ -147,23 +164,46 @@ public final class RoseauReport {
 	}
 
 	public RoseauReport filterReport(RoseauOptions.Diff diffOptions) {
-		List<BreakingChange> bcs = diffOptions.sourceOnly()
-			? getSourceBreakingChanges()
-			: diffOptions.binaryOnly()
-			? getBinaryBreakingChanges()
-			: getBreakingChanges();
+		Predicate<BreakingChange> filter = reportedBy(diffOptions);
+		List<BreakingChange> bcs = getBreakingChanges().stream()
+			.filter(filter)
+			.toList();
+
+		return new RoseauReport(v1(), v2(), bcs, complete, exclusions);
+	}
+
+	/**
+	 * Returns a predicate matching the breaking changes kept by {@link #filterReport(RoseauOptions.Diff)} for the given
+	 * diff options, i.e., those of the requested nature (source/binary) that are not ignored. Exclusions are not
+	 * accounted for.
+	 *
+	 * @param diffOptions the diff options
+	 * @return the corresponding predicate
+	 */
+	public static Predicate<BreakingChange> reportedBy(RoseauOptions.Diff diffOptions) {
+		Predicate<BreakingChange> nature = Boolean.TRUE.equals(diffOptions.sourceOnly())
+			? bc -> bc.kind().isSourceBreaking()
+			: Boolean.TRUE.equals(diffOptions.binaryOnly())
+			? bc -> bc.kind().isBinaryBreaking()
+			: _ -> true;
 
 		Path ignorePath = diffOptions.ignore();
 		if (ignorePath != null && Files.isRegularFile(ignorePath)) {
 			IgnoredCsvFile ignoredFile = new IgnoredCsvFile(ignorePath);
-			bcs = bcs.stream()
-				.filter(bc -> !ignoredFile.isIgnored(bc))
-				.toList();
+			return nature.and(bc -> !ignoredFile.isIgnored(bc));
 		}
 
-		return new RoseauReport(v1(), v2(), bcs);
+		return nature;
 	}
 
+	/**
+	 * Writes this report to a file in the given format. The report is streamed to the file rather than formatted in
+	 * memory first.
+	 *
+	 * @param format the report format
+	 * @param path   the file to write
+	 * @throws RoseauException if writing fails
+	 */
 	public void writeReport(BreakingChangesFormatterFactory format, Path path) {
 		try {
 			if (path.getParent() != null) {
@@ -173,30 +213,30 @@ public final class RoseauReport {
 			BreakingChangesFormatter fmt = format == BreakingChangesFormatterFactory.CLI
 				? new CliFormatter(CliFormatter.Mode.PLAIN)
 				: BreakingChangesFormatterFactory.newBreakingChangesFormatter(format);
-			Files.writeString(path, fmt.format(this), StandardCharsets.UTF_8);
+			try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+				fmt.format(this, writer);
+			}
 		} catch (IOException e) {
 			throw new RoseauException("Error writing report to %s".formatted(path), e);
 		}
 	}
 
-	public static Builder builder(API v1, API v2) {
-		return new Builder(v1, v2);
+	/**
+	 * Writes this report to several files in parallel, sharing the same report index.
+	 *
+	 * @param reports the report formats and files to write
+	 * @throws RoseauException if writing one of the reports fails
+	 */
+	public void writeReports(List<RoseauOptions.Report> reports) {
+		Preconditions.checkNotNull(reports);
+		// Index once before fanning out
+		getBreakingChanges();
+		breakingChangesPerType.get();
+		reports.parallelStream().forEach(report -> writeReport(report.format(), report.file()));
 	}
 
-	private boolean isExcluded(Symbol symbol) {
-		boolean isAnnotationExcluded = v1.getLibrary().getExclusions().annotations().stream()
-			.anyMatch(ann -> symbol.hasAnnotation(new TypeReference<>(ann.name()), ann.args()));
-		boolean isNameExcluded = excludedNamePatterns.stream()
-			.anyMatch(pattern -> pattern.matcher(symbol.getQualifiedName()).matches());
-
-		return switch (symbol) {
-			case TypeDecl type -> isAnnotationExcluded || isNameExcluded ||
-				type.getEnclosingType()
-					.map(t -> v1.analyzer().resolver().resolve(t).map(this::isExcluded).orElse(false))
-					.orElse(false);
-			case TypeMemberDecl member -> isAnnotationExcluded || isNameExcluded ||
-				v1.analyzer().resolver().resolve(member.getContainingType()).map(this::isExcluded).orElse(false);
-		};
+	public static Builder builder(API v1, API v2) {
+		return new Builder(v1, v2);
 	}
 
 	// FIXME: Do the exclusion/java.lang.Object here, through another class
@@ -204,12 +244,38 @@ public final class RoseauReport {
 		private final API v1;
 		private final API v2;
 		private final Set<BreakingChange> bcs = Sets.newConcurrentHashSet();
+		private final ExclusionFilter exclusions;
+		private Predicate<BreakingChange> stopCondition;
+		private volatile boolean stopped;
 
 		public Builder(API v1, API v2) {
 			Preconditions.checkNotNull(v1);
 			Preconditions.checkNotNull(v2);
 			this.v1 = v1;
 			this.v2 = v2;
+			this.exclusions = new ExclusionFilter(v1);
+		}
+
+		/**
+		 * Switches this builder to fail-fast mode: as soon as a non-excluded breaking change matching
+		 * {@code stopCondition} is recorded, {@link #isStopped()} returns true and the resulting report is marked as
+		 * incomplete, so that the analysis can be cancelled.
+		 *
+		 * @param stopCondition the breaking changes that should stop the analysis
+		 * @return this builder
+		 */
+		public Builder stopOn(Predicate<BreakingChange> stopCondition) {
+			this.stopCondition = Preconditions.checkNotNull(stopCondition);
+			return this;
+		}
+
+		/**
+		 * Whether a breaking change matching the stop condition has been recorded.
+		 *
+		 * @return true if the analysis can stop
+		 */
+		public boolean isStopped() {
+			return stopped;
 		}
 
 		public void typeBC(BreakingChangeKind kind, TypeDecl impactedType) {
@@ -217,12 +283,12 @@ public final class RoseauReport {
 		}
 
 		public void typeBC(BreakingChangeKind kind, TypeDecl impactedType, BreakingChangeDetails details) {
-			bcs.add(new BreakingChange(kind, impactedType, impactedType, null, details, impactedType.getLocation()));
+			addBC(new BreakingChange(kind, impactedType, impactedType, null, details, impactedType.getLocation()));
 		}
 
 		public void typeBC(BreakingChangeKind kind, TypeDecl impactedType, Symbol newSymbol,
 		                   BreakingChangeDetails details) {
-			bcs.add(new BreakingChange(kind, impactedType, impactedType, newSymbol, details, impactedType.getLocation()));
+			addBC(new BreakingChange(kind, impactedType, impactedType, newSymbol, details, impactedType.getLocation()));
 		}
 
 		public void memberBC(BreakingChangeKind kind, TypeDecl impactedType, TypeMemberDecl impactedMember) {
@@ -241,10 +307,17 @@ public final class RoseauReport {
 			if (impactedMember.getContainingType().equals(TypeReference.OBJECT)) {
 				return;
 			}
-			bcs.add(new BreakingChange(kind, impactedType, impactedMember, newMember, details,
+			addBC(new BreakingChange(kind, impactedType, impactedMember, newMember, details,
 				reportLocation(impactedType, impactedMember)));
 		}
 
+		private void addBC(BreakingChange bc) {
+			bcs.add(bc);
+			if (stopCondition != null && !stopped && stopCondition.test(bc) && !exclusions.isExcluded(bc)) {
+				stopped = true;
+			}
+		}
+
 		private SourceLocation reportLocation(TypeDecl impactedType, TypeMemberDecl impactedMember) {
 			return isLibraryType(impactedMember.getContainingType())
 				? impactedMember.getLocation()
@@ -256,7 +329,7 @@ public final class RoseauReport {
 		}
 
 		public RoseauReport build() {
-			return new RoseauReport(v1, v2, bcs.stream().toList());
+			return new RoseauReport(v1, v2, bcs.stream().toList(), !stopped, exclusions);
 		}
 	}
 }
@@ -1,5 +1,6 @@
 package io.github.alien.roseau.diff.changes;
 
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import io.github.alien.roseau.api.model.FormalTypeParameter;
 import io.github.alien.roseau.api.model.MethodDecl;
 import io.github.alien.roseau.api.model.TypeDecl;
@@ -8,6 +9,7 @@ import io.github.alien.roseau.api.model.reference.TypeReference;
 
 import java.lang.annotation.ElementType;
 
+@JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, property = "detailsKind")
 public sealed interface BreakingChangeDetails {
 	record None() implements BreakingChangeDetails {}
 	record TypeNewAbstractMethod(MethodDecl newMethod) implements BreakingChangeDetails {}
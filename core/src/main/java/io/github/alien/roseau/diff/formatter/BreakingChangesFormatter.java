@@ -2,6 +2,9 @@ package io.github.alien.roseau.diff.formatter;
 
 import io.github.alien.roseau.diff.RoseauReport;
 
+import java.io.IOException;
+import java.io.Writer;
+
 /**
  * A formatter that takes a {@link RoseauReport} as input and formats it.
  */
@@ -13,4 +16,16 @@ public interface BreakingChangesFormatter {
 	 * @return the formatted list
 	 */
 	String format(RoseauReport report);
+
+	/**
+	 * Writes the formatted report to the supplied writer. The default implementation buffers the whole
+	 * {@link #format(RoseauReport)} output; built-in formatters stream it instead.
+	 *
+	 * @param report the report to format
+	 * @param writer the writer to write to, not closed by this method
+	 * @throws IOException if writing fails
+	 */
+	default void format(RoseauReport report, Writer writer) throws IOException {
+		writer.write(format(report));
+	}
 }
@@ -5,12 +5,14 @@ import io.github.alien.roseau.diff.RoseauReport;
 import io.github.alien.roseau.diff.changes.BreakingChange;
 import io.github.alien.roseau.diff.changes.BreakingChangeDetails;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 
 /**
  * A formatter of {@link RoseauReport} that produces a CLI-friendly report.
  */
-public class CliFormatter implements BreakingChangesFormatter {
+public class CliFormatter extends StreamingFormatter {
 	private final Mode mode;
 
 	private static final String BOLD = "\u001B[1m";
@@ -40,44 +42,43 @@ public class CliFormatter implements BreakingChangesFormatter {
 	}
 
 	@Override
-	public String format(RoseauReport report) {
+	public void format(RoseauReport report, Writer writer) throws IOException {
 		List<BreakingChange> changes = report.getBreakingChanges();
 		if (changes.isEmpty()) {
-			return "No breaking changes found.";
+			writer.append("No breaking changes found.");
+			return;
 		}
 
 		int binaryBreaking = report.getBinaryBreakingChanges().size();
 		int sourceBreaking = report.getSourceBreakingChanges().size();
 
-		StringBuilder sb = new StringBuilder();
+		writer.append(bold("Breaking Changes found: ")).append(String.valueOf(changes.size()));
+		writer.append(" (").append(String.valueOf(binaryBreaking)).append(" binary-breaking, ");
+		writer.append(String.valueOf(sourceBreaking)).append(" source-breaking)");
+		writer.append(System.lineSeparator());
 
-		sb.append(bold("Breaking Changes found: ")).append(changes.size());
-		sb.append(" (").append(binaryBreaking).append(" binary-breaking, ");
-		sb.append(sourceBreaking).append(" source-breaking)");
-		sb.append(System.lineSeparator());
-
-		report.getBreakingChanges().forEach(bc -> formatBreakingChange(bc, sb));
-
-		return sb.toString();
+		for (BreakingChange bc : changes) {
+			formatBreakingChange(bc, writer);
+		}
 	}
 
-	private void formatBreakingChange(BreakingChange bc, StringBuilder sb) {
+	private void formatBreakingChange(BreakingChange bc, Writer writer) throws IOException {
 		String emoji = switch (bc.kind().getNature()) {
 			case ADDITION -> KIND_ADDITION;
 			case DELETION -> KIND_DELETION;
 			case MUTATION -> KIND_MUTATION;
 		};
 
-		sb.append(emoji).append(" ").append(formatSymbol(bc)).append(" ").append(formatKind(bc));
+		writer.append(emoji).append(" ").append(formatSymbol(bc)).append(" ").append(formatKind(bc));
 		String details = formatDetails(bc);
 		if (!details.isEmpty()) {
-			sb.append(" ").append(cyan("[" + details + "]"));
+			writer.append(" ").append(cyan("[" + details + "]"));
 		}
-		sb.append(System.lineSeparator());
-		sb.append("  ").append(formatCompatibility(bc));
-		sb.append(System.lineSeparator());
-		sb.append("  ").append(dim(formatLocation(bc)));
-		sb.append(System.lineSeparator());
+		writer.append(System.lineSeparator());
+		writer.append("  ").append(formatCompatibility(bc));
+		writer.append(System.lineSeparator());
+		writer.append("  ").append(dim(formatLocation(bc)));
+		writer.append(System.lineSeparator());
 	}
 
 	private static String formatKind(BreakingChange bc) {
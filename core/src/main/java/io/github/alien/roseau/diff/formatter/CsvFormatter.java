@@ -4,18 +4,27 @@ import io.github.alien.roseau.api.model.SourceLocation;
 import io.github.alien.roseau.diff.RoseauReport;
 import io.github.alien.roseau.diff.changes.BreakingChange;
 
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
 
 /**
  * A formatter of {@link RoseauReport} that produces a CSV output.
  */
-public class CsvFormatter implements BreakingChangesFormatter {
+public class CsvFormatter extends StreamingFormatter {
 	public static final String HEADER = "type;symbol;kind;nature;location;newSymbol;binaryBreaking;sourceBreaking";
 
 	@Override
-	public String format(RoseauReport report) {
-		return HEADER + System.lineSeparator() +
-			report.getBreakingChanges().stream().map(bc -> "%s;%s;%s;%s;%s;%s;%s;%s".formatted(
+	public void format(RoseauReport report, Writer writer) throws IOException {
+		writer.write(HEADER);
+		writer.write(System.lineSeparator());
+		List<BreakingChange> changes = report.getBreakingChanges();
+		for (int i = 0; i < changes.size(); i++) {
+			BreakingChange bc = changes.get(i);
+			if (i > 0) {
+				writer.write(System.lineSeparator());
+			}
+			writer.write("%s;%s;%s;%s;%s;%s;%s;%s".formatted(
 				bc.impactedType().getQualifiedName(),
 				bc.impactedSymbol().getQualifiedName(),
 				bc.kind(),
@@ -23,8 +32,8 @@ public class CsvFormatter implements BreakingChangesFormatter {
 				formatLocation(bc.getLocation()),
 				bc.newSymbol() != null ? BreakingChange.printSymbol(bc.newSymbol()) : "",
 				bc.kind().isBinaryBreaking(),
-				bc.kind().isSourceBreaking())
-			).collect(Collectors.joining(System.lineSeparator()));
+				bc.kind().isSourceBreaking()));
+		}
 	}
 
 	private static String formatLocation(SourceLocation location) {
@@ -14,6 +14,8 @@ import io.github.alien.roseau.diff.changes.BreakingChange;
 import io.github.alien.roseau.diff.changes.BreakingChangeDetails;
 import io.github.alien.roseau.diff.changes.BreakingChangeKind;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -26,146 +28,148 @@ import java.util.TreeMap;
 /**
  * A formatter of {@link RoseauReport} that produces an HTML report.
  */
-public final class HtmlFormatter implements BreakingChangesFormatter {
+public final class HtmlFormatter extends StreamingFormatter {
 	@Override
-	public String format(RoseauReport report) {
-		StringBuilder sb = new StringBuilder(8_500 + 1_000 * report.getBreakingChanges().size());
-
+	public void format(RoseauReport report, Writer writer) throws IOException {
 		List<BreakingChange> changes = report.getBreakingChanges();
 		List<TypeDecl> impactedTypes = report.getImpactedTypes();
 		DateTimeFormatter human = DateTimeFormatter.ofPattern("MMMM d, uuuu 'at' h:mm a", Locale.ENGLISH);
 		String generatedAt = ZonedDateTime.now(ZoneId.systemDefault()).format(human);
 
-		sb.append("<!DOCTYPE html>\n");
-		sb.append("<html lang=\"en\">\n<head>\n<meta charset=\"utf-8\">\n");
-		sb.append("<meta name=\"viewport\" content=\"width=device-width, initial-scale=1\">\n");
-		sb.append("<title>Roseau Breaking Changes Report</title>\n");
-		sb.append("<style>\n");
-		sb.append(BASE_CSS);
-		sb.append("</style>\n");
-		sb.append("""
+		writer.append("<!DOCTYPE html>\n");
+		writer.append("<html lang=\"en\">\n<head>\n<meta charset=\"utf-8\">\n");
+		writer.append("<meta name=\"viewport\" content=\"width=device-width, initial-scale=1\">\n");
+		writer.append("<title>Roseau Breaking Changes Report</title>\n");
+		writer.append("<style>\n");
+		writer.append(BASE_CSS);
+		writer.append("</style>\n");
+		writer.append("""
 			<script>(function(){try{var s=localStorage.getItem('roseau_theme');if(s){document.documentElement.setAttribute
 			('data-theme',s);}else{var prefers=matchMedia('(prefers-color-scheme: dark)').matches?'dark':'light';document.
 			documentElement.setAttribute('data-theme',prefers);}}catch(e){}})();</script>""");
-		sb.append("</head>\n<body>\n");
+		writer.append("</head>\n<body>\n");
 
 		// Header
-		sb.append("<header class=\"header\">\n");
-		sb.append("<div class=\"page\">");
-		sb.append("<div class=\"titles\"><h1>Roseau Report</h1>\n");
-		sb.append("<div class=\"subtitle\">Generated ").append(escape(generatedAt)).append("</div></div>\n");
-		sb.append("<button id=\"theme-toggle\" class=\"theme-toggle\" title=\"Toggle theme\">🌙</button>");
-		sb.append("</div>");
-		sb.append("</header>\n");
+		writer.append("<header class=\"header\">\n");
+		writer.append("<div class=\"page\">");
+		writer.append("<div class=\"titles\"><h1>Roseau Report</h1>\n");
+		writer.append("<div class=\"subtitle\">Generated ").append(escape(generatedAt)).append("</div></div>\n");
+		writer.append("<button id=\"theme-toggle\" class=\"theme-toggle\" title=\"Toggle theme\">🌙</button>");
+		writer.append("</div>");
+		writer.append("</header>\n");
 
 		// Main content wrapper
-		sb.append("<main class=\"page\">\n");
+		writer.append("<main class=\"page\">\n");
 		// Summary cards
-		sb.append("<section class=\"summary\">\n");
+		writer.append("<section class=\"summary\">\n");
 		// API info
-		sb.append("<div class=\"card\">\n<h2>Compared APIs</h2>\n<div class=\"libgrid\">\n");
-		sb.append(apiCard("Baseline: " + report.v1().getLibraryTypes().getLibrary().getLocation(), report.v1()));
-		sb.append(apiCard("New: " + report.v2().getLibraryTypes().getLibrary().getLocation(), report.v2()));
-		sb.append("</div>\n</div>\n");
+		writer.append("<div class=\"card\">\n<h2>Compared APIs</h2>\n<div class=\"libgrid\">\n");
+		writer.append(apiCard("Baseline: " + report.v1().getLibraryTypes().getLibrary().getLocation(), report.v1()));
+		writer.append(apiCard("New: " + report.v2().getLibraryTypes().getLibrary().getLocation(), report.v2()));
+		writer.append("</div>\n</div>\n");
 		// Metrics
-		sb.append("<div class=\"card metrics\">\n<h2>Summary</h2>\n<div class=\"metrics-grid\">\n");
-		sb.append(metric("Breaking changes", Integer.toString(changes.size()),
+		writer.append("<div class=\"card metrics\">\n<h2>Summary</h2>\n<div class=\"metrics-grid\">\n");
+		writer.append(metric("Breaking changes", Integer.toString(changes.size()),
 			changes.isEmpty() ? "ok" : "danger"));
-		sb.append(metric("Impacted types", Integer.toString(impactedTypes.size()),
+		writer.append(metric("Impacted types", Integer.toString(impactedTypes.size()),
 			impactedTypes.isEmpty() ? "ok" : "warn"));
-		sb.append(metric("Source-compatible", report.isSourceBreaking() ? "No" : "Yes",
+		writer.append(metric("Source-compatible", report.isSourceBreaking() ? "No" : "Yes",
 			report.isSourceBreaking() ? "danger" : "ok"));
-		sb.append(metric("Binary-compatible", report.isBinaryBreaking() ? "No" : "Yes",
+		writer.append(metric("Binary-compatible", report.isBinaryBreaking() ? "No" : "Yes",
 			report.isBinaryBreaking() ? "danger" : "ok"));
-		sb.append("</div>\n</div>\n");
-		sb.append("</section>\n");
+		writer.append("</div>\n</div>\n");
+		writer.append("</section>\n");
 
 		// Contents
-		sb.append("<section class=\"toc card\">\n<h2>Contents</h2>\n");
+		writer.append("<section class=\"toc card\">\n<h2>Contents</h2>\n");
 		if (changes.isEmpty()) {
-			sb.append("<ul class=\"toc-list\"><li><em>No breaking changes detected.</em></li></ul>\n");
+			writer.append("<ul class=\"toc-list\"><li><em>No breaking changes detected.</em></li></ul>\n");
 		} else {
 			// Build package grouping
 			Map<String, List<TypeDecl>> byPkg = new TreeMap<>();
 			for (TypeDecl type : impactedTypes) {
 				byPkg.computeIfAbsent(type.getPackageName(), k -> new ArrayList<>()).add(type);
 			}
-			byPkg.forEach((pkg, types) -> {
-				sb.append("<h3 class=\"pkg-name\">").append(escape(pkg)).append("</h3>\n<ul class=\"toc-list\">\n");
-				types.forEach(type -> {
+			for (Map.Entry<String, List<TypeDecl>> pkg : byPkg.entrySet()) {
+				writer.append("<h3 class=\"pkg-name\">").append(escape(pkg.getKey()))
+					.append("</h3>\n<ul class=\"toc-list\">\n");
+				for (TypeDecl type : pkg.getValue()) {
 					int totalBCs = report.getBreakingChanges(type).size();
-					sb.append("<li>")
+					writer.append("<li>")
 						.append("<a href=\"").append("#").append(anchor(type)).append("\">")
 						.append(escape(type.getSimpleName())).append("</a> ")
-						.append("<span class=\"pill\">").append(totalBCs).append("</span>");
+						.append("<span class=\"pill\">").append(String.valueOf(totalBCs)).append("</span>");
 					if (report.isSourceBreakingType(type)) {
-						sb.append(" <span class=\"compat compat-source\">Source</span>");
+						writer.append(" <span class=\"compat compat-source\">Source</span>");
 					}
 					if (report.isBinaryBreakingType(type)) {
-						sb.append(" <span class=\"compat compat-binary\">Binary</span>");
+						writer.append(" <span class=\"compat compat-binary\">Binary</span>");
 					}
-					sb.append("</li>\n");
-				});
-				sb.append("</ul>\n");
-			});
+					writer.append("</li>\n");
+				}
+				writer.append("</ul>\n");
+			}
 		}
-		sb.append("</section>\n");
+		writer.append("</section>\n");
 
 		// Detailed changes
-		sb.append("<section class=\"details\">\n");
+		writer.append("<section class=\"details\">\n");
 		for (TypeDecl type : impactedTypes) {
-			sb.append("<article class=\"card type\" id=\"").append(anchor(type)).append("\">\n");
+			writer.append("<article class=\"card type\" id=\"").append(anchor(type)).append("\">\n");
 			int totalBCs = report.getBreakingChanges(type).size();
-			sb.append("<h2>").append(escape(type.getQualifiedName()))
-				.append(" <span class=\"badge\">").append(totalBCs).append("</span>");
+			writer.append("<h2>").append(escape(type.getQualifiedName()))
+				.append(" <span class=\"badge\">").append(String.valueOf(totalBCs)).append("</span>");
 			String typeLoc = locationBadge(type.getLocation());
 			if (!typeLoc.isEmpty()) {
-				sb.append(" ").append(typeLoc);
+				writer.append(" ").append(typeLoc);
 			}
-			sb.append("</h2>\n");
+			writer.append("</h2>\n");
 			List<BreakingChange> typeLevel = report.getTypeBreakingChanges(type);
 			if (typeLevel.stream().anyMatch(bc -> bc.kind() == BreakingChangeKind.TYPE_REMOVED)) {
-				sb.append("<div class=\"danger-banner\">This type was removed in the new version.</div>\n");
+				writer.append("<div class=\"danger-banner\">This type was removed in the new version.</div>\n");
 			} else {
 				if (!typeLevel.isEmpty()) {
-					sb.append("<div class=\"type-level\">\n<ul class=\"changes\">\n");
-					typeLevel.stream().map(HtmlFormatter::renderChangeItem).forEach(sb::append);
-					sb.append("</ul>\n</div>\n");
+					writer.append("<div class=\"type-level\">\n<ul class=\"changes\">\n");
+					for (BreakingChange bc : typeLevel) {
+						writer.append(renderChangeItem(bc));
+					}
+					writer.append("</ul>\n</div>\n");
 				}
 				Map<TypeMemberDecl, List<BreakingChange>> members = report.getBreakingChangesPerMember(type);
 				for (Map.Entry<TypeMemberDecl, List<BreakingChange>> me : members.entrySet()) {
 					TypeMemberDecl member = me.getKey();
 					List<BreakingChange> bcs = me.getValue();
-					sb.append("<div class=\"member\">\n");
-					sb.append("<h3>").append(escape(member.getQualifiedName())).append(" <small class=\"muted\">")
+					writer.append("<div class=\"member\">\n");
+					writer.append("<h3>").append(escape(member.getQualifiedName())).append(" <small class=\"muted\">")
 						.append(escape(formatMemberKind(member))).append("</small>");
 					String memLoc = locationBadge(member.getLocation());
 					if (!memLoc.isEmpty()) {
-						sb.append(" ").append(memLoc);
+						writer.append(" ").append(memLoc);
+					}
+					writer.append("</h3>\n");
+					writer.append("<ul class=\"changes\">\n");
+					for (BreakingChange bc : bcs) {
+						writer.append(renderChangeItem(bc));
 					}
-					sb.append("</h3>\n");
-					sb.append("<ul class=\"changes\">\n");
-					bcs.stream().map(HtmlFormatter::renderChangeItem).forEach(sb::append);
-					sb.append("</ul>\n</div>\n");
+					writer.append("</ul>\n</div>\n");
 				}
 			}
-			sb.append("</article>\n");
+			writer.append("</article>\n");
 		}
-		sb.append("</section>\n");
+		writer.append("</section>\n");
 
 		// Close main and footer
-		sb.append("</main>\n");
-		sb.append("<footer class=\"footer\">Made with <span class=\"heart\">❤</span> by Roseau</footer>\n");
+		writer.append("</main>\n");
+		writer.append("<footer class=\"footer\">Made with <span class=\"heart\">❤</span> by Roseau</footer>\n");
 		// Theme toggle script (after DOM is ready)
-		sb.append("""
+		writer.append("""
 			<script>(function(){function setIcon(){try{var t=document.documentElement.getAttribute('data-theme')||'light';
 			var b=document.getElementById('theme-toggle');if(b){b.textContent=t==='dark'?'🌙':'☀️';}}catch(e){}};setIcon();
 			var btn=document.getElementById('theme-toggle');if(btn){btn.addEventListener('click',function(){try{var cur=
 			document.documentElement.getAttribute('data-theme')||'dark';var next=cur==='dark'?'light':'dark';document.
 			documentElement.setAttribute('data-theme',next);localStorage.setItem('roseau_theme',next);setIcon();}catch(e){}});
 			}})();</script>""");
-		sb.append("</body>\n</html>\n");
-		return sb.toString();
+		writer.append("</body>\n</html>\n");
 	}
 
 	private static String formatMemberKind(TypeMemberDecl member) {
@@ -3,40 +3,57 @@ package io.github.alien.roseau.diff.formatter;
 import io.github.alien.roseau.api.model.SourceLocation;
 import io.github.alien.roseau.diff.RoseauReport;
 import io.github.alien.roseau.diff.changes.BreakingChange;
-import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
 /**
  * A formatter of {@link RoseauReport} that produces a JSON output.
  */
-public class JsonFormatter implements BreakingChangesFormatter {
+public class JsonFormatter extends StreamingFormatter {
 	private static final int JSON_INDENT = 2;
 
 	/**
-	 * Formats the list of breaking changes in JSON format
+	 * Formats the list of breaking changes in JSON format. Breaking changes are serialized one at a time, following the
+	 * layout of {@link org.json.JSONArray#toString(int)}.
 	 */
 	@Override
-	public String format(RoseauReport report) {
-		return new JSONArray().putAll(
-			report.getBreakingChanges().stream()
-				.map(bc -> {
-					JSONObject jsonObject = new JSONObject();
-					jsonObject.put("impactedType", bc.impactedType().getQualifiedName());
-					jsonObject.put("impactedSymbol", bc.impactedSymbol().getQualifiedName());
-					jsonObject.put("kind", bc.kind());
-					jsonObject.put("nature", bc.kind().getNature());
-					jsonObject.put("location", bc.getLocation() != SourceLocation.NO_LOCATION
-						? formatLocation(bc.getLocation())
-						: JSONObject.NULL);
-					jsonObject.put("newSymbol", bc.newSymbol() != null
-						? BreakingChange.printSymbol(bc.newSymbol())
-						: JSONObject.NULL);
-					jsonObject.put("binaryBreaking", bc.kind().isBinaryBreaking());
-					jsonObject.put("sourceBreaking", bc.kind().isSourceBreaking());
-					return jsonObject;
-				})
-				.toList()
-		).toString(JSON_INDENT);
+	public void format(RoseauReport report, Writer writer) throws IOException {
+		List<BreakingChange> changes = report.getBreakingChanges();
+		writer.write('[');
+		if (changes.size() == 1) {
+			formatBreakingChange(changes.getFirst()).write(writer, JSON_INDENT, 0);
+		} else if (!changes.isEmpty()) {
+			for (int i = 0; i < changes.size(); i++) {
+				if (i > 0) {
+					writer.write(',');
+				}
+				writer.write('\n');
+				writer.write(" ".repeat(JSON_INDENT));
+				formatBreakingChange(changes.get(i)).write(writer, JSON_INDENT, JSON_INDENT);
+			}
+			writer.write('\n');
+		}
+		writer.write(']');
+	}
+
+	private static JSONObject formatBreakingChange(BreakingChange bc) {
+		JSONObject jsonObject = new JSONObject();
+		jsonObject.put("impactedType", bc.impactedType().getQualifiedName());
+		jsonObject.put("impactedSymbol", bc.impactedSymbol().getQualifiedName());
+		jsonObject.put("kind", bc.kind());
+		jsonObject.put("nature", bc.kind().getNature());
+		jsonObject.put("location", bc.getLocation() != SourceLocation.NO_LOCATION
+			? formatLocation(bc.getLocation())
+			: JSONObject.NULL);
+		jsonObject.put("newSymbol", bc.newSymbol() != null
+			? BreakingChange.printSymbol(bc.newSymbol())
+			: JSONObject.NULL);
+		jsonObject.put("binaryBreaking", bc.kind().isBinaryBreaking());
+		jsonObject.put("sourceBreaking", bc.kind().isSourceBreaking());
+		return jsonObject;
 	}
 
 	private static JSONObject formatLocation(SourceLocation location) {
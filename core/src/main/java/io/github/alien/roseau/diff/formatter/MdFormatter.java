@@ -4,41 +4,42 @@ import io.github.alien.roseau.api.model.SourceLocation;
 import io.github.alien.roseau.diff.RoseauReport;
 import io.github.alien.roseau.diff.changes.BreakingChange;
 
+import java.io.IOException;
+import java.io.Writer;
+
 /**
  * A formatter of {@link RoseauReport} that produces a Markdown output.
  */
-public class MdFormatter implements BreakingChangesFormatter {
+public class MdFormatter extends StreamingFormatter {
 	/**
 	 * Formats the list of breaking changes in Markdown format
 	 */
 	@Override
-	public String format(RoseauReport report) {
-		StringBuilder sb = new StringBuilder();
-		sb.append("## Breaking Changes Report\n");
+	public void format(RoseauReport report, Writer writer) throws IOException {
+		writer.append("## Breaking Changes Report\n");
 		if (report.getBreakingChanges().isEmpty()) {
-			sb.append("No breaking changes detected.");
+			writer.append("No breaking changes detected.");
 		} else {
 			int total = report.getBreakingChanges().size();
 			int binaryBreaking = report.getBinaryBreakingChanges().size();
 			int sourceBreaking = report.getSourceBreakingChanges().size();
-			sb.append(total).append(" breaking changes detected");
-			sb.append(" (").append(binaryBreaking).append(" binary-breaking, ");
-			sb.append(sourceBreaking).append(" source-breaking).\n\n");
-			sb.append("| Type | Symbol | Kind | Nature | Location | New symbol | Binary | Source |\n");
-			sb.append("|------|--------|------|--------|----------|------------|--------|--------|\n");
+			writer.append(String.valueOf(total)).append(" breaking changes detected");
+			writer.append(" (").append(String.valueOf(binaryBreaking)).append(" binary-breaking, ");
+			writer.append(String.valueOf(sourceBreaking)).append(" source-breaking).\n\n");
+			writer.append("| Type | Symbol | Kind | Nature | Location | New symbol | Binary | Source |\n");
+			writer.append("|------|--------|------|--------|----------|------------|--------|--------|\n");
 
 			for (BreakingChange bc : report.getBreakingChanges()) {
-				sb.append("| ").append(bc.impactedType().getQualifiedName()).append(" | ")
+				writer.append("| ").append(bc.impactedType().getQualifiedName()).append(" | ")
 					.append(bc.impactedSymbol().getQualifiedName()).append(" | ")
-					.append(bc.kind()).append(" | ")
-					.append(bc.kind().getNature()).append(" | ")
+					.append(bc.kind().toString()).append(" | ")
+					.append(bc.kind().getNature().toString()).append(" | ")
 					.append(formatLocation(bc.getLocation())).append(" | ")
 					.append(bc.newSymbol() != null ? BreakingChange.printSymbol(bc.newSymbol()) : "").append(" | ")
-					.append(bc.kind().isBinaryBreaking()).append(" | ")
-					.append(bc.kind().isSourceBreaking()).append(" |\n");
+					.append(String.valueOf(bc.kind().isBinaryBreaking())).append(" | ")
+					.append(String.valueOf(bc.kind().isSourceBreaking())).append(" |\n");
 			}
 		}
-		return sb.toString();
 	}
 
 	private static String formatLocation(SourceLocation location) {
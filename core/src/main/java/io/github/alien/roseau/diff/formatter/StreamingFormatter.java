@@ -0,0 +1,31 @@
+package io.github.alien.roseau.diff.formatter;
+
+import io.github.alien.roseau.diff.RoseauReport;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * A {@link BreakingChangesFormatter} that writes its output to a {@link Writer} as it goes, so that large reports need
+ * not be materialized in memory. The {@link String} output is derived from the streaming one; subclasses that override
+ * {@link #format(RoseauReport)} should override {@link #format(RoseauReport, Writer)} too, as reports are written with
+ * the latter.
+ */
+public abstract class StreamingFormatter implements BreakingChangesFormatter {
+	@Override
+	public String format(RoseauReport report) {
+		StringWriter writer = new StringWriter();
+		try {
+			format(report, writer);
+		} catch (IOException e) {
+			// StringWriter never throws
+			throw new UncheckedIOException(e);
+		}
+		return writer.toString();
+	}
+
+	@Override
+	public abstract void format(RoseauReport report, Writer writer) throws IOException;
+}
@@ -0,0 +1,232 @@
+package io.github.alien.roseau.extractors;
+
+import io.github.alien.roseau.api.model.AccessModifier;
+import io.github.alien.roseau.api.model.Modifier;
+import io.github.alien.roseau.api.model.ModuleDecl;
+import io.github.alien.roseau.api.model.ParameterDecl;
+import io.github.alien.roseau.api.model.factory.ApiFactory;
+import io.github.alien.roseau.api.model.reference.ArrayTypeReference;
+import io.github.alien.roseau.api.model.reference.ITypeReference;
+
+import java.lang.reflect.AccessFlag;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Conversions of class file access flags to the API model, shared by the bytecode-based {@link TypesExtractor}s so that
+ * they produce the same API model for the same class files. Access flags are the raw masks of the JVM specification.
+ */
+public final class BytecodeConventions {
+	public static final int ACC_PUBLIC = AccessFlag.PUBLIC.mask();
+	public static final int ACC_PROTECTED = AccessFlag.PROTECTED.mask();
+	public static final int ACC_PRIVATE = AccessFlag.PRIVATE.mask();
+	public static final int ACC_STATIC = AccessFlag.STATIC.mask();
+	public static final int ACC_FINAL = AccessFlag.FINAL.mask();
+	public static final int ACC_ABSTRACT = AccessFlag.ABSTRACT.mask();
+	public static final int ACC_INTERFACE = AccessFlag.INTERFACE.mask();
+	public static final int ACC_ENUM = AccessFlag.ENUM.mask();
+	public static final int ACC_ANNOTATION = AccessFlag.ANNOTATION.mask();
+	public static final int ACC_SYNTHETIC = AccessFlag.SYNTHETIC.mask();
+	public static final int ACC_BRIDGE = AccessFlag.BRIDGE.mask();
+	public static final int ACC_VARARGS = AccessFlag.VARARGS.mask();
+	public static final int ACC_VOLATILE = AccessFlag.VOLATILE.mask();
+	public static final int ACC_TRANSIENT = AccessFlag.TRANSIENT.mask();
+	public static final int ACC_SYNCHRONIZED = AccessFlag.SYNCHRONIZED.mask();
+	public static final int ACC_NATIVE = AccessFlag.NATIVE.mask();
+	public static final int ACC_STRICT = AccessFlag.STRICT.mask();
+
+	private BytecodeConventions() {
+
+	}
+
+	/**
+	 * Checks whether a class may be exported, in which case its members are extracted eagerly. Package-private and
+	 * private classes, and the classes of the packages the module does not export, are never exported: only their
+	 * header is needed upfront, for resolution and subtyping, while their members are only needed when inherited by
+	 * exported types.
+	 *
+	 * @param classAccess the access flags of the class, merged with those of its InnerClasses entry if nested
+	 * @param className   the binary name of the class
+	 * @param module      the module declaring the class
+	 * @return true if the class may be exported
+	 */
+	public static boolean mayBeExported(int classAccess, String className, ModuleDecl module) {
+		return isTypeMemberExported(classAccess) && module.isExporting(packageName(className));
+	}
+
+	public static boolean isTypeMemberExported(int access) {
+		AccessModifier visibility = convertVisibility(access);
+		return visibility == AccessModifier.PUBLIC || visibility == AccessModifier.PROTECTED;
+	}
+
+	public static boolean isNotPrivate(int access) {
+		return convertVisibility(access) != AccessModifier.PRIVATE;
+	}
+
+	public static boolean isSynthetic(int access) {
+		return (access & ACC_SYNTHETIC) != 0;
+	}
+
+	public static boolean isBridge(int access) {
+		return (access & ACC_BRIDGE) != 0;
+	}
+
+	public static boolean isEnum(int access) {
+		return (access & ACC_ENUM) != 0;
+	}
+
+	public static boolean isAnnotation(int access) {
+		return (access & ACC_ANNOTATION) != 0;
+	}
+
+	public static boolean isInterface(int access) {
+		return (access & ACC_INTERFACE) != 0;
+	}
+
+	public static boolean isVarargs(int access) {
+		return (access & ACC_VARARGS) != 0;
+	}
+
+	public static boolean isStatic(int access) {
+		return (access & ACC_STATIC) != 0;
+	}
+
+	public static boolean isFinal(int access) {
+		return (access & ACC_FINAL) != 0;
+	}
+
+	public static AccessModifier convertVisibility(int access) {
+		int visibility = access & (ACC_PUBLIC | ACC_PROTECTED | ACC_PRIVATE);
+		if (visibility == ACC_PUBLIC) {
+			return AccessModifier.PUBLIC;
+		} else if (visibility == ACC_PROTECTED) {
+			return AccessModifier.PROTECTED;
+		} else if (visibility == ACC_PRIVATE) {
+			return AccessModifier.PRIVATE;
+		} else {
+			return AccessModifier.PACKAGE_PRIVATE;
+		}
+	}
+
+	/**
+	 * Converts the modifiers of a class.
+	 *
+	 * @param access              the access flags of the class
+	 * @param hasEnumConstantBody whether the class is an enum with at least one constant that has a class body
+	 * @return the modifiers of the class
+	 */
+	public static Set<Modifier> convertClassModifiers(int access, boolean hasEnumConstantBody) {
+		Set<Modifier> modifiers = EnumSet.noneOf(Modifier.class);
+		if (isFinal(access)) {
+			modifiers.add(Modifier.FINAL);
+		}
+		if ((access & ACC_ABSTRACT) != 0) {
+			modifiers.add(Modifier.ABSTRACT);
+		}
+		if (isStatic(access)) {
+			modifiers.add(Modifier.STATIC);
+		}
+
+		// §8.9: an enum class E is implicitly sealed if its declaration contains at least one
+		// enum constant that has a class body. Otherwise, final.
+		if (isEnum(access)) {
+			if (hasEnumConstantBody && !isFinal(access)) {
+				modifiers.add(Modifier.SEALED);
+			} else {
+				modifiers.add(Modifier.FINAL);
+			}
+		}
+		return modifiers;
+	}
+
+	public static Set<Modifier> convertFieldModifiers(int access) {
+		Set<Modifier> modifiers = EnumSet.noneOf(Modifier.class);
+		if (isStatic(access)) {
+			modifiers.add(Modifier.STATIC);
+		}
+		if (isFinal(access)) {
+			modifiers.add(Modifier.FINAL);
+		}
+		if ((access & ACC_VOLATILE) != 0) {
+			modifiers.add(Modifier.VOLATILE);
+		}
+		if ((access & ACC_TRANSIENT) != 0) {
+			modifiers.add(Modifier.TRANSIENT);
+		}
+		return modifiers;
+	}
+
+	/**
+	 * Converts the modifiers of a method.
+	 *
+	 * @param access      the access flags of the method
+	 * @param classAccess the access flags of its declaring class
+	 * @return the modifiers of the method
+	 */
+	public static Set<Modifier> convertMethodModifiers(int access, int classAccess) {
+		Set<Modifier> modifiers = EnumSet.noneOf(Modifier.class);
+		if (isStatic(access)) {
+			modifiers.add(Modifier.STATIC);
+		}
+		if (isFinal(access)) {
+			modifiers.add(Modifier.FINAL);
+		}
+		if ((access & ACC_ABSTRACT) != 0) {
+			modifiers.add(Modifier.ABSTRACT);
+		}
+		if ((access & ACC_SYNCHRONIZED) != 0) {
+			modifiers.add(Modifier.SYNCHRONIZED);
+		}
+		if ((access & ACC_NATIVE) != 0) {
+			modifiers.add(Modifier.NATIVE);
+		}
+		if ((access & ACC_STRICT) != 0) {
+			modifiers.add(Modifier.STRICTFP);
+		}
+		if (isDefault(access, classAccess)) {
+			modifiers.add(Modifier.DEFAULT);
+		}
+		return modifiers;
+	}
+
+	/**
+	 * Turns the last parameter of a varargs executable, an array in the class file, into a varargs parameter.
+	 *
+	 * @param factory    the factory used to create symbols
+	 * @param parameters the parameters of the executable
+	 * @return the parameters, the last one being a varargs parameter
+	 */
+	public static List<ParameterDecl> convertVarargParameter(ApiFactory factory, List<ParameterDecl> parameters) {
+		if (parameters.isEmpty()) {
+			return List.of();
+		}
+
+		List<ParameterDecl> params = new ArrayList<>(parameters);
+		ParameterDecl last = params.getLast();
+		if (last.type() instanceof ArrayTypeReference(ITypeReference componentType, int dimension)) {
+			// If this is a multidimensional array, remove one dimension, otherwise make it a regular reference
+			if (dimension > 1) {
+				params.set(params.size() - 1, factory.createParameter(last.name(),
+					factory.references().createArrayTypeReference(componentType, dimension - 1), true));
+			} else {
+				params.set(params.size() - 1, factory.createParameter(last.name(), componentType, true));
+			}
+		}
+		return params;
+	}
+
+	public static String packageName(String binaryName) {
+		int lastDot = binaryName.lastIndexOf('.');
+		return lastDot < 0 ? "" : binaryName.substring(0, lastDot);
+	}
+
+	// There is no ACC_DEFAULT flag, so that's how we infer it
+	private static boolean isDefault(int access, int classAccess) {
+		return isInterface(classAccess) &&
+			(access & ACC_ABSTRACT) == 0 &&
+			(access & ACC_STATIC) == 0 &&
+			(access & ACC_PRIVATE) == 0;
+	}
+}
@@ -0,0 +1,158 @@
+package io.github.alien.roseau.extractors;
+
+import io.github.alien.roseau.Library;
+import io.github.alien.roseau.Parallelism;
+import io.github.alien.roseau.RoseauException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RecursiveTask;
+import java.util.regex.Pattern;
+
+/**
+ * Helpers to traverse the class files of an exploded class directory (e.g., Maven's {@code target/classes}), shared by
+ * the bytecode-based {@link TypesExtractor}s. Class files are filtered as in {@link JarClassFiles}. The directory may
+ * belong to any file system, e.g., a module directory of a JDK image's {@code jrt:/} file system.
+ */
+public final class ClassDirectoryFiles {
+	private static final String MODULE_INFO = "module-info.class";
+	private static final Pattern ANONYMOUS_MATCHER = Pattern.compile("\\$\\d+");
+	// Below this size, mapping a file costs more than copying it
+	private static final long MAPPING_THRESHOLD = 64L * 1024L;
+
+	private ClassDirectoryFiles() {
+
+	}
+
+	/**
+	 * Returns the class files of the provided directory that may contribute to its API, skipping resources and
+	 * anonymous classes. Sub-directories are listed in parallel, in the current pool (see
+	 * {@link Parallelism#currentPool()}).
+	 *
+	 * @param root the class directory to traverse
+	 * @return the absolute paths of the class files
+	 * @throws RoseauException if the directory cannot be traversed
+	 */
+	public static List<Path> classFiles(Path root) {
+		try {
+			return Parallelism.currentPool().invoke(new DirectoryWalk(root.toAbsolutePath()));
+		} catch (UncheckedIOException e) {
+			throw new RoseauException("Failed to list class files in " + root, e.getCause());
+		}
+	}
+
+	/**
+	 * Checks whether the provided class file belongs to an in-scope package of the library (see
+	 * {@link Library#isInScope(String)}). The module declaration is always in scope.
+	 *
+	 * @param library the library whose location is the class directory
+	 * @param file    the class file
+	 * @return true if the file is in scope
+	 */
+	public static boolean isInScope(Library library, Path file) {
+		if (!library.isScoped() || file.getFileName().toString().equals(MODULE_INFO)) {
+			return true;
+		}
+
+		Path parent = library.getLocation().relativize(file).getParent();
+		String packageName = parent == null ? "" : parent.toString().replace(parent.getFileSystem().getSeparator(), ".");
+		return library.isInScope(packageName);
+	}
+
+	/**
+	 * Returns the binary name of the class stored in the provided class file (e.g., {@code pkg.A$B} for
+	 * {@code pkg/A$B.class}).
+	 *
+	 * @param root the class directory
+	 * @param file the class file, absolute or relative to {@code root}
+	 * @return the binary name of the class
+	 */
+	public static String binaryName(Path root, Path file) {
+		Path relative = file.isAbsolute() ? root.relativize(file) : file;
+		String name = relative.toString().replace(relative.getFileSystem().getSeparator(), ".");
+		return name.substring(0, name.length() - ".class".length());
+	}
+
+	/**
+	 * Reads the module declaration of the provided class directory, if any, so that extractors know the exported
+	 * packages before reading its classes.
+	 *
+	 * @param root the class directory
+	 * @return the bytes of its {@code module-info.class}, or an empty optional if it has none
+	 * @throws IOException if the module declaration cannot be read
+	 */
+	public static Optional<byte[]> moduleInfo(Path root) throws IOException {
+		Path file = root.resolve(MODULE_INFO);
+		return Files.isRegularFile(file) ? Optional.of(read(file)) : Optional.empty();
+	}
+
+	/**
+	 * Reads the content of the provided class file. Large files are memory-mapped rather than copied through an
+	 * intermediate buffer, unless they belong to a file system that cannot map files (e.g., {@code jrt:/}).
+	 *
+	 * @param file the class file
+	 * @return the bytes of the class file
+	 * @throws IOException if the file cannot be read
+	 */
+	public static byte[] read(Path file) throws IOException {
+		if (file.getFileSystem() != FileSystems.getDefault() || Files.size(file) < MAPPING_THRESHOLD) {
+			return Files.readAllBytes(file);
+		}
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+			byte[] bytes = new byte[buffer.remaining()];
+			buffer.get(bytes);
+			return bytes;
+		}
+	}
+
+	private static boolean isRegularClassFile(Path file) {
+		String name = file.getFileName().toString();
+		return name.endsWith(".class") && !ANONYMOUS_MATCHER.matcher(name).find();
+	}
+
+	/**
+	 * Lists the class files of a directory, forking a sub-task per sub-directory.
+	 */
+	private static final class DirectoryWalk extends RecursiveTask<List<Path>> {
+		private final Path directory;
+
+		DirectoryWalk(Path directory) {
+			this.directory = directory;
+		}
+
+		@Override
+		protected List<Path> compute() {
+			List<Path> files = new ArrayList<>();
+			List<DirectoryWalk> subTasks = new ArrayList<>();
+			try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+				for (Path entry : entries) {
+					if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+						DirectoryWalk subTask = new DirectoryWalk(entry);
+						subTask.fork();
+						subTasks.add(subTask);
+					} else if (isRegularClassFile(entry) && Files.isRegularFile(entry)) {
+						files.add(entry);
+					}
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+
+			subTasks.forEach(subTask -> files.addAll(subTask.join()));
+			return files;
+		}
+	}
+}
@@ -1,28 +1,67 @@
 package io.github.alien.roseau.extractors;
 
+import io.github.alien.roseau.Parallelism;
 import io.github.alien.roseau.api.model.ModuleDecl;
 import io.github.alien.roseau.api.model.TypeDecl;
 
+import java.nio.file.Path;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
+/**
+ * Collects the types and modules extracted by a {@link TypesExtractor}, possibly from several threads. The sink stops
+ * the extraction as soon as the thread that created it is interrupted, e.g., because its task was cancelled (see
+ * {@link Parallelism#checkCancelled(Thread)}).
+ */
 public final class ExtractorSink {
 	private final Set<TypeDecl> types;
 	private final Set<ModuleDecl> modules;
+	private final Map<String, Supplier<TypeDecl>> deferredTypes;
+	private final Map<Path, Set<String>> fileReferences;
+	private final Thread owner;
 
 	public ExtractorSink(int initialCapacity) {
 		this.types = ConcurrentHashMap.newKeySet(initialCapacity);
 		this.modules = ConcurrentHashMap.newKeySet(1);
+		this.deferredTypes = new ConcurrentHashMap<>();
+		this.fileReferences = new ConcurrentHashMap<>();
+		this.owner = Thread.currentThread();
 	}
 
 	public void accept(TypeDecl type) {
+		Parallelism.checkCancelled(owner);
 		types.add(type);
 	}
 
+	/**
+	 * Accepts a type whose members are extracted lazily: {@code header} only holds the type's header (name, modifiers,
+	 * supertypes, enclosing and permitted types), and {@code complete} builds the complete declaration on demand.
+	 *
+	 * @param header   the header-only type declaration
+	 * @param complete the supplier of the complete type declaration
+	 */
+	public void accept(TypeDecl header, Supplier<TypeDecl> complete) {
+		Parallelism.checkCancelled(owner);
+		types.add(header);
+		deferredTypes.put(header.getQualifiedName(), complete);
+	}
+
 	public void accept(ModuleDecl module) {
 		modules.add(module);
 	}
 
+	/**
+	 * Accepts the top-level types a source file depends on, by binary name.
+	 *
+	 * @param file       the source file
+	 * @param references the referenced top-level types
+	 */
+	public void accept(Path file, Set<String> references) {
+		fileReferences.put(file, Set.copyOf(references));
+	}
+
 	public Set<TypeDecl> getTypes() {
 		return types;
 	}
@@ -30,4 +69,12 @@ public final class ExtractorSink {
 	public Set<ModuleDecl> getModules() {
 		return modules;
 	}
+
+	public Map<String, Supplier<TypeDecl>> getDeferredTypes() {
+		return deferredTypes;
+	}
+
+	public Map<Path, Set<String>> getFileReferences() {
+		return fileReferences;
+	}
 }
@@ -2,16 +2,22 @@ package io.github.alien.roseau.extractors;
 
 import io.github.alien.roseau.api.model.factory.ApiFactory;
 import io.github.alien.roseau.extractors.asm.AsmTypesExtractor;
+import io.github.alien.roseau.extractors.classfile.ClassfileTypesExtractor;
 import io.github.alien.roseau.extractors.jdt.JdtTypesExtractor;
 
 public enum ExtractorType {
 	ASM,
-	JDT;
+	JDT,
+	/**
+	 * Experimental bytecode extractor built on the JDK's {@code java.lang.classfile} API
+	 */
+	CLASSFILE;
 
 	public TypesExtractor newExtractor(ApiFactory factory) {
 		return switch (this) {
 			case JDT -> new JdtTypesExtractor(factory);
 			case ASM -> new AsmTypesExtractor(factory);
+			case CLASSFILE -> new ClassfileTypesExtractor(factory);
 		};
 	}
 }
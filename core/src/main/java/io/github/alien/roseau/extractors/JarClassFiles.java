@@ -0,0 +1,112 @@
+package io.github.alien.roseau.extractors;
+
+import io.github.alien.roseau.Library;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+/**
+ * Helpers to traverse the class files of a JAR, shared by the bytecode-based {@link TypesExtractor}s. JMOD files are
+ * read as JARs whose class files are stored under the {@code classes/} prefix.
+ */
+public final class JarClassFiles {
+	private static final String MODULE_INFO = "module-info.class";
+	private static final String JMOD_EXTENSION = ".jmod";
+	private static final String JMOD_CLASSES = "classes/";
+	private static final Pattern ANONYMOUS_MATCHER = Pattern.compile("\\$\\d+");
+
+	private JarClassFiles() {
+
+	}
+
+	/**
+	 * Opens the JAR file at the provided location for reading, honoring multi-release entries for the current runtime.
+	 *
+	 * @param location the JAR file to open
+	 * @return the opened {@link JarFile}
+	 * @throws IOException if the file cannot be opened
+	 */
+	public static JarFile open(Path location) throws IOException {
+		return new JarFile(location.toFile(), false, ZipFile.OPEN_READ, Runtime.version());
+	}
+
+	/**
+	 * Returns the class file entries of the provided JAR that may contribute to its API, skipping directories, resources,
+	 * and anonymous classes.
+	 *
+	 * @param jar the JAR file to traverse
+	 * @return the stream of class file entries
+	 */
+	public static Stream<JarEntry> classEntries(JarFile jar) {
+		String prefix = classesPrefix(jar.getName());
+		return jar.versionedStream()
+			.filter(entry -> entry.getName().startsWith(prefix))
+			.filter(JarClassFiles::isRegularClassFile);
+	}
+
+	/**
+	 * Reads the module declaration of the provided JAR, if any, so that extractors know the exported packages before
+	 * reading its classes.
+	 *
+	 * @param jar the JAR file
+	 * @return the bytes of its {@code module-info.class}, or an empty optional if it has none
+	 * @throws IOException if the module declaration cannot be read
+	 */
+	public static Optional<byte[]> moduleInfo(JarFile jar) throws IOException {
+		JarEntry entry = jar.getJarEntry(classesPrefix(jar.getName()) + MODULE_INFO);
+		if (entry == null) {
+			return Optional.empty();
+		}
+
+		try (InputStream in = jar.getInputStream(entry)) {
+			return Optional.of(in.readAllBytes());
+		}
+	}
+
+	/**
+	 * Returns the name of the entry storing the given class file in the provided JAR or JMOD file.
+	 *
+	 * @param location  the JAR or JMOD file
+	 * @param classFile the class file path (e.g., {@code pkg/A.class})
+	 * @return the name of the corresponding entry
+	 */
+	public static String entryName(Path location, String classFile) {
+		return classesPrefix(location.toString()) + classFile;
+	}
+
+	/**
+	 * Checks whether the provided class file entry belongs to an in-scope package of the library (see
+	 * {@link Library#isInScope(String)}). The module declaration is always in scope.
+	 *
+	 * @param library the library
+	 * @param entry   the class file entry
+	 * @return true if the entry is in scope
+	 */
+	public static boolean isInScope(Library library, JarEntry entry) {
+		String name = entry.getName().substring(classesPrefix(library.getLocation().toString()).length());
+		if (!library.isScoped() || name.equals(MODULE_INFO)) {
+			return true;
+		}
+
+		int lastSlash = name.lastIndexOf('/');
+		String packageName = lastSlash < 0 ? "" : name.substring(0, lastSlash).replace('/', '.');
+		return library.isInScope(packageName);
+	}
+
+	private static String classesPrefix(String location) {
+		return location.endsWith(JMOD_EXTENSION) ? JMOD_CLASSES : "";
+	}
+
+	private static boolean isRegularClassFile(JarEntry entry) {
+		return !entry.isDirectory()
+			&& entry.getName().endsWith(".class")
+			&& !ANONYMOUS_MATCHER.matcher(entry.getName()).find();
+	}
+}
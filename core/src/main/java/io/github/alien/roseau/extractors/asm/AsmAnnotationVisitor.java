@@ -44,6 +44,13 @@ class AsmAnnotationVisitor extends AnnotationVisitor {
 		}
 	}
 
+	@Override
+	public AnnotationVisitor visitAnnotation(String name, String descriptor) {
+		// Nested annotation: only its type is stored
+		annotation.values().put(name, "@" + descriptorToFqn(descriptor));
+		return null;
+	}
+
 	@Override
 	public AnnotationVisitor visitArray(String name) {
 		annotation.values().put(name, "{}");
@@ -65,6 +72,10 @@ class AsmAnnotationVisitor extends AnnotationVisitor {
 		if (value instanceof Type type) {
 			return descriptorToFqn(type.toString());
 		}
+		// Primitive arrays are visited as a whole rather than through visitArray()
+		if (value.getClass().isArray()) {
+			return "{}";
+		}
 		return value.toString();
 	}
 
@@ -10,11 +10,11 @@ import io.github.alien.roseau.api.model.FormalTypeParameter;
 import io.github.alien.roseau.api.model.InterfaceDecl;
 import io.github.alien.roseau.api.model.MethodDecl;
 import io.github.alien.roseau.api.model.Modifier;
+import io.github.alien.roseau.api.model.ModuleDecl;
 import io.github.alien.roseau.api.model.ParameterDecl;
 import io.github.alien.roseau.api.model.SourceLocation;
 import io.github.alien.roseau.api.model.TypeDecl;
 import io.github.alien.roseau.api.model.factory.ApiFactory;
-import io.github.alien.roseau.api.model.reference.ArrayTypeReference;
 import io.github.alien.roseau.api.model.reference.ITypeReference;
 import io.github.alien.roseau.api.model.reference.PrimitiveTypeReference;
 import io.github.alien.roseau.api.model.reference.TypeReference;
@@ -33,17 +33,34 @@ import java.lang.annotation.ElementType;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.EnumSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
 
+import static io.github.alien.roseau.extractors.BytecodeConventions.convertClassModifiers;
+import static io.github.alien.roseau.extractors.BytecodeConventions.convertFieldModifiers;
+import static io.github.alien.roseau.extractors.BytecodeConventions.convertMethodModifiers;
+import static io.github.alien.roseau.extractors.BytecodeConventions.convertVarargParameter;
+import static io.github.alien.roseau.extractors.BytecodeConventions.convertVisibility;
+import static io.github.alien.roseau.extractors.BytecodeConventions.isAnnotation;
+import static io.github.alien.roseau.extractors.BytecodeConventions.isBridge;
+import static io.github.alien.roseau.extractors.BytecodeConventions.isEnum;
+import static io.github.alien.roseau.extractors.BytecodeConventions.isInterface;
+import static io.github.alien.roseau.extractors.BytecodeConventions.isNotPrivate;
+import static io.github.alien.roseau.extractors.BytecodeConventions.isStatic;
+import static io.github.alien.roseau.extractors.BytecodeConventions.isSynthetic;
+import static io.github.alien.roseau.extractors.BytecodeConventions.isTypeMemberExported;
+import static io.github.alien.roseau.extractors.BytecodeConventions.isVarargs;
+import static io.github.alien.roseau.extractors.BytecodeConventions.mayBeExported;
 import static java.util.stream.Collectors.toSet;
 
 public final class AsmClassVisitor extends ClassVisitor {
 	private final ExtractorSink sink;
 	private final ApiFactory factory;
+	private final Supplier<TypeDecl> completeType;
+	private final ModuleDecl module;
 	private String className;
 	private Path sourceFile;
 	private int classAccess;
@@ -62,9 +79,41 @@ public final class AsmClassVisitor extends ClassVisitor {
 	private final Set<AsmAnnotationVisitor.Data> annotations = new LinkedHashSet<>();
 
 	public AsmClassVisitor(int api, ExtractorSink sink, ApiFactory factory) {
+		this(api, sink, factory, null);
+	}
+
+	/**
+	 * Creates a visitor that only extracts the header of non-exported (package-private or private) classes. Their
+	 * members are only extracted by {@code completeType}, the first time their complete declaration is requested.
+	 *
+	 * @param api          the ASM API version
+	 * @param sink         the sink receiving extracted types
+	 * @param factory      the factory used to create symbols
+	 * @param completeType the supplier of the complete declaration of the visited class, or {@code null} to always
+	 *                     extract members eagerly
+	 */
+	public AsmClassVisitor(int api, ExtractorSink sink, ApiFactory factory, Supplier<TypeDecl> completeType) {
+		this(api, sink, factory, completeType, ModuleDecl.UNNAMED_MODULE);
+	}
+
+	/**
+	 * Creates a visitor that only extracts the header of non-exported classes: package-private or private classes, and
+	 * the classes of the packages {@code module} does not export.
+	 *
+	 * @param api          the ASM API version
+	 * @param sink         the sink receiving extracted types
+	 * @param factory      the factory used to create symbols
+	 * @param completeType the supplier of the complete declaration of the visited class, or {@code null} to always
+	 *                     extract members eagerly
+	 * @param module       the module declaring the visited class
+	 */
+	public AsmClassVisitor(int api, ExtractorSink sink, ApiFactory factory, Supplier<TypeDecl> completeType,
+	                       ModuleDecl module) {
 		super(api);
 		this.sink = sink;
 		this.factory = factory;
+		this.completeType = completeType;
+		this.module = module;
 	}
 
 	@Override
@@ -133,7 +182,7 @@ public final class AsmClassVisitor extends ClassVisitor {
 
 	@Override
 	public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
-		if (shouldSkip || isSynthetic(access) || !isTypeMemberExported(access)) {
+		if (shouldSkip || isDeferred() || isSynthetic(access) || !isTypeMemberExported(access)) {
 			return null;
 		}
 
@@ -158,7 +207,7 @@ public final class AsmClassVisitor extends ClassVisitor {
 	public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
 		boolean exported = isTypeMemberExported(access);
 		boolean nonPrivateMethod = !"<init>".equals(name) && !"<clinit>".equals(name) && isNotPrivate(access);
-		if (shouldSkip || isSynthetic(access) || isBridge(access) || (!exported && !nonPrivateMethod)) {
+		if (shouldSkip || isDeferred() || isSynthetic(access) || isBridge(access) || (!exported && !nonPrivateMethod)) {
 			return null;
 		}
 
@@ -252,36 +301,37 @@ public final class AsmClassVisitor extends ClassVisitor {
 		}
 
 		AccessModifier visibility = convertVisibility(classAccess);
-		Set<Modifier> modifiers = convertClassModifiers(classAccess);
+		Set<Modifier> modifiers = convertClassModifiers(classAccess, hasEnumConstantBody);
 		Set<Annotation> anns = convertAnnotations(annotations);
 		SourceLocation location = factory.location(sourceFile, -1);
 
-		// §8.9: an enum class E is implicitly sealed if its declaration contains at least one
-		// enum constant that has a class body. Otherwise, final.
-		if (isEnum(classAccess)) {
-			if (hasEnumConstantBody && !isFinal(classAccess)) {
-				modifiers.add(Modifier.SEALED);
-			} else {
-				modifiers.add(Modifier.FINAL);
-			}
-		}
-
+		TypeDecl type;
 		if (isAnnotation(classAccess)) {
-			sink.accept(factory.createAnnotation(className, visibility, modifiers, anns, location, fields, annotationMethods,
-				enclosingType, targets));
+			type = factory.createAnnotation(className, visibility, modifiers, anns, location, fields, annotationMethods,
+				enclosingType, targets);
 		} else if (isInterface(classAccess)) {
-			sink.accept(factory.createInterface(className, visibility, modifiers, anns, location, implementedInterfaces,
-				formalTypeParameters, fields, methods, enclosingType, permittedTypes));
+			type = factory.createInterface(className, visibility, modifiers, anns, location, implementedInterfaces,
+				formalTypeParameters, fields, methods, enclosingType, permittedTypes);
 		} else if (isEnum(classAccess)) {
-			sink.accept(factory.createEnum(className, visibility, modifiers, anns, location, implementedInterfaces,
-				fields, methods, enclosingType, constructors));
+			type = factory.createEnum(className, visibility, modifiers, anns, location, implementedInterfaces,
+				fields, methods, enclosingType, constructors);
 		} else if (isRecord(classAccess)) {
-			sink.accept(factory.createRecord(className, visibility, modifiers, anns, location, implementedInterfaces,
-				formalTypeParameters, fields, methods, enclosingType, constructors));
+			type = factory.createRecord(className, visibility, modifiers, anns, location, implementedInterfaces,
+				formalTypeParameters, fields, methods, enclosingType, constructors);
 		} else {
-			sink.accept(factory.createClass(className, visibility, modifiers, anns, location, implementedInterfaces,
-				formalTypeParameters, fields, methods, enclosingType, superClass, constructors, permittedTypes));
+			type = factory.createClass(className, visibility, modifiers, anns, location, implementedInterfaces,
+				formalTypeParameters, fields, methods, enclosingType, superClass, constructors, permittedTypes);
 		}
+
+		if (isDeferred()) {
+			sink.accept(type, completeType);
+		} else {
+			sink.accept(type);
+		}
+	}
+
+	private boolean isDeferred() {
+		return completeType != null && !mayBeExported(classAccess, className, module);
 	}
 
 	private FieldDecl convertField(int access, String name, String descriptor, String signature, Object value,
@@ -328,11 +378,11 @@ public final class AsmClassVisitor extends ClassVisitor {
 
 		// Last parameter is a T[], but the API representation is T...
 		if (isVarargs(access)) {
-			parameters = convertVarargParameter(parameters);
+			parameters = convertVarargParameter(factory, parameters);
 		}
 
 		return factory.createConstructor(String.format("%s.<init>", className), convertVisibility(access),
-			convertMethodModifiers(access), convertAnnotations(annotations), factory.location(sourceFile, line),
+			convertMethodModifiers(access, classAccess), convertAnnotations(annotations), factory.location(sourceFile, line),
 			factory.references().createTypeReference(className), factory.references().createTypeReference(className),
 			parameters, typeParameters, thrownExceptions);
 	}
@@ -362,11 +412,11 @@ public final class AsmClassVisitor extends ClassVisitor {
 
 		// Last parameter is a T[], but the API representation is T...
 		if (isVarargs(access)) {
-			parameters = convertVarargParameter(parameters);
+			parameters = convertVarargParameter(factory, parameters);
 		}
 
 		return factory.createMethod(String.format("%s.%s", className, name), convertVisibility(access),
-			convertMethodModifiers(access), convertAnnotations(annotations), factory.location(sourceFile, line),
+			convertMethodModifiers(access, classAccess), convertAnnotations(annotations), factory.location(sourceFile, line),
 			factory.references().createTypeReference(className), returnType, parameters,
 			typeParameters, thrownExceptions);
 	}
@@ -388,25 +438,6 @@ public final class AsmClassVisitor extends ClassVisitor {
 			factory.location(sourceFile, line), factory.references().createTypeReference(className), returnType, hasDefault);
 	}
 
-	private List<ParameterDecl> convertVarargParameter(List<ParameterDecl> parameters) {
-		if (parameters.isEmpty()) {
-			return List.of();
-		}
-
-		List<ParameterDecl> params = new ArrayList<>(parameters);
-		ParameterDecl last = params.getLast();
-		if (last.type() instanceof ArrayTypeReference(ITypeReference componentType, int dimension)) {
-			// If this is a multidimensional array, remove one dimension, otherwise make it a regular reference
-			if (dimension > 1) {
-				params.set(params.size() - 1, factory.createParameter(last.name(),
-					factory.references().createArrayTypeReference(componentType, dimension - 1), true));
-			} else {
-				params.set(params.size() - 1, factory.createParameter(last.name(), componentType, true));
-			}
-		}
-		return params;
-	}
-
 	private Set<Annotation> convertAnnotations(Set<AsmAnnotationVisitor.Data> dataList) {
 		return dataList.stream()
 			.map(data -> factory.createAnnotation(
@@ -443,15 +474,6 @@ public final class AsmClassVisitor extends ClassVisitor {
 			.toList();
 	}
 
-	private static boolean isTypeMemberExported(int access) {
-		AccessModifier visibility = convertVisibility(access);
-		return visibility == AccessModifier.PUBLIC || visibility == AccessModifier.PROTECTED;
-	}
-
-	private static boolean isNotPrivate(int access) {
-		return convertVisibility(access) != AccessModifier.PRIVATE;
-	}
-
 	private static String bytecodeToFqn(String bytecodeName) {
 		return bytecodeName.replace('/', '.');
 	}
@@ -460,18 +482,6 @@ public final class AsmClassVisitor extends ClassVisitor {
 		return Type.getType(descriptor).getClassName();
 	}
 
-	private static boolean isSynthetic(int access) {
-		return (access & Opcodes.ACC_SYNTHETIC) != 0;
-	}
-
-	private static boolean isBridge(int access) {
-		return (access & Opcodes.ACC_BRIDGE) != 0;
-	}
-
-	private static boolean isEnum(int access) {
-		return (access & Opcodes.ACC_ENUM) != 0;
-	}
-
 	private static boolean isRecord(int access) {
 		return (access & Opcodes.ACC_RECORD) != 0;
 	}
@@ -479,98 +489,4 @@ public final class AsmClassVisitor extends ClassVisitor {
 	private static boolean isClass(int access) {
 		return !isEnum(access) && !isRecord(access) && !isInterface(access) && !isAnnotation(access);
 	}
-
-	private static boolean isAnnotation(int access) {
-		return (access & Opcodes.ACC_ANNOTATION) != 0;
-	}
-
-	private static boolean isInterface(int access) {
-		return (access & Opcodes.ACC_INTERFACE) != 0;
-	}
-
-	private static boolean isVarargs(int access) {
-		return (access & Opcodes.ACC_VARARGS) != 0;
-	}
-
-	private static boolean isStatic(int access) {
-		return (access & Opcodes.ACC_STATIC) != 0;
-	}
-
-	private static boolean isFinal(int access) {
-		return (access & Opcodes.ACC_FINAL) != 0;
-	}
-
-	private static AccessModifier convertVisibility(int access) {
-		return switch (access & (Opcodes.ACC_PUBLIC | Opcodes.ACC_PROTECTED | Opcodes.ACC_PRIVATE)) {
-			case Opcodes.ACC_PUBLIC -> AccessModifier.PUBLIC;
-			case Opcodes.ACC_PROTECTED -> AccessModifier.PROTECTED;
-			case Opcodes.ACC_PRIVATE -> AccessModifier.PRIVATE;
-			default -> AccessModifier.PACKAGE_PRIVATE;
-		};
-	}
-
-	private static Set<Modifier> convertClassModifiers(int access) {
-		Set<Modifier> modifiers = EnumSet.noneOf(Modifier.class);
-		if (isFinal(access)) {
-			modifiers.add(Modifier.FINAL);
-		}
-		if ((access & Opcodes.ACC_ABSTRACT) != 0) {
-			modifiers.add(Modifier.ABSTRACT);
-		}
-		if ((access & Opcodes.ACC_STATIC) != 0) {
-			modifiers.add(Modifier.STATIC);
-		}
-		return modifiers;
-	}
-
-	private static Set<Modifier> convertFieldModifiers(int access) {
-		Set<Modifier> modifiers = EnumSet.noneOf(Modifier.class);
-		if ((access & Opcodes.ACC_STATIC) != 0) {
-			modifiers.add(Modifier.STATIC);
-		}
-		if ((access & Opcodes.ACC_FINAL) != 0) {
-			modifiers.add(Modifier.FINAL);
-		}
-		if ((access & Opcodes.ACC_VOLATILE) != 0) {
-			modifiers.add(Modifier.VOLATILE);
-		}
-		if ((access & Opcodes.ACC_TRANSIENT) != 0) {
-			modifiers.add(Modifier.TRANSIENT);
-		}
-		return modifiers;
-	}
-
-	private Set<Modifier> convertMethodModifiers(int access) {
-		Set<Modifier> modifiers = EnumSet.noneOf(Modifier.class);
-		if ((access & Opcodes.ACC_STATIC) != 0) {
-			modifiers.add(Modifier.STATIC);
-		}
-		if ((access & Opcodes.ACC_FINAL) != 0) {
-			modifiers.add(Modifier.FINAL);
-		}
-		if ((access & Opcodes.ACC_ABSTRACT) != 0) {
-			modifiers.add(Modifier.ABSTRACT);
-		}
-		if ((access & Opcodes.ACC_SYNCHRONIZED) != 0) {
-			modifiers.add(Modifier.SYNCHRONIZED);
-		}
-		if ((access & Opcodes.ACC_NATIVE) != 0) {
-			modifiers.add(Modifier.NATIVE);
-		}
-		if ((access & Opcodes.ACC_STRICT) != 0) {
-			modifiers.add(Modifier.STRICTFP);
-		}
-		if (isDefault(access)) {
-			modifiers.add(Modifier.DEFAULT);
-		}
-		return modifiers;
-	}
-
-	// No Opcodes.ACC_DEFAULT, so that's how we infer it
-	private boolean isDefault(int access) {
-		return (classAccess & Opcodes.ACC_INTERFACE) != 0 &&
-			(access & Opcodes.ACC_ABSTRACT) == 0 &&
-			(access & Opcodes.ACC_STATIC) == 0 &&
-			(access & Opcodes.ACC_PRIVATE) == 0;
-	}
 }
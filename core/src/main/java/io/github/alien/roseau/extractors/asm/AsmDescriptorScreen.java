@@ -0,0 +1,326 @@
+package io.github.alien.roseau.extractors.asm;
+
+import com.google.common.base.Preconditions;
+import io.github.alien.roseau.Library;
+import io.github.alien.roseau.RoseauException;
+import io.github.alien.roseau.extractors.JarClassFiles;
+import net.openhft.hashing.LongHashFunction;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.ModuleVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.TypePath;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+
+/**
+ * A cheap, descriptor-level pre-screen of two JAR files. For every class file, the screen only reads the class header
+ * (name, access flags, signature, supertypes, nested and permitted types, annotations) and the access flags,
+ * descriptors, signatures, and annotations (including parameter and type-use annotations) of its non-private members;
+ * method bodies and debug information are skipped and no
+ * {@link io.github.alien.roseau.api.model.TypeDecl} is ever built or resolved. The collected material is hashed per
+ * class.
+ * <p>
+ * The screen is conservative: it reports that a library {@linkplain #mayBreak(Library, Library) may break} whenever a
+ * class of the baseline was removed or its digest changed, when the classpaths differ, or when a class file cannot be
+ * read. When it reports that
+ * nothing changed, the full analysis cannot find any breaking change either. Types that only exist in the second
+ * version cannot break clients of the first one.
+ */
+public final class AsmDescriptorScreen {
+	private static final int ASM_VERSION = Opcodes.ASM9;
+	private static final int PARSING_OPTIONS = ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES;
+	private static final String MODULE_INFO = "module-info";
+	private static final Logger LOGGER = LogManager.getLogger(AsmDescriptorScreen.class);
+
+	/**
+	 * Checks whether the diff between two JAR libraries may contain breaking changes.
+	 *
+	 * @param v1 the baseline library
+	 * @param v2 the target library
+	 * @return false if the descriptors of all types of {@code v1} are unchanged in {@code v2}, true otherwise (including
+	 * when one of the JARs cannot be read)
+	 * @throws IllegalArgumentException if one of the libraries is not a JAR
+	 */
+	public boolean mayBreak(Library v1, Library v2) {
+		Preconditions.checkArgument(v1 != null && v1.isJar(), "v1 is not a JAR: %s", v1);
+		Preconditions.checkArgument(v2 != null && v2.isJar(), "v2 is not a JAR: %s", v2);
+
+		if (!v1.getClasspath().equals(v2.getClasspath())) {
+			LOGGER.debug("Classpaths differ, cannot pre-screen {} and {}", v1, v2);
+			return true;
+		}
+
+		Set<String> changed;
+		try {
+			changed = changedTypes(digest(v1), digest(v2));
+		} catch (RoseauException e) {
+			LOGGER.warn("Cannot pre-screen {} and {}: {}", v1, v2, e.getMessage());
+			return true;
+		}
+		LOGGER.debug("{} changed types between {} and {}", changed::size, () -> v1, () -> v2);
+		return !changed.isEmpty();
+	}
+
+	/**
+	 * Returns the names of the types of {@code v1} that were removed or whose digest changed in {@code v2}. The module
+	 * declaration, if any, is reported as {@code module-info}.
+	 *
+	 * @param v1 the digests of the baseline library
+	 * @param v2 the digests of the target library
+	 * @return the names of the changed types
+	 */
+	public Set<String> changedTypes(Map<String, Long> v1, Map<String, Long> v2) {
+		Preconditions.checkNotNull(v1);
+		Preconditions.checkNotNull(v2);
+		return v1.entrySet().stream()
+			.filter(e -> !e.getValue().equals(v2.get(e.getKey())))
+			.map(Map.Entry::getKey)
+			.collect(Collectors.toUnmodifiableSet());
+	}
+
+	/**
+	 * Computes the descriptor digest of every class file of the provided JAR library.
+	 *
+	 * @param library the JAR library
+	 * @return the digests, indexed by the binary names of types (e.g., {@code pkg.A$B})
+	 * @throws RoseauException if the JAR or one of its class files cannot be read
+	 */
+	public Map<String, Long> digest(Library library) {
+		Preconditions.checkArgument(library != null && library.isJar(), "Not a JAR: %s", library);
+		try (JarFile jar = JarClassFiles.open(library.getLocation())) {
+			Map<String, Long> digests = new ConcurrentHashMap<>(jar.size());
+			JarClassFiles.classEntries(jar).parallel()
+				.forEach(entry -> digestEntry(jar, entry, digests));
+			return Map.copyOf(digests);
+		} catch (IOException e) {
+			throw new RoseauException("Failed to process JAR file", e);
+		}
+	}
+
+	private static void digestEntry(JarFile jar, JarEntry entry, Map<String, Long> digests) {
+		try (InputStream is = jar.getInputStream(entry)) {
+			DescriptorVisitor visitor = new DescriptorVisitor();
+			new ClassReader(is).accept(visitor, PARSING_OPTIONS);
+			if (visitor.name != null) {
+				digests.put(visitor.name, LongHashFunction.xx().hashChars(visitor.material()));
+			}
+		} catch (IOException | RuntimeException e) {
+			// A class we cannot read must not silently drop out of the digest
+			throw new RoseauException("Failed to process JAR entry " + entry.getName(), e);
+		}
+	}
+
+	/**
+	 * Collects the API-relevant material of a class file as text. Members are sorted so that reordering them in the
+	 * source does not change the digest.
+	 */
+	private static final class DescriptorVisitor extends ClassVisitor {
+		private String name;
+		private final StringBuilder header = new StringBuilder();
+		private final SortedSet<String> innerClasses = new TreeSet<>();
+		private final SortedSet<String> permittedSubclasses = new TreeSet<>();
+		private final SortedSet<String> annotations = new TreeSet<>();
+		private final SortedSet<String> members = new TreeSet<>();
+
+		DescriptorVisitor() {
+			super(ASM_VERSION);
+		}
+
+		@Override
+		public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+			if ((access & Opcodes.ACC_SYNTHETIC) != 0) {
+				return;
+			}
+
+			this.name = name.replace('/', '.');
+			header.append(access).append(' ').append(signature).append(' ').append(superName).append(' ')
+				.append(interfaces == null ? "[]" : Arrays.toString(interfaces));
+		}
+
+		@Override
+		public void visitSource(String source, String debug) {
+			// The extractor skips non-Java classes; the file name itself only matters for locations
+			header.append(" java=").append(source == null || source.endsWith(".java"));
+		}
+
+		@Override
+		public ModuleVisitor visitModule(String name, int access, String version) {
+			this.name = MODULE_INFO;
+			header.append("module ").append(name).append(' ').append(access);
+			return new ModuleVisitor(api) {
+				@Override
+				public void visitExport(String pkg, int pkgAccess, String... modules) {
+					members.add("exports %s %d %s".formatted(pkg, pkgAccess,
+						modules == null ? "[]" : Arrays.toString(modules)));
+				}
+			};
+		}
+
+		@Override
+		public void visitInnerClass(String name, String outerName, String innerName, int access) {
+			innerClasses.add("%s %s %s %d".formatted(name, outerName, innerName, access));
+		}
+
+		@Override
+		public void visitPermittedSubclass(String permittedSubclass) {
+			permittedSubclasses.add(permittedSubclass);
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+			return new MaterialAnnotationVisitor(api, annotations::add, descriptor);
+		}
+
+		@Override
+		public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+			return new MaterialAnnotationVisitor(api, annotations::add, typeAnnotation(typeRef, typePath, descriptor));
+		}
+
+		@Override
+		public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+			if (!isVisibleMember(access)) {
+				return null;
+			}
+
+			String field = "F %d %s %s %s %s".formatted(access, name, descriptor, signature, value);
+			SortedSet<String> fieldAnnotations = new TreeSet<>();
+			return new FieldVisitor(api) {
+				@Override
+				public AnnotationVisitor visitAnnotation(String annotationDescriptor, boolean visible) {
+					return new MaterialAnnotationVisitor(api, fieldAnnotations::add, annotationDescriptor);
+				}
+
+				@Override
+				public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String annotationDescriptor,
+				                                             boolean visible) {
+					return new MaterialAnnotationVisitor(api, fieldAnnotations::add,
+						typeAnnotation(typeRef, typePath, annotationDescriptor));
+				}
+
+				@Override
+				public void visitEnd() {
+					members.add(field + " " + fieldAnnotations);
+				}
+			};
+		}
+
+		@Override
+		public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+			if (!isVisibleMember(access) || (access & Opcodes.ACC_BRIDGE) != 0) {
+				return null;
+			}
+
+			String method = "M %d %s %s %s %s".formatted(access, name, descriptor, signature,
+				exceptions == null ? "[]" : Arrays.toString(exceptions));
+			SortedSet<String> methodAnnotations = new TreeSet<>();
+			return new MethodVisitor(api) {
+				@Override
+				public AnnotationVisitor visitAnnotation(String annotationDescriptor, boolean visible) {
+					return new MaterialAnnotationVisitor(api, methodAnnotations::add, annotationDescriptor);
+				}
+
+				@Override
+				public AnnotationVisitor visitParameterAnnotation(int parameter, String annotationDescriptor,
+				                                                  boolean visible) {
+					return new MaterialAnnotationVisitor(api, methodAnnotations::add,
+						"param" + parameter + " " + annotationDescriptor);
+				}
+
+				@Override
+				public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String annotationDescriptor,
+				                                             boolean visible) {
+					return new MaterialAnnotationVisitor(api, methodAnnotations::add,
+						typeAnnotation(typeRef, typePath, annotationDescriptor));
+				}
+
+				@Override
+				public AnnotationVisitor visitAnnotationDefault() {
+					return new MaterialAnnotationVisitor(api, methodAnnotations::add, "default");
+				}
+
+				@Override
+				public void visitEnd() {
+					members.add(method + " " + methodAnnotations);
+				}
+			};
+		}
+
+		String material() {
+			return String.join("\n", header, innerClasses.toString(), permittedSubclasses.toString(),
+				annotations.toString(), String.join("\n", members));
+		}
+
+		private static String typeAnnotation(int typeRef, TypePath typePath, String descriptor) {
+			return "type%d %s %s".formatted(typeRef, typePath, descriptor);
+		}
+
+		private static boolean isVisibleMember(int access) {
+			return (access & (Opcodes.ACC_PRIVATE | Opcodes.ACC_SYNTHETIC)) == 0;
+		}
+	}
+
+	/**
+	 * Serializes an annotation and its (possibly nested) values into the provided sink when visiting ends.
+	 */
+	private static final class MaterialAnnotationVisitor extends AnnotationVisitor {
+		private final Consumer<String> target;
+		private final String descriptor;
+		private final StringBuilder values = new StringBuilder();
+
+		MaterialAnnotationVisitor(int api, Consumer<String> target, String descriptor) {
+			super(api);
+			this.target = target;
+			this.descriptor = descriptor;
+		}
+
+		@Override
+		public void visit(String name, Object value) {
+			String text = value != null && value.getClass().isArray()
+				? Arrays.deepToString(new Object[]{value})
+				: String.valueOf(value);
+			values.append(name).append('=').append(text).append(';');
+		}
+
+		@Override
+		public void visitEnum(String name, String descriptor, String value) {
+			values.append(name).append('=').append(descriptor).append('.').append(value).append(';');
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String name, String descriptor) {
+			return nested(name, descriptor);
+		}
+
+		@Override
+		public AnnotationVisitor visitArray(String name) {
+			return nested(name, "[]");
+		}
+
+		@Override
+		public void visitEnd() {
+			target.accept(descriptor + "(" + values + ")");
+		}
+
+		private AnnotationVisitor nested(String name, String nestedDescriptor) {
+			return new MaterialAnnotationVisitor(api,
+				value -> values.append(name).append('=').append(value).append(';'), nestedDescriptor);
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package io.github.alien.roseau.extractors.asm;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Sets;
+import io.github.alien.roseau.Library;
+import io.github.alien.roseau.RoseauException;
+import io.github.alien.roseau.api.model.LibraryTypes;
+import io.github.alien.roseau.api.model.ModuleDecl;
+import io.github.alien.roseau.api.model.TypeDecl;
+import io.github.alien.roseau.extractors.ClassDirectoryFiles;
+import io.github.alien.roseau.extractors.ExtractorSink;
+import io.github.alien.roseau.extractors.incremental.ChangedFiles;
+import io.github.alien.roseau.extractors.incremental.IncrementalTypesExtractor;
+
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * An ASM-based incremental {@link LibraryTypes} extractor for class directories. Changed files are class files,
+ * relative to the library's location, typically identified by a
+ * {@link io.github.alien.roseau.extractors.incremental.FingerprintChangedFilesProvider}.
+ * <br>
+ * This implementation:
+ * <ul>
+ *   <li>Returns the previous API if no file has changed</li>
+ *   <li>Discards the types of deleted class files</li>
+ *   <li>Re-reads updated and created class files</li>
+ *   <li>Carries unchanged header-only types over without completing them</li>
+ * </ul>
+ */
+public final class IncrementalAsmTypesExtractor implements IncrementalTypesExtractor {
+	private final AsmTypesExtractor extractor;
+
+	private static final Path MODULE_INFO = Path.of("module-info.class");
+
+	public IncrementalAsmTypesExtractor(AsmTypesExtractor extractor) {
+		this.extractor = Preconditions.checkNotNull(extractor);
+	}
+
+	@Override
+	public LibraryTypes incrementalUpdate(LibraryTypes previousTypes, Library newVersion, ChangedFiles changedFiles) {
+		Preconditions.checkNotNull(previousTypes);
+		Preconditions.checkNotNull(newVersion);
+		Preconditions.checkNotNull(changedFiles);
+		Preconditions.checkArgument(newVersion.isClasses(), "Not a class directory: %s", newVersion);
+
+		// If nothing's changed, just return the old one
+		if (changedFiles.hasNoChanges()) {
+			return previousTypes;
+		}
+
+		Path root = newVersion.getLocation();
+		Set<String> discarded = Sets.union(changedFiles.deletedFiles(), changedFiles.updatedFiles()).stream()
+			.map(file -> ClassDirectoryFiles.binaryName(root, file))
+			.collect(Collectors.toSet());
+
+		ExtractorSink sink = new ExtractorSink(previousTypes.getTypeHeaders().size() + changedFiles.createdFiles().size());
+		previousTypes.getTypeHeaders().stream()
+			.filter(type -> !discarded.contains(type.getQualifiedName()))
+			.forEach(type -> {
+				Supplier<TypeDecl> deferred = previousTypes.getDeferredTypes().get(type.getQualifiedName());
+				if (deferred != null) {
+					sink.accept(type, deferred);
+				} else {
+					sink.accept(type);
+				}
+			});
+
+		Sets.union(changedFiles.updatedFiles(), changedFiles.createdFiles()).parallelStream()
+			.map(root::resolve)
+			.filter(file -> ClassDirectoryFiles.isInScope(newVersion, file))
+			.forEach(file -> extractor.processFile(file, sink));
+
+		return new LibraryTypes(newVersion, updatedModule(previousTypes, changedFiles, sink), sink.getTypes(),
+			sink.getDeferredTypes());
+	}
+
+	private static ModuleDecl updatedModule(LibraryTypes previousTypes, ChangedFiles changedFiles, ExtractorSink sink) {
+		if (changedFiles.deletedFiles().contains(MODULE_INFO)) {
+			return ModuleDecl.UNNAMED_MODULE;
+		}
+
+		return switch (sink.getModules().size()) {
+			case 0 -> previousTypes.getModule();
+			case 1 -> sink.getModules().iterator().next();
+			default -> throw new RoseauException("%s contains multiple module declarations: %s".formatted(
+				previousTypes.getLibrary(), sink.getModules()));
+		};
+	}
+}
@@ -0,0 +1,122 @@
+package io.github.alien.roseau.extractors.classfile;
+
+import io.github.alien.roseau.RoseauException;
+import io.github.alien.roseau.api.model.FormalTypeParameter;
+import io.github.alien.roseau.api.model.factory.ApiFactory;
+import io.github.alien.roseau.api.model.reference.ArrayTypeReference;
+import io.github.alien.roseau.api.model.reference.ITypeReference;
+import io.github.alien.roseau.api.model.reference.TypeReference;
+import io.github.alien.roseau.api.model.reference.TypeReferenceFactory;
+
+import java.lang.classfile.Signature;
+import java.lang.constant.ClassDesc;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Converts the generic signatures and type descriptors of the {@code java.lang.classfile} API to type references.
+ */
+final class ClassfileSignatures {
+	private final ApiFactory factory;
+
+	ClassfileSignatures(ApiFactory factory) {
+		this.factory = factory;
+	}
+
+	List<FormalTypeParameter> convertTypeParameters(List<Signature.TypeParam> typeParameters) {
+		return typeParameters.stream()
+			.map(param -> factory.createFormalTypeParameter(param.identifier(),
+				Stream.concat(param.classBound().stream(), param.interfaceBounds().stream())
+					.map(this::convertSignature)
+					.toList()))
+			.toList();
+	}
+
+	@SuppressWarnings("unchecked")
+	<T extends ITypeReference> T convertSignature(Signature signature) {
+		TypeReferenceFactory references = factory.references();
+		return (T) switch (signature) {
+			case Signature.BaseTypeSig base -> references.createPrimitiveTypeReference(primitiveName(base.baseType()));
+			case Signature.TypeVarSig var -> references.createTypeParameterReference(var.identifier());
+			case Signature.ArrayTypeSig array -> {
+				ITypeReference component = convertSignature(array.componentSignature());
+				yield component instanceof ArrayTypeReference(ITypeReference componentType, int dimension)
+					? references.createArrayTypeReference(componentType, dimension + 1)
+					: references.createArrayTypeReference(component, 1);
+			}
+			case Signature.ClassTypeSig cls -> {
+				// Type arguments of the outer classes are discarded; only the innermost ones are kept
+				String name = className(cls.classDesc());
+				yield cls.typeArgs().isEmpty()
+					? references.createTypeReference(name)
+					: references.createTypeReference(name, cls.typeArgs().stream().map(this::convertTypeArgument).toList());
+			}
+		};
+	}
+
+	private ITypeReference convertTypeArgument(Signature.TypeArg argument) {
+		TypeReferenceFactory references = factory.references();
+		return switch (argument) {
+			case Signature.TypeArg.Unbounded _ -> references.createWildcardTypeReference(List.of(TypeReference.OBJECT), true);
+			case Signature.TypeArg.Bounded bounded -> {
+				ITypeReference bound = convertSignature(bounded.boundType());
+				yield switch (bounded.wildcardIndicator()) {
+					case NONE -> bound;
+					case EXTENDS -> references.createWildcardTypeReference(List.of(bound), true);
+					case SUPER -> references.createWildcardTypeReference(List.of(bound), false);
+				};
+			}
+		};
+	}
+
+	ITypeReference convertType(ClassDesc descriptor) {
+		TypeReferenceFactory references = factory.references();
+		if (descriptor.isArray()) {
+			int dimension = 0;
+			ClassDesc element = descriptor;
+			while (element.isArray()) {
+				element = element.componentType();
+				dimension++;
+			}
+			return references.createArrayTypeReference(convertType(element), dimension);
+		} else if (descriptor.isPrimitive()) {
+			return references.createPrimitiveTypeReference(descriptor.displayName());
+		} else {
+			return references.createTypeReference(className(descriptor));
+		}
+	}
+
+	/**
+	 * Returns the name of the type as reported by ASM's {@code Type.getClassName()}, e.g., {@code pkg.A$B},
+	 * {@code int}, or {@code java.lang.String[]}.
+	 */
+	static String className(ClassDesc descriptor) {
+		if (descriptor.isArray()) {
+			return className(descriptor.componentType()) + "[]";
+		} else if (descriptor.isPrimitive()) {
+			return descriptor.displayName();
+		} else {
+			String descriptorString = descriptor.descriptorString();
+			return internalToFqn(descriptorString.substring(1, descriptorString.length() - 1));
+		}
+	}
+
+	static String internalToFqn(String internalName) {
+		return internalName.replace('/', '.');
+	}
+
+	private static String primitiveName(char descriptor) {
+		return switch (descriptor) {
+			case 'V' -> "void";
+			case 'B' -> "byte";
+			case 'J' -> "long";
+			case 'Z' -> "boolean";
+			case 'I' -> "int";
+			case 'S' -> "short";
+			case 'C' -> "char";
+			case 'F' -> "float";
+			case 'D' -> "double";
+			default -> throw new RoseauException("Unexpected base type descriptor: " + descriptor);
+		};
+	}
+}
@@ -0,0 +1,479 @@
+package io.github.alien.roseau.extractors.classfile;
+
+import io.github.alien.roseau.api.model.AccessModifier;
+import io.github.alien.roseau.api.model.Annotation;
+import io.github.alien.roseau.api.model.AnnotationMethodDecl;
+import io.github.alien.roseau.api.model.ClassDecl;
+import io.github.alien.roseau.api.model.ConstructorDecl;
+import io.github.alien.roseau.api.model.FieldDecl;
+import io.github.alien.roseau.api.model.FormalTypeParameter;
+import io.github.alien.roseau.api.model.InterfaceDecl;
+import io.github.alien.roseau.api.model.MethodDecl;
+import io.github.alien.roseau.api.model.ModuleDecl;
+import io.github.alien.roseau.api.model.Modifier;
+import io.github.alien.roseau.api.model.ParameterDecl;
+import io.github.alien.roseau.api.model.SourceLocation;
+import io.github.alien.roseau.api.model.TypeDecl;
+import io.github.alien.roseau.api.model.factory.ApiFactory;
+import io.github.alien.roseau.api.model.reference.ITypeReference;
+import io.github.alien.roseau.api.model.reference.PrimitiveTypeReference;
+import io.github.alien.roseau.api.model.reference.TypeReference;
+import io.github.alien.roseau.extractors.ExtractorSink;
+
+import java.lang.annotation.ElementType;
+import java.lang.classfile.AnnotationElement;
+import java.lang.classfile.AnnotationValue;
+import java.lang.classfile.AttributedElement;
+import java.lang.classfile.Attributes;
+import java.lang.classfile.ClassModel;
+import java.lang.classfile.ClassSignature;
+import java.lang.classfile.FieldModel;
+import java.lang.classfile.MethodModel;
+import java.lang.classfile.MethodSignature;
+import java.lang.classfile.Signature;
+import java.lang.classfile.attribute.CodeAttribute;
+import java.lang.classfile.attribute.InnerClassInfo;
+import java.lang.classfile.attribute.LineNumberInfo;
+import java.lang.classfile.attribute.LineNumberTableAttribute;
+import java.lang.classfile.attribute.ModuleAttribute;
+import java.lang.classfile.attribute.ModuleExportInfo;
+import java.lang.classfile.attribute.SignatureAttribute;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static io.github.alien.roseau.extractors.BytecodeConventions.ACC_ANNOTATION;
+import static io.github.alien.roseau.extractors.BytecodeConventions.ACC_ENUM;
+import static io.github.alien.roseau.extractors.BytecodeConventions.ACC_INTERFACE;
+import static io.github.alien.roseau.extractors.BytecodeConventions.ACC_SYNTHETIC;
+import static io.github.alien.roseau.extractors.BytecodeConventions.convertClassModifiers;
+import static io.github.alien.roseau.extractors.BytecodeConventions.convertFieldModifiers;
+import static io.github.alien.roseau.extractors.BytecodeConventions.convertMethodModifiers;
+import static io.github.alien.roseau.extractors.BytecodeConventions.convertVarargParameter;
+import static io.github.alien.roseau.extractors.BytecodeConventions.convertVisibility;
+import static io.github.alien.roseau.extractors.BytecodeConventions.isAnnotation;
+import static io.github.alien.roseau.extractors.BytecodeConventions.isBridge;
+import static io.github.alien.roseau.extractors.BytecodeConventions.isEnum;
+import static io.github.alien.roseau.extractors.BytecodeConventions.isInterface;
+import static io.github.alien.roseau.extractors.BytecodeConventions.isNotPrivate;
+import static io.github.alien.roseau.extractors.BytecodeConventions.isStatic;
+import static io.github.alien.roseau.extractors.BytecodeConventions.isSynthetic;
+import static io.github.alien.roseau.extractors.BytecodeConventions.isTypeMemberExported;
+import static io.github.alien.roseau.extractors.BytecodeConventions.isVarargs;
+import static io.github.alien.roseau.extractors.BytecodeConventions.mayBeExported;
+import static io.github.alien.roseau.extractors.classfile.ClassfileSignatures.className;
+import static io.github.alien.roseau.extractors.classfile.ClassfileSignatures.internalToFqn;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Converts a parsed {@link ClassModel} to its {@link TypeDecl}. The conversion mirrors the ASM-based extractor so that
+ * both backends produce the same API model for the same class files.
+ */
+final class ClassfileTypeConverter {
+	private static final String TARGET_DESCRIPTOR = "Ljava/lang/annotation/Target;";
+	private static final String ELEMENT_TYPE_DESCRIPTOR = "Ljava/lang/annotation/ElementType;";
+
+	private final ClassModel model;
+	private final ApiFactory factory;
+	private final ClassfileSignatures signatures;
+	private final Supplier<TypeDecl> completeType;
+	private final ModuleDecl module;
+	private final String className;
+	private final boolean isRecord;
+	private int classAccess;
+	private Path sourceFile;
+	private TypeReference<TypeDecl> enclosingType;
+	private boolean hasEnumConstantBody;
+
+	/**
+	 * Creates a converter for the provided class.
+	 *
+	 * @param model        the parsed class file
+	 * @param factory      the factory used to create symbols
+	 * @param completeType the supplier of the complete declaration of the class, or {@code null} to always extract
+	 *                     members eagerly. Members of non-exported classes are only extracted by this supplier.
+	 * @param module       the module declaring the class; the classes of the packages it does not export are not
+	 *                     exported either
+	 */
+	ClassfileTypeConverter(ClassModel model, ApiFactory factory, Supplier<TypeDecl> completeType, ModuleDecl module) {
+		this.model = model;
+		this.factory = factory;
+		this.signatures = new ClassfileSignatures(factory);
+		this.completeType = completeType;
+		this.module = module;
+		this.className = internalToFqn(model.thisClass().asInternalName());
+		this.isRecord = model.findAttribute(Attributes.record()).isPresent();
+		this.classAccess = model.flags().flagsMask() | (hasSyntheticAttribute(model) ? ACC_SYNTHETIC : 0);
+	}
+
+	/**
+	 * Converts the class and sends the resulting module or type declaration, if any, to the sink.
+	 *
+	 * @param sink the sink receiving extracted symbols
+	 */
+	void convert(ExtractorSink sink) {
+		model.findAttribute(Attributes.module()).ifPresent(module -> sink.accept(convertModule(module)));
+
+		if (shouldSkip()) {
+			return;
+		}
+
+		Set<FieldDecl> fields = new LinkedHashSet<>();
+		Set<MethodDecl> methods = new LinkedHashSet<>();
+		Set<AnnotationMethodDecl> annotationMethods = new LinkedHashSet<>();
+		Set<ConstructorDecl> constructors = new LinkedHashSet<>();
+		if (!isDeferred()) {
+			model.fields().stream()
+				.filter(field -> !isSynthetic(field.flags().flagsMask()) && !hasSyntheticAttribute(field) &&
+					isTypeMemberExported(field.flags().flagsMask()))
+				.forEach(field -> fields.add(convertField(field)));
+			model.methods().forEach(method -> convertMethod(method, methods, annotationMethods, constructors));
+		}
+
+		TypeReference<ClassDecl> superClass = null;
+		Set<TypeReference<InterfaceDecl>> implementedInterfaces = new LinkedHashSet<>();
+		List<FormalTypeParameter> formalTypeParameters = new ArrayList<>();
+		Optional<SignatureAttribute> signature = model.findAttribute(Attributes.signature());
+		if (signature.isPresent()) {
+			ClassSignature classSignature = signature.get().asClassSignature();
+			superClass = signatures.convertSignature(classSignature.superclassSignature());
+			classSignature.superinterfaceSignatures().forEach(itf ->
+				implementedInterfaces.add(signatures.convertSignature(itf)));
+			formalTypeParameters.addAll(signatures.convertTypeParameters(classSignature.typeParameters()));
+		} else {
+			if (model.superclass().isPresent()) {
+				superClass = factory.references().createTypeReference(
+					internalToFqn(model.superclass().get().asInternalName()));
+			}
+			model.interfaces().forEach(itf ->
+				implementedInterfaces.add(factory.references().createTypeReference(internalToFqn(itf.asInternalName()))));
+		}
+
+		Set<TypeReference<TypeDecl>> permittedTypes = new LinkedHashSet<>();
+		model.findAttribute(Attributes.permittedSubclasses()).ifPresent(attribute ->
+			attribute.permittedSubclasses().forEach(permitted ->
+				permittedTypes.add(factory.references().createTypeReference(internalToFqn(permitted.asInternalName())))));
+
+		Set<ElementType> targets = new LinkedHashSet<>();
+		AccessModifier visibility = convertVisibility(classAccess);
+		Set<Modifier> modifiers = convertClassModifiers(classAccess, hasEnumConstantBody);
+		Set<Annotation> anns = convertAnnotations(model, targets);
+		SourceLocation location = factory.location(sourceFile, -1);
+
+		TypeDecl type;
+		if (isAnnotation(classAccess)) {
+			type = factory.createAnnotation(className, visibility, modifiers, anns, location, fields, annotationMethods,
+				enclosingType, targets);
+		} else if (isInterface(classAccess)) {
+			type = factory.createInterface(className, visibility, modifiers, anns, location, implementedInterfaces,
+				formalTypeParameters, fields, methods, enclosingType, permittedTypes);
+		} else if (isEnum(classAccess)) {
+			type = factory.createEnum(className, visibility, modifiers, anns, location, implementedInterfaces,
+				fields, methods, enclosingType, constructors);
+		} else if (isRecord) {
+			type = factory.createRecord(className, visibility, modifiers, anns, location, implementedInterfaces,
+				formalTypeParameters, fields, methods, enclosingType, constructors);
+		} else {
+			type = factory.createClass(className, visibility, modifiers, anns, location, implementedInterfaces,
+				formalTypeParameters, fields, methods, enclosingType, superClass, constructors, permittedTypes);
+		}
+
+		if (isDeferred()) {
+			sink.accept(type, completeType);
+		} else {
+			sink.accept(type);
+		}
+	}
+
+	/**
+	 * Reads the class header attributes, merging the modifiers of nested types, and decides whether the class is
+	 * skipped: synthetic classes, {@code package-info}, {@code module-info}, non-Java classes, and anonymous or local
+	 * classes.
+	 */
+	private boolean shouldSkip() {
+		if (isSynthetic(classAccess) || className.endsWith("package-info") || className.endsWith("module-info")) {
+			return true;
+		}
+
+		// Skipping our non-Java JVM friends
+		Optional<String> source = model.findAttribute(Attributes.sourceFile())
+			.map(attribute -> attribute.sourceFile().stringValue());
+		if (source.isPresent()) {
+			if (!source.get().endsWith(".java")) {
+				return true;
+			}
+			sourceFile = Path.of(className.replace('.', '/')).resolveSibling(source.get());
+		}
+
+		Optional<List<InnerClassInfo>> innerClasses = model.findAttribute(Attributes.innerClasses())
+			.map(attribute -> attribute.classes());
+		if (innerClasses.isPresent()) {
+			// FIXME: Constant bodies are inner classes
+			hasEnumConstantBody = isEnum(classAccess) && !innerClasses.get().isEmpty();
+
+			for (InnerClassInfo inner : innerClasses.get()) {
+				if (!internalToFqn(inner.innerClass().asInternalName()).equals(className)) {
+					continue;
+				}
+
+				if (inner.outerClass().isPresent() && inner.innerName().isPresent()) {
+					// Nested/inner types
+					// Merge the kind bits (class/interface/enum/annotation) from the class header with the
+					// visibility/modifier bits from the InnerClasses entry. Records are identified by their attribute.
+					int kindBits = ACC_INTERFACE | ACC_ENUM | ACC_ANNOTATION;
+					classAccess = (inner.flagsMask() & ~kindBits) | (classAccess & kindBits);
+					enclosingType = factory.references().createTypeReference(
+						internalToFqn(inner.outerClass().get().asInternalName()));
+				} else {
+					// Anonymous/local types
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	private boolean isDeferred() {
+		return completeType != null && !mayBeExported(classAccess, className, module);
+	}
+
+	private ModuleDecl convertModule(ModuleAttribute module) {
+		Set<String> exports = new LinkedHashSet<>();
+		for (ModuleExportInfo export : module.exports()) {
+			// exportsTo correspond to qualified exports
+			if (export.exportsTo().isEmpty()) {
+				exports.add(internalToFqn(export.exportedPackage().name().stringValue()));
+			}
+		}
+		return factory.createModule(module.moduleName().name().stringValue(), exports);
+	}
+
+	private FieldDecl convertField(FieldModel field) {
+		int access = field.flags().flagsMask();
+		ITypeReference fieldType = field.findAttribute(Attributes.signature())
+			.<ITypeReference>map(signature -> signatures.convertSignature(signature.asTypeSignature()))
+			.orElseGet(() -> signatures.convertType(field.fieldTypeSymbol()));
+		SourceLocation location = factory.location(sourceFile, -1);
+		boolean compileTimeConstant = field.findAttribute(Attributes.constantValue()).isPresent() &&
+			(fieldType instanceof PrimitiveTypeReference || fieldType.equals(TypeReference.STRING));
+		return factory.createField(className + "." + field.fieldName().stringValue(), convertVisibility(access),
+			convertFieldModifiers(access), convertAnnotations(field, new LinkedHashSet<>()), location,
+			factory.references().createTypeReference(className), fieldType, compileTimeConstant);
+	}
+
+	private void convertMethod(MethodModel method, Set<MethodDecl> methods, Set<AnnotationMethodDecl> annotationMethods,
+	                           Set<ConstructorDecl> constructors) {
+		int access = method.flags().flagsMask() | (hasSyntheticAttribute(method) ? ACC_SYNTHETIC : 0);
+		String name = method.methodName().stringValue();
+		boolean exported = isTypeMemberExported(access);
+		boolean nonPrivateMethod = !"<init>".equals(name) && !"<clinit>".equals(name) && isNotPrivate(access);
+		if (isSynthetic(access) || isBridge(access) || (!exported && !nonPrivateMethod)) {
+			return;
+		}
+
+		if ("<init>".equals(name)) {
+			if (exported) {
+				constructors.add(convertConstructor(method, access));
+			}
+		} else if (isAnnotation(classAccess)) {
+			annotationMethods.add(convertAnnotationMethod(method, name));
+		} else if (nonPrivateMethod) {
+			methods.add(convertMethod(method, access, name));
+		}
+	}
+
+	private ConstructorDecl convertConstructor(MethodModel method, int access) {
+		List<ParameterDecl> parameters;
+		Set<ITypeReference> thrownExceptions;
+		List<FormalTypeParameter> typeParameters;
+
+		Optional<SignatureAttribute> signature = method.findAttribute(Attributes.signature());
+		if (signature.isPresent()) {
+			MethodSignature methodSignature = signature.get().asMethodSignature();
+			parameters = convertParameters(methodSignature);
+			typeParameters = signatures.convertTypeParameters(methodSignature.typeParameters());
+			thrownExceptions = methodSignature.throwableSignatures().isEmpty()
+				? convertThrownExceptions(method)
+				: convertThrownExceptions(methodSignature);
+		} else {
+			// Constructors of inner non-static classes take their outer class as implicit first parameter
+			List<ClassDesc> originalParams = method.methodTypeSymbol().parameterList();
+			parameters = (enclosingType != null && !isStatic(classAccess) && !originalParams.isEmpty())
+				? convertParameters(originalParams.subList(1, originalParams.size()))
+				: convertParameters(originalParams);
+			typeParameters = List.of();
+			thrownExceptions = convertThrownExceptions(method);
+		}
+
+		// Last parameter is a T[], but the API representation is T...
+		if (isVarargs(access)) {
+			parameters = convertVarargParameter(factory, parameters);
+		}
+
+		return factory.createConstructor(String.format("%s.<init>", className), convertVisibility(access),
+			convertMethodModifiers(access, classAccess), convertAnnotations(method, new LinkedHashSet<>()),
+			factory.location(sourceFile, firstLine(method)), factory.references().createTypeReference(className),
+			factory.references().createTypeReference(className), parameters, typeParameters, thrownExceptions);
+	}
+
+	private MethodDecl convertMethod(MethodModel method, int access, String name) {
+		ITypeReference returnType;
+		List<ParameterDecl> parameters;
+		List<FormalTypeParameter> typeParameters;
+		Set<ITypeReference> thrownExceptions;
+
+		Optional<SignatureAttribute> signature = method.findAttribute(Attributes.signature());
+		if (signature.isPresent()) {
+			MethodSignature methodSignature = signature.get().asMethodSignature();
+			returnType = signatures.convertSignature(methodSignature.result());
+			parameters = convertParameters(methodSignature);
+			typeParameters = signatures.convertTypeParameters(methodSignature.typeParameters());
+			thrownExceptions = methodSignature.throwableSignatures().isEmpty()
+				? convertThrownExceptions(method)
+				: convertThrownExceptions(methodSignature);
+		} else {
+			MethodTypeDesc descriptor = method.methodTypeSymbol();
+			returnType = signatures.convertType(descriptor.returnType());
+			parameters = convertParameters(descriptor.parameterList());
+			typeParameters = List.of();
+			thrownExceptions = convertThrownExceptions(method);
+		}
+
+		// Last parameter is a T[], but the API representation is T...
+		if (isVarargs(access)) {
+			parameters = convertVarargParameter(factory, parameters);
+		}
+
+		return factory.createMethod(String.format("%s.%s", className, name), convertVisibility(access),
+			convertMethodModifiers(access, classAccess), convertAnnotations(method, new LinkedHashSet<>()),
+			factory.location(sourceFile, firstLine(method)), factory.references().createTypeReference(className),
+			returnType, parameters, typeParameters, thrownExceptions);
+	}
+
+	private AnnotationMethodDecl convertAnnotationMethod(MethodModel method, String name) {
+		ITypeReference returnType = method.findAttribute(Attributes.signature())
+			.<ITypeReference>map(signature -> signatures.convertSignature(signature.asMethodSignature().result()))
+			.orElseGet(() -> signatures.convertType(method.methodTypeSymbol().returnType()));
+		boolean hasDefault = method.findAttribute(Attributes.annotationDefault()).isPresent();
+
+		return factory.createAnnotationMethod(String.format("%s.%s", className, name),
+			convertAnnotations(method, new LinkedHashSet<>()), factory.location(sourceFile, firstLine(method)),
+			factory.references().createTypeReference(className), returnType, hasDefault);
+	}
+
+	private List<ParameterDecl> convertParameters(MethodSignature signature) {
+		List<Signature> arguments = signature.arguments();
+		return IntStream.range(0, arguments.size())
+			.mapToObj(i -> factory.createParameter("p" + i, signatures.convertSignature(arguments.get(i)), false))
+			.toList();
+	}
+
+	private List<ParameterDecl> convertParameters(List<ClassDesc> paramTypes) {
+		return IntStream.range(0, paramTypes.size())
+			.mapToObj(i -> factory.createParameter("p" + i, signatures.convertType(paramTypes.get(i)), false))
+			.toList();
+	}
+
+	private Set<ITypeReference> convertThrownExceptions(MethodModel method) {
+		return method.findAttribute(Attributes.exceptions())
+			.map(attribute -> attribute.exceptions().stream()
+				.<ITypeReference>map(e -> factory.references().createTypeReference(internalToFqn(e.asInternalName())))
+				.collect(toSet()))
+			.orElseGet(Set::of);
+	}
+
+	private Set<ITypeReference> convertThrownExceptions(MethodSignature signature) {
+		return signature.throwableSignatures().stream()
+			.<ITypeReference>map(signatures::convertSignature)
+			.collect(toSet());
+	}
+
+	// Runtime-visible and runtime-invisible annotations are both part of the API
+	private Set<Annotation> convertAnnotations(AttributedElement element, Set<ElementType> targets) {
+		Stream<java.lang.classfile.Annotation> annotations = Stream.concat(
+			element.findAttribute(Attributes.runtimeVisibleAnnotations()).stream()
+				.flatMap(attribute -> attribute.annotations().stream()),
+			element.findAttribute(Attributes.runtimeInvisibleAnnotations()).stream()
+				.flatMap(attribute -> attribute.annotations().stream()));
+
+		return annotations
+			.map(annotation -> factory.createAnnotation(
+				factory.references().createTypeReference(className(annotation.classSymbol())),
+				convertAnnotationValues(annotation, targets)))
+			.collect(toSet());
+	}
+
+	private static Map<String, String> convertAnnotationValues(java.lang.classfile.Annotation annotation,
+	                                                           Set<ElementType> targets) {
+		boolean isTarget = TARGET_DESCRIPTOR.equals(annotation.className().stringValue());
+		Map<String, String> values = new HashMap<>();
+		for (AnnotationElement element : annotation.elements()) {
+			String name = element.name().stringValue();
+			switch (element.value()) {
+				case AnnotationValue.OfArray array -> {
+					values.put(name, "{}");
+					if (isTarget && "value".equals(name)) {
+						array.values().forEach(value -> addTarget(value, targets));
+					}
+				}
+				case AnnotationValue.OfEnum enumValue -> {
+					values.put(name, className(enumValue.classSymbol()) + "." + enumValue.constantName().stringValue());
+					addTarget(enumValue, targets);
+				}
+				case AnnotationValue.OfClass classValue -> values.put(name, className(classValue.classSymbol()));
+				// Nested annotation: only its type is stored
+				case AnnotationValue.OfAnnotation a -> values.put(name, "@" + className(a.annotation().classSymbol()));
+				case AnnotationValue.OfConstant constant -> values.put(name, formatConstant(constant));
+			}
+		}
+		return values;
+	}
+
+	private static void addTarget(AnnotationValue value, Set<ElementType> targets) {
+		if (value instanceof AnnotationValue.OfEnum enumValue &&
+			ELEMENT_TYPE_DESCRIPTOR.equals(enumValue.className().stringValue())) {
+			targets.add(ElementType.valueOf(enumValue.constantName().stringValue()));
+		}
+	}
+
+	private static String formatConstant(AnnotationValue.OfConstant constant) {
+		return switch (constant) {
+			case AnnotationValue.OfString s -> s.stringValue();
+			case AnnotationValue.OfInt i -> String.valueOf(i.intValue());
+			case AnnotationValue.OfLong l -> String.valueOf(l.longValue());
+			case AnnotationValue.OfFloat f -> String.valueOf(f.floatValue());
+			case AnnotationValue.OfDouble d -> String.valueOf(d.doubleValue());
+			case AnnotationValue.OfShort s -> String.valueOf(s.shortValue());
+			case AnnotationValue.OfByte b -> String.valueOf(b.byteValue());
+			case AnnotationValue.OfChar c -> String.valueOf(c.charValue());
+			case AnnotationValue.OfBoolean b -> String.valueOf(b.booleanValue());
+		};
+	}
+
+	private static int firstLine(MethodModel method) {
+		return method.findAttribute(Attributes.code())
+			.map((CodeAttribute code) -> code.findAttributes(Attributes.lineNumberTable()).stream()
+				.map(LineNumberTableAttribute::lineNumbers)
+				.flatMap(List::stream)
+				.mapToInt(LineNumberInfo::lineNumber)
+				.min()
+				.orElse(-1))
+			.orElse(-1);
+	}
+
+	// The deprecated Synthetic attribute is equivalent to the ACC_SYNTHETIC flag
+	private static boolean hasSyntheticAttribute(AttributedElement element) {
+		return element.findAttribute(Attributes.synthetic()).isPresent();
+	}
+}
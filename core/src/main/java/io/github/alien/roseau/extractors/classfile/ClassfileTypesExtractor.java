@@ -0,0 +1,186 @@
+package io.github.alien.roseau.extractors.classfile;
+
+import com.google.common.base.Preconditions;
+import io.github.alien.roseau.Library;
+import io.github.alien.roseau.RoseauException;
+import io.github.alien.roseau.api.model.DeferredType;
+import io.github.alien.roseau.api.model.LibraryTypes;
+import io.github.alien.roseau.api.model.ModuleDecl;
+import io.github.alien.roseau.api.model.TypeDecl;
+import io.github.alien.roseau.api.model.factory.ApiFactory;
+import io.github.alien.roseau.extractors.ClassDirectoryFiles;
+import io.github.alien.roseau.extractors.ExtractorSink;
+import io.github.alien.roseau.extractors.JarClassFiles;
+import io.github.alien.roseau.extractors.TypesExtractor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.classfile.ClassFile;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * An experimental {@link TypesExtractor} built on the JDK's {@link java.lang.classfile} API rather than ASM. It
+ * produces the same API model as the ASM-based extractor and is selected with {@code ExtractorType.CLASSFILE}.
+ */
+public class ClassfileTypesExtractor implements TypesExtractor {
+	private final ApiFactory factory;
+
+	// Stack maps and debug elements are never inspected, attributes are parsed lazily
+	private static final ClassFile CLASS_FILE = ClassFile.of(ClassFile.StackMapsOption.DROP_STACK_MAPS,
+		ClassFile.DebugElementsOption.DROP_DEBUG);
+	private static final Logger LOGGER = LogManager.getLogger(ClassfileTypesExtractor.class);
+
+	public ClassfileTypesExtractor(ApiFactory factory) {
+		this.factory = Preconditions.checkNotNull(factory);
+	}
+
+	@Override
+	public LibraryTypes extractTypes(Library library) {
+		Preconditions.checkArgument(canExtract(library));
+		if (library.isClasses()) {
+			return extractTypes(library, ClassDirectoryFiles.classFiles(library.getLocation()));
+		}
+
+		try (JarFile jar = JarClassFiles.open(library.getLocation())) {
+			return extractTypes(library, jar);
+		} catch (IOException e) {
+			throw new RoseauException("Failed to process JAR file", e);
+		}
+	}
+
+	public boolean canExtract(Library library) {
+		return library != null && (library.isJar() || library.isClasses());
+	}
+
+	private LibraryTypes extractTypes(Library library, JarFile jar) throws IOException {
+		ExtractorSink sink = new ExtractorSink(jar.size() << 1);
+		ModuleDecl module = readModule(JarClassFiles.moduleInfo(jar));
+		JarClassFiles.classEntries(jar)
+			.filter(entry -> JarClassFiles.isInScope(library, entry))
+			.parallel()
+			.forEach(entry -> processEntry(jar, entry, sink, module));
+
+		return toLibraryTypes(library, sink);
+	}
+
+	/**
+	 * Extracts the {@link LibraryTypes} stored in the provided class files of a class directory. When the library is
+	 * {@linkplain Library#isScoped() scoped}, only the classes of in-scope packages and the module declaration are read.
+	 *
+	 * @param library    the library whose location is the class directory
+	 * @param classFiles the class files to analyze
+	 * @return the extracted {@link LibraryTypes}
+	 */
+	public LibraryTypes extractTypes(Library library, Collection<Path> classFiles) {
+		ExtractorSink sink = new ExtractorSink(classFiles.size() << 1);
+		ModuleDecl module = readModule(library.getLocation());
+		classFiles.parallelStream()
+			.filter(file -> ClassDirectoryFiles.isInScope(library, file))
+			.forEach(file -> processFile(file, sink, module));
+
+		return toLibraryTypes(library, sink);
+	}
+
+	private static LibraryTypes toLibraryTypes(Library library, ExtractorSink sink) {
+		Set<TypeDecl> types = sink.getTypes();
+		Set<ModuleDecl> modules = sink.getModules();
+		return switch (modules.size()) {
+			case 0 -> new LibraryTypes(library, ModuleDecl.UNNAMED_MODULE, types, sink.getDeferredTypes());
+			case 1 -> new LibraryTypes(library, modules.iterator().next(), types, sink.getDeferredTypes());
+			default -> throw new RoseauException("%s contains multiple module declarations: %s".formatted(library, modules));
+		};
+	}
+
+	/**
+	 * Extracts the type stored in the provided JAR entry. The members of non-exported types are only extracted, from the
+	 * retained class bytes, when their complete declaration is first requested (see {@link LibraryTypes#findType}).
+	 *
+	 * @param jar   the JAR file
+	 * @param entry the class file entry
+	 * @param sink  the sink receiving the extracted type
+	 */
+	public void processEntry(JarFile jar, JarEntry entry, ExtractorSink sink) {
+		processEntry(jar, entry, sink, ModuleDecl.UNNAMED_MODULE);
+	}
+
+	/**
+	 * Extracts the type stored in the provided JAR entry, also deferring the members of the public types of the packages
+	 * the library's module does not export.
+	 *
+	 * @param jar    the JAR file
+	 * @param entry  the class file entry
+	 * @param sink   the sink receiving the extracted type
+	 * @param module the module of the library
+	 */
+	public void processEntry(JarFile jar, JarEntry entry, ExtractorSink sink, ModuleDecl module) {
+		try (InputStream is = jar.getInputStream(entry)) {
+			byte[] bytes = is.readAllBytes();
+			DeferredType completeType = DeferredType.ofClassFile(bytes, this::extractType);
+			new ClassfileTypeConverter(CLASS_FILE.parse(bytes), factory, completeType, module).convert(sink);
+		} catch (IOException | IllegalArgumentException e) {
+			LOGGER.error("Error processing JAR entry {}", entry.getName(), e);
+		}
+	}
+
+	/**
+	 * Extracts the type stored in the provided class file of a class directory, deferring the members of non-exported
+	 * types as in {@link #processEntry(JarFile, JarEntry, ExtractorSink)}.
+	 *
+	 * @param file the class file
+	 * @param sink the sink receiving the extracted type
+	 */
+	public void processFile(Path file, ExtractorSink sink) {
+		processFile(file, sink, ModuleDecl.UNNAMED_MODULE);
+	}
+
+	/**
+	 * Extracts the type stored in the provided class file of a class directory, deferring the members of non-exported
+	 * types as in {@link #processEntry(JarFile, JarEntry, ExtractorSink, ModuleDecl)}.
+	 *
+	 * @param file   the class file
+	 * @param sink   the sink receiving the extracted type
+	 * @param module the module of the library
+	 */
+	public void processFile(Path file, ExtractorSink sink, ModuleDecl module) {
+		try {
+			byte[] bytes = ClassDirectoryFiles.read(file);
+			DeferredType completeType = DeferredType.ofClassFile(bytes, this::extractType);
+			new ClassfileTypeConverter(CLASS_FILE.parse(bytes), factory, completeType, module).convert(sink);
+		} catch (IOException | IllegalArgumentException e) {
+			LOGGER.error("Error processing class file {}", file, e);
+		}
+	}
+
+	public void processEntry(byte[] bytes, ExtractorSink sink) {
+		new ClassfileTypeConverter(CLASS_FILE.parse(bytes), factory, null, ModuleDecl.UNNAMED_MODULE).convert(sink);
+	}
+
+	// The module declaration is read upfront so that the public classes of non-exported packages are deferred as well
+	private ModuleDecl readModule(Optional<byte[]> moduleInfo) {
+		ExtractorSink sink = new ExtractorSink(1);
+		moduleInfo.ifPresent(bytes -> processEntry(bytes, sink));
+		return sink.getModules().stream().findFirst().orElse(ModuleDecl.UNNAMED_MODULE);
+	}
+
+	private ModuleDecl readModule(Path classDirectory) {
+		try {
+			return readModule(ClassDirectoryFiles.moduleInfo(classDirectory));
+		} catch (IOException e) {
+			LOGGER.error("Error reading the module declaration of {}", classDirectory, e);
+			return ModuleDecl.UNNAMED_MODULE;
+		}
+	}
+
+	private TypeDecl extractType(byte[] bytes) {
+		ExtractorSink sink = new ExtractorSink(1);
+		processEntry(bytes, sink);
+		return sink.getTypes().iterator().next();
+	}
+}
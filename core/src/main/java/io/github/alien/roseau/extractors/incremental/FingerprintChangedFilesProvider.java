@@ -0,0 +1,105 @@
+package io.github.alien.roseau.extractors.incremental;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Sets;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A provider of {@link ChangedFiles} that compares the last-modified time and size of a set of files with the
+ * fingerprints recorded by a previous scan of the same directory. Contrary to {@link HashingChangedFilesProvider}, the
+ * content of files is never read; contrary to {@link TimestampChangedFilesProvider}, files restored with an older
+ * timestamp are also detected as updated. The fingerprints of the current scan ({@link #getFingerprints()}) serve as
+ * reference for the next one.
+ */
+public class FingerprintChangedFilesProvider implements ChangedFilesProvider {
+	private final Map<Path, Fingerprint> previousFingerprints;
+	private final Map<Path, Fingerprint> fingerprints;
+
+	/**
+	 * The fingerprint of a file.
+	 *
+	 * @param lastModified the last-modified time of the file, in milliseconds since the epoch
+	 * @param size         the size of the file, in bytes
+	 */
+	public record Fingerprint(long lastModified, long size) {
+		/**
+		 * Computes the fingerprint of the provided file.
+		 *
+		 * @param file the file
+		 * @return the fingerprint of the file, or an empty optional if its attributes cannot be read
+		 */
+		public static Optional<Fingerprint> of(Path file) {
+			try {
+				BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+				return Optional.of(new Fingerprint(attributes.lastModifiedTime().toMillis(), attributes.size()));
+			} catch (IOException _) {
+				return Optional.empty();
+			}
+		}
+	}
+
+	/**
+	 * Creates a new provider comparing the provided files with previously recorded fingerprints.
+	 *
+	 * @param root                 the directory containing the files
+	 * @param files                the current files, absolute or relative to {@code root}
+	 * @param previousFingerprints the fingerprints recorded by the previous scan, by path relative to {@code root};
+	 *                             empty if every file is new
+	 * @throws NullPointerException if any argument is null
+	 */
+	public FingerprintChangedFilesProvider(Path root, Collection<Path> files,
+	                                       Map<Path, Fingerprint> previousFingerprints) {
+		Preconditions.checkNotNull(root);
+		Preconditions.checkNotNull(files);
+		this.previousFingerprints = Map.copyOf(Preconditions.checkNotNull(previousFingerprints));
+		this.fingerprints = fingerprint(root, files);
+	}
+
+	/**
+	 * Computes the fingerprints of the provided files, in parallel. Files whose attributes cannot be read are ignored.
+	 *
+	 * @param root  the directory containing the files
+	 * @param files the files, absolute or relative to {@code root}
+	 * @return the fingerprints, by path relative to {@code root}
+	 */
+	public static Map<Path, Fingerprint> fingerprint(Path root, Collection<Path> files) {
+		Path base = root.toAbsolutePath();
+		return files.parallelStream()
+			.<Map.Entry<Path, Fingerprint>>mapMulti((file, downstream) -> {
+				Path absolute = base.resolve(file);
+				Fingerprint.of(absolute).ifPresent(fp -> downstream.accept(Map.entry(base.relativize(absolute), fp)));
+			})
+			.collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+	}
+
+	/**
+	 * The fingerprints of the current files, to be used as reference for the next scan.
+	 *
+	 * @return the fingerprints, by path relative to the root directory
+	 */
+	public Map<Path, Fingerprint> getFingerprints() {
+		return fingerprints;
+	}
+
+	@Override
+	public ChangedFiles getChangedFiles() {
+		Set<Path> deletedFiles = Sets.difference(previousFingerprints.keySet(), fingerprints.keySet());
+		Set<Path> createdFiles = Sets.difference(fingerprints.keySet(), previousFingerprints.keySet());
+		Set<Path> updatedFiles = fingerprints.entrySet().stream()
+			.filter(e -> previousFingerprints.containsKey(e.getKey()) &&
+				!previousFingerprints.get(e.getKey()).equals(e.getValue()))
+			.map(Map.Entry::getKey)
+			.collect(Collectors.toUnmodifiableSet());
+
+		return new ChangedFiles(updatedFiles, deletedFiles, createdFiles);
+	}
+}
@@ -0,0 +1,202 @@
+package io.github.alien.roseau.extractors.incremental;
+
+import com.google.common.base.Preconditions;
+import io.github.alien.roseau.RoseauException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * An index of file hashes keyed by the path, size, and last-modified time of files. Files whose size and
+ * last-modified time did not change since they were last hashed are not read again, so that scanning a tree that
+ * barely changed costs time proportional to the number of changed files. The index can be persisted on disk and
+ * reused across runs; an index must always be used with the same {@link HashFunction}.
+ * <p>
+ * Files modified less than {@link #RACY_WINDOW_MS} before being hashed are not indexed: they could be modified again
+ * within the resolution of the file system's timestamps without their fingerprint changing.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class FingerprintIndex {
+	private final Path indexFile;
+	private final Map<String, Entry> entries;
+	private volatile boolean dirty;
+
+	/**
+	 * The delay after which a file's last-modified time is trusted to reflect its last modification.
+	 */
+	static final long RACY_WINDOW_MS = 2_000L;
+	private static final int MAGIC = 0x524F4649; // "ROFI"
+	private static final int VERSION = 1;
+	private static final Logger LOGGER = LogManager.getLogger(FingerprintIndex.class);
+
+	private record Entry(long size, long lastModified, long hash) {
+	}
+
+	private FingerprintIndex(Path indexFile, Map<String, Entry> entries) {
+		this.indexFile = indexFile;
+		this.entries = entries;
+	}
+
+	/**
+	 * Creates an empty index that is never persisted.
+	 *
+	 * @return the new index
+	 */
+	public static FingerprintIndex inMemory() {
+		return new FingerprintIndex(null, new ConcurrentHashMap<>());
+	}
+
+	/**
+	 * Loads the index persisted in the provided file. An empty index is returned if the file does not exist or cannot
+	 * be read; in both cases, {@link #save()} (re)creates it.
+	 *
+	 * @param indexFile the file the index is persisted in
+	 * @return the loaded index
+	 * @throws NullPointerException if {@code indexFile} is null
+	 */
+	public static FingerprintIndex load(Path indexFile) {
+		Preconditions.checkNotNull(indexFile);
+		Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				LOGGER.warn("Ignoring fingerprint index {} with unknown format", indexFile);
+				return new FingerprintIndex(indexFile, entries);
+			}
+			int size = in.readInt();
+			for (int i = 0; i < size; i++) {
+				entries.put(in.readUTF(), new Entry(in.readLong(), in.readLong(), in.readLong()));
+			}
+		} catch (NoSuchFileException _) {
+			// First run
+		} catch (IOException e) {
+			LOGGER.warn("Ignoring unreadable fingerprint index {}: {}", indexFile, e.getMessage());
+			entries.clear();
+		}
+
+		return new FingerprintIndex(indexFile, entries);
+	}
+
+	/**
+	 * Returns the hash of the provided file, computing it with the hash function only if the file's size or
+	 * last-modified time changed since it was last indexed.
+	 *
+	 * @param file         the file to hash
+	 * @param attributes   the file's attributes, e.g., as read while walking a file tree
+	 * @param hashFunction the hash function
+	 * @return the hash of the file, or {@code -1L} if it cannot be computed
+	 */
+	public long hash(Path file, BasicFileAttributes attributes, HashFunction hashFunction) {
+		String key = key(file);
+		long size = attributes.size();
+		long lastModified = attributes.lastModifiedTime().toMillis();
+
+		Entry entry = entries.get(key);
+		if (entry != null && entry.size() == size && entry.lastModified() == lastModified) {
+			return entry.hash();
+		}
+
+		long hash = hashFunction.hash(file);
+		if (hash != -1L && System.currentTimeMillis() - lastModified >= RACY_WINDOW_MS) {
+			entries.put(key, new Entry(size, lastModified, hash));
+			dirty = true;
+		} else if (entry != null) {
+			entries.remove(key);
+			dirty = true;
+		}
+		return hash;
+	}
+
+	/**
+	 * Returns the hash of the provided file, reading its attributes first.
+	 *
+	 * @param file         the file to hash
+	 * @param hashFunction the hash function
+	 * @return the hash of the file, or {@code -1L} if it cannot be computed
+	 * @see #hash(Path, BasicFileAttributes, HashFunction)
+	 */
+	public long hash(Path file, HashFunction hashFunction) {
+		try {
+			return hash(file, Files.readAttributes(file, BasicFileAttributes.class), hashFunction);
+		} catch (IOException _) {
+			return -1L;
+		}
+	}
+
+	/**
+	 * Forgets the indexed files located in the provided directory that are not part of the provided files, e.g.,
+	 * because they were deleted since they were indexed.
+	 *
+	 * @param directory the scanned directory
+	 * @param files     the files currently in the directory
+	 */
+	public void retain(Path directory, Set<Path> files) {
+		String prefix = key(directory) + directory.getFileSystem().getSeparator();
+		Set<String> keys = files.stream().map(FingerprintIndex::key).collect(Collectors.toSet());
+		if (entries.keySet().removeIf(key -> key.startsWith(prefix) && !keys.contains(key))) {
+			dirty = true;
+		}
+	}
+
+	/**
+	 * The number of indexed files.
+	 *
+	 * @return the size of the index
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Persists the index if it has been loaded from a file and changed since.
+	 *
+	 * @throws RoseauException if the index cannot be written
+	 */
+	public synchronized void save() {
+		if (indexFile == null || !dirty) {
+			return;
+		}
+
+		try {
+			Path parent = indexFile.toAbsolutePath().getParent();
+			Files.createDirectories(parent);
+			Path tmp = Files.createTempFile(parent, indexFile.getFileName().toString(), ".tmp");
+			Map<String, Entry> snapshot = Map.copyOf(entries);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(snapshot.size());
+				for (Map.Entry<String, Entry> e : snapshot.entrySet()) {
+					out.writeUTF(e.getKey());
+					out.writeLong(e.getValue().size());
+					out.writeLong(e.getValue().lastModified());
+					out.writeLong(e.getValue().hash());
+				}
+			}
+			Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			dirty = false;
+			LOGGER.debug("Saved {} fingerprints to {}", snapshot.size(), indexFile);
+		} catch (IOException e) {
+			throw new RoseauException("Failed to save fingerprint index " + indexFile, e);
+		}
+	}
+
+	private static String key(Path file) {
+		return file.toAbsolutePath().normalize().toString();
+	}
+}
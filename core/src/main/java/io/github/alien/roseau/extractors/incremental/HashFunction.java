@@ -3,8 +3,11 @@ package io.github.alien.roseau.extractors.incremental;
 import net.openhft.hashing.LongHashFunction;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 /**
  * An interface for file hash functions. Implementations of this interface compute hash values for files, enabling the
@@ -22,12 +25,14 @@ public interface HashFunction {
 
 	/**
 	 * A default implementation that uses the non-cryptographic xxHash algorithm. Thus, there is a (very unlikely) chance
-	 * of collisions.
+	 * of collisions. Files are memory-mapped rather than copied to the heap, and unmapped as soon as they are hashed.
 	 */
 	HashFunction XXHASH = file -> {
-		try {
-			return LongHashFunction.xx().hashBytes(Files.readAllBytes(file));
-		} catch (IOException e) {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		     Arena arena = Arena.ofConfined()) {
+			MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size(), arena);
+			return LongHashFunction.xx().hashBytes(segment.asByteBuffer());
+		} catch (IOException | UnsupportedOperationException e) {
 			return -1L;
 		}
 	};
@@ -1,6 +1,9 @@
 package io.github.alien.roseau.extractors.incremental;
 
+import com.google.common.base.Preconditions;
 import io.github.alien.roseau.RoseauException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
 import java.nio.file.FileVisitResult;
@@ -20,14 +23,36 @@ import java.util.stream.Collectors;
 
 /**
  * A provider that identifies changes (updates, deletions, and creations) between two directories containing .java
- * files. The comparison is performed using hash values computed via the supplied {@link HashFunction}.
+ * files. The comparison is performed using hash values computed via the supplied {@link HashFunction}. Hashes are
+ * looked up in a {@link FingerprintIndex} first, so that only the files whose size or last-modified time changed since
+ * the previous scan are read again; a persistent index makes repeated comparisons against the same baseline tree cost
+ * time proportional to the change set.
  */
 public class HashingChangedFilesProvider {
 	private final HashFunction hashFunction;
+	private final FingerprintIndex index;
 	private static final long HASH_ERROR = -1L;
+	private static final Logger LOGGER = LogManager.getLogger(HashingChangedFilesProvider.class);
 
+	/**
+	 * Creates a provider hashing every file on each call.
+	 *
+	 * @param hashFunction the hash function
+	 */
 	public HashingChangedFilesProvider(HashFunction hashFunction) {
-		this.hashFunction = hashFunction;
+		this(hashFunction, FingerprintIndex.inMemory());
+	}
+
+	/**
+	 * Creates a provider reusing the hashes recorded in the provided index, and saving it after each call. Failing to
+	 * save the index is logged and does not fail the call.
+	 *
+	 * @param hashFunction the hash function
+	 * @param index        the index of previously computed hashes
+	 */
+	public HashingChangedFilesProvider(HashFunction hashFunction, FingerprintIndex index) {
+		this.hashFunction = Preconditions.checkNotNull(hashFunction);
+		this.index = Preconditions.checkNotNull(index);
 	}
 
 	/**
@@ -48,6 +73,7 @@ public class HashingChangedFilesProvider {
 			Future<Map<Path, Long>> rightFuture = virtualExecutor.submit(() -> scanJavaFiles(rightDirectory, virtualExecutor));
 			Map<Path, Long> leftHashes = leftFuture.get();
 			Map<Path, Long> rightHashes = rightFuture.get();
+			saveIndex();
 
 			leftHashes.forEach((file, leftHash) -> {
 				Long rightHash = rightHashes.remove(file);
@@ -73,11 +99,12 @@ public class HashingChangedFilesProvider {
 			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
 				Path relative = root.relativize(file);
 				if (relative.toString().endsWith(".java")) {
-					futures.put(relative, executor.submit(() -> hashFunction.hash(file)));
+					futures.put(relative, executor.submit(() -> index.hash(file, attrs, hashFunction)));
 				}
 				return FileVisitResult.CONTINUE;
 			}
 		});
+		index.retain(root, futures.keySet().stream().map(root::resolve).collect(Collectors.toSet()));
 
 		return futures.entrySet().stream().collect(Collectors.toMap(
 			Map.Entry::getKey,
@@ -91,4 +118,12 @@ public class HashingChangedFilesProvider {
 			}
 		));
 	}
+
+	private void saveIndex() {
+		try {
+			index.save();
+		} catch (RoseauException e) {
+			LOGGER.warn(e.getMessage());
+		}
+	}
 }
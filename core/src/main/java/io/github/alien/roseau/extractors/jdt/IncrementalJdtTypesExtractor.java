@@ -3,30 +3,45 @@ package io.github.alien.roseau.extractors.jdt;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Sets;
 import io.github.alien.roseau.Library;
+import io.github.alien.roseau.RoseauException;
 import io.github.alien.roseau.api.model.LibraryTypes;
-import io.github.alien.roseau.api.model.TypeDecl;
+import io.github.alien.roseau.api.model.ModuleDecl;
 import io.github.alien.roseau.extractors.incremental.ChangedFiles;
 import io.github.alien.roseau.extractors.incremental.IncrementalTypesExtractor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * A JDT-based incremental {@link LibraryTypes} extractor.
+ * A JDT-based incremental {@link LibraryTypes} extractor, for source directories and source archives. Changed files are
+ * relative to the library's source root.
  * <br>
  * This implementation:
  * <ul>
  *   <li>Returns the previous API if no file has changed</li>
  *   <li>Discards deleted symbols</li>
- *   <li>Reparses changed symbols</li>
+ *   <li>Reparses changed symbols, and the symbols of the files that depend on them, transitively</li>
  *   <li>Parses new files to extract new symbols</li>
+ *   <li>Refreshes the module declaration</li>
  * </ul>
+ * Dependencies are read from the {@link LibraryTypes#getFileReferences()} recorded by {@link JdtTypesExtractor}:
+ * a file depends on a changed file if it refers to one of the top-level types the changed file declared, or may now
+ * declare. When they are unknown, e.g., for deserialized library types, the whole library is parsed again.
  */
 public final class IncrementalJdtTypesExtractor implements IncrementalTypesExtractor {
 	private final JdtTypesExtractor extractor;
 
+	private static final Path MODULE_INFO = Path.of("module-info.java");
+	private static final Logger LOGGER = LogManager.getLogger(IncrementalJdtTypesExtractor.class);
+
 	public IncrementalJdtTypesExtractor(JdtTypesExtractor extractor) {
 		this.extractor = Preconditions.checkNotNull(extractor);
 	}
@@ -42,26 +57,123 @@ public final class IncrementalJdtTypesExtractor implements IncrementalTypesExtra
 			return previousTypes;
 		}
 
-		// Collect types that should be discarded from the previous API
-		Set<Path> discarded = Sets.union(changedFiles.deletedFiles(),
-			changedFiles.updatedFiles());
+		// Without a reference graph, we cannot tell which unchanged files are affected
+		if (previousTypes.getFileReferences().isEmpty() && !previousTypes.getTypeHeaders().isEmpty()) {
+			LOGGER.debug("No file references recorded for {}; parsing the whole library", previousTypes.getLibrary());
+			return extractor.extractTypes(newVersion);
+		}
+
+		// Collect the files whose types should be discarded from the previous API
+		Set<Path> dependents = dependents(previousTypes, changedFiles);
+		Set<Path> discarded = Sets.union(Sets.union(changedFiles.deletedFiles(), changedFiles.updatedFiles()), dependents);
 
 		// Collect files to be parsed
-		Set<Path> filesToParse = Sets.union(changedFiles.updatedFiles(), changedFiles.createdFiles()).stream()
-			.map(newVersion.getLocation()::resolve)
+		Set<Path> filesToParse = Stream.of(changedFiles.updatedFiles(), changedFiles.createdFiles(), dependents)
+			.flatMap(Set::stream)
+			.filter(file -> !changedFiles.deletedFiles().contains(file))
+			.filter(file -> JdtTypesExtractor.isInScope(newVersion, file))
 			.collect(Collectors.toSet());
+		LOGGER.debug("Reparsing {} files, including {} dependents", filesToParse.size(), dependents.size());
+
+		// Parse, collect, and merge the updated files
+		JdtTypesExtractor.ParsingResult parsed = newVersion.isSourcesJar()
+			? extractor.parseArchiveTypes(newVersion, filesToParse::contains)
+			: extractor.parseTypes(newVersion, filesToParse.stream()
+				.map(newVersion.getLocation()::resolve)
+				.collect(Collectors.toSet()));
+
+		return previousTypes.withLibrary(newVersion).withFiles(updatedModule(previousTypes, changedFiles, parsed),
+			Sets.union(discarded, filesToParse), parsed.types(), parsed.fileReferences());
+	}
+
+	/**
+	 * Replaces the types of the provided compilation units with those parsed from their in-memory contents, e.g.,
+	 * unsaved editor buffers. As in {@link #incrementalUpdate(LibraryTypes, Library, ChangedFiles)}, the files that
+	 * transitively depend on these units are parsed again too, from their in-memory contents if they have any, and from
+	 * the library otherwise. The cost of an update is thus proportional to the size of the provided units and their
+	 * dependents.
+	 *
+	 * @param previousTypes the previously extracted types of a source directory or source archive
+	 * @param sources       the contents of the updated units, by path relative to the library's location
+	 * @param buffers       the in-memory contents of other units, e.g., the other unsaved editor buffers, by path
+	 *                      relative to the library's location
+	 * @return the updated library types
+	 * @throws RoseauException if the updated units cannot be parsed or redeclare existing types
+	 */
+	public LibraryTypes updateSources(LibraryTypes previousTypes, Map<Path, String> sources,
+	                                  Map<Path, String> buffers) {
+		Preconditions.checkNotNull(previousTypes);
+		Preconditions.checkNotNull(sources);
+		Preconditions.checkNotNull(buffers);
+		Library library = previousTypes.getLibrary();
+		Preconditions.checkArgument(library.isSources() || library.isSourcesJar(),
+			"In-memory sources require a source directory or source archive: %s", library);
+
+		Map<Path, String> toParse = sources.entrySet().stream()
+			.filter(e -> e.getKey().toString().endsWith(".java") && !e.getKey().endsWith("package-info.java"))
+			.filter(e -> JdtTypesExtractor.isInScope(library, e.getKey()))
+			.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+		if (toParse.isEmpty()) {
+			return previousTypes;
+		}
+
+		ChangedFiles changedFiles = new ChangedFiles(toParse.keySet(), Set.of(), Set.of());
+		Set<Path> dependents = dependents(previousTypes, changedFiles);
+		Map<Path, String> units = new HashMap<>(toParse);
+		Set<Path> unbuffered = new HashSet<>();
+		dependents.stream()
+			.filter(file -> JdtTypesExtractor.isInScope(library, file))
+			.forEach(file -> {
+				if (buffers.containsKey(file)) {
+					units.put(file, buffers.get(file));
+				} else {
+					unbuffered.add(file);
+				}
+			});
+		units.putAll(JdtTypesExtractor.readSources(library, unbuffered));
+		LOGGER.debug("Reparsing {} units, including {} dependents", units.size(), dependents.size());
+
+		JdtTypesExtractor.ParsingResult parsed = extractor.parseSources(library, units);
+		return previousTypes.withFiles(updatedModule(previousTypes, changedFiles, parsed),
+			Sets.union(toParse.keySet(), dependents), parsed.types(), parsed.fileReferences());
+	}
 
-		Set<TypeDecl> unchanged = previousTypes.getAllTypes().stream()
-			.filter(t -> !discarded.contains(t.getLocation().file()))
+	/**
+	 * Computes the unchanged files that transitively depend on the changed ones.
+	 */
+	private static Set<Path> dependents(LibraryTypes previousTypes, ChangedFiles changedFiles) {
+		Set<Path> changed = Stream.of(changedFiles.updatedFiles(), changedFiles.deletedFiles(),
+				changedFiles.createdFiles())
+			.flatMap(Set::stream)
+			.collect(Collectors.toSet());
+		// Created and updated files may declare new types, named after the file
+		Set<String> changedTypes = changed.stream()
+			.flatMap(file -> Stream.concat(
+				previousTypes.getFileTypes(file).stream().map(LibraryTypes::topLevelName),
+				Stream.of(fileTypeName(file))))
 			.collect(Collectors.toSet());
 
-		// Parse, collect, and merge the updated files
-		Set<TypeDecl> newTypeDecls = Stream.concat(
-			unchanged.stream(),
-			extractor.parseTypes(newVersion, filesToParse).types().stream()
-		).collect(Collectors.toSet());
+		return Sets.difference(previousTypes.getDependentFiles(changedTypes), changed).immutableCopy();
+	}
+
+	private static ModuleDecl updatedModule(LibraryTypes previousTypes, ChangedFiles changedFiles,
+	                                        JdtTypesExtractor.ParsingResult parsed) {
+		if (changedFiles.deletedFiles().contains(MODULE_INFO)) {
+			return ModuleDecl.UNNAMED_MODULE;
+		}
+
+		return switch (parsed.modules().size()) {
+			case 0 -> previousTypes.getModule();
+			case 1 -> parsed.modules().iterator().next();
+			default -> throw new RoseauException("%s contains multiple module declarations: %s".formatted(
+				previousTypes.getLibrary(), parsed.modules()));
+		};
+	}
 
-		// FIXME: the module declaration might have changed between the two versions
-		return new LibraryTypes(newVersion, previousTypes.getModule(), newTypeDecls);
+	private static String fileTypeName(Path file) {
+		String name = StreamSupport.stream(file.spliterator(), false)
+			.map(Path::toString)
+			.collect(Collectors.joining("."));
+		return name.endsWith(".java") ? name.substring(0, name.length() - ".java".length()) : name;
 	}
 }
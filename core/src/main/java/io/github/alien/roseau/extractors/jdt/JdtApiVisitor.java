@@ -500,6 +500,8 @@ final class JdtApiVisitor extends ASTVisitor {
 			case IVariableBinding varBinding -> makeMemberFqn(varBinding.getDeclaringClass(), varBinding);
 			// Class literal
 			case ITypeBinding typeBinding -> makeFqn(typeBinding);
+			// Nested annotation: only its type is stored
+			case IAnnotationBinding annotationBinding -> "@" + makeFqn(annotationBinding.getAnnotationType());
 			default -> value.toString();
 		};
 	}
@@ -0,0 +1,140 @@
+package io.github.alien.roseau.extractors.jdt;
+
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IBinding;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.eclipse.jdt.core.dom.ImportDeclaration;
+import org.eclipse.jdt.core.dom.NameQualifiedType;
+import org.eclipse.jdt.core.dom.QualifiedName;
+import org.eclipse.jdt.core.dom.QualifiedType;
+import org.eclipse.jdt.core.dom.SimpleName;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the top-level types a compilation unit depends on: the types it names, and the types declaring the fields
+ * and methods it names (e.g., constants in field initializers or annotation values). As method bodies are not parsed,
+ * these are the dependencies of the unit's API. Unresolved type names are recorded under every qualified name they may
+ * resolve to once the missing type is created: in the unit's package, or in any package imported on demand. Likewise,
+ * types named by a simple name that no single-type import covers are also recorded under the names of the types that
+ * would shadow them if created, so that creating such a type invalidates the unit.
+ */
+final class JdtReferencesVisitor extends ASTVisitor {
+	private final String packageName;
+	private final List<String> onDemandImports;
+	private final Set<String> singleTypeImports;
+	private final Set<String> references = new HashSet<>();
+
+	JdtReferencesVisitor(CompilationUnit cu) {
+		this.packageName = Optional.ofNullable(cu.getPackage()).map(p -> p.getName().getFullyQualifiedName()).orElse("");
+		this.onDemandImports = ((List<?>) cu.imports()).stream()
+			.map(ImportDeclaration.class::cast)
+			.filter(ImportDeclaration::isOnDemand)
+			.map(id -> id.getName().getFullyQualifiedName())
+			.toList();
+		this.singleTypeImports = ((List<?>) cu.imports()).stream()
+			.map(ImportDeclaration.class::cast)
+			.filter(id -> !id.isOnDemand() && !id.isStatic())
+			.map(id -> id.getName().isQualifiedName()
+				? ((QualifiedName) id.getName()).getName().getIdentifier()
+				: id.getName().getFullyQualifiedName())
+			.collect(Collectors.toSet());
+	}
+
+	/**
+	 * The binary names of the top-level types the visited unit depends on, including its own.
+	 *
+	 * @return the referenced top-level types
+	 */
+	Set<String> getReferences() {
+		return references;
+	}
+
+	@Override
+	public boolean visit(ImportDeclaration node) {
+		// On-demand imports name packages, and static imports members: both are covered by the names they resolve
+		if (!node.isOnDemand() && !node.isStatic()) {
+			IBinding binding = node.resolveBinding();
+			if (binding instanceof ITypeBinding type) {
+				addType(type);
+			} else {
+				references.add(node.getName().getFullyQualifiedName());
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean visit(SimpleName node) {
+		switch (node.resolveBinding()) {
+			case ITypeBinding type -> {
+				addType(type);
+				if (isShadowable(node)) {
+					addCandidates(node.getIdentifier());
+				}
+			}
+			case IVariableBinding variable when variable.isField() -> addType(variable.getDeclaringClass());
+			case IMethodBinding method -> addType(method.getDeclaringClass());
+			case null, default -> {
+			}
+		}
+		return false;
+	}
+
+	private void addType(ITypeBinding binding) {
+		if (binding == null) {
+			return;
+		}
+
+		ITypeBinding type = (binding.isArray() ? binding.getElementType() : binding).getErasure();
+		if (type.isPrimitive() || type.isTypeVariable() || type.isWildcardType() || type.isCapture()) {
+			return;
+		}
+
+		if (type.isRecovered()) {
+			references.add(type.getQualifiedName());
+			addCandidates(type.getName());
+			return;
+		}
+
+		while (type.getDeclaringClass() != null) {
+			type = type.getDeclaringClass();
+		}
+		if (type.getBinaryName() != null) {
+			references.add(type.getBinaryName());
+		}
+	}
+
+	/**
+	 * Records the types a simple type name may resolve to: in the unit's package, or in any package imported on demand.
+	 */
+	private void addCandidates(String simpleName) {
+		references.add(packageName.isEmpty() ? simpleName : packageName + "." + simpleName);
+		onDemandImports.forEach(pkg -> references.add(pkg + "." + simpleName));
+	}
+
+	/**
+	 * Checks whether a simple name refers to a type by its simple name, which a type created in the unit's package or in
+	 * a package imported on demand may shadow: it neither declares a type, nor is qualified, nor matches a single-type
+	 * import.
+	 */
+	private boolean isShadowable(SimpleName node) {
+		if (node.isDeclaration() || singleTypeImports.contains(node.getIdentifier())) {
+			return false;
+		}
+
+		return switch (node.getParent()) {
+			case QualifiedName qualified -> qualified.getName() != node;
+			case QualifiedType qualified -> qualified.getName() != node;
+			case NameQualifiedType qualified -> qualified.getName() != node;
+			case null, default -> true;
+		};
+	}
+}
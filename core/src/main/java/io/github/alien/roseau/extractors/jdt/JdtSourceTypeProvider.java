@@ -0,0 +1,87 @@
+package io.github.alien.roseau.extractors.jdt;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Suppliers;
+import io.github.alien.roseau.Library;
+import io.github.alien.roseau.RoseauException;
+import io.github.alien.roseau.api.model.TypeDecl;
+import io.github.alien.roseau.api.resolution.TypeProvider;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Lazily provides the type declarations of a source library by parsing, on demand, the single compilation unit that
+ * declares the requested type. This is used to resolve the types that lie outside the packages a
+ * {@linkplain Library#isScoped() scoped} library restricts the analysis to, without parsing the whole library upfront.
+ * <p>
+ * The compilation unit of a type is inferred from its fully qualified name, assuming that the library's location is a
+ * source root and that top-level types are declared in a file of the same name. Source archives are supported as well;
+ * their compilation units are read in memory.
+ */
+public final class JdtSourceTypeProvider implements TypeProvider {
+	private final JdtTypesExtractor extractor;
+	private final Library library;
+	private final Map<Path, Map<String, TypeDecl>> parsedFiles = new ConcurrentHashMap<>();
+	private final Supplier<Set<Path>> archiveUnits;
+
+	private static final Logger LOGGER = LogManager.getLogger(JdtSourceTypeProvider.class);
+
+	public JdtSourceTypeProvider(JdtTypesExtractor extractor, Library library) {
+		this.extractor = Preconditions.checkNotNull(extractor);
+		this.library = Preconditions.checkNotNull(library);
+		Preconditions.checkArgument(library.isSources() || library.isSourcesJar(), "Not a source library: %s", library);
+		this.archiveUnits = Suppliers.memoize(() -> JdtTypesExtractor.archiveUnits(library));
+	}
+
+	@Override
+	public <T extends TypeDecl> Optional<T> findType(String qualifiedName, Class<T> type) {
+		// pkg.A.B may be declared in pkg/A/B.java or, as a nested type, in pkg/A.java; so may pkg.A$B
+		for (int end = qualifiedName.length(); end > 0; end = lastSeparator(qualifiedName, end - 1)) {
+			Path file = Path.of(qualifiedName.substring(0, end).replace('.', '/') + ".java");
+			if (exists(file)) {
+				// Types are keyed by their binary name, in which nested types are separated by '$'
+				String binaryName = qualifiedName.substring(0, end) + qualifiedName.substring(end).replace('.', '$');
+				TypeDecl found = parsedFiles.computeIfAbsent(file, this::parseFile).get(binaryName);
+				if (found != null) {
+					return type.isInstance(found) ? Optional.of(type.cast(found)) : Optional.empty();
+				}
+			}
+		}
+
+		return Optional.empty();
+	}
+
+	private static int lastSeparator(String qualifiedName, int from) {
+		return Math.max(qualifiedName.lastIndexOf('.', from), qualifiedName.lastIndexOf('$', from));
+	}
+
+	private boolean exists(Path file) {
+		return library.isSourcesJar()
+			? archiveUnits.get().contains(file)
+			: Files.isRegularFile(library.getLocation().resolve(file));
+	}
+
+	private Map<String, TypeDecl> parseFile(Path file) {
+		try {
+			LOGGER.debug("Lazily parsing {}", file);
+			JdtTypesExtractor.ParsingResult result = library.isSourcesJar()
+				? extractor.parseArchiveTypes(library, file::equals)
+				: extractor.parseTypes(library, Set.of(library.getLocation().resolve(file)));
+			return result.types().stream()
+				.collect(Collectors.toUnmodifiableMap(TypeDecl::getQualifiedName, Function.identity(), (a, _) -> a));
+		} catch (RoseauException e) {
+			LOGGER.warn("Failed to parse {}", file, e);
+			return Map.of();
+		}
+	}
+}
@@ -1,7 +1,9 @@
 package io.github.alien.roseau.extractors.jdt;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 import io.github.alien.roseau.Library;
+import io.github.alien.roseau.Parallelism;
 import io.github.alien.roseau.RoseauException;
 import io.github.alien.roseau.api.model.LibraryTypes;
 import io.github.alien.roseau.api.model.ModuleDecl;
@@ -19,24 +21,51 @@ import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.FileASTRequestor;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 /**
- * A JDT-based {@link TypesExtractor}.
+ * A JDT-based {@link TypesExtractor}. Source directories are parsed in a single batch sharing one compilation
+ * environment. The compilation units of source archives (e.g., {@code -sources.jar}) are read in memory, never written
+ * to disk, and parsed in parallel shards, with the archive itself acting as the sourcepath of JDT's environment.
  */
 public final class JdtTypesExtractor implements TypesExtractor {
 	private final ApiFactory factory;
 
+	private static final String MODULE_INFO = "module-info.java";
 	private static final Logger LOGGER = LogManager.getLogger(JdtTypesExtractor.class);
 
-	record ParsingResult(Set<TypeDecl> types, Set<ModuleDecl> modules) {
+	/**
+	 * The outcome of parsing a set of compilation units.
+	 *
+	 * @param types          the extracted types
+	 * @param modules        the extracted module declarations
+	 * @param fileReferences the top-level types each parsed compilation unit depends on
+	 */
+	record ParsingResult(Set<TypeDecl> types, Set<ModuleDecl> modules, Map<Path, Set<String>> fileReferences) {
+	}
+
+	/**
+	 * A compilation unit read in memory.
+	 *
+	 * @param file     the path of the compilation unit, relative to the source root
+	 * @param contents the source code of the compilation unit
+	 */
+	record SourceUnit(Path file, char[] contents) {
 	}
 
 	public JdtTypesExtractor(ApiFactory factory) {
@@ -46,35 +75,190 @@ public final class JdtTypesExtractor implements TypesExtractor {
 	@Override
 	public LibraryTypes extractTypes(Library library) {
 		Preconditions.checkArgument(canExtract(library));
+		if (library.isSourcesJar()) {
+			return toLibraryTypes(library, parseArchiveTypes(library, file -> isInScope(library, file)));
+		}
+
 		try (Stream<Path> files = Files.walk(library.getLocation())) {
 			Set<Path> sourceFiles = files
 				.filter(JdtTypesExtractor::isRegularJavaFile)
+				.filter(file -> isInScope(library, file))
 				.collect(Collectors.toSet());
 
-			ParsingResult result = parseTypes(library, sourceFiles);
-			Set<TypeDecl> types = result.types();
-			Set<ModuleDecl> modules = result.modules();
-
-			return switch (modules.size()) {
-				case 0 -> new LibraryTypes(library, types);
-				case 1 -> new LibraryTypes(library, modules.iterator().next(), result.types());
-				default -> throw new RoseauException("%s contains multiple module declarations: %s".formatted(library, modules));
-			};
+			return toLibraryTypes(library, parseTypes(library, sourceFiles));
 		} catch (IOException e) {
 			throw new RoseauException("Failed to parse sources", e);
 		}
 	}
 
+	private static LibraryTypes toLibraryTypes(Library library, ParsingResult result) {
+		Set<TypeDecl> types = result.types();
+		Set<ModuleDecl> modules = result.modules();
+
+		return switch (modules.size()) {
+			case 0 -> new LibraryTypes(library, ModuleDecl.UNNAMED_MODULE, types, Map.of(), result.fileReferences());
+			case 1 -> new LibraryTypes(library, modules.iterator().next(), types, Map.of(), result.fileReferences());
+			default -> throw new RoseauException("%s contains multiple module declarations: %s".formatted(library, modules));
+		};
+	}
+
 	ParsingResult parseTypes(Library library, Set<Path> sourcesToParse) {
 		String[] sourcesArray = sourcesToParse.stream()
 			.map(Path::toString)
 			.toArray(String[]::new);
 
+		String[] sourcesRootArray = {library.getLocation().toAbsolutePath().toString()};
+		ASTParser parser = newParser(library, sourcesRootArray);
+
+		ExtractorSink sink = new ExtractorSink(sourcesToParse.size() << 1);
+		// Receive parsed ASTs and forward them to the visitor
+		FileASTRequestor requestor = new FileASTRequestor() {
+			@Override
+			public void acceptAST(String sourceFilePath, CompilationUnit ast) {
+				Path filePath = library.getLocation().relativize(Path.of(sourceFilePath));
+				visit(ast, filePath, sink);
+			}
+		};
+
+		// Start parsing and forwarding ASTs
+		try {
+			parser.createASTs(sourcesArray, null, new String[0], requestor, null);
+			return new ParsingResult(sink.getTypes(), sink.getModules(), sink.getFileReferences());
+		} catch (CancellationException e) {
+			throw e;
+		} catch (RuntimeException e) {
+			// Catching JDT's internal messy errors
+			throw new RoseauException("JDT failed to parse code from " + library.getLocation(), e);
+		}
+	}
+
+	/**
+	 * Parses the compilation units of a source archive that match the provided filter. The archive is read in memory and
+	 * its units are split into as many shards as there are worker threads. Each unit is parsed from its in-memory
+	 * contents, and the references to the other units of the archive are resolved through the archive's sourcepath
+	 * entry.
+	 *
+	 * @param library the source archive library
+	 * @param filter  the units to parse, by path relative to the archive root
+	 * @return the parsed types and modules
+	 */
+	ParsingResult parseArchiveTypes(Library library, Predicate<Path> filter) {
+		return parseUnits(library, readArchive(library, filter));
+	}
+
+	/**
+	 * Parses in-memory compilation units of a source directory or source archive, e.g., unsaved editor buffers. Each
+	 * unit is parsed from its provided contents; the references to the other units are resolved through the library's
+	 * sourcepath entry.
+	 *
+	 * @param library the source directory or source archive library
+	 * @param sources the contents of the units to parse, by path relative to the library's location
+	 * @return the parsed types and modules
+	 */
+	ParsingResult parseSources(Library library, Map<Path, String> sources) {
+		return parseUnits(library, sources.entrySet().stream()
+			.map(e -> new SourceUnit(e.getKey(), e.getValue().toCharArray()))
+			.toList());
+	}
+
+	/**
+	 * Reads compilation units of a source directory or source archive in memory. Units that no longer exist are left
+	 * out.
+	 *
+	 * @param library the source directory or source archive library
+	 * @param files   the units to read, by path relative to the library's location
+	 * @return the contents of the units, by path relative to the library's location
+	 */
+	static Map<Path, String> readSources(Library library, Set<Path> files) {
+		if (files.isEmpty()) {
+			return Map.of();
+		}
+		if (library.isSourcesJar()) {
+			return readArchive(library, files::contains).stream()
+				.collect(Collectors.toMap(SourceUnit::file, unit -> String.valueOf(unit.contents())));
+		}
+
+		Map<Path, String> sources = new HashMap<>();
+		for (Path file : files) {
+			Path path = library.getLocation().resolve(file);
+			if (Files.isRegularFile(path)) {
+				try {
+					sources.put(file, Files.readString(path));
+				} catch (IOException e) {
+					throw new RoseauException("Failed to read " + path, e);
+				}
+			}
+		}
+		return sources;
+	}
+
+	// JDT's batch API only reads compilation units from the file system: each unit is parsed on its own from its
+	// in-memory contents, and the references to the other units resolve through the library's sourcepath entry
+	private ParsingResult parseUnits(Library library, List<SourceUnit> units) {
+		String[] sourcepath = {library.getLocation().toAbsolutePath().toString()};
+		ExtractorSink sink = new ExtractorSink(units.size() << 1);
+
+		int shardSize = Math.max(1, Math.ceilDiv(units.size(), Parallelism.currentPool().getParallelism()));
+		try {
+			Lists.partition(units, shardSize).parallelStream()
+				.forEach(shard -> shard.forEach(unit -> {
+					ASTParser parser = newParser(library, sourcepath);
+					parser.setUnitName("/" + unitName(unit.file()));
+					parser.setSource(unit.contents());
+					visit((CompilationUnit) parser.createAST(null), unit.file(), sink);
+				}));
+			return new ParsingResult(sink.getTypes(), sink.getModules(), sink.getFileReferences());
+		} catch (CancellationException e) {
+			throw e;
+		} catch (RuntimeException e) {
+			// Catching JDT's internal messy errors
+			throw new RoseauException("JDT failed to parse code from " + library.getLocation(), e);
+		}
+	}
+
+	/**
+	 * Lists the compilation units of a source archive, by path relative to the archive root.
+	 *
+	 * @param library the source archive library
+	 * @return the compilation units of the archive
+	 */
+	static Set<Path> archiveUnits(Library library) {
+		try (ZipFile zip = new ZipFile(library.getLocation().toFile())) {
+			return zip.stream()
+				.filter(JdtTypesExtractor::isRegularJavaEntry)
+				.map(entry -> Path.of(entry.getName()))
+				.collect(Collectors.toUnmodifiableSet());
+		} catch (IOException e) {
+			throw new RoseauException("Failed to read source archive " + library.getLocation(), e);
+		}
+	}
+
+	private static List<SourceUnit> readArchive(Library library, Predicate<Path> filter) {
+		try (ZipFile zip = new ZipFile(library.getLocation().toFile())) {
+			List<? extends ZipEntry> entries = zip.stream()
+				.filter(JdtTypesExtractor::isRegularJavaEntry)
+				.filter(entry -> filter.test(Path.of(entry.getName())))
+				.toList();
+
+			SourceUnit[] units = new SourceUnit[entries.size()];
+			for (int i = 0; i < units.length; i++) {
+				ZipEntry entry = entries.get(i);
+				try (InputStream is = zip.getInputStream(entry)) {
+					units[i] = new SourceUnit(Path.of(entry.getName()),
+						new String(is.readAllBytes(), StandardCharsets.UTF_8).toCharArray());
+				}
+			}
+			return List.of(units);
+		} catch (IOException e) {
+			throw new RoseauException("Failed to read source archive " + library.getLocation(), e);
+		}
+	}
+
+	private ASTParser newParser(Library library, String[] sourcepathEntries) {
 		Map<String, String> options = JavaCore.getOptions();
 		options.put(JavaCore.COMPILER_SOURCE, JavaCore.VERSION_25);
 		options.put(JavaCore.COMPILER_COMPLIANCE, JavaCore.VERSION_25);
 
-		String[] sourcesRootArray = {library.getLocation().toAbsolutePath().toString()};
 		String[] classpathEntries = library.getClasspath().stream()
 			.map(p -> p.toAbsolutePath().toString())
 			.toArray(String[]::new);
@@ -88,42 +272,57 @@ public final class JdtTypesExtractor implements TypesExtractor {
 		parser.setStatementsRecovery(false);
 		parser.setIgnoreMethodBodies(true);
 		parser.setCompilerOptions(options);
-		parser.setEnvironment(classpathEntries, sourcesRootArray, null, true);
+		parser.setEnvironment(classpathEntries, sourcepathEntries, null, true);
+		return parser;
+	}
 
-		ExtractorSink sink = new ExtractorSink(sourcesToParse.size() << 1);
-		// Receive parsed ASTs and forward them to the visitor
-		FileASTRequestor requestor = new FileASTRequestor() {
-			@Override
-			public void acceptAST(String sourceFilePath, CompilationUnit ast) {
-				Path filePath = library.getLocation().relativize(Path.of(sourceFilePath));
-				IProblem[] problems = ast.getProblems();
-				if (problems != null) {
-					// Actual parsing errors are just warnings for us
-					Arrays.stream(problems)
-						.filter(IProblem::isError)
-						.forEach(p -> LOGGER.warn("JDT error [{}:{}]: {}", filePath, p.getSourceLineNumber(), p.getMessage()));
-				}
+	private void visit(CompilationUnit ast, Path filePath, ExtractorSink sink) {
+		IProblem[] problems = ast.getProblems();
+		if (problems != null) {
+			// Actual parsing errors are just warnings for us
+			Arrays.stream(problems)
+				.filter(IProblem::isError)
+				.forEach(p -> LOGGER.warn("JDT error [{}:{}]: {}", filePath, p.getSourceLineNumber(), p.getMessage()));
+		}
 
-				JdtApiVisitor visitor = new JdtApiVisitor(ast, filePath, sink, factory);
-				ast.accept(visitor);
-			}
-		};
+		JdtApiVisitor visitor = new JdtApiVisitor(ast, filePath, sink, factory);
+		ast.accept(visitor);
 
-		// Start parsing and forwarding ASTs
-		try {
-			parser.createASTs(sourcesArray, null, new String[0], requestor, null);
-			return new ParsingResult(sink.getTypes(), sink.getModules());
-		} catch (RuntimeException e) {
-			// Catching JDT's internal messy errors
-			throw new RoseauException("JDT failed to parse code from " + library.getLocation(), e);
-		}
+		JdtReferencesVisitor references = new JdtReferencesVisitor(ast);
+		ast.accept(references);
+		sink.accept(filePath, references.getReferences());
 	}
 
 	private static boolean canExtract(Library library) {
-		return library != null && library.isSources();
+		return library != null && (library.isSources() || library.isSourcesJar());
+	}
+
+	/**
+	 * Checks whether the given source file belongs to an in-scope package of the library, assuming that the library's
+	 * location is a source root. Relative paths are resolved against the source root, e.g., for the units of a source
+	 * archive. Module declarations are always in scope.
+	 */
+	static boolean isInScope(Library library, Path file) {
+		if (!library.isScoped() || file.endsWith(MODULE_INFO)) {
+			return true;
+		}
+
+		Path directory = (file.isAbsolute() ? library.getLocation().relativize(file) : file).getParent();
+		String packageName = directory == null ? "" : String.join(".",
+			StreamSupport.stream(directory.spliterator(), false).map(Path::toString).toList());
+		return library.isInScope(packageName);
+	}
+
+	private static String unitName(Path file) {
+		return String.join("/", StreamSupport.stream(file.spliterator(), false).map(Path::toString).toList());
 	}
 
 	private static boolean isRegularJavaFile(Path file) {
 		return Files.isRegularFile(file) && file.toString().endsWith(".java") && !file.endsWith("package-info.java");
 	}
+
+	private static boolean isRegularJavaEntry(ZipEntry entry) {
+		return !entry.isDirectory() && entry.getName().endsWith(".java") &&
+			!Path.of(entry.getName()).endsWith("package-info.java");
+	}
 }
@@ -0,0 +1,205 @@
+package io.github.alien.roseau.git;
+
+import com.google.common.base.Preconditions;
+import io.github.alien.roseau.Library;
+import io.github.alien.roseau.RoseauException;
+import io.github.alien.roseau.extractors.incremental.ChangedFiles;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
+import org.eclipse.jgit.treewalk.filter.PathSuffixFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Provides the Java sources of a local git repository at arbitrary revisions, without checking them out. The blobs of
+ * a revision are read straight from the object database (loose objects and pack files) and copied into a source archive
+ * written to the work directory, one per commit; JDT then parses the archive's entries in memory, without extracting
+ * them (see {@link Library#isSourcesJar()}). The {@link ChangedFiles} between two revisions are derived from their tree
+ * diff, so that unchanged sub-trees are never visited and no file is hashed.
+ * <p>
+ * Only the {@code .java} files below the configured source root (e.g., {@code src/main/java}) are considered; paths are
+ * relative to this source root.
+ */
+public final class GitRevisions implements AutoCloseable {
+	private final Repository repository;
+	private final String sourceRoot;
+	private final Path workDirectory;
+
+	private static final Logger LOGGER = LogManager.getLogger(GitRevisions.class);
+
+	/**
+	 * Opens the git repository containing the provided directory.
+	 *
+	 * @param directory     a directory of the repository's working tree, or its {@code .git} directory
+	 * @param sourceRoot    the source root, relative to the repository's root (e.g., {@code src/main/java}); empty for the
+	 *                      repository's root
+	 * @param workDirectory the directory where source archives are written
+	 * @throws RoseauException if no git repository contains the provided directory
+	 */
+	public GitRevisions(Path directory, String sourceRoot, Path workDirectory) {
+		Preconditions.checkNotNull(directory);
+		Preconditions.checkNotNull(sourceRoot);
+		Preconditions.checkNotNull(workDirectory);
+		FileRepositoryBuilder builder = new FileRepositoryBuilder()
+			.readEnvironment()
+			.findGitDir(directory.toAbsolutePath().toFile());
+		if (builder.getGitDir() == null) {
+			throw new RoseauException("Not a git repository: " + directory);
+		}
+
+		try {
+			this.repository = builder.setMustExist(true).build();
+		} catch (IOException e) {
+			throw new RoseauException("Failed to open git repository " + builder.getGitDir(), e);
+		}
+		this.sourceRoot = normalize(sourceRoot);
+		this.workDirectory = workDirectory;
+	}
+
+	/**
+	 * Writes a source archive containing the Java files of the source root at the provided revision to the work
+	 * directory, as {@code <commit>-sources.jar}. Archives are named after the commit they capture and reused across
+	 * calls.
+	 *
+	 * @param revision the revision (e.g., {@code HEAD}, {@code main}, {@code v1.0}, or a commit id)
+	 * @return the path to the source archive, to be used as a {@link Library} location
+	 * @throws RoseauException if the revision cannot be resolved or the archive cannot be written
+	 */
+	public Path sourcesJar(String revision) {
+		RevCommit commit = resolve(revision);
+		Path jar = workDirectory.resolve(commit.name() + "-sources.jar");
+		if (Files.isRegularFile(jar)) {
+			return jar;
+		}
+
+		try {
+			Files.createDirectories(workDirectory);
+			Path tmp = Files.createTempFile(workDirectory, commit.name(), ".tmp");
+			int count = 0;
+			try (TreeWalk walk = new TreeWalk(repository);
+			     OutputStream out = Files.newOutputStream(tmp);
+			     ZipOutputStream zip = new ZipOutputStream(out)) {
+				zip.setLevel(Deflater.BEST_SPEED);
+				walk.addTree(commit.getTree());
+				walk.setRecursive(true);
+				walk.setFilter(sourcesFilter());
+				ObjectReader reader = walk.getObjectReader();
+				while (walk.next()) {
+					if (!walk.getFileMode(0).equals(FileMode.REGULAR_FILE) &&
+						!walk.getFileMode(0).equals(FileMode.EXECUTABLE_FILE)) {
+						continue;
+					}
+
+					zip.putNextEntry(new ZipEntry(relativize(walk.getPathString())));
+					reader.open(walk.getObjectId(0), Constants.OBJ_BLOB).copyTo(zip);
+					zip.closeEntry();
+					count++;
+				}
+			}
+
+			Files.move(tmp, jar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			LOGGER.debug("Wrote {} source files of {} ({}) to {}", count, revision, commit.name(), jar);
+			return jar;
+		} catch (IOException e) {
+			throw new RoseauException("Failed to read the sources of revision " + revision, e);
+		}
+	}
+
+	/**
+	 * Computes the Java files of the source root that changed between two revisions.
+	 *
+	 * @param from the baseline revision
+	 * @param to   the target revision
+	 * @return the changed files, relative to the source root
+	 * @throws RoseauException if a revision cannot be resolved or the repository cannot be read
+	 */
+	public ChangedFiles changedFiles(String from, String to) {
+		RevCommit fromCommit = resolve(from);
+		RevCommit toCommit = resolve(to);
+		Set<Path> updated = new HashSet<>();
+		Set<Path> deleted = new HashSet<>();
+		Set<Path> created = new HashSet<>();
+
+		try (TreeWalk walk = new TreeWalk(repository)) {
+			walk.addTree(fromCommit.getTree());
+			walk.addTree(toCommit.getTree());
+			walk.setRecursive(true);
+			// Sub-trees with identical ids on both sides are skipped altogether
+			walk.setFilter(AndTreeFilter.create(TreeFilter.ANY_DIFF, sourcesFilter()));
+			while (walk.next()) {
+				Path file = Path.of(relativize(walk.getPathString()));
+				if (walk.getFileMode(0).equals(FileMode.MISSING)) {
+					created.add(file);
+				} else if (walk.getFileMode(1).equals(FileMode.MISSING)) {
+					deleted.add(file);
+				} else {
+					updated.add(file);
+				}
+			}
+		} catch (IOException e) {
+			throw new RoseauException("Failed to diff revisions %s and %s".formatted(from, to), e);
+		}
+
+		return new ChangedFiles(updated, deleted, created);
+	}
+
+	@Override
+	public void close() {
+		repository.close();
+	}
+
+	private RevCommit resolve(String revision) {
+		try (RevWalk walk = new RevWalk(repository)) {
+			ObjectId id = repository.resolve(revision + "^{commit}");
+			if (id == null) {
+				throw new RoseauException("Unknown git revision: " + revision);
+			}
+			return walk.parseCommit(id);
+		} catch (IOException e) {
+			throw new RoseauException("Failed to resolve git revision " + revision, e);
+		}
+	}
+
+	private TreeFilter sourcesFilter() {
+		TreeFilter javaFiles = PathSuffixFilter.create(".java");
+		return sourceRoot.isEmpty()
+			? javaFiles
+			: AndTreeFilter.create(PathFilter.create(sourceRoot), javaFiles);
+	}
+
+	private String relativize(String path) {
+		return sourceRoot.isEmpty() ? path : path.substring(sourceRoot.length() + 1);
+	}
+
+	private static String normalize(String sourceRoot) {
+		String root = sourceRoot.replace('\\', '/');
+		while (root.startsWith("./")) {
+			root = root.substring(2);
+		}
+		while (root.endsWith("/")) {
+			root = root.substring(0, root.length() - 1);
+		}
+		return root.equals(".") ? "" : root;
+	}
+}
@@ -17,24 +17,35 @@ import java.util.Set;
 /**
  * Roseau's configuration options.
  *
- * @param common  options shared by v1 and v2
- * @param v1      options specific to v1
- * @param v2      options specific to v2
- * @param diff    diff options
- * @param reports reports configuration
+ * @param common      options shared by v1 and v2
+ * @param v1          options specific to v1
+ * @param v2          options specific to v2
+ * @param diff        diff options
+ * @param reports     reports configuration
+ * @param performance executors and memory configuration
  */
-public record RoseauOptions(Common common, Library v1, Library v2, Diff diff, List<Report> reports) {
+public record RoseauOptions(Common common, Library v1, Library v2, Diff diff, List<Report> reports,
+                            Performance performance) {
+	public RoseauOptions(Common common, Library v1, Library v2, Diff diff, List<Report> reports) {
+		this(common, v1, v2, diff, reports, null);
+	}
+
 	/**
 	 * Options shared by v1 and v2.
 	 *
 	 * @param classpath the {@link Classpath} to use
 	 * @param excludes  the API {@link Exclude} options to apply
+	 * @param packages  the package prefixes to restrict the analysis to; empty to analyze all packages
 	 */
-	public record Common(Classpath classpath, Exclude excludes) {
+	public record Common(Classpath classpath, Exclude excludes, List<String> packages) {
+		public Common(Classpath classpath, Exclude excludes) {
+			this(classpath, excludes, List.of());
+		}
+
 		Common mergeWith(Common other) {
 			return other != null
 				? new Common(classpath.mergeWith(other.classpath()),
-				excludes.mergeWith(other.excludes()))
+				excludes.mergeWith(other.excludes()), either(other.packages(), packages))
 				: this;
 		}
 	}
@@ -46,19 +57,25 @@ public record RoseauOptions(Common common, Library v1, Library v2, Diff diff, Li
 	 * @param classpath the {@link Classpath} to use
 	 * @param excludes  the API {@link Exclude} options to apply
 	 * @param apiReport the location of the API report to generate
+	 * @param packages  the package prefixes to restrict the analysis to; empty to analyze all packages
 	 */
-	public record Library(Path location, Classpath classpath, Exclude excludes, Path apiReport) {
+	public record Library(Path location, Classpath classpath, Exclude excludes, Path apiReport, List<String> packages) {
+		public Library(Path location, Classpath classpath, Exclude excludes, Path apiReport) {
+			this(location, classpath, excludes, apiReport, List.of());
+		}
+
 		Library mergeWith(Library other) {
 			return other != null
 				? new Library(either(other.location(), location), classpath.mergeWith(other.classpath()),
-				excludes.mergeWith(other.excludes()), either(other.apiReport(), apiReport))
+				excludes.mergeWith(other.excludes()), either(other.apiReport(), apiReport),
+				either(other.packages(), packages))
 				: this;
 		}
 
 		public Library mergeWith(Common common) {
 			return common != null
 				? new Library(location, common.classpath().mergeWith(classpath),
-				common.excludes().mergeWith(excludes), apiReport)
+				common.excludes().mergeWith(excludes), apiReport, either(packages, common.packages()))
 				: this;
 		}
 
@@ -68,6 +85,7 @@ public record RoseauOptions(Common common, Library v1, Library v2, Diff diff, Li
 				.classpath(classpath.jars())
 				.pom(classpath.pom())
 				.exclusions(excludes)
+				.packages(packages != null ? packages : List.of())
 				.build();
 		}
 	}
@@ -107,11 +125,18 @@ public record RoseauOptions(Common common, Library v1, Library v2, Diff diff, Li
 	 *
 	 * @param names       the list of regex-based names to be excluded
 	 * @param annotations the list of {@link AnnotationExclusion} to consider
+	 * @param prune       whether to apply exclusions while building the API, so that excluded symbols are never
+	 *                    analyzed, rather than when reporting breaking changes
 	 */
-	public record Exclude(List<String> names, List<AnnotationExclusion> annotations) {
+	public record Exclude(List<String> names, List<AnnotationExclusion> annotations, Boolean prune) {
+		public Exclude(List<String> names, List<AnnotationExclusion> annotations) {
+			this(names, annotations, null);
+		}
+
 		Exclude mergeWith(Exclude other) {
 			return other != null
-				? new Exclude(either(other.names(), names), either(other.annotations(), annotations))
+				? new Exclude(either(other.names(), names), either(other.annotations(), annotations),
+				either(other.prune(), prune))
 				: this;
 		}
 	}
@@ -125,6 +150,23 @@ public record RoseauOptions(Common common, Library v1, Library v2, Diff diff, Li
 	public record AnnotationExclusion(String name, Map<String, String> args) {
 	}
 
+	/**
+	 * Executors and memory options. Absent values default to one job per available processor, two I/O threads per job,
+	 * and 80% of the maximum heap.
+	 *
+	 * @param jobs            the number of threads CPU-bound work (extraction, type resolution, diffing) runs on
+	 * @param ioThreads       the number of threads blocking I/O (e.g., downloading artifacts) runs on
+	 * @param maxHeapFraction the fraction of the maximum heap above which no new analysis is started, in ]0, 1]
+	 */
+	public record Performance(Integer jobs, Integer ioThreads, Double maxHeapFraction) {
+		public Performance mergeWith(Performance other) {
+			return other != null
+				? new Performance(either(other.jobs(), jobs), either(other.ioThreads(), ioThreads),
+				either(other.maxHeapFraction(), maxHeapFraction))
+				: this;
+		}
+	}
+
 	/**
 	 * A report configuration for breaking changes.
 	 *
@@ -171,7 +213,9 @@ public record RoseauOptions(Common common, Library v1, Library v2, Diff diff, Li
 		Common defaultCommon = new Common(defaultClasspath, defaultExclusion);
 		Diff diff = new Diff(null, false, false);
 		List<Report> defaultReports = List.of();
-		return new RoseauOptions(defaultCommon, defaultLibrary, defaultLibrary, diff, defaultReports);
+		Performance defaultPerformance = new Performance(null, null, null);
+		return new RoseauOptions(defaultCommon, defaultLibrary, defaultLibrary, diff, defaultReports,
+			defaultPerformance);
 	}
 
 	/**
@@ -184,7 +228,8 @@ public record RoseauOptions(Common common, Library v1, Library v2, Diff diff, Li
 	public RoseauOptions mergeWith(RoseauOptions other) {
 		return other != null
 			? new RoseauOptions(common.mergeWith(other.common()), v1.mergeWith(other.v1()), v2.mergeWith(other.v2()),
-			diff.mergeWith(other.diff()), either(other.reports(), reports))
+			diff.mergeWith(other.diff()), either(other.reports(), reports),
+			performance != null ? performance.mergeWith(other.performance()) : other.performance())
 			: this;
 	}
 
@@ -0,0 +1,99 @@
+package io.github.alien.roseau;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiIndexTest {
+	static final Path JAR = Path.of("src/test/resources/api-showcase.jar");
+
+	@TempDir
+	Path repository;
+	@TempDir
+	Path store;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		install("com/example/showcase/1.0/showcase-1.0.jar", JAR);
+		// Same content under other coordinates
+		install("com/example/relocated/1.0/relocated-1.0.jar", JAR);
+		install("com/example/other/1.0/other-1.0.jar", Path.of("src/test/resources/one-module.jar"));
+		Path sources = repository.resolve("com/example/showcase/1.0/showcase-1.0-sources.jar");
+		Files.copy(JAR, sources);
+	}
+
+	@Test
+	void indexes_each_distinct_jar_once() throws IOException {
+		var summary = new ApiIndex(store, "1.0").indexRepository(repository, 2);
+
+		assertThat(summary).isEqualTo(new ApiIndex.Summary(2, 0, 1, 1, 0));
+		assertThat(snapshots()).hasSize(2);
+	}
+
+	@Test
+	void indexing_resumes_from_existing_snapshots() throws IOException {
+		var index = new ApiIndex(store, "1.0");
+		index.indexRepository(repository, 2);
+		install("com/example/showcase/2.0/showcase-2.0.jar", Path.of("src/test/resources/api-showcase-no-debug.jar"));
+
+		var summary = index.indexRepository(repository, 2);
+
+		assertThat(summary.indexed()).isEqualTo(1);
+		assertThat(summary.reused()).isEqualTo(2);
+		assertThat(snapshots()).hasSize(3);
+	}
+
+	@Test
+	void indexed_jars_are_found() {
+		var index = new ApiIndex(store, "1.0");
+		index.indexRepository(repository, 2);
+		var library = Library.of(repository.resolve("com/example/relocated/1.0/relocated-1.0.jar"));
+
+		var indexed = index.find(library);
+
+		assertThat(indexed).isPresent();
+		assertThat(indexed.get().getLibrary()).isEqualTo(library);
+		assertThat(indexed.get().getAllTypes()).hasSameSizeAs(Roseau.buildLibraryTypes(library).getAllTypes());
+	}
+
+	@Test
+	void scoped_and_unknown_libraries_are_not_found() {
+		var index = new ApiIndex(store, "1.0");
+		index.indexRepository(repository, 2);
+		var scoped = Library.builder().location(JAR).packages(List.of("io.github.alien")).build();
+
+		assertThat(index.find(scoped)).isEmpty();
+		assertThat(index.find(Library.of(Path.of("src/test/resources/multi-release.jar")))).isEmpty();
+	}
+
+	@Test
+	void snapshots_of_other_versions_are_not_reused() {
+		new ApiIndex(store, "1.0").indexRepository(repository, 2);
+		var index = new ApiIndex(store, "2.0");
+		var library = Library.of(repository.resolve("com/example/showcase/1.0/showcase-1.0.jar"));
+
+		assertThat(index.find(library)).isEmpty();
+		assertThat(index.indexRepository(repository, 2).reused()).isZero();
+		assertThat(index.find(library)).isPresent();
+	}
+
+	void install(String path, Path jar) throws IOException {
+		Path target = repository.resolve(path);
+		Files.createDirectories(target.getParent());
+		Files.copy(jar, target);
+	}
+
+	List<Path> snapshots() throws IOException {
+		try (Stream<Path> files = Files.walk(store)) {
+			return files.filter(file -> file.toString().endsWith(".json")).toList();
+		}
+	}
+}
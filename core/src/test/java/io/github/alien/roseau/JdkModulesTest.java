@@ -0,0 +1,97 @@
+package io.github.alien.roseau;
+
+import io.github.alien.roseau.api.model.TypeDecl;
+import io.github.alien.roseau.utils.TestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JdkModulesTest {
+	static final Path JAVA_HOME = Path.of(System.getProperty("java.home"));
+
+	static List<Library> imageModules(String... names) {
+		var wanted = List.of(names);
+		return JdkModules.fromImage(JAVA_HOME).stream()
+			.filter(lib -> wanted.contains(lib.getLocation().getFileName().toString()))
+			.toList();
+	}
+
+	@Test
+	void image_lists_one_class_directory_per_module() {
+		var modules = JdkModules.of(JAVA_HOME);
+
+		assertThat(modules).isNotEmpty();
+		assertThat(modules).allMatch(Library::isClasses);
+		assertThat(modules).extracting(lib -> lib.getLocation().getFileName().toString())
+			.contains("java.base", "java.logging");
+	}
+
+	@Test
+	void image_module_honours_module_exports() {
+		var types = Roseau.buildLibraryTypes(imageModules("java.logging").getFirst());
+
+		assertThat(types.getModule().getQualifiedName()).isEqualTo("java.logging");
+		assertThat(types.getModule().isExporting("java.util.logging")).isTrue();
+		assertThat(types.findType("java.util.logging.Logger")).isPresent();
+	}
+
+	@Test
+	void module_apis_share_resolution_and_diff_per_module() {
+		var apis = Roseau.buildModuleAPIs(imageModules("java.logging", "java.instrument"));
+
+		assertThat(apis).containsOnlyKeys("java.instrument", "java.logging");
+		assertThat(apis.get("java.logging").getExportedTypes()).extracting(TypeDecl::getQualifiedName)
+			.contains("java.util.logging.Logger")
+			.noneMatch(name -> name.startsWith("sun."));
+
+		var reports = Roseau.diffModules(apis, apis);
+		assertThat(reports).containsOnlyKeys("java.instrument", "java.logging");
+		assertThat(reports.values()).allSatisfy(report -> assertThat(report.getAllBreakingChanges()).isEmpty());
+	}
+
+	@Test
+	void jmods_directory_lists_jmod_files(@TempDir Path tempDir) {
+		TestUtils.buildJmod(TestUtils.buildSourcesMap("""
+			module a {
+				exports a;
+			}
+
+			package a;
+			public class A {}"""), tempDir.resolve("a.jmod"));
+		TestUtils.buildJmod(TestUtils.buildSourcesMap("""
+			module b {
+				exports b;
+			}
+
+			package b;
+			public class B {}"""), tempDir.resolve("b.jmod"));
+
+		var modules = JdkModules.of(tempDir);
+		assertThat(modules).extracting(Library::getLocation)
+			.containsExactly(tempDir.resolve("a.jmod"), tempDir.resolve("b.jmod"));
+
+		var apis = Roseau.buildModuleAPIs(modules);
+		assertThat(apis).containsOnlyKeys("a", "b");
+		assertThat(apis.get("b").getExportedTypes()).extracting(TypeDecl::getQualifiedName).containsExactly("b.B");
+	}
+
+	@Test
+	void unnamed_modules_are_rejected() {
+		var jar = Library.of(Path.of("src/test/resources/api-showcase.jar"));
+
+		assertThatThrownBy(() -> Roseau.buildModuleAPIs(List.of(jar)))
+			.isInstanceOf(RoseauException.class)
+			.hasMessageContaining("does not declare a named module");
+	}
+
+	@Test
+	void unknown_location_throws() {
+		assertThatThrownBy(() -> JdkModules.of(Path.of("unknown/path")))
+			.isInstanceOf(RoseauException.class);
+	}
+}
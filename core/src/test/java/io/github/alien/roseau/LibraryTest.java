@@ -1,6 +1,7 @@
 package io.github.alien.roseau;
 
 import io.github.alien.roseau.extractors.ExtractorType;
+import io.github.alien.roseau.utils.TestUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -8,6 +9,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -48,6 +50,31 @@ class LibraryTest {
 		assertThat(lib.getExtractorType()).isEqualTo(ExtractorType.JDT);
 	}
 
+	@Test
+	void of_class_directory_defaults_to_asm(@TempDir Path tempDir) throws IOException {
+		var pkg = tempDir.resolve("pkg");
+		Files.createDirectories(pkg);
+		Files.createFile(pkg.resolve("A.class"));
+
+		var lib = Library.of(tempDir);
+		assertThat(lib.getLocation()).isEqualTo(tempDir);
+		assertThat(lib.isClasses()).isTrue();
+		assertThat(lib.isSources()).isFalse();
+		assertThat(lib.isJar()).isFalse();
+		assertThat(lib.getExtractorType()).isEqualTo(ExtractorType.ASM);
+	}
+
+	@Test
+	void of_sources_jar_defaults_to_jdt(@TempDir Path tempDir) {
+		var jar = TestUtils.buildSourcesJar(Map.of("pkg.A", "package pkg; public class A {}"), tempDir.resolve("a-sources.jar"));
+
+		var lib = Library.of(jar);
+		assertThat(lib.isSourcesJar()).isTrue();
+		assertThat(lib.isJar()).isFalse();
+		assertThat(lib.isSources()).isFalse();
+		assertThat(lib.getExtractorType()).isEqualTo(ExtractorType.JDT);
+	}
+
 	@Test
 	void of_unknown_throws() {
 		assertThatThrownBy(() -> Library.of(Path.of("unknown/path")))
@@ -150,4 +177,46 @@ class LibraryTest {
 			.hasMessageContaining("Invalid path to POM file");
 	}
 
+	@Test
+	void builder_overrides_extractor_type() {
+		var lib = Library.builder().location(validJar).extractorType(ExtractorType.CLASSFILE).build();
+		assertThat(lib.getExtractorType()).isEqualTo(ExtractorType.CLASSFILE);
+	}
+
+	@Test
+	void builder_incompatible_extractor_type_throws() {
+		assertThatThrownBy(() -> Library.builder().location(validJar).extractorType(ExtractorType.JDT).build())
+			.isInstanceOf(RoseauException.class);
+	}
+
+	@Test
+	void builder_bytecode_extractor_on_sources_throws(@TempDir Path tempDir) throws IOException {
+		Files.writeString(tempDir.resolve("A.java"), "public class A {}");
+
+		assertThatThrownBy(() -> Library.builder().location(tempDir).extractorType(ExtractorType.ASM).build())
+			.isInstanceOf(RoseauException.class)
+			.hasMessageContaining("cannot process");
+		assertThatThrownBy(() -> Library.builder().location(tempDir).extractorType(ExtractorType.CLASSFILE).build())
+			.isInstanceOf(RoseauException.class)
+			.hasMessageContaining("cannot process");
+	}
+
+	@Test
+	void packages_match_prefixes_and_sub_packages() {
+		var lib = Library.builder().location(validJar).packages(List.of("com.example")).build();
+		assertThat(lib.isScoped()).isTrue();
+		assertThat(lib.isInScope("com.example")).isTrue();
+		assertThat(lib.isInScope("com.example.sub")).isTrue();
+		assertThat(lib.isInScope("com.examples")).isFalse();
+		assertThat(lib.isInScope("com")).isFalse();
+		assertThat(lib.isInScope("")).isFalse();
+	}
+
+	@Test
+	void no_packages_means_everything_in_scope() {
+		var lib = Library.of(validJar);
+		assertThat(lib.isScoped()).isFalse();
+		assertThat(lib.isInScope("")).isTrue();
+		assertThat(lib.isInScope("any.pkg")).isTrue();
+	}
 }
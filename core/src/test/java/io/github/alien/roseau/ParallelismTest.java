@@ -0,0 +1,110 @@
+package io.github.alien.roseau;
+
+import io.github.alien.roseau.options.RoseauOptions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelismTest {
+	@Test
+	void parallel_work_runs_on_the_compute_pool() {
+		try (Parallelism parallelism = new Parallelism(2, 1, 0.8)) {
+			List<String> threads = parallelism.run(() -> IntStream.range(0, 1_000).parallel()
+				.mapToObj(_ -> Thread.currentThread().getName())
+				.distinct()
+				.toList());
+
+			assertThat(threads).allMatch(name -> name.startsWith("roseau-worker-"));
+			assertThat(parallelism.run(Parallelism::currentPool)).isSameAs(parallelism.compute());
+		}
+	}
+
+	@Test
+	void current_pool_defaults_to_common_pool() {
+		assertThat(Parallelism.currentPool()).isSameAs(ForkJoinPool.commonPool());
+	}
+
+	@Test
+	void unchecked_failures_are_rethrown_unchanged() {
+		try (Parallelism parallelism = new Parallelism(1, 1, 0.8)) {
+			RoseauException failure = new RoseauException("failure");
+			assertThatThrownBy(() -> parallelism.run(() -> {
+				throw failure;
+			})).isSameAs(failure);
+			assertThatThrownBy(() -> parallelism.run(() -> {
+				throw new IOException("io");
+			})).isInstanceOf(RoseauException.class).hasCauseInstanceOf(IOException.class);
+		}
+	}
+
+	@Test
+	void a_failed_task_interrupts_its_sibling() throws InterruptedException {
+		try (Parallelism parallelism = new Parallelism(2, 1, 0.8)) {
+			RoseauException failure = new RoseauException("failure");
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch interrupted = new CountDownLatch(1);
+
+			assertThatThrownBy(() -> Parallelism.both(
+				() -> {
+					started.await();
+					throw failure;
+				},
+				() -> {
+					started.countDown();
+					try {
+						Thread.sleep(60_000);
+					} catch (InterruptedException _) {
+						interrupted.countDown();
+					}
+					return null;
+				},
+				(_, _) -> null,
+				parallelism.compute())).isSameAs(failure);
+			assertThat(interrupted.await(10, TimeUnit.SECONDS)).isTrue();
+		}
+	}
+
+	@Test
+	void both_tasks_run_within_a_single_thread_pool() {
+		try (Parallelism parallelism = new Parallelism(1, 1, 0.8)) {
+			int sum = parallelism.run(() -> Parallelism.both(() -> 1, () -> 2, Integer::sum, parallelism.compute()));
+
+			assertThat(sum).isEqualTo(3);
+		}
+	}
+
+	@Test
+	void interrupted_owner_cancels_its_work() {
+		Thread.currentThread().interrupt();
+		try {
+			assertThatThrownBy(() -> Parallelism.checkCancelled(Thread.currentThread()))
+				.isInstanceOf(CancellationException.class);
+		} finally {
+			Thread.interrupted();
+		}
+	}
+
+	@Test
+	void defaults_apply_to_missing_values() {
+		try (Parallelism parallelism = Parallelism.of(new RoseauOptions.Performance(3, null, null))) {
+			assertThat(parallelism.jobs()).isEqualTo(3);
+			assertThat(parallelism.maxHeapFraction()).isEqualTo(Parallelism.DEFAULT_MAX_HEAP_FRACTION);
+		}
+	}
+
+	@Test
+	void invalid_values() {
+		assertThatThrownBy(() -> new Parallelism(0, 1, 0.8)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new Parallelism(1, 0, 0.8)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new Parallelism(1, 1, 1.5)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,163 @@
+package io.github.alien.roseau;
+
+import io.github.alien.roseau.api.model.API;
+import io.github.alien.roseau.diff.RoseauReport;
+import io.github.alien.roseau.diff.changes.BreakingChangeDetails;
+import io.github.alien.roseau.options.RoseauOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReportCacheTest {
+	static final RoseauOptions.Diff ALL = new RoseauOptions.Diff(null, false, false);
+
+	@TempDir
+	Path wd;
+	@TempDir
+	Path store;
+	Path v1;
+	Path v2;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		v1 = Files.createDirectory(wd.resolve("v1"));
+		v2 = Files.createDirectory(wd.resolve("v2"));
+		Files.writeString(v1.resolve("A.java"), """
+			public class A {
+				public int f;
+				public A(int i) {}
+				public void m() {}
+			}""");
+		Files.writeString(v1.resolve("I.java"), """
+			public interface I {}""");
+		Files.writeString(v2.resolve("A.java"), """
+			public class A {
+				public String f;
+				public A(int i) {}
+			}""");
+		Files.writeString(v2.resolve("I.java"), """
+			public interface I { void n(); }""");
+	}
+
+	@Test
+	void stored_reports_are_bound_to_fresh_apis() {
+		var cache = new ReportCache(store, "1.0");
+		RoseauReport report = diff(Library.of(v1), Library.of(v2));
+		String key = cache.key(report.v1(), report.v2(), ALL);
+
+		assertThat(cache.store(key, report)).isTrue();
+
+		API freshV1 = Roseau.buildAPI(Library.of(v1));
+		API freshV2 = Roseau.buildAPI(Library.of(v2));
+		var cached = cache.find(cache.key(freshV1, freshV2, ALL), freshV1, freshV2);
+
+		assertThat(cached).isPresent();
+		assertThat(cached.get().v1()).isSameAs(freshV1);
+		assertThat(cached.get().getBreakingChanges())
+			.isNotEmpty()
+			.containsExactlyElementsOf(report.getBreakingChanges());
+		assertThat(cached.get().getBreakingChanges())
+			.anyMatch(bc -> bc.details() instanceof BreakingChangeDetails.FieldTypeChanged)
+			.anyMatch(bc -> bc.details() instanceof BreakingChangeDetails.TypeNewAbstractMethod);
+	}
+
+	@Test
+	void identical_libraries_at_other_paths_share_reports() throws IOException {
+		var cache = new ReportCache(store, "1.0");
+		RoseauReport report = diff(Library.of(v1), Library.of(v2));
+		Path copy = Files.createDirectory(wd.resolve("copy"));
+		try (Stream<Path> files = Files.list(v2)) {
+			for (Path file : files.toList()) {
+				Files.copy(file, copy.resolve(file.getFileName()));
+			}
+		}
+		API copied = Roseau.buildAPI(Library.of(copy));
+
+		assertThat(cache.key(report.v1(), copied, ALL)).isEqualTo(cache.key(report.v1(), report.v2(), ALL));
+	}
+
+	@Test
+	void keys_depend_on_content_options_and_version() throws IOException {
+		RoseauReport report = diff(Library.of(v1), Library.of(v2));
+		String key = new ReportCache(store, "1.0").key(report.v1(), report.v2(), ALL);
+
+		assertThat(new ReportCache(store, "1.0").key(Library.of(v1), Library.of(v2), ALL)).isEqualTo(key);
+		assertThat(new ReportCache(store, "1.0").key(report.v1(), report.v2(), new RoseauOptions.Diff(null, false, true)))
+			.isNotEqualTo(key);
+		assertThat(new ReportCache(store, "2.0").key(report.v1(), report.v2(), ALL))
+			.isNotEqualTo(key);
+
+		Files.writeString(v2.resolve("B.java"), "public class B {}");
+		assertThat(new ReportCache(store, "1.0").key(report.v1(), report.v2(), ALL))
+			.isNotEqualTo(key);
+	}
+
+	@Test
+	void classpath_entries_are_keyed_by_content() throws IOException {
+		var cache = new ReportCache(store, "1.0");
+		Path jar = Files.writeString(wd.resolve("dep.jar"), "content");
+		Path copy = Files.writeString(wd.resolve("copy.jar"), "content");
+		Library withJar = Library.builder().location(v2).classpath(List.of(jar)).build();
+		String key = cache.key(Library.of(v1), withJar, ALL);
+
+		assertThat(cache.key(Library.of(v1), Library.builder().location(v2).classpath(List.of(copy)).build(), ALL))
+			.isEqualTo(key);
+
+		Files.setLastModifiedTime(jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 10_000));
+		assertThat(cache.key(Library.of(v1), withJar, ALL)).isEqualTo(key);
+
+		Files.writeString(jar, "changed");
+		assertThat(cache.key(Library.of(v1), withJar, ALL)).isNotEqualTo(key);
+	}
+
+	@Test
+	void classpath_directories_with_the_same_metadata_are_keyed_by_content() throws IOException {
+		var cache = new ReportCache(store, "1.0");
+		FileTime mtime = FileTime.fromMillis(System.currentTimeMillis() - 10_000);
+		Path classes = Files.createDirectories(wd.resolve("classes/pkg"));
+		Path same = Files.createDirectories(wd.resolve("same/pkg"));
+		Path other = Files.createDirectories(wd.resolve("other/pkg"));
+		Files.setLastModifiedTime(Files.writeString(classes.resolve("A.class"), "content"), mtime);
+		Files.setLastModifiedTime(Files.writeString(same.resolve("A.class"), "content"), mtime);
+		Files.setLastModifiedTime(Files.writeString(other.resolve("A.class"), "changed"), mtime);
+		String key = cache.key(Library.of(v1), withClasspath(wd.resolve("classes")), ALL);
+
+		assertThat(cache.key(Library.of(v1), withClasspath(wd.resolve("same")), ALL)).isEqualTo(key);
+		assertThat(cache.key(Library.of(v1), withClasspath(wd.resolve("other")), ALL)).isNotEqualTo(key);
+	}
+
+	Library withClasspath(Path entry) {
+		return Library.builder().location(v2).classpath(List.of(entry)).build();
+	}
+
+	@Test
+	void unknown_and_unreadable_reports_are_not_found() throws IOException {
+		var cache = new ReportCache(store, "1.0");
+		RoseauReport report = diff(Library.of(v1), Library.of(v2));
+		String key = cache.key(report.v1(), report.v2(), ALL);
+
+		assertThat(cache.find(key, report.v1(), report.v2())).isEmpty();
+
+		cache.store(key, report);
+		try (Stream<Path> files = Files.walk(store)) {
+			for (Path file : files.filter(Files::isRegularFile).toList()) {
+				Files.writeString(file, "{ not json");
+			}
+		}
+
+		assertThat(cache.find(key, report.v1(), report.v2())).isEmpty();
+	}
+
+	static RoseauReport diff(Library v1, Library v2) {
+		return Roseau.diff(Roseau.buildAPI(v1), Roseau.buildAPI(v2)).filterReport(ALL);
+	}
+}
@@ -0,0 +1,98 @@
+package io.github.alien.roseau;
+
+import io.github.alien.roseau.api.model.API;
+import io.github.alien.roseau.api.model.TypeDecl;
+import io.github.alien.roseau.utils.TestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static io.github.alien.roseau.utils.TestUtils.assertClass;
+import static io.github.alien.roseau.utils.TestUtils.assertNoType;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScopedAnalysisTest {
+	// Sources of the scoped-analysis JARs are in src/test/resources/scoped-analysis; v2 removes the out-of-scope apis.C,
+	// v3 removes the method A inherits from the out-of-scope internal.Base
+	static final Path SOURCES_V1 = Path.of("src/test/resources/scoped-analysis/v1");
+	static final Path JAR_V1 = Path.of("src/test/resources/scoped-analysis-v1.jar");
+	static final Path JAR_V2 = Path.of("src/test/resources/scoped-analysis-v2.jar");
+	static final Path JAR_V3 = Path.of("src/test/resources/scoped-analysis-v3.jar");
+
+	static Library scoped(Path location) {
+		return Library.builder().location(location).packages(List.of("api")).build();
+	}
+
+	void assertScoped(API api) {
+		var a = assertClass(api, "api.A");
+		assertClass(api, "api.sub.B");
+		assertNoType(api, "internal.Base");
+		assertNoType(api, "apis.C");
+		assertThat(api.analyzer().findMethod(a, "m()")).isPresent();
+		assertThat(api.getIncludedTypes()).extracting(TypeDecl::getQualifiedName)
+			.containsExactlyInAnyOrder("api.A", "api.sub.B");
+	}
+
+	@Test
+	void scoped_jar_only_extracts_in_scope_packages() {
+		assertScoped(Roseau.buildAPI(scoped(JAR_V1)));
+	}
+
+	@Test
+	void scoped_sources_only_extract_in_scope_packages() {
+		assertScoped(Roseau.buildAPI(scoped(SOURCES_V1)));
+	}
+
+	@Test
+	void out_of_scope_changes_are_not_reported() {
+		assertThat(Roseau.diff(scoped(JAR_V1), scoped(JAR_V2)).getAllBreakingChanges()).isEmpty();
+	}
+
+	@Test
+	void in_scope_changes_through_out_of_scope_supertypes_are_reported() {
+		assertThat(Roseau.diff(scoped(JAR_V1), scoped(JAR_V3)).getAllBreakingChanges())
+			.extracting(bc -> bc.impactedType().getQualifiedName())
+			.containsOnly("api.A");
+	}
+
+	static final Map<String, String> NESTED_SUPERTYPE = Map.of(
+		"api.D", """
+			package api;
+			public class D extends internal.Outer.Inner {}""",
+		"internal.Outer", """
+			package internal;
+			public class Outer {
+				public static class Inner {
+					public void n() {}
+				}
+			}""");
+
+	void assertNestedSupertype(API api) {
+		var d = assertClass(api, "api.D");
+		assertNoType(api, "internal.Outer$Inner");
+		assertThat(api.analyzer().findMethod(d, "n()")).isPresent();
+	}
+
+	@Test
+	void nested_out_of_scope_supertypes_of_jars_are_resolved(@TempDir Path dir) throws IOException {
+		var jar = dir.resolve("nested.jar");
+		try (var _ = TestUtils.buildJar(NESTED_SUPERTYPE, jar)) {
+			assertNestedSupertype(Roseau.buildAPI(scoped(jar)));
+		}
+	}
+
+	@Test
+	void nested_out_of_scope_supertypes_of_sources_are_resolved(@TempDir Path dir) throws IOException {
+		for (var source : NESTED_SUPERTYPE.entrySet()) {
+			var file = dir.resolve(source.getKey().replace('.', '/') + ".java");
+			Files.createDirectories(file.getParent());
+			Files.writeString(file, source.getValue());
+		}
+		assertNestedSupertype(Roseau.buildAPI(scoped(dir)));
+	}
+}
@@ -0,0 +1,75 @@
+package io.github.alien.roseau.api.analysis;
+
+import io.github.alien.roseau.options.RoseauOptions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExclusionMatcherTest {
+	static ExclusionMatcher matcher(String... names) {
+		return new ExclusionMatcher(new RoseauOptions.Exclude(List.of(names), List.of()));
+	}
+
+	@Test
+	void prefix_patterns() {
+		var matcher = matcher("com\\.acme\\.internal\\..*", "com\\.acme\\.Impl.*");
+
+		assertThat(matcher.matchesName("com.acme.internal.A")).isTrue();
+		assertThat(matcher.matchesName("com.acme.internal.")).isTrue();
+		assertThat(matcher.matchesName("com.acme.Impl")).isTrue();
+		assertThat(matcher.matchesName("com.acme.ImplHelper.m")).isTrue();
+		assertThat(matcher.matchesName("com.acme.internal")).isFalse();
+		assertThat(matcher.matchesName("com.acme.api.A")).isFalse();
+	}
+
+	@Test
+	void exact_patterns() {
+		var matcher = matcher("com\\.acme\\.A");
+
+		assertThat(matcher.matchesName("com.acme.A")).isTrue();
+		assertThat(matcher.matchesName("com.acme.AB")).isFalse();
+		assertThat(matcher.matchesName("com.acme")).isFalse();
+	}
+
+	@Test
+	void regex_patterns() {
+		var matcher = matcher("com.acme.A", ".*\\.internal\\..*", "com\\.acme\\.B*");
+
+		assertThat(matcher.matchesName("comXacme.A")).isTrue();
+		assertThat(matcher.matchesName("org.x.internal.Y")).isTrue();
+		assertThat(matcher.matchesName("com.acme.BBB")).isTrue();
+		assertThat(matcher.matchesName("com.acme.")).isTrue();
+		assertThat(matcher.matchesName("com.acme.C")).isFalse();
+	}
+
+	@Test
+	void dollar_is_an_anchor_unless_escaped() {
+		var anchored = matcher("com\\.acme\\.A$", "com\\.acme\\.Outer$Inner");
+		var escaped = matcher("com\\.acme\\.Outer\\$Inner", "com\\.acme\\.Outer\\$Nested\\..*");
+
+		assertThat(anchored.matchesName("com.acme.A")).isTrue();
+		// Same outcome as the regular expression itself: '$' anchors the end of the name
+		assertThat(anchored.matchesName("com.acme.Outer$Inner")).isFalse();
+		assertThat(escaped.matchesName("com.acme.Outer$Inner")).isTrue();
+		assertThat(escaped.matchesName("com.acme.Outer$Nested.m")).isTrue();
+		assertThat(escaped.matchesName("com.acme.OuterXInner")).isFalse();
+	}
+
+	@Test
+	void invalid_patterns_are_ignored() {
+		var matcher = matcher("com.acme.(", "com\\.acme\\.A");
+
+		assertThat(matcher.matchesName("com.acme.A")).isTrue();
+		assertThat(matcher.matchesName("com.acme.(")).isFalse();
+	}
+
+	@Test
+	void no_exclusion() {
+		var matcher = matcher();
+
+		assertThat(matcher.isEmpty()).isTrue();
+		assertThat(matcher.matchesName("com.acme.A")).isFalse();
+	}
+}
@@ -16,7 +16,10 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -98,4 +101,45 @@ class LibraryTypesTest {
 
 		assertThat(res).isEqualTo(orig);
 	}
+
+	@Test
+	void binding_to_another_library_keeps_types_deferred() {
+		var header = ApiTestFactory.newInterface("test.pkg.I1", AccessModifier.PACKAGE_PRIVATE);
+		var complete = ApiTestFactory.newInterface("test.pkg.I1", AccessModifier.PACKAGE_PRIVATE);
+		var completions = new AtomicInteger();
+		var lt = new LibraryTypes(mockLibrary, ModuleDecl.UNNAMED_MODULE, Set.of(header),
+			Map.of("test.pkg.I1", () -> {
+				completions.incrementAndGet();
+				return complete;
+			}));
+		var other = mock(Library.class);
+
+		var bound = lt.withLibrary(other);
+
+		assertThat(bound.getLibrary()).isSameAs(other);
+		assertThat(bound.getTypeHeaders()).containsOnly(header);
+		assertThat(completions).hasValue(0);
+		assertThat(bound.findType("test.pkg.I1")).containsSame(complete);
+		assertThat(lt.findType("test.pkg.I1")).containsSame(complete);
+		assertThat(completions).hasValue(1);
+	}
+
+	@Test
+	void deferred_types_are_compared_without_completing_them() {
+		var header = ApiTestFactory.newInterface("test.pkg.I1", AccessModifier.PACKAGE_PRIVATE);
+		var completions = new AtomicInteger();
+		Function<byte[], TypeDecl> extractor = _ -> {
+			completions.incrementAndGet();
+			return header;
+		};
+		var lt1 = new LibraryTypes(mockLibrary, ModuleDecl.UNNAMED_MODULE, Set.of(header),
+			Map.of("test.pkg.I1", DeferredType.ofClassFile(new byte[]{1, 2, 3}, extractor)));
+		var lt2 = new LibraryTypes(mockLibrary, ModuleDecl.UNNAMED_MODULE, Set.of(header),
+			Map.of("test.pkg.I1", DeferredType.ofClassFile(new byte[]{1, 2, 3}, extractor)));
+		var lt3 = new LibraryTypes(mockLibrary, ModuleDecl.UNNAMED_MODULE, Set.of(header),
+			Map.of("test.pkg.I1", DeferredType.ofClassFile(new byte[]{4}, extractor)));
+
+		assertThat(lt1).isEqualTo(lt2).hasSameHashCodeAs(lt2).isNotEqualTo(lt3);
+		assertThat(completions).hasValue(0);
+	}
 }
@@ -90,6 +90,33 @@ class ClasspathTypeProviderTest {
 		}
 	}
 
+	@Test
+	void classpath_nested_type_by_canonical_name() throws IOException {
+		var sources = Map.of("pkg.Outer", """
+			package pkg;
+			public class Outer {
+				public static class Nested {
+					public static class Deep {}
+				}
+			}""");
+		var jar = tempDir.resolve("test.jar");
+
+		try (var _ = TestUtils.buildJar(sources, jar)) {
+			provider = new ClasspathTypeProvider(extractor, List.of(jar));
+			assertThat(provider.findType("pkg.Outer.Nested").orElseThrow().getQualifiedName())
+				.isEqualTo("pkg.Outer$Nested");
+			assertThat(provider.findType("pkg.Outer.Nested.Deep").orElseThrow().getQualifiedName())
+				.isEqualTo("pkg.Outer$Nested$Deep");
+			assertThat(provider.findType("pkg.Outer.Missing")).isEmpty();
+		}
+	}
+
+	@Test
+	void nested_entries_are_tried_after_top_level_ones() {
+		assertThat(ClasspathTypeProvider.nameToEntries("pkg.A.B")).containsExactly(
+			"pkg/A/B.class", "pkg/A$B.class", "pkg$A$B.class");
+	}
+
 	@Test
 	void classpath_precedence() throws IOException {
 		var sources1 = Map.of("pkg.C", """
@@ -245,4 +272,29 @@ class ClasspathTypeProviderTest {
 		var result = provider.findType("java.lang.String", InterfaceDecl.class);
 		assertThat(result).isEmpty();
 	}
+
+	@Test
+	void shared_cache_reads_types_once() throws IOException {
+		var sources = Map.of("pkg.C", """
+			package pkg;
+			public class C {}""");
+		var jar = tempDir.resolve("test.jar");
+		var cache = new ClasspathTypeCache(100);
+
+		try (var _ = TestUtils.buildJar(sources, jar)) {
+			var first = new ClasspathTypeProvider(extractor, List.of(jar), cache);
+			var second = new ClasspathTypeProvider(extractor, List.of(jar), cache);
+			assertThat(second.findType("pkg.C").orElseThrow()).isSameAs(first.findType("pkg.C").orElseThrow());
+			assertThat(second.findType("java.lang.String").orElseThrow())
+				.isSameAs(first.findType("java.lang.String").orElseThrow());
+		}
+	}
+
+	@Test
+	void shared_cache_checks_expected_kind() {
+		provider = new ClasspathTypeProvider(extractor, List.of(), new ClasspathTypeCache(100));
+
+		assertThat(provider.findType("java.lang.String", InterfaceDecl.class)).isEmpty();
+		assertThat(provider.findType("java.lang.String", ClassDecl.class)).isPresent();
+	}
 }
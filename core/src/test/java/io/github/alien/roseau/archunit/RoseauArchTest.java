@@ -18,4 +18,14 @@ class RoseauArchTest {
 	static final ArchRule jdt_is_only_used_for_parsing =
 		noClasses().that().resideOutsideOfPackage("..roseau.extractors.jdt..")
 			.should().accessClassesThat().resideInAPackage("org.eclipse.jdt..");
+
+	@ArchTest
+	static final ArchRule classfile_api_is_only_used_for_parsing =
+		noClasses().that().resideOutsideOfPackage("..roseau.extractors.classfile..")
+			.should().accessClassesThat().resideInAPackage("java.lang.classfile..");
+
+	@ArchTest
+	static final ArchRule jgit_is_only_used_for_git_revisions =
+		noClasses().that().resideOutsideOfPackage("..roseau.git..")
+			.should().accessClassesThat().resideInAPackage("org.eclipse.jgit..");
 }
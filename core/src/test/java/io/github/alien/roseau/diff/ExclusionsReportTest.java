@@ -1,6 +1,7 @@
 package io.github.alien.roseau.diff;
 
 import io.github.alien.roseau.Roseau;
+import io.github.alien.roseau.api.model.TypeDecl;
 import io.github.alien.roseau.options.RoseauOptions;
 import io.github.alien.roseau.utils.TestUtils;
 import org.junit.jupiter.api.Test;
@@ -111,4 +112,60 @@ class ExclusionsReportTest {
 		assertThat(report.getAllBreakingChanges()).hasSize(1);
 		assertThat(report.getBreakingChanges()).isEmpty();
 	}
+
+	@Test
+	void pruned_exclusions_are_not_analyzed() {
+		var v1src = """
+			module m { exports p.api; exports p.internal; }
+			package p.internal;
+			public class Base { public void inherited() {} }
+			public class Removed {}
+			package p.api;
+			public class C extends p.internal.Base { public void m() {} }""";
+		var v2src = """
+			module m { exports p.api; exports p.internal; }
+			package p.internal;
+			public class Base {}
+			package p.api;
+			public class C extends p.internal.Base {}""";
+
+		var exclude = new RoseauOptions.Exclude(List.of("p\\.internal\\..*"), List.of(), true);
+		var v1 = TestUtils.buildSourcesAPI(v1src, exclude);
+		var v2 = TestUtils.buildSourcesAPI(v2src, exclude);
+		var report = Roseau.diff(v1, v2);
+
+		assertThat(v1.getIncludedTypes()).extracting(TypeDecl::getQualifiedName).containsExactly("p.api.C");
+		assertThat(v1.findExportedType("p.internal.Base")).isPresent();
+		assertThat(report.getAllBreakingChanges()).singleElement()
+			.satisfies(bc -> assertThat(bc.impactedSymbol().getQualifiedName()).isEqualTo("p.api.C.m"));
+	}
+
+	@Test
+	void pruning_follows_the_exclusions_of_v1_on_both_sides() {
+		var v1src = """
+			module m { exports p.api; exports p.internal; }
+			package p.internal;
+			public interface J {}
+			package p.api;
+			public interface I extends p.internal.J {}""";
+		var v2src = """
+			module m { exports p.api; exports p.internal; }
+			package p.internal;
+			public interface J { void n(); }
+			public class Added {}
+			package p.api;
+			public interface I extends p.internal.J {}""";
+
+		var v1 = TestUtils.buildSourcesAPI(v1src,
+			new RoseauOptions.Exclude(List.of("p\\.internal\\..*"), List.of(), true));
+		var v2 = TestUtils.buildSourcesAPI(v2src);
+		var pruned = Roseau.diff(v1, v2);
+		var filtered = Roseau.diff(TestUtils.buildSourcesAPI(v1src,
+			new RoseauOptions.Exclude(List.of("p\\.internal\\..*"), List.of())), v2);
+
+		// n() is added to I through the excluded J: pruned on v2's side although v2 excludes nothing
+		assertThat(filtered.getAllBreakingChanges()).isNotEmpty();
+		assertThat(filtered.getBreakingChanges()).isEmpty();
+		assertThat(pruned.getAllBreakingChanges()).isEmpty();
+	}
 }
@@ -0,0 +1,66 @@
+package io.github.alien.roseau.diff;
+
+import io.github.alien.roseau.Roseau;
+import io.github.alien.roseau.diff.changes.BreakingChangeKind;
+import io.github.alien.roseau.options.RoseauOptions;
+import io.github.alien.roseau.utils.TestUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FailFastDiffTest {
+	static final String V1 = """
+		module m { exports p.api; }
+		package p.api;
+		public class A { public void m() {} public void n() {} }
+		public class B { public void m() {} public void n() {} }""";
+	static final String V2 = """
+		module m { exports p.api; }
+		package p.api;
+		public class A {}
+		public class B {}""";
+
+	@Test
+	void stops_at_first_breaking_change() {
+		var v1 = TestUtils.buildSourcesAPI(V1);
+		var v2 = TestUtils.buildSourcesAPI(V2);
+		var report = Roseau.diff(v1, v2, _ -> true);
+
+		assertThat(report.isComplete()).isFalse();
+		assertThat(report.getBreakingChanges()).isNotEmpty();
+	}
+
+	@Test
+	void full_analysis_is_complete() {
+		var v1 = TestUtils.buildSourcesAPI(V1);
+		var v2 = TestUtils.buildSourcesAPI(V2);
+		var report = Roseau.diff(v1, v2);
+
+		assertThat(report.isComplete()).isTrue();
+		assertThat(report.getBreakingChanges()).hasSize(4);
+	}
+
+	@Test
+	void unmatched_stop_condition_runs_to_completion() {
+		var v1 = TestUtils.buildSourcesAPI(V1);
+		var v2 = TestUtils.buildSourcesAPI(V2);
+		var report = Roseau.diff(v1, v2, bc -> bc.kind() == BreakingChangeKind.TYPE_REMOVED);
+
+		assertThat(report.isComplete()).isTrue();
+		assertThat(report.getBreakingChanges()).hasSize(4);
+	}
+
+	@Test
+	void excluded_breaking_changes_do_not_stop_analysis() {
+		var exclude = new RoseauOptions.Exclude(List.of("p\\.api\\..*"), List.of());
+		var v1 = TestUtils.buildSourcesAPI(V1, exclude);
+		var v2 = TestUtils.buildSourcesAPI(V2, exclude);
+		var report = Roseau.diff(v1, v2, _ -> true);
+
+		assertThat(report.isComplete()).isTrue();
+		assertThat(report.getAllBreakingChanges()).hasSize(4);
+		assertThat(report.getBreakingChanges()).isEmpty();
+	}
+}
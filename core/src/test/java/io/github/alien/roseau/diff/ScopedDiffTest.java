@@ -0,0 +1,51 @@
+package io.github.alien.roseau.diff;
+
+import io.github.alien.roseau.Roseau;
+import io.github.alien.roseau.utils.TestUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScopedDiffTest {
+	static final String V1 = """
+		public class A { public void m() {} }
+		public class B { public void m() {} }
+		public class C {}""";
+	static final String V2 = """
+		public class A {}
+		public class B {}""";
+
+	@Test
+	void only_provided_types_are_compared() {
+		var v1 = TestUtils.buildSourcesAPI(V1);
+		var v2 = TestUtils.buildSourcesAPI(V2);
+		var report = Roseau.diffTypes(v1, v2, Set.of("A"));
+
+		assertThat(report.getBreakingChanges())
+			.singleElement()
+			.extracting(bc -> bc.impactedType().getQualifiedName())
+			.isEqualTo("A");
+	}
+
+	@Test
+	void removed_types_are_reported_when_in_scope() {
+		var v1 = TestUtils.buildSourcesAPI(V1);
+		var v2 = TestUtils.buildSourcesAPI(V2);
+
+		assertThat(Roseau.diffTypes(v1, v2, Set.of("C")).getBreakingChanges())
+			.extracting(bc -> bc.impactedType().getQualifiedName())
+			.containsOnly("C");
+		assertThat(Roseau.diffTypes(v1, v2, Set.of()).getBreakingChanges()).isEmpty();
+	}
+
+	@Test
+	void all_types_in_scope_match_full_diff() {
+		var v1 = TestUtils.buildSourcesAPI(V1);
+		var v2 = TestUtils.buildSourcesAPI(V2);
+
+		assertThat(Roseau.diffTypes(v1, v2, Set.of("A", "B", "C")).getBreakingChanges())
+			.containsExactlyInAnyOrderElementsOf(Roseau.diff(v1, v2).getBreakingChanges());
+	}
+}
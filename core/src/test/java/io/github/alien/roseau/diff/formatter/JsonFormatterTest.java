@@ -0,0 +1,37 @@
+package io.github.alien.roseau.diff.formatter;
+
+import io.github.alien.roseau.Roseau;
+import io.github.alien.roseau.diff.RoseauReport;
+import io.github.alien.roseau.utils.TestUtils;
+import org.json.JSONArray;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonFormatterTest {
+	static RoseauReport report(int removedMethods) {
+		var v1 = new StringBuilder("public class A {");
+		for (int i = 0; i < removedMethods; i++) {
+			v1.append("public void m").append(i).append("() {}");
+		}
+		v1.append("}");
+		return Roseau.diff(TestUtils.buildSourcesAPI(v1.toString()), TestUtils.buildSourcesAPI("public class A {}"));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {0, 1, 3})
+	void streamed_output_matches_json_array_layout(int bcs) throws IOException {
+		var report = report(bcs);
+		var writer = new StringWriter();
+		new JsonFormatter().format(report, writer);
+
+		var json = writer.toString();
+		var parsed = new JSONArray(json);
+		assertThat(parsed.length()).isEqualTo(bcs);
+		assertThat(json).isEqualTo(parsed.toString(2));
+	}
+}
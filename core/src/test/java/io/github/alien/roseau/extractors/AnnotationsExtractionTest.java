@@ -477,4 +477,39 @@ class AnnotationsExtractionTest {
 			ElementType.FIELD, ElementType.METHOD, ElementType.TYPE);
 		assertThat(ann.values()).containsEntry("value", "{}"); // We ignore those
 	}
+
+	@ParameterizedTest
+	@EnumSource(ApiBuilderType.class)
+	void primitive_array_values(ApiBuilder builder) {
+		var api = builder.build("""
+			public @interface A {
+				int[] ints();
+				String[] strings();
+			}
+			@A(ints = {1, 2}, strings = {"a", "b"}) public class C {}""");
+
+		var c = assertClass(api, "C");
+		var ann = c.getAnnotation(new TypeReference<>("A")).orElseThrow();
+		assertThat(ann.values()).containsExactlyInAnyOrderEntriesOf(
+			Map.of("ints", "{}",
+				"strings", "{}"));
+	}
+
+	@ParameterizedTest
+	@EnumSource(ApiBuilderType.class)
+	void nested_annotation_values(ApiBuilder builder) {
+		var api = builder.build("""
+			public @interface Inner {
+				int value();
+			}
+			public @interface Outer {
+				Inner value();
+			}
+			@Outer(@Inner(1)) public class C {}""");
+
+		var c = assertClass(api, "C");
+		var ann = c.getAnnotation(new TypeReference<>("Outer")).orElseThrow();
+		assertThat(ann.values()).containsExactlyEntriesOf(
+			Map.of("value", "@Inner"));
+	}
 }
@@ -28,7 +28,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 class LocationsExtractionTest {
 	@ParameterizedTest
-	@EnumSource(value = ApiBuilderType.class, names = {"ASM"}, mode = EnumSource.Mode.EXCLUDE)
+	@EnumSource(value = ApiBuilderType.class, names = {"ASM", "CLASSFILE"}, mode = EnumSource.Mode.EXCLUDE)
 	void unified_source_locations(ApiBuilder builder) {
 		var api = builder.build("""
 			public class C1 {
@@ -91,7 +91,7 @@ class LocationsExtractionTest {
 	}
 
 	@ParameterizedTest
-	@EnumSource(value = ApiBuilderType.class, names = {"ASM"}, mode = EnumSource.Mode.EXCLUDE)
+	@EnumSource(value = ApiBuilderType.class, names = {"ASM", "CLASSFILE"}, mode = EnumSource.Mode.EXCLUDE)
 	void implicit_symbol_location(ApiBuilder builder) {
 		var api = builder.build("""
 			public record R(
@@ -107,7 +107,7 @@ class LocationsExtractionTest {
 	}
 
 	@ParameterizedTest
-	@EnumSource(value = ApiBuilderType.class, names = {"ASM"}, mode = EnumSource.Mode.EXCLUDE)
+	@EnumSource(value = ApiBuilderType.class, names = {"ASM", "CLASSFILE"}, mode = EnumSource.Mode.EXCLUDE)
 	void implicit_constructor_location(ApiBuilder builder) {
 		var api = builder.build("""
 			public class C {
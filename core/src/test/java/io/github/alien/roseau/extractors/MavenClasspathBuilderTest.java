@@ -8,6 +8,7 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -92,4 +93,298 @@ class MavenClasspathBuilderTest {
 		var cp = builder.buildClasspath(invalidPom);
 		assertThat(cp).isEmpty();
 	}
+
+	@Test
+	void resolves_offline_from_local_repository() throws IOException {
+		var repository = localRepository();
+		var builder = new MavenClasspathBuilder(repository, List.of(), wd.resolve("cache"));
+		var cp = builder.buildClasspath(projectPom(wd.resolve("project")));
+
+		assertThat(cp)
+			.extracting(p -> p.getFileName().toString())
+			.containsExactlyInAnyOrder("lib-1.0.jar", "dep-1.0.jar", "junit-1.0.jar");
+	}
+
+	@Test
+	void identical_poms_share_cached_classpath() throws IOException {
+		var repository = localRepository();
+		var cache = wd.resolve("cache");
+		var cp1 = new MavenClasspathBuilder(repository, List.of(), cache).buildClasspath(projectPom(wd.resolve("v1")));
+
+		// Without lib's pom, its transitive dependency could no longer be resolved
+		Files.delete(repository.resolve("com/example/lib/1.0/lib-1.0.pom"));
+		var cp2 = new MavenClasspathBuilder(repository, List.of(), cache).buildClasspath(projectPom(wd.resolve("v2")));
+
+		assertThat(cache).isDirectoryContaining("glob:**.classpath");
+		assertThat(cp2).containsExactlyInAnyOrderElementsOf(cp1);
+	}
+
+	@Test
+	void stale_cached_classpath_is_resolved_again() throws IOException {
+		var repository = localRepository();
+		var cache = wd.resolve("cache");
+		new MavenClasspathBuilder(repository, List.of(), cache).buildClasspath(projectPom(wd.resolve("v1")));
+
+		Files.delete(repository.resolve("com/example/dep/1.0/dep-1.0.jar"));
+		var cp = new MavenClasspathBuilder(repository, List.of(), cache).buildClasspath(projectPom(wd.resolve("v1")));
+
+		assertThat(cp)
+			.extracting(p -> p.getFileName().toString())
+			.containsExactlyInAnyOrder("lib-1.0.jar", "junit-1.0.jar");
+	}
+
+	@Test
+	void cached_poms_are_not_built_again() throws IOException {
+		var repository = localRepository();
+		var cache = wd.resolve("cache");
+		var parent = Files.createDirectories(repository.resolve("com/example/parent/1.0"));
+		Files.writeString(parent.resolve("parent-1.0.pom"), """
+			<project xmlns="http://maven.apache.org/POM/4.0.0">
+			    <modelVersion>4.0.0</modelVersion>
+			    <groupId>com.example</groupId>
+			    <artifactId>parent</artifactId>
+			    <version>1.0</version>
+			    <packaging>pom</packaging>
+			</project>""");
+		var pom = Files.createDirectories(wd.resolve("child")).resolve("pom.xml");
+		Files.writeString(pom, """
+			<project xmlns="http://maven.apache.org/POM/4.0.0">
+			    <modelVersion>4.0.0</modelVersion>
+			    <parent>
+			        <groupId>com.example</groupId>
+			        <artifactId>parent</artifactId>
+			        <version>1.0</version>
+			    </parent>
+			    <artifactId>child</artifactId>
+			    <dependencies>
+			        <dependency>
+			            <groupId>com.example</groupId>
+			            <artifactId>dep</artifactId>
+			            <version>1.0</version>
+			        </dependency>
+			    </dependencies>
+			</project>""");
+		var cp1 = new MavenClasspathBuilder(repository, List.of(), cache).buildClasspath(pom);
+
+		// Without its parent, the effective model of the pom could no longer be built
+		Files.delete(repository.resolve("com/example/parent/1.0/parent-1.0.pom"));
+		var cp2 = new MavenClasspathBuilder(repository, List.of(), cache).buildClasspath(pom);
+
+		assertThat(cp1).extracting(p -> p.getFileName().toString()).containsExactly("dep-1.0.jar");
+		assertThat(cp2).containsExactlyElementsOf(cp1);
+	}
+
+	@Test
+	void snapshot_classpaths_are_not_cached() throws IOException {
+		var repository = localRepository();
+		var cache = wd.resolve("cache");
+		var dir = Files.createDirectories(repository.resolve("com/example/snap/1.0-SNAPSHOT"));
+		Files.writeString(dir.resolve("snap-1.0-SNAPSHOT.pom"), """
+			<project xmlns="http://maven.apache.org/POM/4.0.0">
+			    <modelVersion>4.0.0</modelVersion>
+			    <groupId>com.example</groupId>
+			    <artifactId>snap</artifactId>
+			    <version>1.0-SNAPSHOT</version>
+			</project>""");
+		Files.write(dir.resolve("snap-1.0-SNAPSHOT.jar"), new byte[]{0x50, 0x4B, 0x05, 0x06});
+		var pom = Files.createDirectories(wd.resolve("project")).resolve("pom.xml");
+		Files.writeString(pom, """
+			<project xmlns="http://maven.apache.org/POM/4.0.0">
+			    <modelVersion>4.0.0</modelVersion>
+			    <groupId>org.example</groupId>
+			    <artifactId>project</artifactId>
+			    <version>1.0</version>
+			    <dependencies>
+			        <dependency>
+			            <groupId>com.example</groupId>
+			            <artifactId>snap</artifactId>
+			            <version>1.0-SNAPSHOT</version>
+			        </dependency>
+			    </dependencies>
+			</project>""");
+
+		var cp = new MavenClasspathBuilder(repository, List.of(), cache).buildClasspath(pom);
+
+		assertThat(cp).extracting(p -> p.getFileName().toString()).containsExactly("snap-1.0-SNAPSHOT.jar");
+		assertThat(cache).doesNotExist();
+	}
+
+	@Test
+	void local_parent_changes_are_resolved_again() throws IOException {
+		var repository = localRepository();
+		var cache = wd.resolve("cache");
+		var parent = Files.createDirectories(wd.resolve("multi")).resolve("pom.xml");
+		var parentPom = """
+			<project xmlns="http://maven.apache.org/POM/4.0.0">
+			    <modelVersion>4.0.0</modelVersion>
+			    <groupId>com.example</groupId>
+			    <artifactId>multi</artifactId>
+			    <version>1.0</version>
+			    <packaging>pom</packaging>
+			    <dependencies>
+			        <dependency>
+			            <groupId>com.example</groupId>
+			            <artifactId>%s</artifactId>
+			            <version>1.0</version>
+			        </dependency>
+			    </dependencies>
+			</project>""";
+		Files.writeString(parent, parentPom.formatted("dep"));
+		var pom = Files.createDirectories(wd.resolve("multi/child")).resolve("pom.xml");
+		Files.writeString(pom, """
+			<project xmlns="http://maven.apache.org/POM/4.0.0">
+			    <modelVersion>4.0.0</modelVersion>
+			    <parent>
+			        <groupId>com.example</groupId>
+			        <artifactId>multi</artifactId>
+			        <version>1.0</version>
+			    </parent>
+			    <artifactId>child</artifactId>
+			</project>""");
+		var cp1 = new MavenClasspathBuilder(repository, List.of(), cache).buildClasspath(pom);
+
+		Files.writeString(parent, parentPom.formatted("junit"));
+		var cp2 = new MavenClasspathBuilder(repository, List.of(), cache).buildClasspath(pom);
+
+		assertThat(cp1).extracting(p -> p.getFileName().toString()).containsExactly("dep-1.0.jar");
+		assertThat(cp2).extracting(p -> p.getFileName().toString()).containsExactly("junit-1.0.jar");
+	}
+
+	@Test
+	void profiles_activated_by_properties_are_resolved_again() throws IOException {
+		var repository = localRepository();
+		var cache = wd.resolve("cache");
+		var pom = Files.createDirectories(wd.resolve("project")).resolve("pom.xml");
+		Files.writeString(pom, """
+			<project xmlns="http://maven.apache.org/POM/4.0.0">
+			    <modelVersion>4.0.0</modelVersion>
+			    <groupId>org.example</groupId>
+			    <artifactId>project</artifactId>
+			    <version>1.0</version>
+			    <profiles>
+			        <profile>
+			            <id>with-dep</id>
+			            <activation>
+			                <property>
+			                    <name>roseau.test.with-dep</name>
+			                </property>
+			            </activation>
+			            <dependencies>
+			                <dependency>
+			                    <groupId>com.example</groupId>
+			                    <artifactId>dep</artifactId>
+			                    <version>1.0</version>
+			                </dependency>
+			            </dependencies>
+			        </profile>
+			    </profiles>
+			</project>""");
+		var cp1 = new MavenClasspathBuilder(repository, List.of(), cache).buildClasspath(pom);
+
+		System.setProperty("roseau.test.with-dep", "true");
+		try {
+			var cp2 = new MavenClasspathBuilder(repository, List.of(), cache).buildClasspath(pom);
+
+			assertThat(cp1).isEmpty();
+			assertThat(cp2).extracting(p -> p.getFileName().toString()).containsExactly("dep-1.0.jar");
+		} finally {
+			System.clearProperty("roseau.test.with-dep");
+		}
+	}
+
+	@Test
+	void active_settings_profiles_apply() throws IOException {
+		var repository = localRepository();
+		var settings = wd.resolve("settings.xml");
+		Files.writeString(settings, """
+			<settings xmlns="http://maven.apache.org/SETTINGS/1.0.0">
+			    <profiles>
+			        <profile>
+			            <id>versions</id>
+			            <properties>
+			                <dep.version>1.0</dep.version>
+			            </properties>
+			        </profile>
+			    </profiles>
+			    <activeProfiles>
+			        <activeProfile>versions</activeProfile>
+			    </activeProfiles>
+			</settings>""");
+		var pom = Files.createDirectories(wd.resolve("project")).resolve("pom.xml");
+		Files.writeString(pom, """
+			<project xmlns="http://maven.apache.org/POM/4.0.0">
+			    <modelVersion>4.0.0</modelVersion>
+			    <groupId>org.example</groupId>
+			    <artifactId>project</artifactId>
+			    <version>1.0</version>
+			    <dependencies>
+			        <dependency>
+			            <groupId>com.example</groupId>
+			            <artifactId>dep</artifactId>
+			            <version>${dep.version}</version>
+			        </dependency>
+			    </dependencies>
+			</project>""");
+
+		var cp = new MavenClasspathBuilder(repository, List.of(), wd.resolve("cache"), settings).buildClasspath(pom);
+
+		assertThat(cp).extracting(p -> p.getFileName().toString()).containsExactly("dep-1.0.jar");
+	}
+
+	Path localRepository() throws IOException {
+		var repository = wd.resolve("repository");
+		install(repository, "lib", """
+			<dependency>
+			    <groupId>com.example</groupId>
+			    <artifactId>dep</artifactId>
+			    <version>1.0</version>
+			</dependency>
+			<dependency>
+			    <groupId>com.example</groupId>
+			    <artifactId>junit</artifactId>
+			    <version>1.0</version>
+			    <scope>test</scope>
+			</dependency>""");
+		install(repository, "dep", "");
+		install(repository, "junit", "");
+		return repository;
+	}
+
+	static void install(Path repository, String artifactId, String dependencies) throws IOException {
+		var dir = Files.createDirectories(repository.resolve("com/example/" + artifactId + "/1.0"));
+		Files.writeString(dir.resolve(artifactId + "-1.0.pom"), """
+			<project xmlns="http://maven.apache.org/POM/4.0.0">
+			    <modelVersion>4.0.0</modelVersion>
+			    <groupId>com.example</groupId>
+			    <artifactId>%s</artifactId>
+			    <version>1.0</version>
+			    <dependencies>%s</dependencies>
+			</project>""".formatted(artifactId, dependencies));
+		Files.write(dir.resolve(artifactId + "-1.0.jar"), new byte[]{0x50, 0x4B, 0x05, 0x06});
+	}
+
+	static Path projectPom(Path directory) throws IOException {
+		var pom = Files.createDirectories(directory).resolve("pom.xml");
+		Files.writeString(pom, """
+			<project xmlns="http://maven.apache.org/POM/4.0.0">
+			    <modelVersion>4.0.0</modelVersion>
+			    <groupId>org.example</groupId>
+			    <artifactId>project</artifactId>
+			    <version>1.0</version>
+			    <dependencies>
+			        <dependency>
+			            <groupId>com.example</groupId>
+			            <artifactId>lib</artifactId>
+			            <version>1.0</version>
+			        </dependency>
+			        <dependency>
+			            <groupId>com.example</groupId>
+			            <artifactId>junit</artifactId>
+			            <version>1.0</version>
+			            <scope>test</scope>
+			        </dependency>
+			    </dependencies>
+			</project>""");
+		return pom;
+	}
 }
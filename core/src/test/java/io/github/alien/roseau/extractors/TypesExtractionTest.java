@@ -308,8 +308,8 @@ class TypesExtractionTest {
 		assertFalse(e.isFinal());
 		assertFalse(e.isSealed());
 		assertFalse(api.analyzer().isEffectivelyFinal(e));
-		// FIXME: No support for NON_SEALED in ASM
-		if (builder != ApiBuilderType.ASM) {
+		// FIXME: No support for NON_SEALED in bytecode extractors
+		if (builder == ApiBuilderType.JDT) {
 			assertTrue(e.isNonSealed());
 		}
 
@@ -452,8 +452,8 @@ class TypesExtractionTest {
 		var d = assertInterface(api, "D");
 		assertFalse(d.isFinal());
 		assertFalse(d.isSealed());
-		// FIXME: No support for NON_SEALED in ASM
-		if (builder != ApiBuilderType.ASM) {
+		// FIXME: No support for NON_SEALED in bytecode extractors
+		if (builder == ApiBuilderType.JDT) {
 			assertTrue(d.isNonSealed());
 		}
 		assertFalse(api.analyzer().isEffectivelyFinal(d));
@@ -0,0 +1,64 @@
+package io.github.alien.roseau.extractors.asm;
+
+import io.github.alien.roseau.Library;
+import io.github.alien.roseau.RoseauException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsmDescriptorScreenTest {
+	// Sources of the descriptor-screen JARs are in src/test/resources/descriptor-screen
+	static final Library V1 = Library.of(Path.of("src/test/resources/descriptor-screen-v1.jar"));
+	static final Library V2 = Library.of(Path.of("src/test/resources/descriptor-screen-v2.jar"));
+	static final Library CORRUPT = Library.of(Path.of("src/test/resources/descriptor-screen-corrupt.jar"));
+	static final Library SHOWCASE = Library.of(Path.of("src/test/resources/api-showcase.jar"));
+	static final Library SHOWCASE_NO_DEBUG = Library.of(Path.of("src/test/resources/api-showcase-no-debug.jar"));
+
+	AsmDescriptorScreen screen = new AsmDescriptorScreen();
+
+	@Test
+	void identical_jars_cannot_break() {
+		assertThat(screen.mayBreak(V1, V1)).isFalse();
+	}
+
+	@Test
+	void debug_information_cannot_break() {
+		assertThat(screen.mayBreak(SHOWCASE, SHOWCASE_NO_DEBUG)).isFalse();
+	}
+
+	@Test
+	void module_declaration_is_digested() {
+		var module = Library.of(Path.of("src/test/resources/one-module.jar"));
+
+		assertThat(screen.digest(module)).containsKeys("module-info", "pkg.C");
+		assertThat(screen.mayBreak(module, module)).isFalse();
+	}
+
+	@Test
+	void changed_descriptors_and_annotations_may_break() {
+		assertThat(screen.mayBreak(V1, V2)).isTrue();
+		assertThat(screen.changedTypes(screen.digest(V1), screen.digest(V2))).containsExactlyInAnyOrder(
+			"pkg.DescriptorChanged",
+			"pkg.AnnotationValueChanged",
+			"pkg.ParameterAnnotationChanged",
+			"pkg.TypeAnnotationChanged",
+			"pkg.Removed");
+	}
+
+	@Test
+	void unchanged_bodies_and_additions_cannot_break() {
+		assertThat(screen.changedTypes(screen.digest(V1), screen.digest(V2)))
+			.doesNotContain("pkg.Unchanged", "pkg.Added", "pkg.Tag", "pkg.Nullable");
+	}
+
+	@Test
+	void unreadable_class_cannot_be_screened() {
+		assertThatThrownBy(() -> screen.digest(CORRUPT))
+			.isInstanceOf(RoseauException.class)
+			.hasMessageContaining("pkg/Corrupt.class");
+		assertThat(screen.mayBreak(CORRUPT, CORRUPT)).isTrue();
+	}
+}
@@ -1,15 +1,22 @@
 package io.github.alien.roseau.extractors.asm;
 
 import io.github.alien.roseau.Library;
+import io.github.alien.roseau.Roseau;
 import io.github.alien.roseau.api.model.ModuleDecl;
+import io.github.alien.roseau.api.model.Symbol;
+import io.github.alien.roseau.api.model.TypeDecl;
 import io.github.alien.roseau.api.model.factory.DefaultApiFactory;
 import io.github.alien.roseau.api.model.reference.CachingTypeReferenceFactory;
+import io.github.alien.roseau.utils.TestUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Set;
 
+import static java.util.stream.Collectors.toMap;
 import static org.assertj.core.api.Assertions.assertThat;
 
 class AsmTypesExtractorTest {
@@ -53,4 +60,82 @@ class AsmTypesExtractorTest {
 		// Java 17 version adds a @Deprecated
 		assertThat(c.get().getAnnotations()).isNotEmpty();
 	}
+
+	@Test
+	void jmod_extracts_classes_and_module(@TempDir Path tempDir) {
+		var jmod = TestUtils.buildJmod(TestUtils.buildSourcesMap("""
+			module m {
+				exports pkg;
+			}
+
+			package pkg;
+			public class A {}
+
+			package internal;
+			public class B {}"""), tempDir.resolve("m.jmod"));
+
+		var api = Roseau.buildAPI(extractor.extractTypes(Library.of(jmod)));
+		assertThat(api.getLibraryTypes().getModule()).isEqualTo(new ModuleDecl("m", Set.of("pkg")));
+		assertThat(api.getLibraryTypes().getAllTypes()).extracting(TypeDecl::getQualifiedName)
+			.containsExactlyInAnyOrder("pkg.A", "internal.B");
+		assertThat(api.getExportedTypes()).extracting(TypeDecl::getQualifiedName).containsExactly("pkg.A");
+	}
+
+	@Test
+	void scoped_jmod_honours_classes_prefix(@TempDir Path tempDir) {
+		var jmod = TestUtils.buildJmod(TestUtils.buildSourcesMap("""
+			module m {
+				exports pkg;
+			}
+
+			package pkg;
+			public class A {}
+
+			package internal;
+			public class B {}"""), tempDir.resolve("m.jmod"));
+
+		var types = extractor.extractTypes(Library.builder().location(jmod).packages(List.of("pkg")).build());
+		assertThat(types.getModule().getQualifiedName()).isEqualTo("m");
+		assertThat(types.getAllTypes()).extracting(TypeDecl::getQualifiedName).containsExactly("pkg.A");
+	}
+
+	@Test
+	void non_exported_types_are_completed_lazily(@TempDir Path tempDir) {
+		var jar = tempDir.resolve("lazy.jar");
+		TestUtils.buildJar(TestUtils.buildSourcesMap("""
+			package pkg;
+			class Base { public void m() {} }
+			package pkg;
+			public class A extends Base { public void n() {} }"""), jar);
+
+		var types = extractor.extractTypes(Library.of(jar));
+		var headers = types.getTypeHeaders().stream().collect(toMap(TypeDecl::getQualifiedName, t -> t));
+		assertThat(headers.get("pkg.A").getDeclaredMethods()).hasSize(1);
+		assertThat(headers.get("pkg.Base").getDeclaredMethods()).isEmpty();
+
+		var base = types.findType("pkg.Base").orElseThrow();
+		assertThat(base.getDeclaredMethods()).extracting(Symbol::getSimpleName).containsExactly("m");
+		assertThat(types.getAllTypes()).contains(base);
+	}
+
+	@Test
+	void types_of_non_exported_packages_are_completed_lazily(@TempDir Path tempDir) {
+		var jmod = TestUtils.buildJmod(TestUtils.buildSourcesMap("""
+			module m {
+				exports pkg;
+			}
+
+			package pkg;
+			public class A { public void m() {} }
+
+			package internal;
+			public class B { public void n() {} }"""), tempDir.resolve("m.jmod"));
+
+		var types = extractor.extractTypes(Library.of(jmod));
+		var headers = types.getTypeHeaders().stream().collect(toMap(TypeDecl::getQualifiedName, t -> t));
+		assertThat(headers.get("pkg.A").getDeclaredMethods()).hasSize(1);
+		assertThat(headers.get("internal.B").getDeclaredMethods()).isEmpty();
+		assertThat(types.findType("internal.B").orElseThrow().getDeclaredMethods())
+			.extracting(Symbol::getSimpleName).containsExactly("n");
+	}
 }
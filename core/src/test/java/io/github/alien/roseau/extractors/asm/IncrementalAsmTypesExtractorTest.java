@@ -0,0 +1,116 @@
+package io.github.alien.roseau.extractors.asm;
+
+import io.github.alien.roseau.Library;
+import io.github.alien.roseau.Roseau;
+import io.github.alien.roseau.api.model.factory.DefaultApiFactory;
+import io.github.alien.roseau.api.model.reference.CachingTypeReferenceFactory;
+import io.github.alien.roseau.extractors.ClassDirectoryFiles;
+import io.github.alien.roseau.extractors.incremental.ChangedFiles;
+import io.github.alien.roseau.extractors.incremental.FingerprintChangedFilesProvider;
+import io.github.alien.roseau.utils.TestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static io.github.alien.roseau.utils.TestUtils.assertClass;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IncrementalAsmTypesExtractorTest {
+	AsmTypesExtractor extractor;
+	IncrementalAsmTypesExtractor incrementalExtractor;
+
+	@BeforeEach
+	void setUp() {
+		extractor = new AsmTypesExtractor(new DefaultApiFactory(new CachingTypeReferenceFactory()));
+		incrementalExtractor = new IncrementalAsmTypesExtractor(extractor);
+	}
+
+	@Test
+	void class_directory_matches_jar(@TempDir Path wd) {
+		var sources = TestUtils.buildSourcesMap("""
+			package pkg;
+			public class A { public class Inner {} public Runnable r() { return new Runnable() { public void run() {} }; } }
+			package pkg.sub;
+			public interface I { void m(); }""");
+		var jar = wd.resolve("lib.jar");
+		TestUtils.buildJar(sources, jar);
+		var classes = TestUtils.buildClassDirectory(sources, wd.resolve("classes"));
+
+		var fromJar = Roseau.buildAPI(extractor.extractTypes(Library.of(jar)));
+		var fromClasses = Roseau.buildAPI(extractor.extractTypes(Library.of(classes)));
+
+		assertThat(fromClasses.getExportedTypes()).hasSize(3);
+		assertThat(fromClasses.getExportedTypes()).containsExactlyInAnyOrderElementsOf(fromJar.getExportedTypes());
+	}
+
+	@Test
+	void unchanged_files_returns_same_API(@TempDir Path wd) {
+		var classes = TestUtils.buildClassDirectory(TestUtils.buildSourcesMap("""
+			public class A {}
+			public class B {}"""), wd);
+
+		var types1 = extractor.extractTypes(Library.of(classes));
+		var types2 = incrementalExtractor.incrementalUpdate(types1, Library.of(classes), ChangedFiles.NO_CHANGES);
+
+		assertThat(types1).isSameAs(types2);
+	}
+
+	@Test
+	void fingerprinted_changes_are_extracted(@TempDir Path wd) throws Exception {
+		var classes = TestUtils.buildClassDirectory(TestUtils.buildSourcesMap("""
+			package pkg;
+			public class A {}
+			package pkg;
+			public class B {}
+			package pkg;
+			public class C {}"""), wd);
+		var fingerprints = FingerprintChangedFilesProvider.fingerprint(classes, ClassDirectoryFiles.classFiles(classes));
+		var api1 = Roseau.buildAPI(extractor.extractTypes(Library.of(classes)));
+
+		Files.delete(classes.resolve("pkg/C.class"));
+		TestUtils.buildClassDirectory(TestUtils.buildSourcesMap("""
+			package pkg;
+			public class A { public void m() {} }
+			package pkg;
+			public class D {}"""), wd);
+
+		var provider = new FingerprintChangedFilesProvider(classes, ClassDirectoryFiles.classFiles(classes), fingerprints);
+		var changedFiles = provider.getChangedFiles();
+		assertThat(changedFiles).isEqualTo(new ChangedFiles(Set.of(Path.of("pkg/A.class")),
+			Set.of(Path.of("pkg/C.class")), Set.of(Path.of("pkg/D.class"))));
+
+		var api2 = Roseau.buildAPI(Roseau.incrementalBuild(api1.getLibraryTypes(), Library.of(classes), changedFiles));
+
+		var a1 = assertClass(api1, "pkg.A");
+		var a2 = assertClass(api2, "pkg.A");
+		var b1 = assertClass(api1, "pkg.B");
+		var b2 = assertClass(api2, "pkg.B");
+		assertClass(api2, "pkg.D");
+
+		assertThat(a1.getDeclaredMethods()).isEmpty();
+		assertThat(a2.getDeclaredMethods()).hasSize(1);
+		assertThat(b1).isSameAs(b2);
+		assertThat(api2.findExportedType("pkg.C")).isEmpty();
+		assertThat(api2.getExportedTypes()).hasSize(3);
+	}
+
+	@Test
+	void scoped_library_only_extracts_in_scope_files(@TempDir Path wd) {
+		var classes = TestUtils.buildClassDirectory(TestUtils.buildSourcesMap("""
+			package a;
+			public class A {}
+			package b;
+			public class B {}"""), wd);
+		var library = Library.builder().location(classes).packages(List.of("a")).build();
+
+		var api = Roseau.buildAPI(extractor.extractTypes(library));
+
+		assertClass(api, "a.A");
+		assertThat(api.findExportedType("b.B")).isEmpty();
+	}
+}
@@ -0,0 +1,48 @@
+package io.github.alien.roseau.extractors.classfile;
+
+import io.github.alien.roseau.Library;
+import io.github.alien.roseau.api.model.ModuleDecl;
+import io.github.alien.roseau.api.model.factory.DefaultApiFactory;
+import io.github.alien.roseau.api.model.reference.CachingTypeReferenceFactory;
+import io.github.alien.roseau.extractors.ExtractorType;
+import io.github.alien.roseau.extractors.asm.AsmTypesExtractor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClassfileTypesExtractorTest {
+	ClassfileTypesExtractor extractor;
+
+	@BeforeEach
+	void setUp() {
+		extractor = new ClassfileTypesExtractor(new DefaultApiFactory(new CachingTypeReferenceFactory()));
+	}
+
+	@Test
+	void module_jar_extracts_types_and_module() {
+		var jar = Path.of("src/test/resources/one-module.jar");
+
+		var types = extractor.extractTypes(Library.builder().location(jar).extractorType(ExtractorType.CLASSFILE).build());
+		assertThat(types.getModule()).isEqualTo(new ModuleDecl("m", Set.of("pkg")));
+		assertThat(types.findType("pkg.C")).isPresent();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"api-showcase.jar", "api-showcase-no-debug.jar", "one-module.jar", "multi-release.jar"})
+	void extracts_the_same_types_as_asm(String jarName) {
+		var jar = Path.of("src/test/resources").resolve(jarName);
+		var asm = new AsmTypesExtractor(new DefaultApiFactory(new CachingTypeReferenceFactory()))
+			.extractTypes(Library.of(jar));
+		var classfile = extractor
+			.extractTypes(Library.builder().location(jar).extractorType(ExtractorType.CLASSFILE).build());
+
+		assertThat(classfile.getModule()).isEqualTo(asm.getModule());
+		assertThat(classfile.getAllTypes()).containsExactlyInAnyOrderElementsOf(asm.getAllTypes());
+	}
+}
@@ -0,0 +1,80 @@
+package io.github.alien.roseau.extractors.incremental;
+
+import io.github.alien.roseau.extractors.incremental.FingerprintChangedFilesProvider.Fingerprint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FingerprintChangedFilesProviderTest {
+	@TempDir
+	Path wd;
+	Path a;
+	Path b;
+	Map<Path, Fingerprint> previous;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		a = Files.writeString(wd.resolve("A.class"), "abc");
+		b = Files.writeString(wd.resolve("B.class"), "def");
+		previous = FingerprintChangedFilesProvider.fingerprint(wd, List.of(a, b));
+	}
+
+	@Test
+	void fingerprints_are_relative_to_root() {
+		assertThat(previous).containsOnlyKeys(Path.of("A.class"), Path.of("B.class"));
+	}
+
+	@Test
+	void blank_state_returns_all_files() {
+		var provider = new FingerprintChangedFilesProvider(wd, List.of(a, b), Map.of());
+
+		var changes = provider.getChangedFiles();
+		assertThat(changes.createdFiles()).containsExactlyInAnyOrder(Path.of("A.class"), Path.of("B.class"));
+		assertThat(changes.updatedFiles()).isEmpty();
+		assertThat(changes.deletedFiles()).isEmpty();
+	}
+
+	@Test
+	void same_files_unchanged_returns_nothing() {
+		var provider = new FingerprintChangedFilesProvider(wd, List.of(a, b), previous);
+
+		assertThat(provider.getChangedFiles().hasNoChanges()).isTrue();
+	}
+
+	@Test
+	void files_with_new_size_are_updated() throws IOException {
+		Files.writeString(a, "abcd");
+		var provider = new FingerprintChangedFilesProvider(wd, List.of(a, b), previous);
+
+		assertThat(provider.getChangedFiles()).isEqualTo(new ChangedFiles(Set.of(Path.of("A.class")), Set.of(), Set.of()));
+	}
+
+	@Test
+	void files_restored_with_older_timestamp_are_updated() throws IOException {
+		Files.setLastModifiedTime(a, FileTime.fromMillis(0L));
+		var provider = new FingerprintChangedFilesProvider(wd, List.of(a, b), previous);
+
+		assertThat(provider.getChangedFiles()).isEqualTo(new ChangedFiles(Set.of(Path.of("A.class")), Set.of(), Set.of()));
+	}
+
+	@Test
+	void deleted_and_created_files_are_reported() throws IOException {
+		Files.delete(b);
+		var c = Files.writeString(wd.resolve("C.class"), "ghi");
+		var provider = new FingerprintChangedFilesProvider(wd, List.of(a, Path.of("C.class")), previous);
+
+		assertThat(provider.getChangedFiles())
+			.isEqualTo(new ChangedFiles(Set.of(), Set.of(Path.of("B.class")), Set.of(Path.of("C.class"))));
+		assertThat(provider.getFingerprints()).containsOnlyKeys(Path.of("A.class"), wd.relativize(c));
+	}
+}
@@ -0,0 +1,114 @@
+package io.github.alien.roseau.extractors.incremental;
+
+import net.openhft.hashing.LongHashFunction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FingerprintIndexTest {
+	@TempDir
+	Path wd;
+
+	static final FileTime PAST = FileTime.from(Instant.parse("2024-01-01T00:00:00Z"));
+
+	Path write(String name, String contents, FileTime lastModified) throws IOException {
+		Path file = wd.resolve(name);
+		Files.writeString(file, contents);
+		Files.setLastModifiedTime(file, lastModified);
+		return file;
+	}
+
+	static HashFunction counting(AtomicInteger count) {
+		return file -> {
+			count.incrementAndGet();
+			return HashFunction.XXHASH.hash(file);
+		};
+	}
+
+	@Test
+	void unchanged_files_are_not_rehashed_across_runs() throws IOException {
+		var a = write("A.java", "abc", PAST);
+		var indexFile = wd.resolve("index/fingerprints.bin");
+		var count = new AtomicInteger();
+
+		var index1 = FingerprintIndex.load(indexFile);
+		var hash = index1.hash(a, counting(count));
+		index1.save();
+
+		var index2 = FingerprintIndex.load(indexFile);
+		assertThat(index2.size()).isOne();
+		assertThat(index2.hash(a, counting(count))).isEqualTo(hash).isEqualTo(HashFunction.XXHASH.hash(a));
+		assertThat(count).hasValue(1);
+	}
+
+	@Test
+	void changed_metadata_triggers_rehash() throws IOException {
+		var a = write("A.java", "abc", PAST);
+		var count = new AtomicInteger();
+		var index = FingerprintIndex.inMemory();
+		var hash1 = index.hash(a, counting(count));
+
+		write("A.java", "abcd", PAST);
+		var hash2 = index.hash(a, counting(count));
+
+		assertThat(hash2).isNotEqualTo(hash1);
+		assertThat(count).hasValue(2);
+	}
+
+	@Test
+	void recently_modified_files_are_not_indexed() throws IOException {
+		var a = write("A.java", "abc", FileTime.fromMillis(System.currentTimeMillis()));
+		var count = new AtomicInteger();
+		var index = FingerprintIndex.inMemory();
+
+		index.hash(a, counting(count));
+		index.hash(a, counting(count));
+
+		assertThat(index.size()).isZero();
+		assertThat(count).hasValue(2);
+	}
+
+	@Test
+	void retain_forgets_deleted_files() throws IOException {
+		var a = write("A.java", "abc", PAST);
+		var b = write("B.java", "def", PAST);
+		var index = FingerprintIndex.inMemory();
+		index.hash(a, HashFunction.XXHASH);
+		index.hash(b, HashFunction.XXHASH);
+
+		index.retain(wd, Set.of(a));
+
+		assertThat(index.size()).isOne();
+	}
+
+	@Test
+	void corrupt_index_is_ignored() throws IOException {
+		var indexFile = wd.resolve("fingerprints.bin");
+		Files.writeString(indexFile, "garbage");
+
+		var index = FingerprintIndex.load(indexFile);
+		index.hash(write("A.java", "abc", PAST), HashFunction.XXHASH);
+		index.save();
+
+		assertThat(FingerprintIndex.load(indexFile).size()).isOne();
+	}
+
+	@Test
+	void mapped_hash_matches_heap_hash() throws IOException {
+		var a = write("A.java", "abc".repeat(10_000), PAST);
+		var empty = write("Empty.java", "", PAST);
+
+		assertThat(HashFunction.XXHASH.hash(a))
+			.isEqualTo(LongHashFunction.xx().hashBytes(Files.readAllBytes(a)));
+		assertThat(HashFunction.XXHASH.hash(empty)).isEqualTo(LongHashFunction.xx().hashBytes(new byte[0]));
+	}
+}
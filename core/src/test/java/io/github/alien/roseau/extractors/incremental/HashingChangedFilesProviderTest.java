@@ -7,8 +7,11 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -112,4 +115,29 @@ class HashingChangedFilesProviderTest {
 		var result = flakyProvider.getChangedFiles(left, right);
 		assertThat(result.updatedFiles()).contains(Path.of("Faulty.java"));
 	}
+
+	@Test
+	void persistent_index_skips_unchanged_files(@TempDir Path indexDir) throws IOException {
+		var past = FileTime.from(Instant.parse("2024-01-01T00:00:00Z"));
+		try (var files = Files.list(left)) {
+			for (Path file : files.toList()) {
+				Files.setLastModifiedTime(file, past);
+			}
+		}
+		var indexFile = indexDir.resolve("fingerprints.bin");
+		var hashed = ConcurrentHashMap.<Path>newKeySet();
+		HashFunction recording = file -> {
+			hashed.add(file);
+			return HashFunction.XXHASH.hash(file);
+		};
+
+		new HashingChangedFilesProvider(recording, FingerprintIndex.load(indexFile)).getChangedFiles(left, right);
+		hashed.clear();
+		Files.writeString(right.resolve("A.java"), "-");
+		var result = new HashingChangedFilesProvider(recording, FingerprintIndex.load(indexFile))
+			.getChangedFiles(left, right);
+
+		assertThat(result).isEqualTo(new ChangedFiles(Set.of(Path.of("A.java")), Set.of(), Set.of()));
+		assertThat(hashed).noneMatch(file -> file.startsWith(left));
+	}
 }
@@ -2,6 +2,7 @@ package io.github.alien.roseau.extractors.jdt;
 
 import io.github.alien.roseau.Library;
 import io.github.alien.roseau.Roseau;
+import io.github.alien.roseau.api.model.ModuleDecl;
 import io.github.alien.roseau.api.model.factory.DefaultApiFactory;
 import io.github.alien.roseau.api.model.reference.CachingTypeReferenceFactory;
 import io.github.alien.roseau.api.model.reference.TypeParameterReference;
@@ -14,6 +15,7 @@ import org.junit.jupiter.api.io.TempDir;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static io.github.alien.roseau.utils.TestUtils.assertClass;
@@ -32,7 +34,7 @@ class IncrementalJdtTypesExtractorTest {
 	}
 
 	@Test
-	void unchanged_symbols_are_kept(@TempDir Path wd) throws Exception {
+	void unchanged_symbols_are_kept_and_dependents_reparsed(@TempDir Path wd) throws Exception {
 		var i = wd.resolve("I.java");
 		var library1 = Library.of(wd);
 		Files.writeString(i, "public interface I {}");
@@ -56,13 +58,10 @@ class IncrementalJdtTypesExtractorTest {
 		var r2 = assertRecord(api2, "R");
 
 		assertThat(i1).isNotEqualTo(i2);
-		assertThat(c1).isSameAs(c2);
+		// C depends on I and is reparsed; R is independent
+		assertThat(c1).isNotSameAs(c2).isEqualTo(c2);
 		assertThat(r1).isSameAs(r2);
 
-		assertThat(c1.getImplementedInterfaces())
-			.singleElement()
-			.isSameAs(c2.getImplementedInterfaces().iterator().next());
-
 		assertThat(api1.analyzer().resolver().resolve(c1.getImplementedInterfaces().iterator().next())).containsSame(i1);
 		assertThat(api2.analyzer().resolver().resolve(c2.getImplementedInterfaces().iterator().next())).containsSame(i2);
 
@@ -192,4 +191,128 @@ class IncrementalJdtTypesExtractorTest {
 		assertThat(clsB.getDeclaredMethods().iterator().next().getParameters().get(1).type())
 			.isEqualTo(new TypeReference<>("pkg1.A"));
 	}
+
+	@Test
+	void transitive_dependents_match_full_build(@TempDir Path wd) throws Exception {
+		var a = wd.resolve("A.java");
+		Files.writeString(a, "public class A { public static final int X = 1; }");
+		Files.writeString(wd.resolve("B.java"), "public class B { public static final int Y = A.X; }");
+		Files.writeString(wd.resolve("C.java"), "public class C { public static final int Z = B.Y; }");
+		Files.writeString(wd.resolve("D.java"), "public class D { public static final int W = 1; }");
+
+		var types1 = extractor.extractTypes(Library.of(wd));
+
+		Files.writeString(a, "public class A { public static int X = 1; }");
+		var changedFiles = new ChangedFiles(Set.of(wd.relativize(a)), Set.of(), Set.of());
+		var types2 = incrementalExtractor.incrementalUpdate(types1, Library.of(wd), changedFiles);
+
+		assertThat(types2).isEqualTo(extractor.extractTypes(Library.of(wd)));
+		assertThat(types2.findType("C").orElseThrow().getDeclaredFields())
+			.singleElement()
+			.satisfies(f -> assertThat(f.isCompileTimeConstant()).isFalse());
+		assertThat(types2.findType("D")).containsSame(types1.findType("D").orElseThrow());
+	}
+
+	@Test
+	void created_types_resolve_dependent_references(@TempDir Path wd) throws Exception {
+		var a = Files.createDirectories(wd.resolve("pkg1")).resolve("A.java");
+		var b = Files.createDirectories(wd.resolve("pkg2")).resolve("B.java");
+		Files.writeString(a, """
+			package pkg1;
+			import pkg2.*;
+			public class A {
+				public B b;
+			}""");
+
+		var types1 = extractor.extractTypes(Library.of(wd));
+
+		Files.writeString(b, """
+			package pkg2;
+			public class B {}""");
+		var changedFiles = new ChangedFiles(Set.of(), Set.of(), Set.of(wd.relativize(b)));
+		var types2 = incrementalExtractor.incrementalUpdate(types1, Library.of(wd), changedFiles);
+
+		assertThat(types2).isEqualTo(extractor.extractTypes(Library.of(wd)));
+		assertThat(types2.findType("pkg1.A").orElseThrow().getDeclaredFields())
+			.singleElement()
+			.satisfies(f -> assertThat(f.getType()).isEqualTo(new TypeReference<>("pkg2.B")));
+	}
+
+	@Test
+	void created_types_shadowing_imported_types_invalidate_users(@TempDir Path wd) throws Exception {
+		var pkg = Files.createDirectories(wd.resolve("pkg"));
+		Files.writeString(pkg.resolve("A.java"), """
+			package pkg;
+			import java.util.*;
+			public class A {
+				public List l;
+			}""");
+
+		var types1 = extractor.extractTypes(Library.of(wd));
+		assertThat(types1.findType("pkg.A").orElseThrow().getDeclaredFields())
+			.singleElement()
+			.satisfies(f -> assertThat(f.getType()).isEqualTo(new TypeReference<>("java.util.List")));
+
+		var list = pkg.resolve("List.java");
+		Files.writeString(list, """
+			package pkg;
+			public class List {}""");
+		var changedFiles = new ChangedFiles(Set.of(), Set.of(), Set.of(wd.relativize(list)));
+		var types2 = incrementalExtractor.incrementalUpdate(types1, Library.of(wd), changedFiles);
+
+		assertThat(types2).isEqualTo(extractor.extractTypes(Library.of(wd)));
+		assertThat(types2.findType("pkg.A").orElseThrow().getDeclaredFields())
+			.singleElement()
+			.satisfies(f -> assertThat(f.getType()).isEqualTo(new TypeReference<>("pkg.List")));
+	}
+
+	@Test
+	void module_declaration_is_refreshed(@TempDir Path wd) throws Exception {
+		var module = wd.resolve("module-info.java");
+		Files.writeString(module, "module m { exports pkg; }");
+		Files.writeString(Files.createDirectories(wd.resolve("pkg")).resolve("A.java"), """
+			package pkg;
+			public class A {}""");
+
+		var types1 = extractor.extractTypes(Library.of(wd));
+		assertThat(types1.getModule().isExporting("pkg")).isTrue();
+
+		Files.writeString(module, "module m {}");
+		var updated = incrementalExtractor.incrementalUpdate(types1, Library.of(wd),
+			new ChangedFiles(Set.of(wd.relativize(module)), Set.of(), Set.of()));
+		assertThat(updated.getModule().isExporting("pkg")).isFalse();
+
+		Files.delete(module);
+		var deleted = incrementalExtractor.incrementalUpdate(updated, Library.of(wd),
+			new ChangedFiles(Set.of(), Set.of(wd.relativize(module)), Set.of()));
+		assertThat(deleted.getModule()).isEqualTo(ModuleDecl.UNNAMED_MODULE);
+	}
+
+	@Test
+	void in_memory_sources_replace_file_types(@TempDir Path wd) throws Exception {
+		var a = wd.resolve("A.java");
+		Files.writeString(a, "public class A {}");
+		Files.writeString(wd.resolve("B.java"), "public class B extends A {}");
+		Files.writeString(wd.resolve("C.java"), "public class C {}");
+		Files.writeString(wd.resolve("D.java"), "public class D extends B {}");
+
+		var types1 = extractor.extractTypes(Library.of(wd));
+		var types2 = incrementalExtractor.updateSources(types1,
+			Map.of(wd.relativize(a), "public class A { public void m() {} }"),
+			Map.of(Path.of("B.java"), "public class B extends A { public void n() {} }"));
+		var api2 = Roseau.buildAPI(types2);
+
+		// Buffers are not written to disk, and dependents are parsed again, from their buffer if any
+		assertThat(Files.readString(a)).isEqualTo("public class A {}");
+		assertThat(types2.findType("B").orElseThrow()).isNotSameAs(types1.findType("B").orElseThrow());
+		assertThat(types2.findType("D").orElseThrow()).isNotSameAs(types1.findType("D").orElseThrow());
+		assertThat(types2.findType("C")).containsSame(types1.findType("C").orElseThrow());
+		assertThat(api2.analyzer().findMethod(assertClass(api2, "A"), "m()")).isPresent();
+		assertThat(api2.analyzer().findMethod(assertClass(api2, "B"), "m()")).isPresent();
+		assertThat(api2.analyzer().findMethod(assertClass(api2, "B"), "n()")).isPresent();
+		assertThat(api2.analyzer().findMethod(assertClass(api2, "D"), "n()")).isPresent();
+		assertThat(types2.getFileTypes(Path.of("B.java"))).containsExactly("B");
+		assertThat(types2.getDependentFiles(Set.of("A")))
+			.containsExactlyInAnyOrder(Path.of("A.java"), Path.of("B.java"), Path.of("D.java"));
+	}
 }
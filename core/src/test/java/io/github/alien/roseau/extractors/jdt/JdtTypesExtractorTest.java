@@ -7,6 +7,7 @@ import io.github.alien.roseau.api.model.factory.DefaultApiFactory;
 import io.github.alien.roseau.api.model.reference.CachingTypeReferenceFactory;
 import io.github.alien.roseau.api.model.reference.TypeParameterReference;
 import io.github.alien.roseau.api.model.reference.TypeReference;
+import io.github.alien.roseau.utils.TestUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -156,4 +157,46 @@ class JdtTypesExtractorTest {
 		assertThat(n.getParameters().get(1).type()).isEqualTo(
 			new TypeReference<>("unknown.B", List.of(new TypeParameterReference("T"))));
 	}
+
+	@Test
+	void sources_jar_matches_source_directory() throws Exception {
+		var sources = TestUtils.buildSourcesMap("""
+			package pkg;
+			import java.util.List;
+			public class A<T> extends pkg2.B implements I<T> {
+				public List<pkg2.B> f;
+				public pkg2.B m(I<String> p) { return null; }
+			}
+			package pkg;
+			public interface I<T> {}
+			package pkg2;
+			public abstract class B { public abstract void n(); }""");
+		var dir = TestUtils.writeSources(sources);
+		var jar = TestUtils.buildSourcesJar(sources, wd.resolve("lib-sources.jar"));
+
+		var fromDir = extractor.extractTypes(Library.of(dir));
+		var fromJar = extractor.extractTypes(Library.of(jar));
+
+		assertThat(fromJar.getAllTypes()).hasSize(3);
+		assertThat(fromJar.getAllTypes()).containsExactlyInAnyOrderElementsOf(fromDir.getAllTypes());
+		var cls = assertClass(Roseau.buildAPI(fromJar), "pkg.A");
+		assertThat(cls.getSuperClass()).isEqualTo(new TypeReference<>("pkg2.B"));
+		assertThat(cls.getLocation().file()).isEqualTo(Path.of("pkg/A.java"));
+	}
+
+	@Test
+	void scoped_sources_jar_resolves_out_of_scope_types_lazily() {
+		var jar = TestUtils.buildSourcesJar(TestUtils.buildSourcesMap("""
+			package api;
+			public class A extends impl.B {}
+			package impl;
+			public class B { public void m() {} }"""), wd.resolve("lib-sources.jar"));
+		var library = Library.builder().location(jar).packages(List.of("api")).build();
+
+		var api = Roseau.buildAPI(library);
+
+		assertThat(api.getLibraryTypes().getAllTypes()).extracting(TypeDecl::getQualifiedName).containsExactly("api.A");
+		var a = assertClass(api, "api.A");
+		assertThat(api.analyzer().findMethod(a, "m()")).isPresent();
+	}
 }
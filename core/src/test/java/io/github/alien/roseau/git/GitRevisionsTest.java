@@ -0,0 +1,153 @@
+package io.github.alien.roseau.git;
+
+import io.github.alien.roseau.Library;
+import io.github.alien.roseau.Roseau;
+import io.github.alien.roseau.RoseauException;
+import io.github.alien.roseau.api.model.TypeDecl;
+import io.github.alien.roseau.diff.changes.BreakingChange;
+import io.github.alien.roseau.diff.changes.BreakingChangeKind;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GitRevisionsTest {
+	@TempDir
+	Path repo;
+	@TempDir
+	Path wd;
+	Git git;
+	GitRevisions revisions;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call();
+		write("src/main/java/pkg/A.java", """
+			package pkg;
+			public class A {
+				public void m() {}
+			}""");
+		write("src/main/java/pkg/B.java", """
+			package pkg;
+			public class B {}""");
+		write("src/test/java/pkg/ATest.java", """
+			package pkg;
+			public class ATest {}""");
+		write("README.md", "readme");
+		commit("v1");
+		revisions = new GitRevisions(repo, "src/main/java", wd);
+	}
+
+	@AfterEach
+	void tearDown() {
+		revisions.close();
+		git.close();
+	}
+
+	@Test
+	void sources_jar_contains_java_files_of_source_root() throws Exception {
+		var jar = revisions.sourcesJar("main");
+
+		try (var zip = new ZipFile(jar.toFile())) {
+			assertThat(zip.stream().map(ZipEntry::getName)).containsExactlyInAnyOrder("pkg/A.java", "pkg/B.java");
+		}
+		assertThat(Library.of(jar).isSourcesJar()).isTrue();
+		assertThat(Roseau.buildLibraryTypes(Library.of(jar)).getAllTypes())
+			.extracting(TypeDecl::getQualifiedName)
+			.containsExactlyInAnyOrder("pkg.A", "pkg.B");
+	}
+
+	@Test
+	void sources_jar_reads_past_revisions_without_checkout() throws Exception {
+		Files.delete(repo.resolve("src/main/java/pkg/B.java"));
+		commit("v2");
+
+		var jar = revisions.sourcesJar("HEAD~1");
+
+		try (var zip = new ZipFile(jar.toFile())) {
+			assertThat(zip.stream().map(ZipEntry::getName)).contains("pkg/B.java");
+		}
+		assertThat(revisions.sourcesJar("HEAD~1")).isEqualTo(jar);
+	}
+
+	@Test
+	void changed_files_are_relative_to_source_root() throws Exception {
+		write("src/main/java/pkg/A.java", """
+			package pkg;
+			public class A {}""");
+		Files.delete(repo.resolve("src/main/java/pkg/B.java"));
+		write("src/main/java/pkg/C.java", """
+			package pkg;
+			public class C {}""");
+		write("src/test/java/pkg/ATest.java", """
+			package pkg;
+			class ATest {}""");
+		commit("v2");
+
+		var changes = revisions.changedFiles("HEAD~1", "HEAD");
+
+		assertThat(changes.updatedFiles()).containsExactly(Path.of("pkg/A.java"));
+		assertThat(changes.deletedFiles()).containsExactly(Path.of("pkg/B.java"));
+		assertThat(changes.createdFiles()).containsExactly(Path.of("pkg/C.java"));
+	}
+
+	@Test
+	void unchanged_revisions_have_no_changed_files() {
+		assertThat(revisions.changedFiles("main", "HEAD").hasNoChanges()).isTrue();
+	}
+
+	@Test
+	void incremental_build_between_revisions_detects_breaking_changes() throws Exception {
+		write("src/main/java/pkg/A.java", """
+			package pkg;
+			public class A {}""");
+		commit("v2");
+
+		var v1 = Library.of(revisions.sourcesJar("HEAD~1"));
+		var v2 = Library.of(revisions.sourcesJar("HEAD"));
+		var types1 = Roseau.buildLibraryTypes(v1);
+		var types2 = Roseau.incrementalBuild(types1, v2, revisions.changedFiles("HEAD~1", "HEAD"));
+		var report = Roseau.diff(Roseau.buildAPI(types1), Roseau.buildAPI(types2));
+
+		assertThat(types2.getAllTypes()).extracting(TypeDecl::getQualifiedName).containsExactlyInAnyOrder("pkg.A", "pkg.B");
+		assertThat(report.getAllBreakingChanges())
+			.singleElement()
+			.extracting(BreakingChange::kind)
+			.isEqualTo(BreakingChangeKind.EXECUTABLE_REMOVED);
+	}
+
+	@Test
+	void unknown_revision_throws() {
+		assertThatThrownBy(() -> revisions.sourcesJar("unknown"))
+			.isInstanceOf(RoseauException.class)
+			.hasMessageContaining("Unknown git revision");
+	}
+
+	@Test
+	void not_a_repository_throws(@TempDir Path dir) {
+		assertThatThrownBy(() -> new GitRevisions(dir, "", wd))
+			.isInstanceOf(RoseauException.class);
+	}
+
+	private void write(String file, String contents) throws IOException {
+		Path path = repo.resolve(file);
+		Files.createDirectories(path.getParent());
+		Files.writeString(path, contents);
+	}
+
+	private void commit(String message) throws Exception {
+		git.add().addFilepattern(".").call();
+		git.commit().setAll(true).setSign(false).setAuthor("roseau", "roseau@example.com")
+			.setCommitter("roseau", "roseau@example.com").setMessage(message).call();
+	}
+}
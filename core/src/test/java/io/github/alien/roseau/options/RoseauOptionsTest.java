@@ -154,7 +154,10 @@ class RoseauOptionsTest {
 			  - file: /report.csv
 			    format: CSV
 			  - file: /report.html
-			    format: HTML""";
+			    format: HTML
+			performance:
+			  jobs: 3
+			  maxHeapFraction: 0.5""";
 		Files.writeString(yaml, content);
 
 		var options = RoseauOptions.load(yaml);
@@ -172,5 +175,20 @@ class RoseauOptionsTest {
 		assertThat(options.reports()).containsExactly(
 			new RoseauOptions.Report(Path.of("/report.csv"), BreakingChangesFormatterFactory.CSV),
 			new RoseauOptions.Report(Path.of("/report.html"), BreakingChangesFormatterFactory.HTML));
+		assertThat(options.performance()).isEqualTo(new RoseauOptions.Performance(3, null, 0.5));
+	}
+
+	@Test
+	void merge_overrides_set_performance_values() {
+		var base = new RoseauOptions.Performance(4, 8, 0.5);
+		var other = new RoseauOptions.Performance(2, null, null);
+
+		assertThat(base.mergeWith(other)).isEqualTo(new RoseauOptions.Performance(2, 8, 0.5));
+		assertThat(base.mergeWith(null)).isSameAs(base);
+
+		var defaults = RoseauOptions.newDefault();
+		var withPerformance = new RoseauOptions(defaults.common(), defaults.v1(), defaults.v2(), defaults.diff(),
+			defaults.reports(), other);
+		assertThat(defaults.mergeWith(withPerformance).performance()).isEqualTo(other);
 	}
 }
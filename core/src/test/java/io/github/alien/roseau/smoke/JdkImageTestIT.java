@@ -0,0 +1,40 @@
+package io.github.alien.roseau.smoke;
+
+import com.google.common.base.Stopwatch;
+import io.github.alien.roseau.JdkModules;
+import io.github.alien.roseau.Roseau;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@Tag("smoke")
+class JdkImageTestIT {
+	static final Path JDK_HOME = Path.of(System.getProperty("java.home"));
+
+	@Test
+	@Timeout(value = 10, unit = TimeUnit.MINUTES)
+	void jdkImage() {
+		assumeTrue(JdkModules.isImage(JDK_HOME), () -> "Missing JDK runtime image: " + JDK_HOME);
+
+		var sw = Stopwatch.createStarted();
+		var modules = JdkModules.fromImage(JDK_HOME);
+		var apis = Roseau.buildModuleAPIs(modules);
+		var apiTime = sw.elapsed().toMillis();
+		System.out.printf("[jrt:/] APIs took %dms (%d modules, %d exported types)%n", apiTime, apis.size(),
+			apis.values().stream().mapToInt(api -> api.getExportedTypes().size()).sum());
+
+		sw.reset().start();
+		var reports = Roseau.diffModules(apis, apis);
+		var diffTime = sw.elapsed().toMillis();
+		System.out.printf("[jrt:/] Diff took %dms%n", diffTime);
+
+		assertThat(apis).containsKey("java.base").hasSameSizeAs(modules);
+		assertThat(reports.values()).allSatisfy(report -> assertThat(report.getAllBreakingChanges()).isEmpty());
+	}
+}
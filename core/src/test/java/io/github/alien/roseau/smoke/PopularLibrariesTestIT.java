@@ -10,6 +10,7 @@ import io.github.alien.roseau.api.model.TypeDecl;
 import io.github.alien.roseau.api.model.reference.TypeReference;
 import io.github.alien.roseau.api.visit.AbstractApiVisitor;
 import io.github.alien.roseau.api.visit.Visit;
+import io.github.alien.roseau.extractors.ExtractorType;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.TestInstance;
@@ -151,6 +152,11 @@ class PopularLibrariesTestIT {
 			.location(binaryJar)
 			.classpath(classpath)
 			.build();
+		var classfileLibrary = Library.builder()
+			.location(binaryJar)
+			.classpath(classpath)
+			.extractorType(ExtractorType.CLASSFILE)
+			.build();
 		var jdtLibrary = Library
 			.builder()
 			.location(sourcesDir)
@@ -163,6 +169,11 @@ class PopularLibrariesTestIT {
 		var asmTypes = asmApi.getLibraryTypes();
 		long asmApiTime = sw.elapsed().toMillis();
 
+		// java.lang.classfile API
+		sw.reset().start();
+		var classfileApi = Roseau.buildAPI(classfileLibrary);
+		long classfileApiTime = sw.elapsed().toMillis();
+
 		// JDT API
 		sw.reset().start();
 		var jdtApi = Roseau.buildAPI(jdtLibrary);
@@ -215,11 +226,12 @@ class PopularLibrariesTestIT {
 
 		System.out.printf("Processed %s (%d LoC, %d types, %d methods, %d fields)%n" +
 				"\tASM: %dms; %dms diff%n" +
+				"\tClassfile: %dms%n" +
 				"\tJDT: %dms%n" +
 				"\tBCs: %s%n" +
 				"\tEquals: %dms%n",
 			libraryGAV, loc, numTypes, numMethods, numFields,
-			asmApiTime, diffTime, jdtApiTime,
+			asmApiTime, diffTime, classfileApiTime, jdtApiTime,
 			asmToAsmBCs.size(),
 			apiEqualityTime);
 
@@ -241,6 +253,7 @@ class PopularLibrariesTestIT {
 		assertThat(jdtTypes.getAllTypes()).isNotEmpty();
 
 		// Equal APIs
+		assertThat(classfileApi.getLibraryTypes().getAllTypes()).isEqualTo(asmTypes.getAllTypes());
 		assertThat(asmTypes.getAllTypes()).isEqualTo(jdtTypes.getAllTypes());
 		assertThat(asmApi.getExportedTypes()).isEqualTo(jdtApi.getExportedTypes());
 		assertThat(apiEquals).isTrue();
@@ -1,6 +1,7 @@
 package io.github.alien.roseau.utils;
 
 import io.github.alien.roseau.api.model.API;
+import io.github.alien.roseau.extractors.ExtractorType;
 
 public enum ApiBuilderType implements ApiBuilder {
 	ASM {
@@ -14,5 +15,11 @@ public enum ApiBuilderType implements ApiBuilder {
 		public API build(String sources) {
 			return TestUtils.buildSourcesAPI(sources);
 		}
+	},
+	CLASSFILE {
+		@Override
+		public API build(String sources) {
+			return TestUtils.buildJarAPI(sources, ExtractorType.CLASSFILE);
+		}
 	}
 }
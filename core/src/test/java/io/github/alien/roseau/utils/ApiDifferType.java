@@ -3,6 +3,7 @@ package io.github.alien.roseau.utils;
 import io.github.alien.roseau.Roseau;
 import io.github.alien.roseau.api.model.API;
 import io.github.alien.roseau.diff.changes.BreakingChange;
+import io.github.alien.roseau.extractors.ExtractorType;
 
 import java.util.List;
 
@@ -18,6 +19,12 @@ public enum ApiDifferType implements ApiDiffer {
 		public List<BreakingChange> diff(String v1, String v2) {
 			return diff(TestUtils.buildSourcesAPI(v1), TestUtils.buildSourcesAPI(v2));
 		}
+	},
+	CLASSFILE {
+		@Override
+		public List<BreakingChange> diff(String v1, String v2) {
+			return diff(TestUtils.buildJarAPI(v1, ExtractorType.CLASSFILE), TestUtils.buildJarAPI(v2, ExtractorType.CLASSFILE));
+		}
 	};
 
 	List<BreakingChange> diff(API v1, API v2) {
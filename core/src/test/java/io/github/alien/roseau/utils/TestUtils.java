@@ -17,6 +17,7 @@ import io.github.alien.roseau.api.model.RecordDecl;
 import io.github.alien.roseau.api.model.TypeDecl;
 import io.github.alien.roseau.diff.changes.BreakingChange;
 import io.github.alien.roseau.diff.changes.BreakingChangeKind;
+import io.github.alien.roseau.extractors.ExtractorType;
 import io.github.alien.roseau.options.RoseauOptions.Exclude;
 import org.opentest4j.AssertionFailedError;
 
@@ -33,6 +34,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -48,6 +50,8 @@ import java.util.jar.JarOutputStream;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 public class TestUtils {
 	private TestUtils() {
@@ -305,6 +309,10 @@ public class TestUtils {
 	}
 
 	public static API buildJarAPI(String sources) {
+		return buildJarAPI(sources, ExtractorType.ASM);
+	}
+
+	public static API buildJarAPI(String sources, ExtractorType extractorType) {
 		try {
 			Map<String, String> sourcesMap = buildSourcesMap(sources);
 			File tempJarFile = File.createTempFile("inMemoryJar", ".jar");
@@ -312,6 +320,7 @@ public class TestUtils {
 			buildJar(sourcesMap, tempJarFile.toPath());
 			Library library = Library.builder()
 				.location(tempJarFile.toPath())
+				.extractorType(extractorType)
 				.build();
 			return Roseau.buildAPI(library);
 		} catch (IOException e) {
@@ -337,6 +346,21 @@ public class TestUtils {
 		return tempDir;
 	}
 
+	public static Path buildSourcesJar(Map<String, String> sourcesMap, Path jar) {
+		try (ZipOutputStream zipOut = new ZipOutputStream(Files.newOutputStream(jar))) {
+			for (Map.Entry<String, String> entry : sourcesMap.entrySet()) {
+				String key = entry.getKey();
+				String entryName = "module-info".equals(key) ? "module-info.java" : key.replace('.', '/') + ".java";
+				zipOut.putNextEntry(new ZipEntry(entryName));
+				zipOut.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+				zipOut.closeEntry();
+			}
+			return jar;
+		} catch (IOException e) {
+			throw new RuntimeException("Error while creating sources JAR", e);
+		}
+	}
+
 	public static List<BreakingChange> buildDiff(String sourcesV1, String sourcesV2) {
 		API v1 = buildSourcesAPI(sourcesV1);
 		API v2 = buildSourcesAPI(sourcesV2);
@@ -435,30 +459,11 @@ public class TestUtils {
 	}*/
 
 	public static JarFile buildJar(Map<String, String> sourcesMap, Path jar) {
-		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-		StandardJavaFileManager stdFileManager = compiler.getStandardFileManager(null, null, null);
-		MemoryJavaFileManager fileManager = new MemoryJavaFileManager(stdFileManager);
-
-		List<JavaFileObject> compilationUnits = new ArrayList<>();
-		for (Map.Entry<String, String> entry : sourcesMap.entrySet()) {
-			String className = entry.getKey();
-			String sourceCode = entry.getValue();
-			compilationUnits.add(new MemorySourceJavaFileObject(className, sourceCode));
-		}
-
-		List<String> options = List.of(
-			"-source", "21",
-			"-target", "21",
-			"-proc:none");
-		JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, compilationUnits);
-		Boolean success = task.call();
-		if (success == null || !success) {
-			throw new IllegalStateException("Compilation failed.");
-		}
+		Map<String, ByteArrayOutputStream> compiledClasses = compile(sourcesMap);
 
 		ByteArrayOutputStream jarByteStream = new ByteArrayOutputStream();
 		try (JarOutputStream jarOut = new JarOutputStream(jarByteStream)) {
-			for (Map.Entry<String, ByteArrayOutputStream> entry : fileManager.getCompiledClasses().entrySet()) {
+			for (Map.Entry<String, ByteArrayOutputStream> entry : compiledClasses.entrySet()) {
 				String className = entry.getKey();
 				ByteArrayOutputStream classByteStream = entry.getValue();
 				String entryName = className.replace('.', '/') + ".class";
@@ -481,6 +486,61 @@ public class TestUtils {
 		}
 	}
 
+	public static Path buildClassDirectory(Map<String, String> sourcesMap, Path directory) {
+		try {
+			for (Map.Entry<String, ByteArrayOutputStream> entry : compile(sourcesMap).entrySet()) {
+				Path classFile = directory.resolve(entry.getKey().replace('.', '/') + ".class");
+				Files.createDirectories(classFile.getParent());
+				Files.write(classFile, entry.getValue().toByteArray());
+			}
+			return directory;
+		} catch (IOException e) {
+			throw new RuntimeException("Error while creating class directory", e);
+		}
+	}
+
+	public static Path buildJmod(Map<String, String> sourcesMap, Path jmod) {
+		try (OutputStream out = Files.newOutputStream(jmod)) {
+			// JMOD magic number and version, followed by a regular ZIP stream
+			out.write(new byte[]{'J', 'M', 1, 0});
+			try (ZipOutputStream zipOut = new ZipOutputStream(out)) {
+				for (Map.Entry<String, ByteArrayOutputStream> entry : compile(sourcesMap).entrySet()) {
+					zipOut.putNextEntry(new ZipEntry("classes/" + entry.getKey().replace('.', '/') + ".class"));
+					zipOut.write(entry.getValue().toByteArray());
+					zipOut.closeEntry();
+				}
+			}
+			return jmod;
+		} catch (IOException e) {
+			throw new RuntimeException("Error while creating JMOD file", e);
+		}
+	}
+
+	private static Map<String, ByteArrayOutputStream> compile(Map<String, String> sourcesMap) {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		StandardJavaFileManager stdFileManager = compiler.getStandardFileManager(null, null, null);
+		MemoryJavaFileManager fileManager = new MemoryJavaFileManager(stdFileManager);
+
+		List<JavaFileObject> compilationUnits = new ArrayList<>();
+		for (Map.Entry<String, String> entry : sourcesMap.entrySet()) {
+			String className = entry.getKey();
+			String sourceCode = entry.getValue();
+			compilationUnits.add(new MemorySourceJavaFileObject(className, sourceCode));
+		}
+
+		List<String> options = List.of(
+			"-source", "21",
+			"-target", "21",
+			"-proc:none");
+		JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, compilationUnits);
+		Boolean success = task.call();
+		if (success == null || !success) {
+			throw new IllegalStateException("Compilation failed.");
+		}
+
+		return fileManager.getCompiledClasses();
+	}
+
 	private static class MemoryJavaFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
 		private final Map<String, ByteArrayOutputStream> compiledClasses = new HashMap<>();
 
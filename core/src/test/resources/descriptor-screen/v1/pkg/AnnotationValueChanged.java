@@ -0,0 +1,4 @@
+package pkg;
+
+@Tag("v1")
+public class AnnotationValueChanged {}
@@ -0,0 +1,6 @@
+package pkg;
+
+public class Unchanged {
+	public int m() { return 1; }
+	private void p() {}
+}
@@ -0,0 +1,3 @@
+package pkg;
+
+public class Added {}
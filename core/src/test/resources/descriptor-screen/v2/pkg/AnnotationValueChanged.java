@@ -0,0 +1,4 @@
+package pkg;
+
+@Tag("v2")
+public class AnnotationValueChanged {}
@@ -0,0 +1,5 @@
+package pkg;
+
+public class DescriptorChanged {
+	public void m(long i) {}
+}
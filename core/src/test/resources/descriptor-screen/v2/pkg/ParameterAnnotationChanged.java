@@ -0,0 +1,5 @@
+package pkg;
+
+public class ParameterAnnotationChanged {
+	public void m(@Tag("s") String s) {}
+}
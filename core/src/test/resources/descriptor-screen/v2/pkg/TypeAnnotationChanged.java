@@ -0,0 +1,7 @@
+package pkg;
+
+import java.util.List;
+
+public class TypeAnnotationChanged {
+	public List<@Nullable String> m() { return null; }
+}
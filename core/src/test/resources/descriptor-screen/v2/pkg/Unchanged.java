@@ -0,0 +1,6 @@
+package pkg;
+
+public class Unchanged {
+	private void q() {}
+	public int m() { return 2; }
+}
@@ -0,0 +1,5 @@
+package internal;
+
+public class Base {
+	public void m() {}
+}
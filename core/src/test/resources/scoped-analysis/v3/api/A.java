@@ -0,0 +1,3 @@
+package api;
+
+public class A extends internal.Base {}
@@ -0,0 +1,3 @@
+package api.sub;
+
+public class B {}
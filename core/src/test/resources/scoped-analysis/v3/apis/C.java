@@ -0,0 +1,3 @@
+package apis;
+
+public class C {}
@@ -0,0 +1,1167 @@
+package io.github.alien.roseau.maven;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import io.github.alien.roseau.Library;
+import io.github.alien.roseau.Parallelism;
+import io.github.alien.roseau.ReportCache;
+import io.github.alien.roseau.Roseau;
+import io.github.alien.roseau.RoseauException;
+import io.github.alien.roseau.api.model.API;
+import io.github.alien.roseau.api.model.LibraryTypes;
+import io.github.alien.roseau.diff.RoseauReport;
+import io.github.alien.roseau.diff.changes.BreakingChange;
+import io.github.alien.roseau.diff.formatter.BreakingChangesFormatterFactory;
+import io.github.alien.roseau.extractors.ExtractorType;
+import io.github.alien.roseau.options.RoseauOptions;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.MavenProjectHelper;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.graph.DependencyFilter;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.resolution.DependencyRequest;
+import org.eclipse.aether.resolution.DependencyResolutionException;
+import org.eclipse.aether.util.artifact.JavaScopes;
+import org.eclipse.aether.util.filter.DependencyFilterUtils;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * The parameters and the analysis shared by the Roseau goals. Each goal compares the artifact of one or several
+ * modules with their baseline artifact; relative paths are resolved against the base directory of each module.
+ * <p>
+ * The baseline can be provided as Maven coordinates ({@code baselineCoordinates}, {@code baselineDependency}, or
+ * {@code baselineVersion}) or as a local file ({@code baselineJar}). {@code baselineCoordinates} takes precedence over
+ * {@code baselineDependency}, which takes precedence over {@code baselineVersion}, which in turn takes precedence over
+ * {@code baselineJar}. When reports are configured, report files are written under {@code reportDirectory}.
+ * <p>
+ * All executions of a build share a {@link ReactorCache}, so that the types of shared dependencies, the baseline
+ * artifacts, and the extracted APIs are only resolved once per build.
+ */
+public abstract class AbstractRoseauMojo extends AbstractMojo {
+	/**
+	 * Current Maven project.
+	 */
+	@Parameter(defaultValue = "${project}", required = true, readonly = true)
+	protected MavenProject project;
+
+	/**
+	 * Skips plugin execution.
+	 */
+	@Parameter(property = "roseau.skip", defaultValue = "false")
+	protected boolean skip;
+
+	/**
+	 * Skips the check when the baseline artifact cannot be resolved from Maven repositories.
+	 */
+	@Parameter(property = "roseau.skipIfBaselineUnresolvable", defaultValue = "false")
+	private boolean skipIfBaselineUnresolvable;
+
+	/**
+	 * Reports only binary-breaking changes.
+	 */
+	@Parameter(property = "roseau.binaryOnly")
+	private Boolean binaryOnly;
+
+	/**
+	 * Reports only source-breaking changes.
+	 */
+	@Parameter(property = "roseau.sourceOnly")
+	private Boolean sourceOnly;
+
+	/**
+	 * Fails the build when any breaking change is found.
+	 */
+	@Parameter(property = "roseau.failOnIncompatibility", defaultValue = "false")
+	private boolean failOnIncompatibility;
+
+	/**
+	 * Fails the build when any binary-breaking change is found.
+	 */
+	@Parameter(property = "roseau.failOnBinaryIncompatibility", defaultValue = "false")
+	private boolean failOnBinaryIncompatibility;
+
+	/**
+	 * Fails the build when any source-breaking change is found.
+	 */
+	@Parameter(property = "roseau.failOnSourceIncompatibility", defaultValue = "false")
+	private boolean failOnSourceIncompatibility;
+
+	/**
+	 * Stops the analysis at the first breaking change that fails the build (see {@code failOnIncompatibility},
+	 * {@code failOnBinaryIncompatibility}, and {@code failOnSourceIncompatibility}). The full analysis only runs
+	 * afterward when reports or API exports are configured.
+	 */
+	@Parameter(property = "roseau.failFast", defaultValue = "false")
+	private boolean failFast;
+
+	/**
+	 * Skips the analysis when none of its inputs changed since the last one: the artifact, the baseline, their
+	 * classpath, and the configuration. The outcome of the last analysis (logged breaking changes and build failure) is
+	 * then restored from the state stored in the report directory, as long as the reports it wrote still exist.
+	 */
+	@Parameter(property = "roseau.upToDateCheck", defaultValue = "true")
+	private boolean upToDateCheck;
+
+	/**
+	 * Baseline artifact coordinates as a string ({@code groupId:artifactId:version[:extension[:classifier]]})
+	 * resolved from Maven repositories. Takes precedence over {@code baselineDependency} when set.
+	 */
+	@Parameter(property = "roseau.baselineCoordinates")
+	private String baselineCoordinates;
+
+	/**
+	 * Baseline artifact coordinates as structured Maven dependency resolved from Maven repositories.
+	 */
+	@Parameter
+	private Dependency baselineDependency;
+
+	/**
+	 * Baseline version of the module's own artifact ({@code groupId:artifactId}), resolved from Maven repositories.
+	 * Used when neither {@code baselineCoordinates} nor {@code baselineDependency} is provided.
+	 */
+	@Parameter(property = "roseau.baselineVersion")
+	private String baselineVersion;
+
+	/**
+	 * Baseline artifact file path, used when neither {@code baselineCoordinates}, {@code baselineDependency}, nor
+	 * {@code baselineVersion} is provided.
+	 */
+	@Parameter(property = "roseau.baselineJar")
+	private Path baselineJar;
+
+	/**
+	 * Additional classpath entries shared by both baseline and current artifacts.
+	 */
+	@Parameter
+	private List<Path> classpath;
+
+	/**
+	 * POM file used to derive classpath entries shared by both baseline and current artifacts.
+	 */
+	@Parameter
+	private Path classpathPom;
+
+	/**
+	 * Additional classpath entries used only for the baseline artifact.
+	 */
+	@Parameter
+	private List<Path> baselineClasspath;
+
+	/**
+	 * POM file used to derive classpath entries for the baseline artifact.
+	 */
+	@Parameter
+	private Path baselineClasspathPom;
+
+	/**
+	 * Package prefixes the analysis is restricted to; types in other packages are only parsed when needed for type
+	 * resolution. All packages are analyzed when empty.
+	 */
+	@Parameter
+	private List<String> packages;
+
+	/**
+	 * Report files to generate (for example CSV, HTML).
+	 */
+	@Parameter
+	private List<ReportConfig> reports;
+
+	/**
+	 * Output directory for relative report file paths.
+	 */
+	@Parameter(property = "roseau.reportDirectory", defaultValue = "${project.build.directory}/roseau")
+	private File reportDirectory;
+
+	/**
+	 * Optional path where to export the baseline API model as JSON.
+	 */
+	@Parameter(property = "roseau.exportBaselineApi")
+	private Path exportBaselineApi;
+
+	/**
+	 * Optional path where to export the current API model as JSON.
+	 */
+	@Parameter(property = "roseau.exportCurrentApi")
+	private Path exportCurrentApi;
+
+	/**
+	 * Attaches the current API model to the module as a JSON artifact with the {@code roseau-api} classifier, so that
+	 * it is installed and deployed along with the module and later builds can use it as their baseline. The snapshot
+	 * records the {@code packages} it was extracted with.
+	 */
+	@Parameter(property = "roseau.attachApi", defaultValue = "false")
+	private boolean attachApi;
+
+	/**
+	 * Uses the API snapshot attached to a baseline resolved from Maven repositories (see {@code attachApi}), when it
+	 * exists and was extracted with the same {@code packages}, instead of extracting the API of the baseline artifact.
+	 * The baseline artifact is still resolved: it keys the {@code upToDateCheck}, locates the baseline in reports, and
+	 * provides the types of packages left out of {@code packages}.
+	 */
+	@Parameter(property = "roseau.useBaselineApi", defaultValue = "true")
+	private boolean useBaselineApi;
+
+	/**
+	 * Optional Roseau YAML configuration file.
+	 */
+	@Parameter(property = "roseau.configFile")
+	private Path configFile;
+
+	/**
+	 * Logging verbosity for Roseau internals: QUIET, NORMAL, VERBOSE, DEBUG.
+	 */
+	@Parameter(property = "roseau.verbosity")
+	private String verbosity;
+
+	/**
+	 * Maven artifact resolver.
+	 */
+	@Inject
+	private RepositorySystem repositorySystem;
+
+	/**
+	 * Attaches artifacts to the project.
+	 */
+	@Inject
+	private MavenProjectHelper projectHelper;
+
+	/**
+	 * Current Maven resolver session.
+	 */
+	@Parameter(defaultValue = "${repositorySystemSession}", readonly = true)
+	protected RepositorySystemSession repositorySystemSession;
+
+	/**
+	 * Remote repositories available for baseline resolution.
+	 */
+	@Parameter(defaultValue = "${project.remoteProjectRepositories}", readonly = true)
+	private List<RemoteRepository> remoteRepositories;
+
+	/**
+	 * Version of the plug-in; the state of analyses run by other versions is never reused.
+	 */
+	@Parameter(defaultValue = "${plugin.version}", readonly = true)
+	private String pluginVersion;
+
+	private static final String API_CLASSIFIER = "roseau-api";
+	private static final String API_EXTENSION = "json";
+	private static final String STATE_FILE = "roseau-state.json";
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	/**
+	 * The outcome of the analysis of a module.
+	 *
+	 * @param breakingChanges the breaking changes, formatted for the build log; empty if there are none
+	 * @param failures        the reasons why the outcome fails the build according to the {@code failOn*} parameters,
+	 *                        empty if it does not
+	 */
+	protected record Analysis(List<String> breakingChanges, List<String> failures) {
+	}
+
+	/**
+	 * The state stored after an analysis, for the {@code upToDateCheck}.
+	 *
+	 * @param digest   the digest of the inputs of the analysis
+	 * @param analysis the outcome of the analysis
+	 */
+	private record State(String digest, Analysis analysis) {
+	}
+
+	/**
+	 * Configures logging based on the verbosity parameter.
+	 */
+	protected void configureLogging() {
+		if (verbosity == null || verbosity.isEmpty()) {
+			return;
+		}
+
+		Level level = switch (verbosity.toUpperCase(Locale.ROOT)) {
+			case "QUIET" -> Level.ERROR;
+			case "NORMAL" -> Level.WARN;
+			case "VERBOSE" -> Level.INFO;
+			case "DEBUG" -> Level.DEBUG;
+			default -> {
+				getLog().warn("Invalid verbosity level: " + verbosity + ". Valid values: QUIET, NORMAL, VERBOSE, DEBUG");
+				yield null;
+			}
+		};
+
+		if (level != null) {
+			try {
+				LoggerContext context = (LoggerContext) LogManager.getContext(false);
+				Configuration config = context.getConfiguration();
+				LoggerConfig loggerConfig = config.getLoggerConfig("io.github.alien.roseau");
+				loggerConfig.setLevel(level);
+				context.updateLoggers();
+				getLog().debug("Set Roseau logging level to " + level);
+			} catch (Exception e) {
+				getLog().warn("Could not configure logging: " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Compares the artifact of a module with its baseline, exporting APIs and writing reports as configured.
+	 *
+	 * @param module the module to analyze
+	 * @return the outcome of the analysis, or empty if the check was skipped
+	 * @throws MojoExecutionException if the baseline or the artifact is missing, or the analysis fails
+	 */
+	protected Optional<Analysis> analyze(MavenProject module) throws MojoExecutionException {
+		Dependency baseline = baselineDependencyOf(module);
+		if (baseline == null && baselineJar == null) {
+			throw new MojoExecutionException("No baseline specified; " +
+				"configure baselineCoordinates, baselineDependency, baselineVersion, or baselineJar.");
+		}
+
+		Optional<Path> maybeJar = resolveCurrentArtifact(module);
+		if (maybeJar.isEmpty()) {
+			throw new MojoExecutionException("Current artifact JAR not found. " +
+				"Run 'mvn compile roseau:check' or bind roseau to a phase after compile.");
+		}
+
+		if (baseline != null) {
+			if (!isValid(baseline)) {
+				throw new MojoExecutionException("Invalid baseline version coordinates; " +
+					"groupId, artifactId and version are required.");
+			}
+
+			Optional<Path> maybeBaseline = resolveBaseline(baseline);
+			if (maybeBaseline.isPresent()) {
+				return Optional.of(check(module, baseline, maybeBaseline.get(), maybeJar.get()));
+			} else if (skipIfBaselineUnresolvable) {
+				getLog().warn("Baseline could not be resolved; skipping check.");
+				if (attachApi) {
+					attachApi(module, cache().api(Library.builder()
+						.location(maybeJar.get())
+						.classpath(resolveProjectClasspath(module))
+						.build()));
+				}
+				return Optional.empty();
+			} else {
+				throw new MojoExecutionException("Couldn't resolve the baseline version. " +
+					"Set roseau.skipIfBaselineUnresolvable=true to skip the check instead of failing ");
+			}
+		}
+
+		Path resolvedBaselineJar = resolvePath(module, baselineJar);
+		if (Files.isRegularFile(resolvedBaselineJar)) {
+			return Optional.of(check(module, null, resolvedBaselineJar, maybeJar.get()));
+		} else {
+			throw new MojoExecutionException("Invalid baseline JAR " + resolvedBaselineJar);
+		}
+	}
+
+	/**
+	 * Starts resolving the baseline of a module and extracting its API on background threads, so that the work
+	 * overlaps the rest of the build. A later {@link #analyze(MavenProject)} of the module waits for the work in
+	 * progress and reuses its results. Errors are not reported here but by {@link #analyze(MavenProject)}.
+	 *
+	 * @param module the module whose baseline is prepared
+	 * @return whether there is a baseline to prepare
+	 */
+	protected boolean prepare(MavenProject module) {
+		Dependency baseline;
+		try {
+			baseline = baselineDependencyOf(module);
+		} catch (MojoExecutionException e) {
+			getLog().debug(e.getMessage());
+			return false;
+		}
+
+		if (baseline != null && !isValid(baseline) || baseline == null && baselineJar == null) {
+			return false;
+		}
+
+		ReactorCache cache = cache();
+		cache.inBackground(() -> {
+			Optional<Path> oldJar = baseline != null
+				? resolveBaseline(baseline)
+				: Optional.of(resolvePath(module, baselineJar));
+			// The types of baselines that published an API snapshot are read from the snapshot instead
+			if (baseline == null || resolveBaselineApi(baseline, packages != null ? packages : List.of()).isEmpty()) {
+				oldJar.filter(Files::isRegularFile).ifPresent(cache::prepare);
+			}
+			if (baseline != null) {
+				cache.baselineClasspath(toCoordinates(baseline), () -> resolveBaselineClasspath(baseline));
+			}
+		});
+		return true;
+	}
+
+	/**
+	 * Logs the breaking changes found by an analysis.
+	 *
+	 * @param analysis the outcome of the analysis
+	 */
+	protected void log(Analysis analysis) {
+		if (analysis.breakingChanges().isEmpty()) {
+			getLog().info("No breaking changes found.");
+		} else {
+			analysis.breakingChanges().forEach(getLog()::warn);
+		}
+	}
+
+	/**
+	 * Returns the cache shared by all the executions of the build.
+	 *
+	 * @return the cache of the build session
+	 */
+	ReactorCache cache() {
+		return ReactorCache.of(repositorySystem, repositorySystemSession);
+	}
+
+	private Analysis check(MavenProject module, Dependency baseline, Path oldJar, Path newJar)
+		throws MojoExecutionException {
+		// Load configuration (YAML + Maven parameters)
+		RoseauOptions options = loadConfiguration(module, baseline, oldJar, newJar);
+
+		// Build libraries with configuration
+		Library configuredLibrary = options.v1().mergeWith(options.common()).toLibrary();
+		Library newLibrary = options.v2().mergeWith(options.common()).toLibrary();
+
+		// Debug
+		getLog().debug("v1 classpath is: " + configuredLibrary.getClasspath());
+		getLog().debug("v2 classpath is: " + newLibrary.getClasspath());
+
+		// Restore the outcome of the last analysis if none of its inputs changed, before loading any API snapshot
+		Path stateFile = resolvePath(module, reportDirectory(module)).resolve(STATE_FILE);
+		List<Path> outputs = outputs(module, options);
+		String digest = upToDateCheck
+			? digest(stateFile, options, baseline, configuredLibrary, newLibrary, outputs)
+			: null;
+		Optional<Analysis> previous = digest != null ? restore(stateFile, digest, outputs) : Optional.empty();
+		if (previous.isPresent()) {
+			getLog().info("Inputs unchanged since the last analysis; restoring its outcome.");
+			if (attachApi) {
+				projectHelper.attachArtifact(module, API_EXTENSION, API_CLASSIFIER, apiSnapshot(module).toFile());
+			}
+			return previous.get();
+		}
+
+		// A baseline that published its API snapshot keeps the extractor that produced the snapshot, whose types are
+		// used in place of the baseline's
+		Optional<LibraryTypes> baselineApi = baseline != null
+			? resolveBaselineApi(baseline, configuredLibrary.getPackages())
+			: Optional.empty();
+		Library oldLibrary = baselineApi
+			.map(types -> withExtractor(configuredLibrary, types.getLibrary().getExtractorType()))
+			.orElse(configuredLibrary);
+
+		// Run diff, stopping at the first failing breaking change in fail-fast mode, on the executors of the build
+		Parallelism parallelism = cache().parallelism(options.performance());
+		RoseauReport report = diff(parallelism, oldLibrary, baselineApi, newLibrary, failFastCondition(options));
+		if (!report.isComplete()) {
+			getLog().info("Breaking change found; stopped the analysis early (failFast).");
+			if (wantsFullReport(options)) {
+				RoseauReport partial = report;
+				report = parallelism.run(() -> Roseau.diff(partial.v1(), partial.v2()));
+			}
+		}
+
+		// Export APIs if configured
+		exportApis(module, report);
+		if (attachApi) {
+			attachApi(module, report.v2());
+		}
+
+		// Filter report based on configuration
+		RoseauReport filteredReport = report.filterReport(options.diff());
+
+		// Write reports to files if configured
+		writeReports(parallelism, module, filteredReport, options.reports());
+
+		Analysis analysis = new Analysis(
+			filteredReport.getBreakingChanges().isEmpty() ? List.of() : MavenFormatter.lines(filteredReport),
+			failures(filteredReport));
+		if (digest != null) {
+			store(stateFile, new State(digest, analysis));
+		}
+
+		return analysis;
+	}
+
+	/**
+	 * Returns the reasons why a report fails the build according to the {@code failOn*} parameters.
+	 *
+	 * @param report the filtered report
+	 * @return the failure messages, empty if the report does not fail the build
+	 */
+	private List<String> failures(RoseauReport report) {
+		List<String> failures = new ArrayList<>();
+		if (report.getBreakingChanges().isEmpty()) {
+			return failures;
+		}
+
+		if (failOnIncompatibility) {
+			failures.add("Breaking changes found; failing.");
+		}
+
+		if (failOnBinaryIncompatibility && report.isBinaryBreaking()) {
+			failures.add("Binary incompatible changes found; failing.");
+		}
+
+		if (failOnSourceIncompatibility && report.isSourceBreaking()) {
+			failures.add("Source incompatible changes found; failing.");
+		}
+
+		return failures;
+	}
+
+	/**
+	 * Digests the inputs of an analysis: the coordinates of the baseline, the content of both libraries and of their
+	 * classpath, the diff options, and the parameters that change its outcome or its outputs. Whether the baseline
+	 * published an API snapshot does not matter: the snapshot stands for the content of the baseline artifact.
+	 */
+	private String digest(Path stateFile, RoseauOptions options, Dependency baseline, Library oldLibrary,
+	                      Library newLibrary, List<Path> outputs) {
+		String version = pluginVersion != null ? pluginVersion : "unknown";
+		String reportKey = new ReportCache(stateFile.getParent(), version).key(oldLibrary, newLibrary, options.diff());
+		List<Object> parameters = List.of(reportKey, baseline != null ? toCoordinates(baseline) : "",
+			failOnIncompatibility, failOnBinaryIncompatibility, failOnSourceIncompatibility, failFast, attachApi,
+			options.reports(), outputs);
+		return Hashing.sha256().hashString(parameters.toString(), StandardCharsets.UTF_8).toString();
+	}
+
+	/**
+	 * Returns the files an analysis writes: its reports, its API exports, and its attached API snapshot.
+	 */
+	private List<Path> outputs(MavenProject module, RoseauOptions options) {
+		List<Path> outputs = new ArrayList<>();
+		if (options.reports() != null) {
+			options.reports().forEach(config -> outputs.add(resolveReportPath(module, config.file())));
+		}
+		if (exportBaselineApi != null) {
+			outputs.add(resolvePath(module, exportBaselineApi));
+		}
+		if (exportCurrentApi != null) {
+			outputs.add(resolvePath(module, exportCurrentApi));
+		}
+		if (attachApi) {
+			outputs.add(apiSnapshot(module));
+		}
+		return outputs;
+	}
+
+	private Optional<Analysis> restore(Path stateFile, String digest, List<Path> outputs) {
+		if (!Files.isRegularFile(stateFile) || !outputs.stream().allMatch(Files::isRegularFile)) {
+			return Optional.empty();
+		}
+
+		try {
+			State state = MAPPER.readValue(stateFile.toFile(), State.class);
+			return digest.equals(state.digest()) ? Optional.of(state.analysis()) : Optional.empty();
+		} catch (IOException e) {
+			getLog().debug("Ignoring unreadable state " + stateFile + ": " + e.getMessage());
+			return Optional.empty();
+		}
+	}
+
+	private void store(Path stateFile, State state) {
+		try {
+			makeParent(stateFile);
+			MAPPER.writeValue(stateFile.toFile(), state);
+		} catch (IOException e) {
+			getLog().warn("Could not write the state of the analysis to " + stateFile + ": " + e.getMessage());
+		}
+	}
+
+	private RoseauReport diff(Parallelism parallelism, Library oldLibrary, Optional<LibraryTypes> baselineApi,
+	                          Library newLibrary, Predicate<BreakingChange> stopCondition) {
+		// Both APIs are built in parallel, through the cache of the build, on the pool of the analysis rather than on
+		// the common pool shared with Maven and the other plug-ins. A failure on one side cancels the other
+		ReactorCache cache = cache();
+		List<API> apis;
+		try {
+			apis = Parallelism.both(
+				() -> baselineApi
+					.map(types -> cache.api(oldLibrary, types))
+					.orElseGet(() -> cache.api(oldLibrary)),
+				() -> cache.api(newLibrary),
+				List::of,
+				parallelism.compute());
+		} catch (RuntimeException e) {
+			throw new RoseauException("Failed to build diff", e);
+		}
+
+		API v1 = apis.getFirst();
+		API v2 = apis.getLast();
+		return parallelism.run(() -> stopCondition != null
+			? Roseau.diff(v1, v2, stopCondition)
+			: Roseau.diff(v1, v2));
+	}
+
+	/**
+	 * Exports API models to JSON files.
+	 *
+	 * @param module the analyzed module
+	 * @param report the RoseauReport containing the APIs
+	 * @throws MojoExecutionException if an error occurs while exporting APIs
+	 */
+	private void exportApis(MavenProject module, RoseauReport report) throws MojoExecutionException {
+		if (exportBaselineApi != null) {
+			exportApi(module, report.v1(), exportBaselineApi);
+		}
+
+		if (exportCurrentApi != null) {
+			exportApi(module, report.v2(), exportCurrentApi);
+		}
+	}
+
+	private void exportApi(MavenProject module, API api, Path path) throws MojoExecutionException {
+		try {
+			Path exportPath = path.isAbsolute() ? path : module.getBasedir().toPath().resolve(path);
+			makeParent(exportPath);
+			api.getLibraryTypes().writeJson(exportPath);
+			getLog().info("API exported to " + exportPath);
+		} catch (IOException e) {
+			throw new MojoExecutionException("Failed to export API to " + path, e);
+		}
+	}
+
+	private void attachApi(MavenProject module, API api) throws MojoExecutionException {
+		Path snapshot = apiSnapshot(module);
+		try {
+			makeParent(snapshot);
+			api.getLibraryTypes().writeJson(snapshot);
+		} catch (IOException e) {
+			throw new MojoExecutionException("Failed to write the API snapshot " + snapshot, e);
+		}
+
+		projectHelper.attachArtifact(module, API_EXTENSION, API_CLASSIFIER, snapshot.toFile());
+		getLog().info("API snapshot attached: " + snapshot);
+	}
+
+	private static Path apiSnapshot(MavenProject module) {
+		return Path.of(module.getBuild().getDirectory(),
+			"%s-%s.%s".formatted(module.getBuild().getFinalName(), API_CLASSIFIER, API_EXTENSION));
+	}
+
+	/**
+	 * Writes reports to configured output files.
+	 *
+	 * @param parallelism the executors of the build
+	 * @param module      the analyzed module
+	 * @param report      the RoseauReport to format and write
+	 */
+	private void writeReports(Parallelism parallelism, MavenProject module, RoseauReport report,
+	                          List<RoseauOptions.Report> reportConfigs) {
+		if (reportConfigs == null || reportConfigs.isEmpty()) {
+			return;
+		}
+
+		// Reports share the same immutable report and are written in parallel, on the compute pool of the build
+		parallelism.run(() -> {
+			reportConfigs.parallelStream().forEach(config -> {
+				Path outputPath = resolveReportPath(module, config.file());
+				try {
+					makeParent(outputPath);
+					report.writeReport(config.format(), outputPath);
+					getLog().info(String.format("%s report written to %s", config.format(), outputPath));
+				} catch (IOException e) {
+					getLog().error(String.format("Failed to write %s report to %s: %s",
+						config.format(), outputPath, e.getMessage()));
+				}
+			});
+			return null;
+		});
+	}
+
+	/**
+	 * Loads the complete configuration, merging YAML config file with Maven parameters.
+	 * Maven parameters take precedence over YAML configuration.
+	 *
+	 * @param module   the analyzed module
+	 * @param baseline the baseline dependency, or null if the baseline is a local JAR
+	 * @param oldJar   the path to the baseline JAR
+	 * @param newJar   the path to the current JAR
+	 * @return the final RoseauOptions instance
+	 * @throws MojoExecutionException if YAML file cannot be loaded
+	 */
+	private RoseauOptions loadConfiguration(MavenProject module, Dependency baseline, Path oldJar, Path newJar)
+		throws MojoExecutionException {
+		// Start with default configuration
+		RoseauOptions options = RoseauOptions.newDefault();
+		Path resolvedConfigFile = resolvePath(module, configFile);
+
+		// Load and merge YAML configuration if enabled
+		if (resolvedConfigFile != null) {
+			try {
+				RoseauOptions yamlOptions = RoseauOptions.load(resolvedConfigFile);
+				options = options.mergeWith(yamlOptions);
+				getLog().info("Loaded configuration from " + resolvedConfigFile);
+			} catch (RoseauException e) {
+				throw new MojoExecutionException("Could not load configuration file " + resolvedConfigFile, e);
+			}
+		}
+
+		// Load and merge Maven configuration
+		RoseauOptions mavenOptions = buildMavenOptions(module, baseline, oldJar, newJar);
+		options = options.mergeWith(mavenOptions);
+		options = normalizePaths(module, options);
+
+		getLog().debug("Roseau options = " + options);
+		return options;
+	}
+
+	/**
+	 * Builds RoseauOptions from Maven configuration parameters.
+	 *
+	 * @param module   the analyzed module
+	 * @param baseline the baseline dependency, or null if the baseline is a local JAR
+	 * @param oldJar   the path to the baseline JAR
+	 * @param newJar   the path to the current JAR
+	 * @return the RoseauOptions instance
+	 */
+	private RoseauOptions buildMavenOptions(MavenProject module, Dependency baseline, Path oldJar, Path newJar) {
+		// Resolve project classpath if enabled
+		List<Path> projectClasspath = resolveProjectClasspath(module);
+
+		// Merge with manual classpath
+		List<Path> mergedClasspath = new ArrayList<>();
+		if (classpath != null && !classpath.isEmpty()) {
+			mergedClasspath.addAll(resolvePaths(module, classpath));
+		}
+		mergedClasspath.addAll(projectClasspath);
+
+		// Resolve baseline classpath
+		List<Path> baselineClasspathResolved = new ArrayList<>();
+		if (baselineClasspath != null && !baselineClasspath.isEmpty()) {
+			baselineClasspathResolved.addAll(resolvePaths(module, baselineClasspath));
+		}
+		if (baseline != null) {
+			baselineClasspathResolved.addAll(cache().baselineClasspath(toCoordinates(baseline),
+				() -> resolveBaselineClasspath(baseline)));
+		}
+
+		// Build Common configuration (classpath + exclusions)
+		RoseauOptions.Classpath commonClasspath = new RoseauOptions.Classpath(resolvePath(module, classpathPom),
+			mergedClasspath);
+		RoseauOptions.Exclude commonExclude = new RoseauOptions.Exclude(List.of(), List.of());
+		RoseauOptions.Common common = new RoseauOptions.Common(commonClasspath, commonExclude,
+			packages != null ? List.copyOf(packages) : List.of());
+
+		// Build Library v1 (baseline)
+		RoseauOptions.Classpath v1Classpath = new RoseauOptions.Classpath(
+			resolvePath(module, baselineClasspathPom), baselineClasspathResolved);
+		RoseauOptions.Library v1 = new RoseauOptions.Library(
+			oldJar, v1Classpath, new RoseauOptions.Exclude(List.of(), List.of()), resolvePath(module, exportBaselineApi));
+
+		// Build Library v2 (current)
+		RoseauOptions.Classpath v2Classpath = new RoseauOptions.Classpath(null, List.of());
+		RoseauOptions.Library v2 = new RoseauOptions.Library(
+			newJar, v2Classpath, new RoseauOptions.Exclude(List.of(), List.of()), resolvePath(module, exportCurrentApi));
+
+		RoseauOptions.Diff diff = new RoseauOptions.Diff(null, sourceOnly, binaryOnly);
+
+		// Build Reports list
+		List<RoseauOptions.Report> reportsList = reports != null
+			? reports.stream()
+			.map(ReportConfig::toRoseauReport)
+			.filter(Objects::nonNull)
+			.toList()
+			: List.of();
+
+		return new RoseauOptions(common, v1, v2, diff, reportsList);
+	}
+
+	/**
+	 * Resolves the module's compile and runtime dependencies from the classpath.
+	 *
+	 * @param module the analyzed module
+	 * @return a list of paths to the dependency JARs
+	 */
+	private static List<Path> resolveProjectClasspath(MavenProject module) {
+		return module.getArtifacts().stream()
+			.filter(artifact -> "compile".equals(artifact.getScope()))
+			.map(org.apache.maven.artifact.Artifact::getFile)
+			.filter(file -> file != null && Files.isRegularFile(file.toPath()))
+			.map(File::toPath)
+			.toList();
+	}
+
+	/**
+	 * Resolves the baseline artifact and its transitive dependencies.
+	 *
+	 * @param baseline the baseline dependency
+	 * @return a list of paths to the baseline dependency JARs, or empty if resolution fails
+	 */
+	private Optional<List<Path>> resolveBaselineClasspath(Dependency baseline) {
+		try {
+			Artifact artifact = new DefaultArtifact(toCoordinates(baseline));
+
+			// Create a dependency request with transitive resolution
+			DependencyFilter filter = DependencyFilterUtils.classpathFilter(JavaScopes.COMPILE);
+
+			CollectRequest collectRequest = new CollectRequest()
+				.setRoot(new org.eclipse.aether.graph.Dependency(artifact, JavaScopes.COMPILE))
+				.setRepositories(remoteRepositories);
+
+			DependencyRequest dependencyRequest = new DependencyRequest(collectRequest, filter);
+
+			var result = repositorySystem.resolveDependencies(repositorySystemSession, dependencyRequest);
+			return Optional.of(result.getArtifactResults().stream()
+				.map(ArtifactResult::getArtifact)
+				.map(Artifact::getFile)
+				.filter(file -> file != null && Files.isRegularFile(file.toPath()))
+				.map(File::toPath)
+				.toList());
+		} catch (DependencyResolutionException e) {
+			getLog().warn("Could not resolve baseline dependencies: " + e.getMessage());
+			return Optional.empty();
+		}
+	}
+
+	private Predicate<BreakingChange> failFastCondition(RoseauOptions options) {
+		if (!failFast || !(failOnIncompatibility || failOnBinaryIncompatibility || failOnSourceIncompatibility)) {
+			return null;
+		}
+
+		return RoseauReport.reportedBy(options.diff()).and(bc -> failOnIncompatibility ||
+			(failOnBinaryIncompatibility && bc.kind().isBinaryBreaking()) ||
+			(failOnSourceIncompatibility && bc.kind().isSourceBreaking()));
+	}
+
+	private static boolean wantsFullReport(RoseauOptions options) {
+		return !options.reports().isEmpty() || options.v1().apiReport() != null || options.v2().apiReport() != null;
+	}
+
+	/**
+	 * Returns the packaged artifact of a module or, when the module is not packaged yet, its compiled classes.
+	 */
+	private static Optional<Path> resolveCurrentArtifact(MavenProject module) {
+		org.apache.maven.artifact.Artifact artifact = module.getArtifact();
+		File jar = artifact.getFile();
+		if (jar != null && Files.isRegularFile(jar.toPath())) {
+			return Optional.of(jar.toPath());
+		}
+
+		Path classes = Path.of(module.getBuild().getOutputDirectory());
+		if (Files.isDirectory(classes) && !isEmpty(classes)) {
+			return Optional.of(classes);
+		}
+
+		return Optional.empty();
+	}
+
+	private static boolean isEmpty(Path directory) {
+		try (Stream<Path> entries = Files.list(directory)) {
+			return entries.findAny().isEmpty();
+		} catch (IOException e) {
+			return true;
+		}
+	}
+
+	/**
+	 * Resolves the artifact of a baseline.
+	 */
+	private Optional<Path> resolveBaseline(Dependency baseline) {
+		return cache().baseline(toCoordinates(baseline), () -> resolveBaselineDependency(baseline));
+	}
+
+	/**
+	 * Resolves the types of the API snapshot published with a baseline, if it should be used and there is one. A
+	 * snapshot extracted from other packages than the analyzed ones cannot stand for the baseline and is ignored.
+	 */
+	private Optional<LibraryTypes> resolveBaselineApi(Dependency baseline, List<String> analyzedPackages) {
+		if (!useBaselineApi || !isBlank(baseline.getClassifier())) {
+			return Optional.empty();
+		}
+
+		Optional<LibraryTypes> snapshot = cache().baselineSnapshot(toCoordinates(baseline),
+			() -> resolveBaselineSnapshot(baseline));
+		if (snapshot.isPresent() && !snapshot.get().getLibrary().getPackages().equals(analyzedPackages)) {
+			getLog().info("Ignoring the API snapshot of the baseline, extracted from packages " +
+				snapshot.get().getLibrary().getPackages() + " rather than " + analyzedPackages);
+			return Optional.empty();
+		}
+		return snapshot;
+	}
+
+	private static Library withExtractor(Library library, ExtractorType extractor) {
+		if (extractor == library.getExtractorType() || extractor == ExtractorType.JDT && !library.isSourcesJar()) {
+			return library;
+		}
+
+		return Library.builder()
+			.location(library.getLocation())
+			.classpath(library.getCustomClasspath())
+			.pom(library.getPom())
+			.exclusions(library.getExclusions())
+			.packages(library.getPackages())
+			.extractorType(extractor)
+			.build();
+	}
+
+	private Optional<LibraryTypes> resolveBaselineSnapshot(Dependency baseline) {
+		Artifact artifact = new DefaultArtifact(baseline.getGroupId(), baseline.getArtifactId(), API_CLASSIFIER,
+			API_EXTENSION, baseline.getVersion());
+		try {
+			ArtifactRequest request = new ArtifactRequest()
+				.setArtifact(artifact)
+				.setRepositories(remoteRepositories);
+
+			File resolved = repositorySystem.resolveArtifact(repositorySystemSession, request).getArtifact().getFile();
+			if (resolved != null && Files.isRegularFile(resolved.toPath())) {
+				LibraryTypes types = LibraryTypes.fromJson(resolved.toPath());
+				getLog().info("Using the API snapshot of the baseline " + resolved);
+				return Optional.of(types);
+			}
+		} catch (ArtifactResolutionException e) {
+			getLog().debug("No API snapshot for " + toCoordinates(baseline) + ": " + e.getMessage());
+		} catch (IOException e) {
+			getLog().warn("Ignoring unreadable API snapshot " + artifact + ": " + e.getMessage());
+		}
+
+		return Optional.empty();
+	}
+
+	private Optional<Path> resolveBaselineDependency(Dependency baseline) {
+		try {
+			Artifact artifact = new DefaultArtifact(toCoordinates(baseline));
+			ArtifactRequest request = new ArtifactRequest()
+				.setArtifact(artifact)
+				.setRepositories(remoteRepositories);
+
+			ArtifactResult result = repositorySystem.resolveArtifact(repositorySystemSession, request);
+			File resolved = result.getArtifact().getFile();
+			if (resolved != null && Files.isRegularFile(resolved.toPath())) {
+				return Optional.of(resolved.toPath());
+			}
+		} catch (ArtifactResolutionException e) {
+			getLog().warn("Could not resolve baseline artifact " + toCoordinates(baseline) + ": "
+				+ e.getMessage());
+		}
+
+		return Optional.empty();
+	}
+
+	/**
+	 * Returns the baseline dependency of a module, following the precedence of the baseline parameters.
+	 *
+	 * @param module the analyzed module
+	 * @return the baseline dependency, or null if the baseline is a local JAR or is not specified
+	 * @throws MojoExecutionException if {@code baselineCoordinates} are invalid
+	 */
+	private Dependency baselineDependencyOf(MavenProject module) throws MojoExecutionException {
+		if (baselineCoordinates != null && !baselineCoordinates.isBlank()) {
+			return parseBaselineCoordinates(baselineCoordinates);
+		}
+
+		if (baselineDependency != null && baselineDependency.getArtifactId() != null) {
+			return baselineDependency;
+		}
+
+		if (baselineVersion != null && !baselineVersion.isBlank()) {
+			Dependency dep = new Dependency();
+			dep.setGroupId(module.getGroupId());
+			dep.setArtifactId(module.getArtifactId());
+			dep.setVersion(baselineVersion);
+			return dep;
+		}
+
+		return null;
+	}
+
+	private static Dependency parseBaselineCoordinates(String coordinates) throws MojoExecutionException {
+		String[] parts = coordinates.split(":");
+		if (parts.length < 3 || parts.length > 5) {
+			throw new MojoExecutionException(
+				"Invalid baseline coordinates '" + coordinates +
+					"'; expected groupId:artifactId:version[:extension[:classifier]].");
+		}
+
+		Dependency dep = new Dependency();
+		dep.setGroupId(parts[0]);
+		dep.setArtifactId(parts[1]);
+
+		switch (parts.length) {
+			case 3 -> dep.setVersion(parts[2]);
+			case 4 -> {
+				dep.setType(parts[2]);
+				dep.setVersion(parts[3]);
+			}
+			case 5 -> {
+				dep.setType(parts[2]);
+				dep.setClassifier(parts[3]);
+				dep.setVersion(parts[4]);
+			}
+		}
+
+		if (isBlank(dep.getGroupId()) || isBlank(dep.getArtifactId()) || isBlank(dep.getVersion())) {
+			throw new MojoExecutionException(
+				"Invalid baseline coordinates '" + coordinates +
+					"'; groupId, artifactId, and version must not be blank.");
+		}
+
+		return dep;
+	}
+
+	private static String toCoordinates(Dependency dep) {
+		String type = dep.getType();
+		String classifier = dep.getClassifier();
+		boolean hasType = !isBlank(type);
+		boolean hasClassifier = !isBlank(classifier);
+
+		if (hasType && hasClassifier) {
+			return "%s:%s:%s:%s:%s".formatted(dep.getGroupId(), dep.getArtifactId(), type, classifier, dep.getVersion());
+		} else if (hasType) {
+			return "%s:%s:%s:%s".formatted(dep.getGroupId(), dep.getArtifactId(), type, dep.getVersion());
+		} else {
+			return "%s:%s:%s".formatted(dep.getGroupId(), dep.getArtifactId(), dep.getVersion());
+		}
+	}
+
+	private static boolean isValid(Dependency dep) {
+		return !isBlank(dep.getGroupId())
+			&& !isBlank(dep.getArtifactId())
+			&& !isBlank(dep.getVersion());
+	}
+
+	private static boolean isBlank(String value) {
+		return value == null || value.isBlank();
+	}
+
+	private static Path resolvePath(MavenProject module, Path path) {
+		if (path == null || path.isAbsolute()) {
+			return path;
+		}
+		return module.getBasedir().toPath().resolve(path);
+	}
+
+	private static List<Path> resolvePaths(MavenProject module, List<Path> paths) {
+		if (paths == null || paths.isEmpty()) {
+			return List.of();
+		}
+		return paths.stream()
+			.map(path -> resolvePath(module, path))
+			.toList();
+	}
+
+	private static RoseauOptions normalizePaths(MavenProject module, RoseauOptions options) {
+		RoseauOptions.Classpath commonClasspath = new RoseauOptions.Classpath(
+			resolvePath(module, options.common().classpath().pom()),
+			resolvePaths(module, options.common().classpath().jars())
+		);
+		RoseauOptions.Common common = new RoseauOptions.Common(commonClasspath, options.common().excludes(),
+			options.common().packages());
+
+		RoseauOptions.Classpath v1Classpath = new RoseauOptions.Classpath(
+			resolvePath(module, options.v1().classpath().pom()),
+			resolvePaths(module, options.v1().classpath().jars())
+		);
+		RoseauOptions.Library v1 = new RoseauOptions.Library(
+			resolvePath(module, options.v1().location()),
+			v1Classpath,
+			options.v1().excludes(),
+			resolvePath(module, options.v1().apiReport()),
+			options.v1().packages()
+		);
+
+		RoseauOptions.Classpath v2Classpath = new RoseauOptions.Classpath(
+			resolvePath(module, options.v2().classpath().pom()),
+			resolvePaths(module, options.v2().classpath().jars())
+		);
+		RoseauOptions.Library v2 = new RoseauOptions.Library(
+			resolvePath(module, options.v2().location()),
+			v2Classpath,
+			options.v2().excludes(),
+			resolvePath(module, options.v2().apiReport()),
+			options.v2().packages()
+		);
+
+		RoseauOptions.Diff diff = new RoseauOptions.Diff(
+			resolvePath(module, options.diff().ignore()),
+			options.diff().sourceOnly(),
+			options.diff().binaryOnly()
+		);
+
+		return new RoseauOptions(common, v1, v2, diff, options.reports(), options.performance());
+	}
+
+	private Path resolveReportPath(MavenProject module, Path reportPath) {
+		Path moduleReportDirectory = resolvePath(module, reportDirectory(module));
+		if (reportPath.isAbsolute()) {
+			return reportPath;
+		}
+		if (moduleReportDirectory != null) {
+			return moduleReportDirectory.resolve(reportPath);
+		}
+		return resolvePath(module, reportPath);
+	}
+
+	/**
+	 * Returns the directory relative report paths of a module are resolved against.
+	 *
+	 * @param module the analyzed module
+	 * @return the report directory of the module
+	 */
+	protected Path reportDirectory(MavenProject module) {
+		return reportDirectory.toPath();
+	}
+
+	/**
+	 * Configuration for report generation.
+	 */
+	public static class ReportConfig {
+		/**
+		 * Report file path. Relative paths are resolved against {@code reportDirectory}.
+		 */
+		@Parameter(required = true)
+		private String file;
+		/**
+		 * Report format (CSV, HTML, JSON, MD).
+		 */
+		@Parameter(required = true)
+		private String format;
+
+		/**
+		 * Converts this Maven configuration to a Roseau Report.
+		 *
+		 * @return the Roseau Report instance
+		 */
+		RoseauOptions.Report toRoseauReport() {
+			if (file == null || file.isBlank() || format == null || format.isBlank()) {
+				return null;
+			}
+			return new RoseauOptions.Report(Path.of(file),
+				BreakingChangesFormatterFactory.valueOf(format.toUpperCase(Locale.ROOT)));
+		}
+	}
+
+	private static void makeParent(Path path) throws IOException {
+		Path parentDir = path.getParent();
+		if (parentDir != null && !Files.exists(parentDir)) {
+			Files.createDirectories(parentDir);
+		}
+	}
+}
@@ -7,6 +7,7 @@ import io.github.alien.roseau.diff.changes.BreakingChangeDetails;
 import io.github.alien.roseau.diff.formatter.BreakingChangesFormatter;
 import org.apache.maven.plugin.logging.Log;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -24,28 +25,36 @@ public class MavenFormatter implements BreakingChangesFormatter {
 
 	@Override
 	public String format(RoseauReport report) {
-		List<BreakingChange> changes = report.getBreakingChanges();
-		if (changes.isEmpty()) {
+		if (report.getBreakingChanges().isEmpty()) {
 			log.info("No breaking changes found.");
 		}
 
+		lines(report).forEach(log::warn);
+		return "";
+	}
+
+	/**
+	 * Formats the breaking changes of a report as the lines logged by {@link #format(RoseauReport)}.
+	 *
+	 * @param report the report to format
+	 * @return the formatted lines
+	 */
+	static List<String> lines(RoseauReport report) {
+		List<BreakingChange> changes = report.getBreakingChanges();
 		int binaryBreaking = report.getBinaryBreakingChanges().size();
 		int sourceBreaking = report.getSourceBreakingChanges().size();
 
-		log.warn(String.format("Breaking Changes found: %d (%d binary-breaking, %d source-breaking)",
+		List<String> lines = new ArrayList<>();
+		lines.add(String.format("Breaking Changes found: %d (%d binary-breaking, %d source-breaking)",
 			changes.size(), binaryBreaking, sourceBreaking));
-
-		report.getBreakingChanges().forEach(this::formatBreakingChange);
-
-		return "";
-	}
-
-	private void formatBreakingChange(BreakingChange bc) {
-		String details = formatDetails(bc);
-		log.warn(String.format("%s %s%s", formatSymbol(bc), formatKind(bc),
-			details.isEmpty() ? "" : " [" + details + "]"));
-		log.warn("  " + formatCompatibility(bc));
-		log.warn("  " + formatLocation(bc));
+		changes.forEach(bc -> {
+			String details = formatDetails(bc);
+			lines.add(String.format("%s %s%s", formatSymbol(bc), formatKind(bc),
+				details.isEmpty() ? "" : " [" + details + "]"));
+			lines.add("  " + formatCompatibility(bc));
+			lines.add("  " + formatLocation(bc));
+		});
+		return lines;
 	}
 
 	private static String formatKind(BreakingChange bc) {
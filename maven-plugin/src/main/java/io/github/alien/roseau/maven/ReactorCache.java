@@ -0,0 +1,252 @@
+package io.github.alien.roseau.maven;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.github.alien.roseau.Library;
+import io.github.alien.roseau.Parallelism;
+import io.github.alien.roseau.Roseau;
+import io.github.alien.roseau.RoseauException;
+import io.github.alien.roseau.api.model.API;
+import io.github.alien.roseau.api.model.LibraryTypes;
+import io.github.alien.roseau.api.resolution.ClasspathTypeCache;
+import io.github.alien.roseau.options.RoseauOptions;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Caches shared by all the Roseau executions of a build session, whether modules are built sequentially or in parallel
+ * ({@code -T}): the types read from the JDK and from classpath JARs, the resolved baseline artifacts and their
+ * classpath, the API snapshots published with baselines, and the extracted APIs. Modules of a reactor share most of
+ * their classpath, so that each JAR is only read once per build instead of once per module.
+ * <p>
+ * Baseline work can also be started early in the build (see {@link RoseauPrepareMojo}) on background threads, so that
+ * it overlaps compilation and tests; later lookups wait for the work in progress instead of starting it again. Failed
+ * lookups are not remembered: the next lookup tries again.
+ * <p>
+ * Analyses also share the executors they run on, so that modules built in parallel do not each start a pool of their
+ * own. The cache is stored in the data of the resolver session, which lives as long as the build, and its executors
+ * are closed when the repository system shuts down at the end of the build. This class is thread-safe.
+ */
+final class ReactorCache {
+	private final ClasspathTypeCache classpathTypes = new ClasspathTypeCache(CLASSPATH_CACHE_SIZE);
+	private final Map<String, CompletableFuture<Optional<Path>>> baselines = new ConcurrentHashMap<>();
+	private final Map<String, CompletableFuture<Optional<List<Path>>>> baselineClasspaths = new ConcurrentHashMap<>();
+	private final Map<String, CompletableFuture<Optional<LibraryTypes>>> baselineSnapshots = new ConcurrentHashMap<>();
+	// APIs can be large: let the collector reclaim them under memory pressure
+	private final Cache<Library, API> apis = CacheBuilder.newBuilder().softValues().build();
+	private final Map<Path, CompletableFuture<LibraryTypes>> snapshots = new ConcurrentHashMap<>();
+	private final AtomicReference<Parallelism> parallelism = new AtomicReference<>();
+	// Daemon threads, so that a build never waits for work nobody needs anymore
+	private final ExecutorService background = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+		.setNameFormat("roseau-background-%d")
+		.setDaemon(true)
+		.build());
+
+	private static final long CLASSPATH_CACHE_SIZE = 200_000L;
+
+	ReactorCache() {
+	}
+
+	/**
+	 * Returns the cache of the supplied session, creating it on first use.
+	 *
+	 * @param system  the repository system of the build, whose shutdown closes the cache
+	 * @param session the resolver session of the build
+	 * @return the cache of the session
+	 */
+	static ReactorCache of(RepositorySystem system, RepositorySystemSession session) {
+		// Keyed by class, so that different versions of the plug-in in the same build do not share their cache
+		return (ReactorCache) session.getData().computeIfAbsent(ReactorCache.class, () -> {
+			ReactorCache cache = new ReactorCache();
+			system.addOnSystemEndedHandler(cache::close);
+			return cache;
+		});
+	}
+
+	/**
+	 * Returns the executors shared by the analyses of the build, created with the options of the first analysis that
+	 * asks for them.
+	 *
+	 * @param options the performance options of the analysis
+	 * @return the executors of the build
+	 */
+	Parallelism parallelism(RoseauOptions.Performance options) {
+		Parallelism current = parallelism.get();
+		if (current != null) {
+			return current;
+		}
+
+		Parallelism created = Parallelism.of(options);
+		if (parallelism.compareAndSet(null, created)) {
+			return created;
+		}
+		created.close();
+		return parallelism.get();
+	}
+
+	/**
+	 * Closes the executors of the build and cancels the background work still running.
+	 */
+	void close() {
+		Parallelism current = parallelism.getAndSet(null);
+		if (current != null) {
+			current.close();
+		}
+		background.shutdownNow();
+	}
+
+	/**
+	 * Resolves a baseline artifact once per build.
+	 *
+	 * @param coordinates the coordinates of the artifact
+	 * @param resolver    resolves the artifact until it succeeds
+	 * @return the resolved artifact, or empty if it cannot be resolved
+	 */
+	Optional<Path> baseline(String coordinates, Supplier<Optional<Path>> resolver) {
+		return resolveOnce(baselines, coordinates, resolver);
+	}
+
+	/**
+	 * Resolves the classpath of a baseline artifact once per build.
+	 *
+	 * @param coordinates the coordinates of the artifact
+	 * @param resolver    resolves the classpath until it succeeds
+	 * @return the classpath of the artifact, or an empty list if it cannot be resolved
+	 */
+	List<Path> baselineClasspath(String coordinates, Supplier<Optional<List<Path>>> resolver) {
+		return resolveOnce(baselineClasspaths, coordinates, resolver).orElse(List.of());
+	}
+
+	/**
+	 * Resolves and reads the API snapshot published with a baseline artifact once per build.
+	 *
+	 * @param coordinates the coordinates of the baseline artifact
+	 * @param resolver    resolves and reads the snapshot until it succeeds
+	 * @return the types read from the snapshot, or empty if the baseline has no readable snapshot
+	 */
+	Optional<LibraryTypes> baselineSnapshot(String coordinates, Supplier<Optional<LibraryTypes>> resolver) {
+		return resolveOnce(baselineSnapshots, coordinates, resolver);
+	}
+
+	/**
+	 * Runs the resolver of a key on the calling thread, unless another thread already resolved or is resolving it, in
+	 * which case its outcome is shared. Resolution happens outside of the map, so that resolving a key never blocks
+	 * lookups of other keys. Empty or failed resolutions are forgotten, so that later lookups try again.
+	 */
+	private static <T> Optional<T> resolveOnce(Map<String, CompletableFuture<Optional<T>>> resolutions, String key,
+	                                           Supplier<Optional<T>> resolver) {
+		CompletableFuture<Optional<T>> resolution = new CompletableFuture<>();
+		CompletableFuture<Optional<T>> existing = resolutions.putIfAbsent(key, resolution);
+		if (existing != null) {
+			try {
+				return existing.join();
+			} catch (CompletionException e) {
+				throw e.getCause() instanceof RuntimeException cause ? cause : e;
+			}
+		}
+
+		try {
+			Optional<T> resolved = resolver.get();
+			if (resolved.isEmpty()) {
+				resolutions.remove(key, resolution);
+			}
+			resolution.complete(resolved);
+			return resolved;
+		} catch (RuntimeException | Error e) {
+			resolutions.remove(key, resolution);
+			resolution.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Runs a task on a background thread. Failures are ignored: the work is done again, and its failures reported, when
+	 * its result is needed.
+	 *
+	 * @param task the task to run
+	 */
+	void inBackground(Runnable task) {
+		CompletableFuture.runAsync(task, background);
+	}
+
+	/**
+	 * Starts extracting the types of a JAR file in the background, unless already started.
+	 *
+	 * @param jar the JAR file to extract
+	 */
+	void prepare(Path jar) {
+		snapshots.computeIfAbsent(jar.toAbsolutePath().normalize(),
+			j -> CompletableFuture.supplyAsync(() -> Roseau.buildLibraryTypes(Library.of(j)), background));
+	}
+
+	/**
+	 * Builds the API of a library once per build, reading platform and classpath types through the shared cache. If
+	 * the types of its JAR have been {@linkplain #prepare(Path) prepared}, these types are reused instead of being
+	 * extracted.
+	 *
+	 * @param library the library to build the API of
+	 * @return the API of the library
+	 * @throws RoseauException if the API cannot be built
+	 */
+	API api(Library library) {
+		return api(library, () -> types(library));
+	}
+
+	/**
+	 * Builds the API of a library from already known types once per build, e.g., the types of a
+	 * {@linkplain #baselineSnapshot(String, Supplier) published snapshot} standing for the library, reading platform
+	 * and classpath types through the shared cache.
+	 *
+	 * @param library the library to build the API of
+	 * @param types   the types of the library
+	 * @return the API of the library
+	 * @throws RoseauException if the API cannot be built
+	 */
+	API api(Library library, LibraryTypes types) {
+		return api(library, () -> bind(library, types));
+	}
+
+	private API api(Library library, Supplier<LibraryTypes> types) {
+		try {
+			return apis.get(library, () -> Roseau.buildAPI(types.get(), classpathTypes));
+		} catch (ExecutionException e) {
+			throw new RoseauException("Failed to build the API of " + library.getLocation(), e.getCause());
+		} catch (UncheckedExecutionException e) {
+			throw e.getCause() instanceof RuntimeException cause ? cause : e;
+		}
+	}
+
+	private LibraryTypes types(Library library) {
+		Path location = library.getLocation().toAbsolutePath().normalize();
+		CompletableFuture<LibraryTypes> prepared = library.isJar() ? snapshots.get(location) : null;
+		if (prepared == null) {
+			return Roseau.buildLibraryTypes(library);
+		}
+
+		try {
+			return bind(library, prepared.join());
+		} catch (CompletionException _) {
+			return Roseau.buildLibraryTypes(library);
+		}
+	}
+
+	// Reused types cover a whole library: bind them to the analyzed one, so that its classpath and scope apply
+	private static LibraryTypes bind(Library library, LibraryTypes types) {
+		return types.withLibrary(library);
+	}
+}
@@ -0,0 +1,124 @@
+package io.github.alien.roseau.maven;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Compares the artifacts of all the modules of the reactor with their baseline artifact at once, and reports API
+ * breaking changes module by module. Modules are analyzed concurrently in a single executor, sharing the types of
+ * their common dependencies; a failing module does not prevent the others from being analyzed.
+ * <p>
+ * This goal is meant to run once the artifacts of all modules are packaged, e.g., {@code mvn package roseau:aggregate}.
+ * It accepts the same parameters as {@code check}; as they are shared by all modules, the baseline of each module is
+ * usually given as a {@code baselineVersion} or as a {@code baselineJar} relative to each module. Relative report paths
+ * are resolved against the {@code target/roseau} directory of each module.
+ */
+@Mojo(
+	name = "aggregate",
+	aggregator = true,
+	threadSafe = true,
+	requiresOnline = true,
+	requiresDependencyResolution = ResolutionScope.COMPILE
+)
+public final class RoseauAggregateMojo extends AbstractRoseauMojo {
+	/**
+	 * Current Maven session.
+	 */
+	@Parameter(defaultValue = "${session}", required = true, readonly = true)
+	private MavenSession session;
+
+	/**
+	 * Maximum number of modules analyzed concurrently; defaults to the number of available processors.
+	 */
+	@Parameter(property = "roseau.threads")
+	private Integer threads;
+
+	private record Outcome(Analysis analysis, Exception failure) {
+	}
+
+	@Override
+	public void execute() throws MojoExecutionException {
+		configureLogging();
+
+		if (skip) {
+			getLog().info("Skipping.");
+			return;
+		}
+
+		List<MavenProject> modules = session.getProjects().stream()
+			.filter(module -> !module.getPackaging().equals("pom"))
+			.toList();
+		if (modules.isEmpty()) {
+			getLog().info("No module to analyze; skipping.");
+			return;
+		}
+
+		int parallelism = threads != null ? threads : Runtime.getRuntime().availableProcessors();
+		if (parallelism < 1) {
+			throw new MojoExecutionException("threads must be positive: " + parallelism);
+		}
+
+		// Outcomes are logged in reactor order once all modules complete, so that their output does not interleave
+		Map<MavenProject, CompletableFuture<Optional<Outcome>>> outcomes = new LinkedHashMap<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, modules.size()))) {
+			modules.forEach(module -> outcomes.put(module, CompletableFuture.supplyAsync(() -> {
+				try {
+					return analyze(module).map(analysis -> new Outcome(analysis, null));
+				} catch (MojoExecutionException | RuntimeException e) {
+					return Optional.of(new Outcome(null, e));
+				}
+			}, executor)));
+		}
+
+		List<String> failed = new ArrayList<>();
+		int analyzed = 0;
+		for (Map.Entry<MavenProject, CompletableFuture<Optional<Outcome>>> entry : outcomes.entrySet()) {
+			String name = entry.getKey().getArtifactId();
+			Optional<Outcome> outcome = entry.getValue().join();
+			getLog().info("--- " + name + " ---");
+			if (outcome.isEmpty()) {
+				continue;
+			}
+
+			analyzed++;
+			if (outcome.get().failure() != null) {
+				getLog().error(name + ": " + outcome.get().failure().getMessage());
+				failed.add(name);
+				continue;
+			}
+
+			Analysis analysis = outcome.get().analysis();
+			log(analysis);
+			List<String> failures = analysis.failures();
+			if (!failures.isEmpty()) {
+				getLog().error(name + ": " + failures.getFirst());
+				failed.add(name);
+			}
+		}
+
+		getLog().info("%d modules analyzed, %d skipped".formatted(analyzed, modules.size() - analyzed));
+		if (!failed.isEmpty()) {
+			throw new MojoExecutionException("Roseau failed for %d modules: %s".formatted(failed.size(),
+				String.join(", ", failed)));
+		}
+	}
+
+	@Override
+	protected Path reportDirectory(MavenProject module) {
+		return Path.of(module.getBuild().getDirectory(), "roseau");
+	}
+}
@@ -0,0 +1,42 @@
+package io.github.alien.roseau.maven;
+
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+
+/**
+ * Starts resolving and downloading the baseline artifact of the module, and extracting its API, on background threads
+ * at the very beginning of the build. A later {@code check} or {@code aggregate} in the same build waits for the work
+ * in progress instead of starting it over, so that the baseline latency overlaps compilation and tests instead of adding
+ * to the end of the build.
+ * <p>
+ * This goal accepts the same baseline parameters as {@code check} and never fails the build: errors are reported by
+ * {@code check}.
+ */
+@Mojo(
+	name = "prepare",
+	defaultPhase = LifecyclePhase.INITIALIZE,
+	threadSafe = true,
+	requiresOnline = true
+)
+public final class RoseauPrepareMojo extends AbstractRoseauMojo {
+	@Override
+	public void execute() {
+		configureLogging();
+
+		if (skip) {
+			getLog().info("Skipping.");
+			return;
+		}
+
+		if (project.getPackaging().equals("pom")) {
+			getLog().info("Packaging of the project is 'pom'; skipping.");
+			return;
+		}
+
+		if (prepare(project)) {
+			getLog().info("Preparing the baseline in the background.");
+		} else {
+			getLog().debug("No valid baseline to prepare.");
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package io.github.alien.roseau.maven;
+
+import io.github.alien.roseau.RoseauException;
+import io.github.alien.roseau.options.RoseauOptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReactorCacheTest {
+	static final Path JAR = Path.of("lib-1.0.jar");
+
+	@Test
+	void resolved_baselines_are_shared() {
+		var cache = new ReactorCache();
+		var calls = new AtomicInteger();
+
+		assertThat(cache.baseline("g:a:1.0", () -> {
+			calls.incrementAndGet();
+			return Optional.of(JAR);
+		})).contains(JAR);
+		assertThat(cache.baseline("g:a:1.0", () -> {
+			calls.incrementAndGet();
+			return Optional.empty();
+		})).contains(JAR);
+		assertThat(calls).hasValue(1);
+	}
+
+	@Test
+	@Timeout(value = 10, unit = TimeUnit.SECONDS)
+	void concurrent_lookups_wait_for_the_resolution_in_progress() throws Exception {
+		var cache = new ReactorCache();
+		var calls = new AtomicInteger();
+		var started = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+
+		var first = CompletableFuture.supplyAsync(() -> cache.baselineClasspath("g:a:1.0", () -> {
+			calls.incrementAndGet();
+			started.countDown();
+			await(release);
+			return Optional.of(List.of(JAR));
+		}));
+		started.await();
+		var second = CompletableFuture.supplyAsync(() -> cache.baselineClasspath("g:a:1.0", () -> {
+			calls.incrementAndGet();
+			return Optional.of(List.of());
+		}));
+
+		// Other keys are resolved while the first one is in progress
+		assertThat(cache.baselineClasspath("g:b:1.0", () -> Optional.of(List.of()))).isEmpty();
+		assertThat(second).isNotDone();
+
+		release.countDown();
+		assertThat(first.get()).containsExactly(JAR);
+		assertThat(second.get()).containsExactly(JAR);
+		assertThat(calls).hasValue(1);
+	}
+
+	@Test
+	void empty_resolutions_are_retried() {
+		var cache = new ReactorCache();
+
+		assertThat(cache.baseline("g:a:1.0", Optional::empty)).isEmpty();
+		assertThat(cache.baselineClasspath("g:a:1.0", Optional::empty)).isEmpty();
+
+		assertThat(cache.baseline("g:a:1.0", () -> Optional.of(JAR))).contains(JAR);
+		assertThat(cache.baselineClasspath("g:a:1.0", () -> Optional.of(List.of(JAR)))).containsExactly(JAR);
+	}
+
+	@Test
+	void failed_resolutions_are_rethrown_and_retried() {
+		var cache = new ReactorCache();
+		var failure = new RoseauException("offline");
+
+		assertThatThrownBy(() -> cache.baseline("g:a:1.0", () -> {
+			throw failure;
+		})).isSameAs(failure);
+
+		assertThat(cache.baseline("g:a:1.0", () -> Optional.of(JAR))).contains(JAR);
+	}
+
+	@Test
+	void executors_are_shared_until_closed() {
+		var cache = new ReactorCache();
+		var parallelism = cache.parallelism(new RoseauOptions.Performance(2, null, null));
+
+		assertThat(cache.parallelism(new RoseauOptions.Performance(4, null, null))).isSameAs(parallelism);
+		assertThat(parallelism.jobs()).isEqualTo(2);
+
+		cache.close();
+		assertThat(parallelism.compute().isShutdown()).isTrue();
+	}
+
+	static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+}
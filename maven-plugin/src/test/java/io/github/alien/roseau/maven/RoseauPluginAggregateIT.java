@@ -0,0 +1,35 @@
+package io.github.alien.roseau.maven;
+
+import com.soebes.itf.jupiter.extension.MavenGoal;
+import com.soebes.itf.jupiter.extension.MavenJupiterExtension;
+import com.soebes.itf.jupiter.extension.MavenProjectSources;
+import com.soebes.itf.jupiter.extension.MavenTest;
+import com.soebes.itf.jupiter.extension.SystemProperty;
+import com.soebes.itf.jupiter.maven.MavenExecutionResult;
+
+import static com.soebes.itf.extension.assertj.MavenITAssertions.assertThat;
+
+@MavenJupiterExtension
+@MavenGoal("package")
+@MavenGoal("roseau:aggregate")
+@MavenProjectSources(sources = "multi-module-paths-test")
+class RoseauPluginAggregateIT {
+	@MavenTest
+	void all_modules_are_analyzed_at_once(MavenExecutionResult result) {
+		var baseDir = result.getMavenProjectResult().getTargetProjectDirectory();
+		assertThat(result).isSuccessful();
+		assertThat(result).out().info()
+			.anyMatch(m -> m.contains("--- module-a ---"))
+			.anyMatch(m -> m.contains("--- module-b ---"))
+			.anyMatch(m -> m.contains("2 modules analyzed, 0 skipped"));
+		assertThat(baseDir.resolve("module-a/target/roseau/report.csv")).isRegularFile().isNotEmptyFile();
+		assertThat(baseDir.resolve("module-b/target/roseau/report.csv")).isRegularFile().isNotEmptyFile();
+	}
+
+	@SystemProperty("roseau.failOnIncompatibility")
+	@MavenTest
+	void failing_modules_are_listed(MavenExecutionResult result) {
+		assertThat(result).isFailure()
+			.out().error().anyMatch(m -> m.contains("Roseau failed for 2 modules: module-a, module-b"));
+	}
+}
@@ -195,6 +195,15 @@ class RoseauPluginIT {
 			assertThat(baseDir.resolve("target/foo/report.csv")).isRegularFile().isNotEmptyFile();
 			assertThat(baseDir.resolve("target/foo/report.html")).isRegularFile().isNotEmptyFile();
 		}
+
+		@SystemProperty("roseau.attachApi")
+		@MavenTest
+		void api_snapshot_is_attached(MavenExecutionResult result) {
+			var baseDir = result.getMavenProjectResult().getTargetProjectDirectory();
+			assertThat(result).isSuccessful()
+				.out().info().anyMatch(m -> m.contains("API snapshot attached"));
+			assertThat(baseDir.resolve("target/simple-module-0.1.0-roseau-api.json")).isRegularFile().isNotEmptyFile();
+		}
 	}
 
 	@Nested
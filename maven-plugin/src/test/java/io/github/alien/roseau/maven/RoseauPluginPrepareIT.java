@@ -0,0 +1,28 @@
+package io.github.alien.roseau.maven;
+
+import com.soebes.itf.jupiter.extension.MavenGoal;
+import com.soebes.itf.jupiter.extension.MavenJupiterExtension;
+import com.soebes.itf.jupiter.extension.MavenProjectSources;
+import com.soebes.itf.jupiter.extension.MavenTest;
+import com.soebes.itf.jupiter.maven.MavenExecutionResult;
+
+import static com.soebes.itf.extension.assertj.MavenITAssertions.assertThat;
+
+@MavenJupiterExtension
+@MavenGoal("roseau:prepare")
+@MavenGoal("compile")
+@MavenGoal("roseau:check")
+@MavenProjectSources(sources = "simple-module-test")
+class RoseauPluginPrepareIT {
+	@MavenTest
+	void prepared_baseline_is_compared_with_compiled_classes(MavenExecutionResult result) {
+		var baseDir = result.getMavenProjectResult().getTargetProjectDirectory();
+		assertThat(result).isSuccessful();
+		assertThat(result).out().info()
+			.anyMatch(m -> m.contains("Preparing the baseline in the background."));
+		assertThat(result).out().warn()
+			.anyMatch(m -> m.contains("pkg.I.foo() EXECUTABLE_REMOVED"))
+			.anyMatch(m -> m.contains("pkg.C.f FIELD_NOW_STATIC"));
+		assertThat(baseDir.resolve("target/simple-module-0.1.0.jar")).doesNotExist();
+	}
+}
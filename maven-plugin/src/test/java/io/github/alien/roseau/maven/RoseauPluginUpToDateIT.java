@@ -0,0 +1,35 @@
+package io.github.alien.roseau.maven;
+
+import com.soebes.itf.jupiter.extension.MavenGoal;
+import com.soebes.itf.jupiter.extension.MavenJupiterExtension;
+import com.soebes.itf.jupiter.extension.MavenProjectSources;
+import com.soebes.itf.jupiter.extension.MavenTest;
+import com.soebes.itf.jupiter.extension.SystemProperty;
+import com.soebes.itf.jupiter.maven.MavenExecutionResult;
+
+import static com.soebes.itf.extension.assertj.MavenITAssertions.assertThat;
+
+@MavenJupiterExtension
+@MavenGoal("verify")
+@MavenGoal("roseau:check")
+@MavenProjectSources(sources = "simple-module-test")
+class RoseauPluginUpToDateIT {
+	@MavenTest
+	void unchanged_analysis_is_restored(MavenExecutionResult result) {
+		var baseDir = result.getMavenProjectResult().getTargetProjectDirectory();
+		assertThat(result).isSuccessful();
+		assertThat(result).out().info()
+			.anyMatch(m -> m.contains("Inputs unchanged since the last analysis; restoring its outcome."));
+		assertThat(result).out().warn()
+			.filteredOn(m -> m.contains("pkg.I.foo() EXECUTABLE_REMOVED"))
+			.hasSize(2);
+		assertThat(baseDir.resolve("target/roseau/roseau-state.json")).isRegularFile();
+	}
+
+	@SystemProperty(value = "roseau.upToDateCheck", content = "false")
+	@MavenTest
+	void up_to_date_check_can_be_disabled(MavenExecutionResult result) {
+		assertThat(result).isSuccessful()
+			.out().info().noneMatch(m -> m.contains("Inputs unchanged since the last analysis"));
+	}
+}